@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Records a {@link ComponentEvaluationEvent} with Java Flight Recorder.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+@Name("at.ac.tuwien.kr.alpha.ComponentEvaluation")
+@Label("Stratified Component Evaluation")
+@Category({"Alpha", "Grounder"})
+@Description("Evaluation of a component of the stratified program part up to its fixed point")
+@StackTrace(false)
+public class JfrComponentEvaluationEvent extends jdk.jfr.Event implements ComponentEvaluationEvent {
+
+	@Label("Component")
+	private int componentId;
+
+	@Label("Rules")
+	@Description("Number of rules evaluated for the component")
+	private int rules;
+
+	@Label("Derived Facts")
+	@Description("Number of facts derived for the component")
+	private int derivedFacts;
+
+	@Override
+	public void setComponentId(int componentId) {
+		this.componentId = componentId;
+	}
+
+	@Override
+	public void setRules(int rules) {
+		this.rules = rules;
+	}
+
+	@Override
+	public void setDerivedFacts(int derivedFacts) {
+		this.derivedFacts = derivedFacts;
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Records a {@link ConflictEvent} with Java Flight Recorder.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+@Name("at.ac.tuwien.kr.alpha.Conflict")
+@Label("Conflict")
+@Category({"Alpha", "Solver"})
+@Description("Analysis of a conflict, learning of a nogood and backjumping")
+@StackTrace(false)
+public class JfrConflictEvent extends jdk.jfr.Event implements ConflictEvent {
+
+	@Label("Decision Level")
+	private int decisionLevel;
+
+	@Label("Backjump Level")
+	private int backjumpLevel;
+
+	@Label("Learned Size")
+	@Description("Number of literals of the learned nogood, 0 if none was learned")
+	private int learnedSize;
+
+	@Label("LBD")
+	@Description("Literal blocks distance of the learned nogood")
+	private int lbd;
+
+	@Override
+	public void setDecisionLevel(int decisionLevel) {
+		this.decisionLevel = decisionLevel;
+	}
+
+	@Override
+	public void setBackjumpLevel(int backjumpLevel) {
+		this.backjumpLevel = backjumpLevel;
+	}
+
+	@Override
+	public void setLearnedSize(int learnedSize) {
+		this.learnedSize = learnedSize;
+	}
+
+	@Override
+	public void setLbd(int lbd) {
+		this.lbd = lbd;
+	}
+}
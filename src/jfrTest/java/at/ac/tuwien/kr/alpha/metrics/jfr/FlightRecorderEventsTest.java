@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.metrics.jfr;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class FlightRecorderEventsTest {
+
+	private static final String PROGRAM = "num(1..3). pigeon(P) :- num(P). hole(H) :- num(H). "
+			+ "in(P, H) :- pigeon(P), hole(H), not out(P, H). out(P, H) :- pigeon(P), hole(H), not in(P, H). "
+			+ "placed(P) :- in(P, H). :- pigeon(P), not placed(P). "
+			+ ":- in(P, H1), in(P, H2), H1 != H2. :- in(P1, H), in(P2, H), P1 != P2.";
+
+	@Test
+	public void solvingEmitsEvents() throws IOException {
+		assumeTrue(FlightRecorderEvents.ENABLED);
+		Path dump = Files.createTempFile("alpha", ".jfr");
+		try {
+			try (Recording recording = new Recording()) {
+				recording.enable("at.ac.tuwien.kr.alpha.Grounding");
+				recording.enable("at.ac.tuwien.kr.alpha.ComponentEvaluation");
+				recording.enable("at.ac.tuwien.kr.alpha.Propagation").withoutThreshold();
+				recording.enable("at.ac.tuwien.kr.alpha.Conflict");
+				recording.enable("at.ac.tuwien.kr.alpha.AnswerSet");
+				recording.start();
+				Alpha system = new Alpha();
+				assertEquals(6, system.solve(system.readProgramString(PROGRAM)).count());
+				recording.stop();
+				recording.dump(dump);
+			}
+			List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+			Map<String, Long> eventCounts = events.stream()
+					.collect(Collectors.groupingBy(event -> event.getEventType().getName(), HashMap::new, Collectors.counting()));
+			assertTrue(eventCounts.get("at.ac.tuwien.kr.alpha.Grounding") > 0);
+			assertTrue(eventCounts.get("at.ac.tuwien.kr.alpha.ComponentEvaluation") > 0);
+			assertTrue(eventCounts.get("at.ac.tuwien.kr.alpha.Propagation") > 0);
+			assertTrue(eventCounts.get("at.ac.tuwien.kr.alpha.Conflict") > 0);
+			assertEquals(6L, (long) eventCounts.get("at.ac.tuwien.kr.alpha.AnswerSet"));
+		} finally {
+			Files.delete(dump);
+		}
+	}
+
+}
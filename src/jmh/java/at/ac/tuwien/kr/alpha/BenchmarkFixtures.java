@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.AtomStore;
+import at.ac.tuwien.kr.alpha.common.NoGood;
+import at.ac.tuwien.kr.alpha.common.program.InputProgram;
+import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.grounder.Grounder;
+import at.ac.tuwien.kr.alpha.grounder.GrounderFactory;
+import at.ac.tuwien.kr.alpha.solver.NoGoodStore;
+import at.ac.tuwien.kr.alpha.solver.WritableAssignment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Provides the programs in the {@code benchmarks} directory of the project as fixtures for micro-benchmarks.
+ * Fixtures are named by their path relative to that directory, e.g., {@code omiga/omiga-testcases/3col/3col-20-38.txt}.
+ * Benchmarks are expected to run with the project directory as working directory.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public final class BenchmarkFixtures {
+	public static final Path BENCHMARKS_DIRECTORY = Paths.get("benchmarks");
+
+	public static final String THREE_COL = "omiga/omiga-testcases/3col/3col-20-38.txt";
+	public static final String CUTEDGE = "omiga/omiga-testcases/cutedge/cutedge-100-30.txt";
+	public static final String LOCSTRAT = "omiga/omiga-testcases/locstrat/locstrat-200.txt";
+	public static final String RACKS = "siemens/racks/racks.lp";
+
+	private static final int MAX_GROUNDING_ROUNDS = 1000;
+
+	private BenchmarkFixtures() {
+		throw new AssertionError(BenchmarkFixtures.class.getSimpleName() + " is a non-instantiable utility class!");
+	}
+
+	public static String read(String fixture) throws IOException {
+		return new String(Files.readAllBytes(BENCHMARKS_DIRECTORY.resolve(fixture)), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Parses, normalizes and preprocesses the given fixture like {@link Alpha} does before grounding.
+	 */
+	public static InternalProgram preprocess(String fixture) throws IOException {
+		Alpha alpha = new Alpha();
+		InputProgram program = alpha.readProgramString(read(fixture));
+		return alpha.performProgramPreprocessing(InternalProgram.fromNormalProgram(alpha.normalizeProgram(program)));
+	}
+
+	public static Grounder createGrounder(InternalProgram program, AtomStore atomStore) {
+		return GrounderFactory.getInstance("naive", program, atomStore, false);
+	}
+
+	/**
+	 * Grounds the given program without an assignment, i.e., without restricting grounding to instances that may be
+	 * true, until no more nogoods are produced.
+	 *
+	 * @return all nogoods of the ground program, by their ids.
+	 */
+	public static Map<Integer, NoGood> groundCompletely(InternalProgram program, AtomStore atomStore) {
+		Grounder grounder = createGrounder(program, atomStore);
+		Map<Integer, NoGood> noGoods = new LinkedHashMap<>();
+		for (int round = 0; round < MAX_GROUNDING_ROUNDS; round++) {
+			Map<Integer, NoGood> newNoGoods = grounder.getNoGoods(null);
+			if (newNoGoods.isEmpty()) {
+				return noGoods;
+			}
+			noGoods.putAll(newNoGoods);
+		}
+		throw new IllegalStateException("Grounding did not terminate within " + MAX_GROUNDING_ROUNDS + " rounds.");
+	}
+
+	/**
+	 * Adds the given nogoods to the given store and propagates them at decision level 0.
+	 *
+	 * @throws IllegalStateException if the nogoods are conflicting at decision level 0.
+	 */
+	public static void addAndPropagate(Map<Integer, NoGood> noGoods, AtomStore atomStore, WritableAssignment assignment, NoGoodStore store) {
+		assignment.growForMaxAtomId();
+		store.growForMaxAtomId(atomStore.getMaxAtomId());
+		for (Map.Entry<Integer, NoGood> entry : noGoods.entrySet()) {
+			if (store.add(entry.getKey(), entry.getValue()) != null) {
+				throw new IllegalStateException("Nogood " + entry.getValue() + " is violated at decision level 0.");
+			}
+		}
+		if (store.propagate() != null) {
+			throw new IllegalStateException("Propagation at decision level 0 yields a conflict.");
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.ref.WeakReference;
+import java.util.Random;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Measures contended interning from several threads, comparing {@link Interner} with the previous implementation that
+ * synchronized on a {@link WeakHashMap}. {@link #internExisting(Keys)} interns copies of strings whose canonical instances
+ * are kept alive (the common case of terms and predicates occurring again), {@link #internNew(Keys)} interns strings that
+ * have not been seen before and become garbage right away.
+ *
+ * The number of threads can be changed with the JMH option {@code -t}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+public class InternerBenchmark {
+	private static final int KEYS = 1 << 12;
+
+	@Param({"concurrent", "synchronized"})
+	public String interner;
+
+	private UnaryOperator<String> intern;
+	// Keeps the canonical instances reachable, so they stay in the pool.
+	private final String[] canonical = new String[KEYS];
+	private final AtomicInteger threads = new AtomicInteger();
+
+	@Setup
+	public void setUp() {
+		switch (interner) {
+			case "concurrent":
+				intern = new Interner<String>()::intern;
+				break;
+			case "synchronized":
+				intern = new WeakHashMapInterner<String>()::intern;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown interner: " + interner);
+		}
+		for (int i = 0; i < KEYS; i++) {
+			canonical[i] = intern.apply(key(i));
+		}
+	}
+
+	private static String key(int i) {
+		return "key" + i;
+	}
+
+	/**
+	 * Per-thread keys, such that creating them is not part of the measurement of {@link #internExisting(Keys)}.
+	 */
+	@State(Scope.Thread)
+	public static class Keys {
+		private final String[] copies = new String[KEYS];
+		private String prefix;
+		private int next;
+		private long fresh;
+
+		@Setup
+		public void setUp(InternerBenchmark benchmark) {
+			int thread = benchmark.threads.getAndIncrement();
+			Random random = new Random(thread);
+			for (int i = 0; i < KEYS; i++) {
+				// Equal to, but not identical with the canonical instance.
+				copies[i] = key(random.nextInt(KEYS));
+			}
+			prefix = "thread" + thread + "_";
+		}
+	}
+
+	@Benchmark
+	public String internExisting(Keys keys) {
+		String key = keys.copies[keys.next];
+		keys.next = (keys.next + 1) & (KEYS - 1);
+		return intern.apply(key);
+	}
+
+	@Benchmark
+	public String internNew(Keys keys) {
+		return intern.apply(keys.prefix + keys.fresh++);
+	}
+
+	/**
+	 * The implementation of {@link Interner} before it became lock-free.
+	 */
+	private static final class WeakHashMapInterner<T> {
+		private final WeakHashMap<T, WeakReference<T>> pool = new WeakHashMap<>();
+
+		synchronized T intern(T object) {
+			T res;
+			do {
+				WeakReference<T> ref = pool.get(object);
+				if (ref == null) {
+					ref = new WeakReference<>(object);
+					pool.put(object, ref);
+					res = object;
+				} else {
+					res = ref.get();
+				}
+			} while (res == null);
+			return res;
+		}
+	}
+}
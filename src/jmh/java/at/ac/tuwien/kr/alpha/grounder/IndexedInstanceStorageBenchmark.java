@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder;
+
+import at.ac.tuwien.kr.alpha.BenchmarkFixtures;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups in an {@link IndexedInstanceStorage} filled with the facts of the predicate of a benchmark program
+ * that has the most facts. Every position of the predicate is indexed.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IndexedInstanceStorageBenchmark {
+	@Param({BenchmarkFixtures.THREE_COL, BenchmarkFixtures.CUTEDGE, BenchmarkFixtures.LOCSTRAT, BenchmarkFixtures.RACKS})
+	public String fixture;
+
+	private IndexedInstanceStorage storage;
+	private List<Instance> instances;
+
+	@Setup
+	public void setUp() throws IOException {
+		InternalProgram program = BenchmarkFixtures.preprocess(fixture);
+		Predicate predicate = null;
+		Set<Instance> facts = Collections.emptySet();
+		for (Map.Entry<Predicate, Set<Instance>> entry : program.getFactsByPredicate().entrySet()) {
+			if (entry.getKey().getArity() > 0 && entry.getValue().size() > facts.size()) {
+				predicate = entry.getKey();
+				facts = entry.getValue();
+			}
+		}
+		if (predicate == null) {
+			throw new IllegalStateException("Fixture " + fixture + " has no facts with arguments.");
+		}
+		storage = new IndexedInstanceStorage(predicate, true);
+		for (int i = 0; i < predicate.getArity(); i++) {
+			storage.addIndexPosition(i);
+		}
+		for (Instance instance : facts) {
+			storage.addInstance(instance);
+		}
+		instances = new ArrayList<>(facts);
+	}
+
+	@Benchmark
+	public void getInstancesMatchingAtPosition(Blackhole blackhole) {
+		for (Instance instance : instances) {
+			for (int i = 0; i < instance.terms.size(); i++) {
+				blackhole.consume(storage.getInstancesMatchingAtPosition(instance.terms.get(i), i));
+			}
+		}
+	}
+
+	@Benchmark
+	public void containsInstance(Blackhole blackhole) {
+		for (Instance instance : instances) {
+			blackhole.consume(storage.containsInstance(instance));
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder;
+
+import at.ac.tuwien.kr.alpha.BenchmarkFixtures;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Substitution#specializeSubstitution(Literal, Instance, Substitution)} by unifying the positive body
+ * literals of the rules of a benchmark program with the facts of the respective predicates.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SubstitutionBenchmark {
+	private static final int MAX_PAIRS = 10000;
+
+	@Param({BenchmarkFixtures.THREE_COL, BenchmarkFixtures.CUTEDGE, BenchmarkFixtures.RACKS})
+	public String fixture;
+
+	private final List<Literal> literals = new ArrayList<>();
+	private final List<Instance> instances = new ArrayList<>();
+	private final Substitution empty = new Substitution();
+
+	@Setup
+	public void setUp() throws IOException {
+		InternalProgram program = BenchmarkFixtures.preprocess(fixture);
+		for (InternalRule rule : program.getRules()) {
+			for (Literal literal : rule.getPositiveBody()) {
+				if (!(literal instanceof BasicLiteral)) {
+					continue;
+				}
+				Set<Instance> facts = program.getFactsByPredicate().get(literal.getPredicate());
+				if (facts == null) {
+					continue;
+				}
+				for (Instance instance : facts) {
+					if (literals.size() >= MAX_PAIRS) {
+						return;
+					}
+					literals.add(literal);
+					instances.add(instance);
+				}
+			}
+		}
+		if (literals.isEmpty()) {
+			throw new IllegalStateException("Fixture " + fixture + " has no rule body literals matching facts.");
+		}
+	}
+
+	@Benchmark
+	public void specializeSubstitution(Blackhole blackhole) {
+		for (int i = 0; i < literals.size(); i++) {
+			blackhole.consume(Substitution.specializeSubstitution(literals.get(i), instances.get(i), empty));
+		}
+	}
+}
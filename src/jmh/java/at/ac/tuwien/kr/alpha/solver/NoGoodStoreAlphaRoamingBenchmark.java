@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import at.ac.tuwien.kr.alpha.BenchmarkFixtures;
+import at.ac.tuwien.kr.alpha.common.AtomStore;
+import at.ac.tuwien.kr.alpha.common.AtomStoreImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static at.ac.tuwien.kr.alpha.solver.ThriceTruth.FALSE;
+
+/**
+ * Measures unit propagation in {@link NoGoodStoreAlphaRoaming} on the completely grounded nogoods of a benchmark program.
+ * Each invocation assigns up to {@link #MAX_DECISIONS} unassigned atoms to false, propagating after each decision, and then
+ * backtracks to decision level 0 again.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NoGoodStoreAlphaRoamingBenchmark {
+	private static final int MAX_DECISIONS = 100;
+
+	@Param({BenchmarkFixtures.THREE_COL, BenchmarkFixtures.CUTEDGE, BenchmarkFixtures.RACKS})
+	public String fixture;
+
+	private AtomStore atomStore;
+	private TrailAssignment assignment;
+	private NoGoodStoreAlphaRoaming store;
+
+	@Setup
+	public void setUp() throws IOException {
+		atomStore = new AtomStoreImpl();
+		assignment = new TrailAssignment(atomStore);
+		store = new NoGoodStoreAlphaRoaming(assignment);
+		BenchmarkFixtures.addAndPropagate(BenchmarkFixtures.groundCompletely(BenchmarkFixtures.preprocess(fixture), atomStore), atomStore, assignment, store);
+	}
+
+	@Benchmark
+	public int decideAndPropagate() {
+		int decisions = 0;
+		for (int atom = 1; atom <= atomStore.getMaxAtomId() && decisions < MAX_DECISIONS; atom++) {
+			if (assignment.isAssigned(atom)) {
+				continue;
+			}
+			decisions++;
+			if (assignment.choose(atom, FALSE) != null || store.propagate() != null) {
+				break;
+			}
+		}
+		int assigned = assignment.getNumberOfAssignedAtoms();
+		while (assignment.getDecisionLevel() > 0) {
+			store.backtrack();
+		}
+		return assigned;
+	}
+}
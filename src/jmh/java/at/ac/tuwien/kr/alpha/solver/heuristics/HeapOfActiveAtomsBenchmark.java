@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver.heuristics;
+
+import at.ac.tuwien.kr.alpha.BenchmarkFixtures;
+import at.ac.tuwien.kr.alpha.common.AtomStore;
+import at.ac.tuwien.kr.alpha.common.AtomStoreImpl;
+import at.ac.tuwien.kr.alpha.common.NoGood;
+import at.ac.tuwien.kr.alpha.solver.ChoiceManager;
+import at.ac.tuwien.kr.alpha.solver.NoGoodStoreAlphaRoaming;
+import at.ac.tuwien.kr.alpha.solver.TrailAssignment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static at.ac.tuwien.kr.alpha.common.Literals.atomOf;
+
+/**
+ * Measures activity bookkeeping in {@link HeapOfActiveAtoms}, initialized with the completely grounded nogoods of a
+ * benchmark program. Each invocation increments the activities of the atoms of a fixed sequence of nogoods, similar to
+ * what happens after learning, and each increment is followed by polling the most active atom.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HeapOfActiveAtomsBenchmark {
+	private static final int BUMPED_NOGOODS = 100;
+
+	@Param({BenchmarkFixtures.THREE_COL, BenchmarkFixtures.CUTEDGE, BenchmarkFixtures.RACKS})
+	public String fixture;
+
+	private HeapOfActiveAtoms heapOfActiveAtoms;
+	private int[] bumpedAtoms;
+
+	@Setup
+	public void setUp() throws IOException {
+		AtomStore atomStore = new AtomStoreImpl();
+		Map<Integer, NoGood> noGoods = BenchmarkFixtures.groundCompletely(BenchmarkFixtures.preprocess(fixture), atomStore);
+		TrailAssignment assignment = new TrailAssignment(atomStore);
+		NoGoodStoreAlphaRoaming store = new NoGoodStoreAlphaRoaming(assignment);
+		ChoiceManager choiceManager = new ChoiceManager(assignment, store);
+		BenchmarkFixtures.addAndPropagate(noGoods, atomStore, assignment, store);
+		heapOfActiveAtoms = new HeapOfActiveAtoms(VSIDS.DEFAULT_DECAY_PERIOD, VSIDS.DEFAULT_DECAY_FACTOR, choiceManager);
+		heapOfActiveAtoms.growToCapacity(atomStore.getMaxAtomId() + 1);
+		heapOfActiveAtoms.newNoGoods(noGoods.values());
+
+		int numberOfLiterals = 0;
+		int bumped = 0;
+		for (NoGood noGood : noGoods.values()) {
+			if (bumped++ == BUMPED_NOGOODS) {
+				break;
+			}
+			numberOfLiterals += noGood.size();
+		}
+		bumpedAtoms = new int[numberOfLiterals];
+		int i = 0;
+		for (NoGood noGood : noGoods.values()) {
+			for (int j = 0; j < noGood.size() && i < bumpedAtoms.length; j++) {
+				bumpedAtoms[i++] = atomOf(noGood.getLiteral(j));
+			}
+		}
+	}
+
+	@Benchmark
+	public void incrementActivityAndPoll(Blackhole blackhole) {
+		for (int atom : bumpedAtoms) {
+			heapOfActiveAtoms.incrementActivity(atom);
+			blackhole.consume(heapOfActiveAtoms.getMostActiveAtom());
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver.learning;
+
+import at.ac.tuwien.kr.alpha.BenchmarkFixtures;
+import at.ac.tuwien.kr.alpha.common.AtomStore;
+import at.ac.tuwien.kr.alpha.common.AtomStoreImpl;
+import at.ac.tuwien.kr.alpha.common.NoGood;
+import at.ac.tuwien.kr.alpha.solver.Antecedent;
+import at.ac.tuwien.kr.alpha.solver.ConflictCause;
+import at.ac.tuwien.kr.alpha.solver.NoGoodStoreAlphaRoaming;
+import at.ac.tuwien.kr.alpha.solver.TrailAssignment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures conflict analysis of {@link GroundConflictNoGoodLearner}. During setup, random decisions (with a fixed seed)
+ * are made on the completely grounded nogoods of a benchmark program until propagation yields a conflict; the benchmark
+ * then repeatedly analyzes that conflict, which leaves the assignment unchanged.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GroundConflictNoGoodLearnerBenchmark {
+	private static final int MAX_ATTEMPTS = 100;
+
+	@Param({BenchmarkFixtures.THREE_COL, BenchmarkFixtures.RACKS})
+	public String fixture;
+
+	@Param({"0"})
+	public long seed;
+
+	private GroundConflictNoGoodLearner learner;
+	private Antecedent conflict;
+
+	@Setup
+	public void setUp() throws IOException {
+		AtomStore atomStore = new AtomStoreImpl();
+		Map<Integer, NoGood> noGoods = BenchmarkFixtures.groundCompletely(BenchmarkFixtures.preprocess(fixture), atomStore);
+		TrailAssignment assignment = new TrailAssignment(atomStore);
+		NoGoodStoreAlphaRoaming store = new NoGoodStoreAlphaRoaming(assignment);
+		BenchmarkFixtures.addAndPropagate(noGoods, atomStore, assignment, store);
+		Random random = new Random(seed);
+		List<Integer> atoms = new ArrayList<>();
+		for (int atom = 1; atom <= atomStore.getMaxAtomId(); atom++) {
+			atoms.add(atom);
+		}
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			Collections.shuffle(atoms, random);
+			ConflictCause conflictCause = null;
+			for (int i = 0; i < atoms.size() && conflictCause == null; i++) {
+				if (!assignment.isAssigned(atoms.get(i))) {
+					assignment.choose(atoms.get(i), random.nextBoolean());
+					conflictCause = store.propagate();
+				}
+			}
+			if (conflictCause != null) {
+				conflict = conflictCause.getAntecedent();
+				learner = new GroundConflictNoGoodLearner(assignment, atomStore);
+				return;
+			}
+			while (assignment.getDecisionLevel() > 0) {
+				store.backtrack();
+			}
+		}
+		throw new IllegalStateException("No conflict found for fixture " + fixture + " within " + MAX_ATTEMPTS + " attempts.");
+	}
+
+	@Benchmark
+	public GroundConflictNoGoodLearner.ConflictAnalysisResult analyzeConflictingNoGood() {
+		return learner.analyzeConflictingNoGood(conflict);
+	}
+}
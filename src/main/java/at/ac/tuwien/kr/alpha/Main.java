@@ -29,8 +29,7 @@
 
 import at.ac.tuwien.kr.alpha.api.Alpha;
 import at.ac.tuwien.kr.alpha.common.AnswerSet;
-import at.ac.tuwien.kr.alpha.common.AnswerSetFormatter;
-import at.ac.tuwien.kr.alpha.common.SimpleAnswerSetFormatter;
+import at.ac.tuwien.kr.alpha.common.answersetio.AnswerSetWriter;
 import at.ac.tuwien.kr.alpha.common.depgraph.ComponentGraph;
 import at.ac.tuwien.kr.alpha.common.depgraph.DependencyGraph;
 import at.ac.tuwien.kr.alpha.common.graphio.ComponentGraphWriter;
@@ -42,6 +41,9 @@
 import at.ac.tuwien.kr.alpha.config.AlphaConfig;
 import at.ac.tuwien.kr.alpha.config.CommandLineParser;
 import at.ac.tuwien.kr.alpha.config.InputConfig;
+import at.ac.tuwien.kr.alpha.metrics.MetricsRegistry;
+import at.ac.tuwien.kr.alpha.server.AlphaServer;
+import at.ac.tuwien.kr.alpha.solver.InterruptionReason;
 import at.ac.tuwien.kr.alpha.solver.Solver;
 import at.ac.tuwien.kr.alpha.solver.SolverMaintainingStatistics;
 import org.antlr.v4.runtime.RecognitionException;
@@ -54,6 +56,7 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.channels.Channels;
 import java.nio.file.Paths;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
@@ -95,6 +98,11 @@ public static void main(String[] args) {
 			Main.bailOut("Failed to parse program.", e);
 		}
 
+		if (cfg.getInputConfig().isServerMode()) {
+			Main.serve(cfg, program);
+			return;
+		}
+
 		NormalProgram normalized = alpha.normalizeProgram(program);
 		InternalProgram preprocessed;
 		InputConfig inputCfg = cfg.getInputConfig();
@@ -116,6 +124,9 @@ public static void main(String[] args) {
 			Main.writeInternalProgram(preprocessed, cfg.getInputConfig().getPreprocessedPath());
 		}
 		Main.computeAndConsumeAnswerSets(alpha, cfg.getInputConfig(), preprocessed);
+		if (cfg.getInputConfig().isWriteMetrics()) {
+			Main.writeMetrics(alpha.getMetrics(), cfg.getInputConfig().getMetricsPath());
+		}
 	}
 
 	/**
@@ -171,6 +182,25 @@ private static void writeInternalProgram(InternalProgram prg, String path) {
 		}
 	}
 
+	/**
+	 * Writes the given {@link MetricsRegistry} as JSON to the destination passed as the second parameter
+	 * 
+	 * @param metrics the metrics to write
+	 * @param path    the path to write the metrics to
+	 */
+	private static void writeMetrics(MetricsRegistry metrics, String path) {
+		LOGGER.debug("Writing metrics to {}", path);
+		if (path.equals(InputConfig.METRICS_STDOUT_PATH)) {
+			metrics.writeJson(System.out);
+			return;
+		}
+		try (PrintStream ps = new PrintStream(new File(path))) {
+			metrics.writeJson(ps);
+		} catch (IOException ex) {
+			Main.bailOut("Failed writing metrics file " + ex.getMessage());
+		}
+	}
+
 	private static void computeAndConsumeAnswerSets(Alpha alpha, InputConfig inputCfg, InternalProgram program) {
 		Solver solver = alpha.prepareSolverFor(program, inputCfg.getFilter());
 		Stream<AnswerSet> stream = solver.stream();
@@ -186,31 +216,39 @@ private static void computeAndConsumeAnswerSets(Alpha alpha, InputConfig inputCf
 		if (!alpha.getConfig().isQuiet()) {
 			AtomicInteger counter = new AtomicInteger(0);
 			final BiConsumer<Integer, AnswerSet> answerSetHandler;
-			final AnswerSetFormatter<String> fmt = new SimpleAnswerSetFormatter(alpha.getConfig().getAtomSeparator());
-			BiConsumer<Integer, AnswerSet> stdoutPrinter = (n, as) -> {
-				System.out.println("Answer set " + Integer.toString(n) + ":" + System.lineSeparator() + fmt.format(as));
-			};
+			// Answer sets are encoded directly into a buffer of standard output instead of being formatted as strings first.
+			final AnswerSetWriter answerSetWriter = AnswerSetWriter.getInstance(inputCfg.getAnswerSetFormat(), Channels.newChannel(System.out),
+					alpha.getConfig().getAtomSeparator());
 			if (inputCfg.isWriteAnswerSetsAsXlsx()) {
 				BiConsumer<Integer, AnswerSet> xlsxWriter = new AnswerSetToXlsxWriter(inputCfg.getAnswerSetFileOutputPath());
-				answerSetHandler = stdoutPrinter.andThen(xlsxWriter);
+				answerSetHandler = answerSetWriter.andThen(xlsxWriter);
 			} else {
-				answerSetHandler = stdoutPrinter;
+				answerSetHandler = answerSetWriter;
 			}
 			stream.forEach(as -> {
 				int cnt = counter.incrementAndGet();
 				answerSetHandler.accept(cnt, as);
 			});
-			if (counter.get() == 0) {
-				System.out.println("UNSATISFIABLE");
-				if (inputCfg.isWriteAnswerSetsAsXlsx()) {
-					try {
-						AnswerSetToXlsxWriter.writeUnsatInfo(Paths.get(inputCfg.getAnswerSetFileOutputPath() + ".UNSAT.xlsx"));
-					} catch (IOException ex) {
-						System.err.println("Failed writing unsat file!");
+			try {
+				InterruptionReason interruptionReason = alpha.getInterruptionReason();
+				if (interruptionReason != null) {
+					// The search was stopped before it was complete, hence the absence of (further) answer sets is not known.
+					answerSetWriter.writeResult(counter.get() == 0 ? "UNKNOWN" : "SATISFIABLE");
+					answerSetWriter.writeResult("INTERRUPTED (" + interruptionReason + ")");
+				} else if (counter.get() == 0) {
+					answerSetWriter.writeResult("UNSATISFIABLE");
+					if (inputCfg.isWriteAnswerSetsAsXlsx()) {
+						try {
+							AnswerSetToXlsxWriter.writeUnsatInfo(Paths.get(inputCfg.getAnswerSetFileOutputPath() + ".UNSAT.xlsx"));
+						} catch (IOException ex) {
+							System.err.println("Failed writing unsat file!");
+						}
 					}
+				} else {
+					answerSetWriter.writeResult("SATISFIABLE");
 				}
-			} else {
-				System.out.println("SATISFIABLE");
+			} catch (IOException ex) {
+				Main.bailOut("Error writing answer sets: " + ex.getMessage());
 			}
 		} else {
 			// Note: Even though we are not consuming the result, we will still compute
@@ -220,6 +258,26 @@ private static void computeAndConsumeAnswerSets(Alpha alpha, InputConfig inputCf
 		if (alpha.getConfig().isPrintStats()) {
 			((SolverMaintainingStatistics) solver).printStatistics();
 		}
+		if (alpha.getConfig().isProfileRules()) {
+			alpha.getMetrics().getRuleProfiler().printReport(System.out);
+		}
+	}
+
+	/**
+	 * Runs Alpha as a server that solves requests together with the given program, see {@link AlphaServer}.
+	 */
+	private static void serve(AlphaConfig cfg, InputProgram encoding) {
+		InputConfig inputCfg = cfg.getInputConfig();
+		try (AlphaServer server = new AlphaServer(cfg.getSystemConfig(), encoding, inputCfg.getPredicateMethods(), inputCfg.getFilter(),
+				inputCfg.getServerSessions())) {
+			if (InputConfig.SERVER_STDIO.equals(inputCfg.getServerEndpoint())) {
+				server.serve(System.in, System.out);
+			} else {
+				server.serve(Integer.parseInt(inputCfg.getServerEndpoint()));
+			}
+		} catch (IOException e) {
+			Main.bailOut("Server failed.", e);
+		}
 	}
 
 	private static void exitWithMessage(String msg, int exitCode) {
@@ -28,10 +28,12 @@
 package at.ac.tuwien.kr.alpha.api;
 
 import at.ac.tuwien.kr.alpha.Util;
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.AnswerSet;
 import at.ac.tuwien.kr.alpha.common.AtomStore;
 import at.ac.tuwien.kr.alpha.common.AtomStoreImpl;
 import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.SynchronizedAtomStore;
 import at.ac.tuwien.kr.alpha.common.fixedinterpretations.PredicateInterpretation;
 import at.ac.tuwien.kr.alpha.common.program.AnalyzedProgram;
 import at.ac.tuwien.kr.alpha.common.program.InputProgram;
@@ -44,7 +46,13 @@
 import at.ac.tuwien.kr.alpha.grounder.heuristics.GrounderHeuristicsConfiguration;
 import at.ac.tuwien.kr.alpha.grounder.parser.ProgramParser;
 import at.ac.tuwien.kr.alpha.grounder.transformation.NormalizeProgramTransformation;
+import at.ac.tuwien.kr.alpha.grounder.transformation.StratifiedAggregateRewriting;
 import at.ac.tuwien.kr.alpha.grounder.transformation.StratifiedEvaluation;
+import at.ac.tuwien.kr.alpha.metrics.MetricsRegistry;
+import at.ac.tuwien.kr.alpha.metrics.Timer;
+import at.ac.tuwien.kr.alpha.solver.CancellationHandle;
+import at.ac.tuwien.kr.alpha.solver.DatalogSolver;
+import at.ac.tuwien.kr.alpha.solver.InterruptionReason;
 import at.ac.tuwien.kr.alpha.solver.Solver;
 import at.ac.tuwien.kr.alpha.solver.SolverFactory;
 import org.antlr.v4.runtime.CharStream;
@@ -69,6 +77,9 @@ public class Alpha {
 
 	private SystemConfig config = new SystemConfig(); // The config is initialized with default values.
 
+	// Session state of this instance, which is not shared with other Alpha instances.
+	private final AlphaContext context = new AlphaContext();
+
 	public Alpha(SystemConfig cfg) {
 		this.config = cfg;
 	}
@@ -95,7 +106,9 @@ public InputProgram readProgramFiles(boolean literate, Map<String, PredicateInte
 	}
 
 	public InputProgram readProgramFiles(boolean literate, Map<String, PredicateInterpretation> externals, Path... paths) throws IOException {
-		ProgramParser parser = new ProgramParser(externals);
+		Timer parseTimer = context.getMetrics().timer(MetricsRegistry.PARSE);
+		long start = parseTimer.start();
+		ProgramParser parser = new ProgramParser(externals, context);
 		InputProgram.Builder prgBuilder = InputProgram.builder();
 		InputProgram tmpProg;
 		for (Path path : paths) {
@@ -108,12 +121,17 @@ public InputProgram readProgramFiles(boolean literate, Map<String, PredicateInte
 			tmpProg = parser.parse(stream);
 			prgBuilder.accumulate(tmpProg);
 		}
+		parseTimer.stop(start);
 		return prgBuilder.build();
 	}
 
 	public InputProgram readProgramString(String aspString, Map<String, PredicateInterpretation> externals) {
-		ProgramParser parser = new ProgramParser(externals);
-		return parser.parse(aspString);
+		Timer parseTimer = context.getMetrics().timer(MetricsRegistry.PARSE);
+		long start = parseTimer.start();
+		ProgramParser parser = new ProgramParser(externals, context);
+		InputProgram program = parser.parse(aspString);
+		parseTimer.stop(start);
+		return program;
 	}
 
 	public InputProgram readProgramString(String aspString) {
@@ -121,15 +139,23 @@ public InputProgram readProgramString(String aspString) {
 	}
 
 	public NormalProgram normalizeProgram(InputProgram program) {
-		return new NormalizeProgramTransformation(config.isUseNormalizationGrid()).apply(program);
+		Timer normalizationTimer = context.getMetrics().timer(MetricsRegistry.NORMALIZATION);
+		long start = normalizationTimer.start();
+		NormalProgram normalized = new NormalizeProgramTransformation(config.isUseNormalizationGrid(), config.isNativeAggregateConstraints(),
+			config.isEvaluateStratifiedPart(), context).apply(program);
+		normalizationTimer.stop(start);
+		return normalized;
 	}
 
 	public InternalProgram performProgramPreprocessing(InternalProgram program) {
 		LOGGER.debug("Preprocessing InternalProgram!");
 		InternalProgram retVal = program;
 		if (config.isEvaluateStratifiedPart()) {
-			AnalyzedProgram analyzed = new AnalyzedProgram(program.getRules(), program.getFacts());
-			retVal = new StratifiedEvaluation().apply(analyzed);
+			Timer stratifiedEvaluationTimer = context.getMetrics().timer(MetricsRegistry.STRATIFIED_EVALUATION);
+			long start = stratifiedEvaluationTimer.start();
+			AnalyzedProgram analyzed = new StratifiedAggregateRewriting().apply(program);
+			retVal = new StratifiedEvaluation(context).apply(analyzed);
+			stratifiedEvaluationTimer.stop(start);
 		}
 		return retVal;
 	}
@@ -138,7 +164,11 @@ public InternalProgram performProgramPreprocessing(AnalyzedProgram program) {
 		LOGGER.debug("Preprocessing AnalyzedProgram!");
 		InternalProgram retVal = program;
 		if (config.isEvaluateStratifiedPart()) {
-			retVal = new StratifiedEvaluation().apply(program);
+			Timer stratifiedEvaluationTimer = context.getMetrics().timer(MetricsRegistry.STRATIFIED_EVALUATION);
+			long start = stratifiedEvaluationTimer.start();
+			AnalyzedProgram analyzed = new StratifiedAggregateRewriting().apply(program);
+			retVal = new StratifiedEvaluation(context).apply(analyzed);
+			stratifiedEvaluationTimer.stop(start);
 		}
 		return retVal;
 	}
@@ -202,17 +232,61 @@ public Stream<AnswerSet> solve(InternalProgram program, java.util.function.Predi
 	 * @return a solver (and accompanying grounder) instance pre-loaded with the given program.
 	 */
 	public Solver prepareSolverFor(InternalProgram program, java.util.function.Predicate<Predicate> filter) {
+		if (config.isDatalogMode() && DatalogSolver.isApplicable(program)) {
+			// The program has been evaluated completely, its only answer set consists of its facts.
+			LOGGER.debug("Program consists of facts only, outputting its answer set directly.");
+			context.newCancellationHandle();
+			return new DatalogSolver(program, filter);
+		}
 		String grounderName = config.getGrounderName();
 		boolean doDebugChecks = config.isDebugInternalChecks();
 
 		GrounderHeuristicsConfiguration grounderHeuristicConfiguration = GrounderHeuristicsConfiguration
 				.getInstance(config.getGrounderToleranceConstraints(), config.getGrounderToleranceRules());
 		grounderHeuristicConfiguration.setAccumulatorEnabled(config.isGrounderAccumulatorEnabled());
+		grounderHeuristicConfiguration.setLazyConstraintsEnabled(config.isGrounderLazyConstraintsEnabled());
+		grounderHeuristicConfiguration.setCompiledJoinsEnabled(config.isGrounderCompiledJoinsEnabled());
+		grounderHeuristicConfiguration.setVerifyNoGoodsEnabled(config.isGrounderVerifyNoGoodsEnabled());
+
+		// With pipelined grounding, the atom store is shared between the grounding thread and the solver.
+		AtomStore atomStore = config.isGroundingPipelined() ? new SynchronizedAtomStore(new AtomStoreImpl()) : new AtomStoreImpl();
+		if (config.isProfileRules()) {
+			context.getMetrics().enableRuleProfiler();
+		}
+		CancellationHandle cancellationHandle = context.newCancellationHandle();
+		Grounder grounder = GrounderFactory.getInstance(grounderName, program, atomStore, filter, grounderHeuristicConfiguration, context, doDebugChecks);
+
+		return SolverFactory.getInstance(config, atomStore, grounder, context.getMetrics(), cancellationHandle);
+	}
 
-		AtomStore atomStore = new AtomStoreImpl();
-		Grounder grounder = GrounderFactory.getInstance(grounderName, program, atomStore, filter, grounderHeuristicConfiguration, doDebugChecks);
+	/**
+	 * Cancels the solve call most recently started by this instance, i.e., the stream of answer sets ends as soon as
+	 * possible. May be called from any thread.
+	 */
+	public void cancel() {
+		context.getCancellationHandle().cancel();
+	}
 
-		return SolverFactory.getInstance(config, atomStore, grounder);
+	/**
+	 * @return the reason why the solve call most recently started by this instance was interrupted before exhausting its
+	 * search space (cf. the budgets in {@link SystemConfig}), or {@code null} if it was not interrupted (so far).
+	 */
+	public InterruptionReason getInterruptionReason() {
+		return context.getCancellationHandle().getInterruptionReason();
+	}
+
+	/**
+	 * @return the context holding the session state of this instance.
+	 */
+	public AlphaContext getContext() {
+		return context;
+	}
+
+	/**
+	 * @return the runtime metrics of this instance, accumulated over all programs read and solved by it.
+	 */
+	public MetricsRegistry getMetrics() {
+		return context.getMetrics();
 	}
 
 	public SystemConfig getConfig() {
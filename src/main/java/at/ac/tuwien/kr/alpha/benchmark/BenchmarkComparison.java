@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.benchmark;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares benchmark results against those of a previous run (the baseline). Results are grouped by instance and
+ * configuration, and the median wall times of each group are compared. A group whose median wall time exceeds the
+ * baseline median by more than the given threshold (a fraction, e.g., 0.1 for 10%) is reported as a regression.
+ * Groups that only occur in one of the two result sets are reported, but not compared.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class BenchmarkComparison {
+
+	public static final double DEFAULT_THRESHOLD = 0.1;
+
+	private final List<Entry> entries = new ArrayList<>();
+
+	public BenchmarkComparison(List<BenchmarkResult> baseline, List<BenchmarkResult> current, double threshold) {
+		if (threshold < 0) {
+			throw new IllegalArgumentException("Regression threshold must not be negative, but is " + threshold + ".");
+		}
+		Map<String, List<BenchmarkResult>> baselineGroups = groupByInstanceAndConfiguration(baseline);
+		Map<String, List<BenchmarkResult>> currentGroups = groupByInstanceAndConfiguration(current);
+		for (Map.Entry<String, List<BenchmarkResult>> currentGroup : currentGroups.entrySet()) {
+			BenchmarkResult first = currentGroup.getValue().get(0);
+			List<BenchmarkResult> baselineGroup = baselineGroups.get(currentGroup.getKey());
+			double baselineMedian = baselineGroup == null ? Double.NaN : medianWallTime(baselineGroup);
+			entries.add(new Entry(first.getInstance(), first.getConfiguration(), baselineMedian, medianWallTime(currentGroup.getValue()), threshold));
+		}
+		for (Map.Entry<String, List<BenchmarkResult>> baselineGroup : baselineGroups.entrySet()) {
+			if (!currentGroups.containsKey(baselineGroup.getKey())) {
+				BenchmarkResult first = baselineGroup.getValue().get(0);
+				entries.add(new Entry(first.getInstance(), first.getConfiguration(), medianWallTime(baselineGroup.getValue()), Double.NaN, threshold));
+			}
+		}
+	}
+
+	private static Map<String, List<BenchmarkResult>> groupByInstanceAndConfiguration(List<BenchmarkResult> results) {
+		Map<String, List<BenchmarkResult>> groups = new LinkedHashMap<>();
+		for (BenchmarkResult result : results) {
+			groups.computeIfAbsent(result.getInstance() + "\t" + result.getConfiguration(), k -> new ArrayList<>()).add(result);
+		}
+		return groups;
+	}
+
+	private static double medianWallTime(List<BenchmarkResult> results) {
+		List<Double> wallTimes = new ArrayList<>();
+		for (BenchmarkResult result : results) {
+			wallTimes.add(result.getWallTimeMs());
+		}
+		Collections.sort(wallTimes);
+		int middle = wallTimes.size() / 2;
+		return wallTimes.size() % 2 == 1 ? wallTimes.get(middle) : (wallTimes.get(middle - 1) + wallTimes.get(middle)) / 2;
+	}
+
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	public boolean hasRegressions() {
+		for (Entry entry : entries) {
+			if (entry.isRegression()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void print(PrintStream out) {
+		for (Entry entry : entries) {
+			out.println(entry);
+		}
+		out.println(hasRegressions() ? "Regressions found." : "No regressions found.");
+	}
+
+	/**
+	 * The comparison of one instance under one configuration.
+	 */
+	public static class Entry {
+		private final String instance;
+		private final String configuration;
+		private final double baselineMedianMs;
+		private final double currentMedianMs;
+		private final double threshold;
+
+		Entry(String instance, String configuration, double baselineMedianMs, double currentMedianMs, double threshold) {
+			this.instance = instance;
+			this.configuration = configuration;
+			this.baselineMedianMs = baselineMedianMs;
+			this.currentMedianMs = currentMedianMs;
+			this.threshold = threshold;
+		}
+
+		public String getInstance() {
+			return instance;
+		}
+
+		public String getConfiguration() {
+			return configuration;
+		}
+
+		/**
+		 * @return the median wall time of the baseline, or {@code NaN} if the baseline has no results for this entry.
+		 */
+		public double getBaselineMedianMs() {
+			return baselineMedianMs;
+		}
+
+		/**
+		 * @return the median wall time of the current results, or {@code NaN} if there are none for this entry.
+		 */
+		public double getCurrentMedianMs() {
+			return currentMedianMs;
+		}
+
+		/**
+		 * @return the current median wall time relative to the baseline one, or {@code NaN} if either is missing.
+		 */
+		public double getRatio() {
+			return currentMedianMs / baselineMedianMs;
+		}
+
+		public boolean isRegression() {
+			return getRatio() > 1 + threshold;
+		}
+
+		@Override
+		public String toString() {
+			String status;
+			if (Double.isNaN(baselineMedianMs)) {
+				status = "NEW";
+			} else if (Double.isNaN(currentMedianMs)) {
+				status = "MISSING";
+			} else if (isRegression()) {
+				status = "REGRESSION";
+			} else {
+				status = "OK";
+			}
+			return String.format(Locale.ROOT, "%-10s %s [%s]: %.3f ms -> %.3f ms (%+.1f%%)", status, instance, configuration, baselineMedianMs,
+					currentMedianMs, (getRatio() - 1) * 100);
+		}
+	}
+}
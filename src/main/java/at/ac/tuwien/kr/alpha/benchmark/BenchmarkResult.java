@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The measurements of a single benchmark run, i.e., solving one problem instance under one configuration.
+ * Times are given in milliseconds:
+ * <ul>
+ * <li>wall time covers everything from reading the program until the requested answer sets have been computed,</li>
+ * <li>preprocessing time covers parsing, normalization and evaluation of the stratified part,</li>
+ * <li>grounding time covers the time the solver waited for the grounder.</li>
+ * </ul>
+ * Results can be written to and read from CSV (one line per result) and JSON (one object per result).
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class BenchmarkResult {
+
+	static final List<String> FIELDS = Arrays.asList("instance", "configuration", "repetition", "answerSets", "wallTimeMs", "preprocessingTimeMs",
+			"groundingTimeMs", "choices", "conflicts", "noGoods", "learntNoGoods", "peakHeapBytes");
+
+	private static final Pattern JSON_FIELD = Pattern.compile("\"(\\w+)\"\\s*:\\s*(\"(?:[^\"\\\\]|\\\\.)*\"|[^,}\\s]+)");
+
+	private final String instance;
+	private final String configuration;
+	private final int repetition;
+	private final long answerSets;
+	private final double wallTimeMs;
+	private final double preprocessingTimeMs;
+	private final double groundingTimeMs;
+	private final long choices;
+	private final long conflicts;
+	private final long noGoods;
+	private final long learntNoGoods;
+	private final long peakHeapBytes;
+
+	public BenchmarkResult(String instance, String configuration, int repetition, long answerSets, double wallTimeMs, double preprocessingTimeMs,
+			double groundingTimeMs, long choices, long conflicts, long noGoods, long learntNoGoods, long peakHeapBytes) {
+		this.instance = instance;
+		this.configuration = configuration;
+		this.repetition = repetition;
+		this.answerSets = answerSets;
+		this.wallTimeMs = wallTimeMs;
+		this.preprocessingTimeMs = preprocessingTimeMs;
+		this.groundingTimeMs = groundingTimeMs;
+		this.choices = choices;
+		this.conflicts = conflicts;
+		this.noGoods = noGoods;
+		this.learntNoGoods = learntNoGoods;
+		this.peakHeapBytes = peakHeapBytes;
+	}
+
+	public static String csvHeader() {
+		return String.join(",", FIELDS);
+	}
+
+	public String toCsv() {
+		StringBuilder sb = new StringBuilder();
+		List<String> values = values();
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(i < 2 ? quoteCsv(values.get(i)) : values.get(i));
+		}
+		return sb.toString();
+	}
+
+	public String toJson() {
+		StringBuilder sb = new StringBuilder("{");
+		List<String> values = values();
+		for (int i = 0; i < FIELDS.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append('"').append(FIELDS.get(i)).append("\": ");
+			sb.append(i < 2 ? quoteJson(values.get(i)) : values.get(i));
+		}
+		return sb.append('}').toString();
+	}
+
+	/**
+	 * Parses a line written by {@link #toCsv()}.
+	 */
+	public static BenchmarkResult fromCsv(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					current.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					current.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(current.toString());
+				current.setLength(0);
+			} else {
+				current.append(c);
+			}
+		}
+		values.add(current.toString());
+		return fromValues(values, line);
+	}
+
+	/**
+	 * Parses an object written by {@link #toJson()}.
+	 */
+	public static BenchmarkResult fromJson(String object) {
+		Map<String, String> fields = new LinkedHashMap<>();
+		Matcher matcher = JSON_FIELD.matcher(object);
+		while (matcher.find()) {
+			String value = matcher.group(2);
+			if (value.startsWith("\"")) {
+				value = unquoteJson(value);
+			}
+			fields.put(matcher.group(1), value);
+		}
+		List<String> values = new ArrayList<>();
+		for (String field : FIELDS) {
+			if (!fields.containsKey(field)) {
+				throw new IllegalArgumentException("Missing field " + field + " in benchmark result: " + object);
+			}
+			values.add(fields.get(field));
+		}
+		return fromValues(values, object);
+	}
+
+	private static BenchmarkResult fromValues(List<String> values, String source) {
+		if (values.size() != FIELDS.size()) {
+			throw new IllegalArgumentException("Expected " + FIELDS.size() + " values in benchmark result, but got " + values.size() + ": " + source);
+		}
+		try {
+			return new BenchmarkResult(values.get(0), values.get(1), Integer.parseInt(values.get(2)), Long.parseLong(values.get(3)),
+					Double.parseDouble(values.get(4)), Double.parseDouble(values.get(5)), Double.parseDouble(values.get(6)), Long.parseLong(values.get(7)),
+					Long.parseLong(values.get(8)), Long.parseLong(values.get(9)), Long.parseLong(values.get(10)), Long.parseLong(values.get(11)));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Malformed benchmark result: " + source, e);
+		}
+	}
+
+	private List<String> values() {
+		return Arrays.asList(instance, configuration, Integer.toString(repetition), Long.toString(answerSets), formatMillis(wallTimeMs),
+				formatMillis(preprocessingTimeMs), formatMillis(groundingTimeMs), Long.toString(choices), Long.toString(conflicts), Long.toString(noGoods),
+				Long.toString(learntNoGoods), Long.toString(peakHeapBytes));
+	}
+
+	private static String formatMillis(double millis) {
+		return String.format(Locale.ROOT, "%.3f", millis);
+	}
+
+	private static String quoteCsv(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private static String quoteJson(String value) {
+		return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+	}
+
+	private static String unquoteJson(String value) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 1; i < value.length() - 1; i++) {
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length() - 1) {
+				c = value.charAt(++i);
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+	public String getInstance() {
+		return instance;
+	}
+
+	public String getConfiguration() {
+		return configuration;
+	}
+
+	public int getRepetition() {
+		return repetition;
+	}
+
+	public long getAnswerSets() {
+		return answerSets;
+	}
+
+	public double getWallTimeMs() {
+		return wallTimeMs;
+	}
+
+	public double getPreprocessingTimeMs() {
+		return preprocessingTimeMs;
+	}
+
+	public double getGroundingTimeMs() {
+		return groundingTimeMs;
+	}
+
+	public long getChoices() {
+		return choices;
+	}
+
+	public long getConflicts() {
+		return conflicts;
+	}
+
+	public long getNoGoods() {
+		return noGoods;
+	}
+
+	public long getLearntNoGoods() {
+		return learntNoGoods;
+	}
+
+	public long getPeakHeapBytes() {
+		return peakHeapBytes;
+	}
+
+	@Override
+	public String toString() {
+		return toCsv();
+	}
+}
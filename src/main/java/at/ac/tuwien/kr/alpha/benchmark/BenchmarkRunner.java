@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.benchmark;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.NoGoodInterface.Type;
+import at.ac.tuwien.kr.alpha.common.program.InputProgram;
+import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.solver.NoGoodCounter;
+import at.ac.tuwien.kr.alpha.solver.Solver;
+import at.ac.tuwien.kr.alpha.solver.SolverMaintainingStatistics;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs a {@link BenchmarkSuite} end-to-end, i.e., every instance of the suite is read and solved by a fresh {@link Alpha}
+ * instance under every configuration of the suite, first for the warm-up runs (whose results are discarded) and then for
+ * the measured repetitions. Results can be written as CSV or JSON and compared against a previous result file:
+ *
+ * <pre>
+ * BenchmarkRunner [-o results.json] [-c baseline.json] [-t 0.1] suite.properties
+ * </pre>
+ *
+ * When comparing, the comparison is printed to standard error and the exit status is 1 if a regression is found.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class BenchmarkRunner {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BenchmarkRunner.class);
+
+	private static final String CALL_SYNTAX = "java -cp alpha-bundled.jar " + BenchmarkRunner.class.getName() + " [options] <suite>";
+
+	private static final Option OPT_HELP = Option.builder("h").longOpt("help").hasArg(false).desc("shows this help").build();
+	private static final Option OPT_OUTPUT = Option.builder("o").longOpt("output").hasArg(true).argName("file")
+			.desc("write results to this file, as JSON if its name ends with .json and as CSV otherwise (default: CSV to standard output)").build();
+	private static final Option OPT_COMPARE = Option.builder("c").longOpt("compare").hasArg(true).argName("file")
+			.desc("compare results against those in this (CSV or JSON) file").build();
+	private static final Option OPT_THRESHOLD = Option.builder("t").longOpt("threshold").hasArg(true).argName("fraction")
+			.desc("the fraction by which a median wall time may exceed the compared one before it is reported as a regression (default: "
+					+ BenchmarkComparison.DEFAULT_THRESHOLD + ")").build();
+
+	private final BenchmarkSuite suite;
+
+	public BenchmarkRunner(BenchmarkSuite suite) {
+		this.suite = suite;
+	}
+
+	public List<BenchmarkResult> run() throws IOException {
+		List<BenchmarkResult> results = new ArrayList<>();
+		for (BenchmarkSuite.ProblemInstance instance : suite.getInstances()) {
+			for (BenchmarkSuite.Configuration configuration : suite.getConfigurations()) {
+				for (int i = 0; i < suite.getWarmup(); i++) {
+					LOGGER.info("Warm-up {} of {} [{}]", i + 1, instance, configuration);
+					runOnce(instance, configuration, -1);
+				}
+				for (int i = 0; i < suite.getRepetitions(); i++) {
+					LOGGER.info("Repetition {} of {} [{}]", i + 1, instance, configuration);
+					BenchmarkResult result = runOnce(instance, configuration, i);
+					LOGGER.info("{}", result);
+					results.add(result);
+				}
+			}
+		}
+		return results;
+	}
+
+	private BenchmarkResult runOnce(BenchmarkSuite.ProblemInstance instance, BenchmarkSuite.Configuration configuration, int repetition) throws IOException {
+		Alpha alpha = new Alpha(configuration.toSystemConfig());
+		resetPeakHeapUsage();
+
+		long start = System.nanoTime();
+		InputProgram input = alpha.readProgramFiles(false, Collections.emptyMap(), instance.getFiles().toArray(new Path[0]));
+		InternalProgram program = alpha.performProgramPreprocessing(InternalProgram.fromNormalProgram(alpha.normalizeProgram(input)));
+		long preprocessed = System.nanoTime();
+		Solver solver = alpha.prepareSolverFor(program, p -> true);
+		Stream<?> answerSets = solver.stream();
+		if (suite.getAnswerSets() > 0) {
+			answerSets = answerSets.limit(suite.getAnswerSets());
+		}
+		long numberOfAnswerSets = answerSets.count();
+		long end = System.nanoTime();
+
+		long choices = -1;
+		long conflicts = -1;
+		long noGoods = -1;
+		long learntNoGoods = -1;
+		long groundingTime = 0;
+		if (solver instanceof SolverMaintainingStatistics) {
+			SolverMaintainingStatistics statistics = (SolverMaintainingStatistics) solver;
+			choices = statistics.getNumberOfChoices();
+			conflicts = statistics.getNumberOfConflicts();
+			groundingTime = statistics.getGroundingTime();
+			NoGoodCounter noGoodCounter = statistics.getNoGoodCounter();
+			noGoods = 0;
+			for (Type type : Type.values()) {
+				if (type != Type.LEARNT) {
+					noGoods += noGoodCounter.getNumberOfNoGoods(type);
+				}
+			}
+			learntNoGoods = noGoodCounter.getNumberOfNoGoods(Type.LEARNT);
+		}
+		return new BenchmarkResult(instance.getName(), configuration.getName(), repetition, numberOfAnswerSets, toMillis(end - start),
+				toMillis(preprocessed - start), toMillis(groundingTime), choices, conflicts, noGoods, learntNoGoods, getPeakHeapUsage());
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	private static void resetPeakHeapUsage() {
+		System.gc();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	/**
+	 * @return the sum of the peak usages of all heap memory pools since the last reset; since pools peak at different
+	 * times, this is an upper bound of the actual peak heap usage.
+	 */
+	private static long getPeakHeapUsage() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	public static void main(String[] args) {
+		Options options = new Options();
+		options.addOption(OPT_HELP);
+		options.addOption(OPT_OUTPUT);
+		options.addOption(OPT_COMPARE);
+		options.addOption(OPT_THRESHOLD);
+		HelpFormatter helpFormatter = new HelpFormatter();
+
+		Path suiteFile;
+		Path outputFile;
+		Path compareFile;
+		double threshold;
+		try {
+			CommandLine commandLine = new DefaultParser().parse(options, args);
+			if (commandLine.hasOption(OPT_HELP.getOpt())) {
+				helpFormatter.printHelp(CALL_SYNTAX, options);
+				return;
+			}
+			if (commandLine.getArgs().length != 1) {
+				throw new ParseException("Expected exactly one benchmark suite file.");
+			}
+			suiteFile = Paths.get(commandLine.getArgs()[0]);
+			outputFile = commandLine.hasOption(OPT_OUTPUT.getOpt()) ? Paths.get(commandLine.getOptionValue(OPT_OUTPUT.getOpt())) : null;
+			compareFile = commandLine.hasOption(OPT_COMPARE.getOpt()) ? Paths.get(commandLine.getOptionValue(OPT_COMPARE.getOpt())) : null;
+			threshold = Double.parseDouble(commandLine.getOptionValue(OPT_THRESHOLD.getOpt(), Double.toString(BenchmarkComparison.DEFAULT_THRESHOLD)));
+			if (threshold < 0) {
+				throw new ParseException("The threshold must not be negative.");
+			}
+		} catch (ParseException | NumberFormatException e) {
+			System.err.println("Invalid usage: " + e.getMessage());
+			helpFormatter.printHelp(CALL_SYNTAX, options);
+			System.exit(1);
+			return;
+		}
+
+		try {
+			List<BenchmarkResult> baseline = compareFile == null ? null : ResultFormat.read(compareFile);
+			List<BenchmarkResult> results = new BenchmarkRunner(BenchmarkSuite.read(suiteFile)).run();
+			if (outputFile == null) {
+				ResultFormat.CSV.write(results, System.out);
+			} else {
+				try (PrintStream out = new PrintStream(new FileOutputStream(outputFile.toFile()), false, "UTF-8")) {
+					ResultFormat.forFile(outputFile).write(results, out);
+				}
+			}
+			if (baseline != null) {
+				BenchmarkComparison comparison = new BenchmarkComparison(baseline, results, threshold);
+				comparison.print(System.err);
+				if (comparison.hasRegressions()) {
+					System.exit(1);
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+}
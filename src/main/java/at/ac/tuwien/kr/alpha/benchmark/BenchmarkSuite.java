@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.benchmark;
+
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.grounder.heuristics.GrounderHeuristicsConfiguration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * A matrix of problem instances and system configurations to benchmark, read from a properties file like the following:
+ *
+ * <pre>
+ * # Each instance consists of one or more files (separated by "+"), relative to the directory of this file.
+ * instances = omiga/omiga-testcases/3col/3col-20-38.txt, encoding.lp + instance-1.lp
+ * warmup = 1
+ * repetitions = 3
+ * answerSets = 1
+ * seed = 0
+ * # Every combination of the following alternatives is run on every instance.
+ * heuristic = VSIDS, BERKMIN
+ * nogoodStore = alphaRoaming
+ * stratifiedEvaluation = true, false
+ * grounderToleranceConstraints = strict, permissive
+ * grounderToleranceRules = strict
+ * </pre>
+ *
+ * All keys except {@code instances} are optional. Matrix keys that are absent take the defaults of {@link SystemConfig},
+ * {@code answerSets = 0} requests all answer sets.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class BenchmarkSuite {
+
+	public static final String INSTANCES = "instances";
+	public static final String WARMUP = "warmup";
+	public static final String REPETITIONS = "repetitions";
+	public static final String ANSWER_SETS = "answerSets";
+	public static final String SEED = "seed";
+
+	public static final String HEURISTIC = "heuristic";
+	public static final String NOGOOD_STORE = "nogoodStore";
+	public static final String STRATIFIED_EVALUATION = "stratifiedEvaluation";
+	public static final String GROUNDER_TOLERANCE_CONSTRAINTS = "grounderToleranceConstraints";
+	public static final String GROUNDER_TOLERANCE_RULES = "grounderToleranceRules";
+
+	public static final int DEFAULT_WARMUP = 1;
+	public static final int DEFAULT_REPETITIONS = 3;
+	public static final int DEFAULT_ANSWER_SETS = 1;
+	public static final long DEFAULT_SEED = 0;
+
+	private static final String FILE_SEPARATOR = "+";
+	private static final String VALUE_SEPARATOR = ",";
+
+	/**
+	 * The keys spanning the configuration matrix, in the order used for naming configurations, mapped to functions
+	 * applying a value to a {@link SystemConfig}.
+	 */
+	private static final Map<String, BiConsumer<SystemConfig, String>> MATRIX_KEYS = new LinkedHashMap<>();
+
+	static {
+		MATRIX_KEYS.put(HEURISTIC, SystemConfig::setBranchingHeuristicName);
+		MATRIX_KEYS.put(NOGOOD_STORE, SystemConfig::setNogoodStoreName);
+		MATRIX_KEYS.put(STRATIFIED_EVALUATION, (cfg, value) -> cfg.setEvaluateStratifiedPart(parseBoolean(STRATIFIED_EVALUATION, value)));
+		MATRIX_KEYS.put(GROUNDER_TOLERANCE_CONSTRAINTS, SystemConfig::setGrounderToleranceConstraints);
+		MATRIX_KEYS.put(GROUNDER_TOLERANCE_RULES, SystemConfig::setGrounderToleranceRules);
+	}
+
+	private final List<ProblemInstance> instances;
+	private final List<Configuration> configurations;
+	private final int warmup;
+	private final int repetitions;
+	private final int answerSets;
+
+	private BenchmarkSuite(List<ProblemInstance> instances, List<Configuration> configurations, int warmup, int repetitions, int answerSets) {
+		this.instances = Collections.unmodifiableList(instances);
+		this.configurations = Collections.unmodifiableList(configurations);
+		this.warmup = warmup;
+		this.repetitions = repetitions;
+		this.answerSets = answerSets;
+	}
+
+	/**
+	 * Reads a suite from the given properties file. Instance files are resolved relative to the directory of that file.
+	 */
+	public static BenchmarkSuite read(Path file) throws IOException {
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		}
+		Path baseDirectory = file.toAbsolutePath().getParent();
+		return parse(properties, baseDirectory);
+	}
+
+	public static BenchmarkSuite parse(Properties properties, Path baseDirectory) {
+		for (String key : properties.stringPropertyNames()) {
+			if (!MATRIX_KEYS.containsKey(key) && !Arrays.asList(INSTANCES, WARMUP, REPETITIONS, ANSWER_SETS, SEED).contains(key)) {
+				throw new IllegalArgumentException("Unknown benchmark suite key: " + key);
+			}
+		}
+		String instancesValue = properties.getProperty(INSTANCES);
+		if (instancesValue == null || instancesValue.trim().isEmpty()) {
+			throw new IllegalArgumentException("Benchmark suite defines no " + INSTANCES + ".");
+		}
+		List<ProblemInstance> instances = new ArrayList<>();
+		for (String instance : split(instancesValue, VALUE_SEPARATOR)) {
+			List<Path> files = new ArrayList<>();
+			for (String file : split(instance, FILE_SEPARATOR)) {
+				files.add(baseDirectory.resolve(file));
+			}
+			instances.add(new ProblemInstance(String.join(FILE_SEPARATOR, split(instance, FILE_SEPARATOR)), files));
+		}
+		int warmup = parseInt(properties, WARMUP, DEFAULT_WARMUP, 0);
+		int repetitions = parseInt(properties, REPETITIONS, DEFAULT_REPETITIONS, 1);
+		int answerSets = parseInt(properties, ANSWER_SETS, DEFAULT_ANSWER_SETS, 0);
+		long seed;
+		try {
+			seed = Long.parseLong(properties.getProperty(SEED, Long.toString(DEFAULT_SEED)).trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid value for " + SEED + ": " + properties.getProperty(SEED));
+		}
+		return new BenchmarkSuite(instances, expandConfigurations(properties, seed), warmup, repetitions, answerSets);
+	}
+
+	/**
+	 * Builds one configuration per combination of the alternatives given for the matrix keys.
+	 */
+	private static List<Configuration> expandConfigurations(Properties properties, long seed) {
+		List<Configuration> configurations = new ArrayList<>();
+		configurations.add(new Configuration(Collections.emptyMap(), seed));
+		for (Map.Entry<String, BiConsumer<SystemConfig, String>> matrixKey : MATRIX_KEYS.entrySet()) {
+			String value = properties.getProperty(matrixKey.getKey());
+			if (value == null) {
+				continue;
+			}
+			List<String> alternatives = split(value, VALUE_SEPARATOR);
+			if (alternatives.isEmpty()) {
+				throw new IllegalArgumentException("No values given for " + matrixKey.getKey() + ".");
+			}
+			List<Configuration> expanded = new ArrayList<>();
+			for (Configuration configuration : configurations) {
+				for (String alternative : alternatives) {
+					Map<String, String> settings = new LinkedHashMap<>(configuration.getSettings());
+					settings.put(matrixKey.getKey(), alternative);
+					expanded.add(new Configuration(settings, seed));
+				}
+			}
+			configurations = expanded;
+		}
+		return configurations;
+	}
+
+	private static List<String> split(String value, String separator) {
+		List<String> parts = new ArrayList<>();
+		for (String part : value.split(Pattern.quote(separator))) {
+			if (!part.trim().isEmpty()) {
+				parts.add(part.trim());
+			}
+		}
+		return parts;
+	}
+
+	private static int parseInt(Properties properties, String key, int defaultValue, int minimum) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		int parsed;
+		try {
+			parsed = Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+		}
+		if (parsed < minimum) {
+			throw new IllegalArgumentException("Value for " + key + " must be at least " + minimum + ", but is " + parsed + ".");
+		}
+		return parsed;
+	}
+
+	private static boolean parseBoolean(String key, String value) {
+		if ("true".equalsIgnoreCase(value)) {
+			return true;
+		}
+		if ("false".equalsIgnoreCase(value)) {
+			return false;
+		}
+		throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+	}
+
+	public List<ProblemInstance> getInstances() {
+		return instances;
+	}
+
+	public List<Configuration> getConfigurations() {
+		return configurations;
+	}
+
+	public int getWarmup() {
+		return warmup;
+	}
+
+	public int getRepetitions() {
+		return repetitions;
+	}
+
+	/**
+	 * @return the number of answer sets to compute per run, 0 meaning all.
+	 */
+	public int getAnswerSets() {
+		return answerSets;
+	}
+
+	/**
+	 * A problem instance, i.e., the files making up one program to solve.
+	 */
+	public static class ProblemInstance {
+		private final String name;
+		private final List<Path> files;
+
+		ProblemInstance(String name, List<Path> files) {
+			this.name = name;
+			this.files = Collections.unmodifiableList(files);
+		}
+
+		/**
+		 * @return the files of this instance as given in the suite, i.e., relative to the suite file.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		public List<Path> getFiles() {
+			return files;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * One point of the configuration matrix.
+	 */
+	public static class Configuration {
+		private final Map<String, String> settings;
+		private final long seed;
+
+		Configuration(Map<String, String> settings, long seed) {
+			this.settings = Collections.unmodifiableMap(settings);
+			this.seed = seed;
+			// Fail early on invalid values instead of in the middle of a benchmark run.
+			SystemConfig systemConfig = toSystemConfig();
+			try {
+				GrounderHeuristicsConfiguration.getInstance(systemConfig.getGrounderToleranceConstraints(), systemConfig.getGrounderToleranceRules());
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid grounder tolerance in configuration " + getName() + ".", e);
+			}
+		}
+
+		/**
+		 * @return the matrix keys with the value this configuration uses for them.
+		 */
+		public Map<String, String> getSettings() {
+			return settings;
+		}
+
+		/**
+		 * @return a fresh {@link SystemConfig} with the settings of this configuration applied.
+		 */
+		public SystemConfig toSystemConfig() {
+			SystemConfig systemConfig = new SystemConfig();
+			systemConfig.setSeed(seed);
+			systemConfig.setQuiet(true);
+			for (Map.Entry<String, String> setting : settings.entrySet()) {
+				try {
+					MATRIX_KEYS.get(setting.getKey()).accept(systemConfig, setting.getValue());
+				} catch (IllegalArgumentException e) {
+					throw new IllegalArgumentException("Invalid value for " + setting.getKey() + ": " + setting.getValue(), e);
+				}
+			}
+			return systemConfig;
+		}
+
+		/**
+		 * @return a name listing the settings of this configuration, e.g., {@code heuristic=VSIDS;stratifiedEvaluation=false},
+		 * or {@code default} if it uses only defaults.
+		 */
+		public String getName() {
+			if (settings.isEmpty()) {
+				return "default";
+			}
+			StringBuilder sb = new StringBuilder();
+			for (Map.Entry<String, String> setting : settings.entrySet()) {
+				if (sb.length() > 0) {
+					sb.append(';');
+				}
+				sb.append(setting.getKey()).append('=').append(setting.getValue());
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public String toString() {
+			return getName();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The file formats benchmark results are written in.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public enum ResultFormat {
+	/**
+	 * A header line followed by one line per result.
+	 */
+	CSV {
+		@Override
+		public void write(List<BenchmarkResult> results, PrintStream out) {
+			out.println(BenchmarkResult.csvHeader());
+			for (BenchmarkResult result : results) {
+				out.println(result.toCsv());
+			}
+		}
+
+		@Override
+		List<BenchmarkResult> parse(List<String> lines) {
+			List<BenchmarkResult> results = new ArrayList<>();
+			for (int i = 1; i < lines.size(); i++) {
+				if (!lines.get(i).trim().isEmpty()) {
+					results.add(BenchmarkResult.fromCsv(lines.get(i)));
+				}
+			}
+			return results;
+		}
+	},
+
+	/**
+	 * An array of result objects, one object per line.
+	 */
+	JSON {
+		@Override
+		public void write(List<BenchmarkResult> results, PrintStream out) {
+			out.println("[");
+			for (int i = 0; i < results.size(); i++) {
+				out.println(results.get(i).toJson() + (i < results.size() - 1 ? "," : ""));
+			}
+			out.println("]");
+		}
+
+		@Override
+		List<BenchmarkResult> parse(List<String> lines) {
+			List<BenchmarkResult> results = new ArrayList<>();
+			for (String line : lines) {
+				String trimmed = line.trim();
+				if (trimmed.startsWith("{")) {
+					results.add(BenchmarkResult.fromJson(trimmed));
+				}
+			}
+			return results;
+		}
+	};
+
+	public abstract void write(List<BenchmarkResult> results, PrintStream out);
+
+	abstract List<BenchmarkResult> parse(List<String> lines);
+
+	/**
+	 * Determines the format of the given file by its extension, defaulting to {@link #CSV}.
+	 */
+	public static ResultFormat forFile(Path file) {
+		return file.getFileName().toString().toLowerCase().endsWith(".json") ? JSON : CSV;
+	}
+
+	/**
+	 * Reads results from the given file, written in the format indicated by its extension.
+	 */
+	public static List<BenchmarkResult> read(Path file) throws IOException {
+		return forFile(file).parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common;
+
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
+import at.ac.tuwien.kr.alpha.metrics.MetricsRegistry;
+import at.ac.tuwien.kr.alpha.solver.CancellationHandle;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the mutable state that belongs to one Alpha session, i.e., state that is shared by parsing, normalization,
+ * grounding and solving of a program, but must not be shared with other sessions running in the same JVM. This covers
+ * the numbering of anonymous variables, the indices assigned to terms by enumeration atoms, and the runtime metrics
+ * of the session.
+ *
+ * Each {@link at.ac.tuwien.kr.alpha.api.Alpha} instance owns its own context, hence independent instances can be used
+ * from parallel threads without interfering with each other. Components constructed without an explicit context use
+ * the shared {@link #getDefault()} context. Interned terms and predicates are immutable values and therefore remain
+ * shared among all sessions.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class AlphaContext {
+	private static final AlphaContext DEFAULT = new AlphaContext();
+
+	private final AtomicInteger anonymousVariableCounter = new AtomicInteger();
+	private final Map<Term, Map<Term, Integer>> enumerations = new HashMap<>();
+	private final MetricsRegistry metrics = new MetricsRegistry();
+	private volatile CancellationHandle cancellationHandle = new CancellationHandle();
+
+	/**
+	 * @return the context used by components that are not given a context explicitly.
+	 */
+	public static AlphaContext getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @return a fresh anonymous variable, i.e., one that is distinct from all other anonymous variables of this context.
+	 */
+	public VariableTerm newAnonymousVariable() {
+		return VariableTerm.getAnonymousInstance(anonymousVariableCounter.getAndIncrement());
+	}
+
+	/**
+	 * Returns the index of the given term in the enumeration with the given identifier. Terms are numbered starting from
+	 * 1 in the order in which they are first enumerated.
+	 */
+	public synchronized int getEnumerationIndex(Term identifier, Term enumerationTerm) {
+		Map<Term, Integer> enumeratedTerms = enumerations.computeIfAbsent(identifier, k -> new HashMap<>());
+		Integer assignedInteger = enumeratedTerms.get(enumerationTerm);
+		if (assignedInteger == null) {
+			int enumerationIndex = enumeratedTerms.size() + 1;
+			enumeratedTerms.put(enumerationTerm, enumerationIndex);
+			return enumerationIndex;
+		}
+		return assignedInteger;
+	}
+
+	/**
+	 * Forgets all enumeration indices, this is done whenever a new program is normalized.
+	 */
+	public synchronized void resetEnumerations() {
+		enumerations.clear();
+	}
+
+	/**
+	 * @return the runtime metrics of this session.
+	 */
+	public MetricsRegistry getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return the handle that interrupts the most recently started solve call of this session.
+	 */
+	public CancellationHandle getCancellationHandle() {
+		return cancellationHandle;
+	}
+
+	/**
+	 * Starts a new solve call with a fresh cancellation handle, which is returned.
+	 */
+	public CancellationHandle newCancellationHandle() {
+		cancellationHandle = new CancellationHandle();
+		return cancellationHandle;
+	}
+}
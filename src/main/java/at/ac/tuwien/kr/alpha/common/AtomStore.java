@@ -36,7 +36,9 @@
 import static at.ac.tuwien.kr.alpha.common.Literals.isNegated;
 
 /**
- * Translates atoms between integer (solver) and object (grounder) representation.
+ * Translates atoms between integer (solver) and object (grounder) representation. Atom ids are never released or
+ * reused, since the assignment and the heuristics of the solver are indexed by atom id and keep the values of atoms
+ * assigned at decision level 0 forever.
  */
 public interface AtomStore {
 
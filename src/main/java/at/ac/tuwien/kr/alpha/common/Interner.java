@@ -1,26 +1,110 @@
 package at.ac.tuwien.kr.alpha.common;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * A thread-safe pool of canonical instances that does not prevent its instances from being garbage collected.
+ *
+ * Lookups and insertions go through a {@link ConcurrentHashMap} and do not take a global lock, so concurrent interning
+ * from several threads (e.g., several Alpha instances running in one JVM) does not serialize. Entries whose instance has
+ * been collected are removed in small batches by the interning threads, using a {@link ReferenceQueue}.
+ */
 public class Interner<T> {
-	private WeakHashMap<T, WeakReference<T>> pool = new WeakHashMap<>();
-
-	public synchronized T intern(T object) {
-		T res;
-		// (The loop is needed to deal with race
-		// conditions where the GC runs while we are
-		// accessing the 'pool' map or the 'ref' object.)
-		do {
-			WeakReference<T> ref = pool.get(object);
-			if (ref == null) {
-				ref = new WeakReference<>(object);
-				pool.put(object, ref);
-				res = object;
-			} else {
-				res = ref.get();
+	private static final int MAX_CLEANUP_BATCH = 64;
+
+	private final ConcurrentMap<Object, WeakEntry<T>> pool = new ConcurrentHashMap<>();
+	private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+
+	public T intern(T object) {
+		expungeCollected();
+		while (true) {
+			WeakEntry<T> existing = pool.get(new LookupKey(object));
+			if (existing != null) {
+				T res = existing.get();
+				if (res != null) {
+					return res;
+				}
+				// Collected but not yet expunged, remove it and retry.
+				pool.remove(existing, existing);
+				continue;
+			}
+			WeakEntry<T> entry = new WeakEntry<>(object, collected);
+			existing = pool.putIfAbsent(entry, entry);
+			if (existing == null) {
+				return object;
+			}
+			T res = existing.get();
+			if (res != null) {
+				return res;
+			}
+			pool.remove(existing, existing);
+		}
+	}
+
+	int size() {
+		expungeCollected();
+		return pool.size();
+	}
+
+	private void expungeCollected() {
+		Reference<? extends T> ref;
+		for (int i = 0; i < MAX_CLEANUP_BATCH && (ref = collected.poll()) != null; i++) {
+			pool.remove(ref, ref);
+		}
+	}
+
+	/**
+	 * A weak reference to an interned instance that uses the hash code and equality of the instance as long as it has
+	 * not been collected. Once collected, an entry is only equal to itself.
+	 */
+	private static final class WeakEntry<T> extends WeakReference<T> {
+		private final int hash;
+
+		WeakEntry(T referent, ReferenceQueue<T> queue) {
+			super(referent, queue);
+			this.hash = referent.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof WeakEntry) || hash != o.hashCode()) {
+				return false;
 			}
-		} while (res == null);
-		return res;
+			T referent = get();
+			return referent != null && referent.equals(((WeakEntry<?>) o).get());
+		}
+	}
+
+	/**
+	 * Key for looking up an instance in the pool without creating a {@link WeakReference}.
+	 */
+	private static final class LookupKey {
+		private final Object object;
+
+		LookupKey(Object object) {
+			this.object = object;
+		}
+
+		@Override
+		public int hashCode() {
+			return object.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof WeakEntry && object.equals(((WeakEntry<?>) o).get());
+		}
 	}
-}
\ No newline at end of file
+}
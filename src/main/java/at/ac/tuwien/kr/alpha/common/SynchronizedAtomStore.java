@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common;
+
+import at.ac.tuwien.kr.alpha.common.atoms.Atom;
+import at.ac.tuwien.kr.alpha.solver.AtomCounter;
+
+/**
+ * An {@link AtomStore} that serializes all accesses to an underlying atom store, such that it can be shared between the
+ * grounding thread and the solver when grounding is pipelined.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class SynchronizedAtomStore implements AtomStore {
+	private final AtomStore delegate;
+
+	public SynchronizedAtomStore(AtomStore delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public synchronized boolean isAtomChoicePoint(int atom) {
+		return delegate.isAtomChoicePoint(atom);
+	}
+
+	@Override
+	public synchronized int getMaxAtomId() {
+		return delegate.getMaxAtomId();
+	}
+
+	@Override
+	public synchronized Atom get(int atom) {
+		return delegate.get(atom);
+	}
+
+	@Override
+	public synchronized int get(Atom atom) {
+		return delegate.get(atom);
+	}
+
+	@Override
+	public synchronized int putIfAbsent(Atom groundAtom) {
+		return delegate.putIfAbsent(groundAtom);
+	}
+
+	@Override
+	public synchronized boolean contains(Atom groundAtom) {
+		return delegate.contains(groundAtom);
+	}
+
+	@Override
+	public synchronized String atomToString(int atom) {
+		return delegate.atomToString(atom);
+	}
+
+	@Override
+	public synchronized AtomCounter getAtomCounter() {
+		return delegate.getAtomCounter();
+	}
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common.answersetio;
+
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.Atom;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Writes answer sets as they are found to a {@link WritableByteChannel}. In contrast to an
+ * {@link at.ac.tuwien.kr.alpha.common.AnswerSetFormatter}, no string representation of the whole answer set is built.
+ * Atoms are encoded one by one into a reusable buffer, which is written to the channel whenever it is full and after
+ * each answer set, hence the memory needed for output does not grow with the size of answer sets.
+ *
+ * Answer sets are passed to {@link #accept(Integer, AnswerSet)} together with their number, the final result of solving
+ * (e.g., {@code SATISFIABLE}) is written by {@link #writeResult(String)}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public abstract class AnswerSetWriter implements BiConsumer<Integer, AnswerSet>, Flushable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The formats answer sets can be written in.
+	 */
+	public enum Format {
+		/**
+		 * The plain text format printed by Alpha, i.e., a line {@code Answer set n:} followed by the atoms of the answer
+		 * set in braces on one line.
+		 */
+		TEXT,
+		/**
+		 * Newline-delimited JSON, i.e., one JSON object per answer set and line.
+		 */
+		NDJSON,
+		/**
+		 * A compact length-prefixed binary format, see {@link BinaryAnswerSetWriter}.
+		 */
+		BINARY;
+
+		public static String listAllowedValues() {
+			return Arrays.stream(values()).map(Format::toString).collect(Collectors.joining(", "));
+		}
+	}
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private final StringBuilder atomText = new StringBuilder();
+
+	protected AnswerSetWriter(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Creates a writer for the given format.
+	 * @param atomSeparator the separator between atoms, only used by the {@link Format#TEXT} format.
+	 */
+	public static AnswerSetWriter getInstance(Format format, WritableByteChannel channel, String atomSeparator) {
+		switch (format) {
+			case TEXT:
+				return new TextAnswerSetWriter(channel, atomSeparator);
+			case NDJSON:
+				return new NdjsonAnswerSetWriter(channel);
+			case BINARY:
+				return new BinaryAnswerSetWriter(channel);
+			default:
+				throw new IllegalArgumentException("Unknown answer set format: " + format);
+		}
+	}
+
+	@Override
+	public void accept(Integer number, AnswerSet answerSet) {
+		try {
+			writeAnswerSet(number, answerSet);
+			flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes the final result of solving, e.g., {@code SATISFIABLE}, and flushes.
+	 */
+	public void writeResult(String result) throws IOException {
+		writeResultRecord(result);
+		flush();
+	}
+
+	protected abstract void writeAnswerSet(int number, AnswerSet answerSet) throws IOException;
+
+	protected abstract void writeResultRecord(String result) throws IOException;
+
+	/**
+	 * Writes all bytes buffered so far to the channel.
+	 */
+	@Override
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * @return the number of atoms of the given answer set, where a predicate without instances counts as one atom.
+	 */
+	protected static int countAtoms(AnswerSet answerSet) {
+		int count = 0;
+		for (Predicate predicate : answerSet.getPredicates()) {
+			SortedSet<Atom> instances = answerSet.getPredicateInstances(predicate);
+			count += instances == null || instances.isEmpty() ? 1 : instances.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Calls the given action for the textual representation of each atom of the given answer set, in the order in which
+	 * {@link at.ac.tuwien.kr.alpha.common.SimpleAnswerSetFormatter} lists them. The passed {@link CharSequence} is
+	 * reused for all atoms and only valid during the call of the action.
+	 */
+	protected void forEachAtom(AnswerSet answerSet, AtomTextConsumer action) throws IOException {
+		for (Predicate predicate : answerSet.getPredicates()) {
+			SortedSet<Atom> instances = answerSet.getPredicateInstances(predicate);
+			if (instances == null || instances.isEmpty()) {
+				atomText.setLength(0);
+				atomText.append(predicate.getName());
+				action.accept(atomText);
+				continue;
+			}
+			for (Atom atom : instances) {
+				atomText.setLength(0);
+				appendAtom(atom);
+				action.accept(atomText);
+			}
+		}
+	}
+
+	private void appendAtom(Atom atom) {
+		if (!(atom instanceof BasicAtom)) {
+			atomText.append(atom);
+			return;
+		}
+		atomText.append(atom.getPredicate().getName());
+		List<Term> terms = atom.getTerms();
+		if (terms.isEmpty()) {
+			return;
+		}
+		atomText.append('(');
+		for (int i = 0; i < terms.size(); i++) {
+			if (i > 0) {
+				atomText.append(", ");
+			}
+			atomText.append(terms.get(i));
+		}
+		atomText.append(')');
+	}
+
+	protected void writeByte(int value) throws IOException {
+		if (!buffer.hasRemaining()) {
+			flush();
+		}
+		buffer.put((byte) value);
+	}
+
+	protected void writeInt(int value) throws IOException {
+		if (buffer.remaining() < Integer.BYTES) {
+			flush();
+		}
+		buffer.putInt(value);
+	}
+
+	/**
+	 * Writes the given characters encoded as UTF-8.
+	 */
+	protected void writeChars(CharSequence chars) throws IOException {
+		for (int i = 0; i < chars.length(); i++) {
+			char c = chars.charAt(i);
+			if (c < 0x80) {
+				writeByte(c);
+			} else if (c < 0x800) {
+				writeByte(0xC0 | (c >> 6));
+				writeByte(0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < chars.length() && Character.isLowSurrogate(chars.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+				writeByte(0xF0 | (codePoint >> 18));
+				writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+				writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+				writeByte(0x80 | (codePoint & 0x3F));
+			} else {
+				writeByte(0xE0 | (c >> 12));
+				writeByte(0x80 | ((c >> 6) & 0x3F));
+				writeByte(0x80 | (c & 0x3F));
+			}
+		}
+	}
+
+	/**
+	 * @return the number of bytes of the given characters encoded as UTF-8, i.e., as written by
+	 *         {@link #writeChars(CharSequence)}.
+	 */
+	protected static int encodedLength(CharSequence chars) {
+		int length = 0;
+		for (int i = 0; i < chars.length(); i++) {
+			char c = chars.charAt(i);
+			if (c < 0x80) {
+				length += 1;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < chars.length() && Character.isLowSurrogate(chars.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	@FunctionalInterface
+	protected interface AtomTextConsumer {
+		void accept(CharSequence atomText) throws IOException;
+	}
+}
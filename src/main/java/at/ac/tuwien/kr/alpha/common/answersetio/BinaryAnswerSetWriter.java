@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common.answersetio;
+
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes answer sets in a compact binary format made up of records, where all integers are 4 bytes big-endian and all
+ * strings are given by their length in bytes followed by their UTF-8 encoding:
+ * <ul>
+ * <li>an answer set is the byte {@value #ANSWER_SET_RECORD}, its number, the number of its atoms and the atoms as
+ * strings in ASP syntax,</li>
+ * <li>the final result is the byte {@value #RESULT_RECORD} followed by the result as a string.</li>
+ * </ul>
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class BinaryAnswerSetWriter extends AnswerSetWriter {
+
+	public static final byte ANSWER_SET_RECORD = 'A';
+	public static final byte RESULT_RECORD = 'R';
+
+	public BinaryAnswerSetWriter(WritableByteChannel channel) {
+		super(channel);
+	}
+
+	@Override
+	protected void writeAnswerSet(int number, AnswerSet answerSet) throws IOException {
+		writeByte(ANSWER_SET_RECORD);
+		writeInt(number);
+		writeInt(countAtoms(answerSet));
+		forEachAtom(answerSet, this::writeString);
+	}
+
+	@Override
+	protected void writeResultRecord(String result) throws IOException {
+		writeByte(RESULT_RECORD);
+		writeString(result);
+	}
+
+	private void writeString(CharSequence chars) throws IOException {
+		writeInt(encodedLength(chars));
+		writeChars(chars);
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common.answersetio;
+
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes answer sets as newline-delimited JSON, i.e., one JSON object per line. An answer set is written as
+ * {@code {"answerSet":n,"atoms":["p(a)","q(b)"]}}, where atoms are given in ASP syntax, and the final result as
+ * {@code {"result":"SATISFIABLE"}}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class NdjsonAnswerSetWriter extends AnswerSetWriter {
+
+	private boolean firstAtom;
+
+	public NdjsonAnswerSetWriter(WritableByteChannel channel) {
+		super(channel);
+	}
+
+	@Override
+	protected void writeAnswerSet(int number, AnswerSet answerSet) throws IOException {
+		writeChars("{\"answerSet\":");
+		writeChars(Integer.toString(number));
+		writeChars(",\"atoms\":[");
+		firstAtom = true;
+		forEachAtom(answerSet, atomText -> {
+			if (!firstAtom) {
+				writeByte(',');
+			}
+			firstAtom = false;
+			writeJsonString(atomText);
+		});
+		writeChars("]}\n");
+	}
+
+	@Override
+	protected void writeResultRecord(String result) throws IOException {
+		writeChars("{\"result\":");
+		writeJsonString(result);
+		writeChars("}\n");
+	}
+
+	private void writeJsonString(CharSequence chars) throws IOException {
+		writeByte('"');
+		int start = 0;
+		for (int i = 0; i < chars.length(); i++) {
+			char c = chars.charAt(i);
+			if (c != '"' && c != '\\' && c >= 0x20) {
+				continue;
+			}
+			writeChars(chars.subSequence(start, i));
+			start = i + 1;
+			if (c == '"' || c == '\\') {
+				writeByte('\\');
+				writeByte(c);
+			} else {
+				writeChars(String.format("\\u%04x", (int) c));
+			}
+		}
+		writeChars(chars.subSequence(start, chars.length()));
+		writeByte('"');
+	}
+}
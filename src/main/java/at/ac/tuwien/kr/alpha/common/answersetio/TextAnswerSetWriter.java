@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common.answersetio;
+
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes answer sets in the plain text format printed by Alpha, i.e., the same text as
+ * {@link at.ac.tuwien.kr.alpha.common.SimpleAnswerSetFormatter} produces, preceded by a line {@code Answer set n:}. The
+ * final result is written as a line of its own.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class TextAnswerSetWriter extends AnswerSetWriter {
+
+	private final String atomSeparator;
+	private boolean firstAtom;
+
+	public TextAnswerSetWriter(WritableByteChannel channel, String atomSeparator) {
+		super(channel);
+		this.atomSeparator = atomSeparator;
+	}
+
+	@Override
+	protected void writeAnswerSet(int number, AnswerSet answerSet) throws IOException {
+		writeChars("Answer set ");
+		writeChars(Integer.toString(number));
+		writeChars(":");
+		writeChars(System.lineSeparator());
+		writeChars("{ ");
+		firstAtom = true;
+		forEachAtom(answerSet, atomText -> {
+			if (!firstAtom) {
+				writeChars(atomSeparator);
+			}
+			firstAtom = false;
+			writeChars(atomText);
+		});
+		writeChars(" }");
+		writeChars(System.lineSeparator());
+	}
+
+	@Override
+	protected void writeResultRecord(String result) throws IOException {
+		writeChars(result);
+		writeChars(System.lineSeparator());
+	}
+}
@@ -59,6 +59,10 @@ public Predicate getPredicate() {
 		return predicate;
 	}
 
+	public ComparisonOperator getOperator() {
+		return operator;
+	}
+
 	@Override
 	public List<Term> getTerms() {
 		return terms;
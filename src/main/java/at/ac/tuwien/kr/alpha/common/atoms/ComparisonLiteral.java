@@ -28,6 +28,7 @@
 package at.ac.tuwien.kr.alpha.common.atoms;
 
 import at.ac.tuwien.kr.alpha.common.ComparisonOperator;
+import at.ac.tuwien.kr.alpha.common.terms.ArithmeticEvaluator;
 import at.ac.tuwien.kr.alpha.common.terms.ArithmeticTerm;
 import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
 import at.ac.tuwien.kr.alpha.common.terms.Term;
@@ -36,19 +37,28 @@
 
 import java.util.*;
 
-import static at.ac.tuwien.kr.alpha.common.terms.ArithmeticTerm.evaluateGroundTerm;
-
 /**
  * Contains a potentially negated {@link ComparisonAtom}.
  */
 public class ComparisonLiteral extends FixedInterpretationLiteral {
 	private final boolean isNormalizedEquality;
 
+	// Compiled arithmetic terms of the left and right side, null if the side is no arithmetic term. They are compiled
+	// eagerly and never change, since literals are shared among grounding threads.
+	private final ArithmeticEvaluator leftEvaluator;
+	private final ArithmeticEvaluator rightEvaluator;
+
 	public ComparisonLiteral(ComparisonAtom atom, boolean positive) {
+		this(atom, positive, compileArithmetics(atom.getTerms().get(0)), compileArithmetics(atom.getTerms().get(1)));
+	}
+
+	private ComparisonLiteral(ComparisonAtom atom, boolean positive, ArithmeticEvaluator leftEvaluator, ArithmeticEvaluator rightEvaluator) {
 		super(atom, positive);
 		final ComparisonOperator operator = getAtom().operator;
 		isNormalizedEquality = (positive && operator == ComparisonOperator.EQ)
 			|| (!positive && operator == ComparisonOperator.NE);
+		this.leftEvaluator = leftEvaluator;
+		this.rightEvaluator = rightEvaluator;
 	}
 	
 	@Override
@@ -65,7 +75,7 @@ public boolean isNormalizedEquality() {
 	 */
 	@Override
 	public ComparisonLiteral negate() {
-		return new ComparisonLiteral(getAtom(), !positive);
+		return new ComparisonLiteral(getAtom(), !positive, leftEvaluator, rightEvaluator);
 	}
 
 	/**
@@ -122,76 +132,80 @@ public Set<VariableTerm> getNonBindingVariables() {
 
 	@Override
 	public List<Substitution> getSatisfyingSubstitutions(Substitution partialSubstitution) {
-		// Treat case where this is just comparison with all variables bound by partialSubstitution.
-		final Term left = getAtom().getTerms().get(0).substitute(partialSubstitution);
-		final Term right = getAtom().getTerms().get(1).substitute(partialSubstitution);
-		final boolean leftAssigning = assignable(left);
-		final boolean rightAssigning = assignable(right);
+		final Term left = getAtom().getTerms().get(0);
+		final Term right = getAtom().getTerms().get(1);
+		final boolean leftAssigning = assignable(left) && !partialSubstitution.isVariableSet((VariableTerm) left);
+		final boolean rightAssigning = assignable(right) && !partialSubstitution.isVariableSet((VariableTerm) right);
 		if (!leftAssigning && !rightAssigning) {
 			// No assignment (variables are bound by partialSubstitution), thus evaluate comparison only.
-			Term leftEvaluatedSubstitute = evaluateTerm(left);
-			if (leftEvaluatedSubstitute == null) {
-				return Collections.emptyList();
-			}
-			Term rightEvaluatedSubstitute = evaluateTerm(right);
-			if (rightEvaluatedSubstitute == null) {
-				return Collections.emptyList();
-			}
-			if (compare(leftEvaluatedSubstitute, rightEvaluatedSubstitute)) {
-				return Collections.singletonList(partialSubstitution);
-			} else {
-				return Collections.emptyList();
+			try {
+				if (compare(left, leftEvaluator, right, rightEvaluator, partialSubstitution)) {
+					return Collections.singletonList(partialSubstitution);
+				}
+			} catch (ArithmeticEvaluator.NonIntegerException e) {
+				// Arithmetics over non-integers make the ground instance disappear.
 			}
+			return Collections.emptyList();
 		}
 		// Treat case that this is X = t or t = X.
-		VariableTerm variable = null;
-		Term expression = null;
-		if (leftAssigning) {
-			variable = (VariableTerm) left;
-			expression = right;
-		}
-		if (rightAssigning) {
-			variable = (VariableTerm) right;
-			expression = left;
-		}
-		Term groundTerm = expression.substitute(partialSubstitution);
-		Term resultTerm = null;
-		// Check if the groundTerm is an arithmetic expression and evaluate it if so.
-		if (groundTerm instanceof ArithmeticTerm) {
-			Integer result = evaluateGroundTerm(groundTerm);
-			if (result == null) {
+		VariableTerm variable = leftAssigning ? (VariableTerm) left : (VariableTerm) right;
+		Term expression = leftAssigning ? right : left;
+		ArithmeticEvaluator expressionEvaluator = leftAssigning ? rightEvaluator : leftEvaluator;
+		Term resultTerm;
+		if (expressionEvaluator != null) {
+			resultTerm = expressionEvaluator.evaluateToTerm(partialSubstitution);
+			if (resultTerm == null) {
 				return Collections.emptyList();
 			}
-			resultTerm = ConstantTerm.getInstance(result);
 		} else {
 			// Ground term is another term (constant, or function term).
-			resultTerm = groundTerm;
+			resultTerm = expression.substitute(partialSubstitution);
 		}
 		Substitution extendedSubstitution = new Substitution(partialSubstitution);
 		extendedSubstitution.put(variable, resultTerm);
 		return Collections.singletonList(extendedSubstitution);
 	}
-	
+
+	/**
+	 * Compiles one side of a comparison once, it is evaluated for every substitution.
+	 * @return the compiled term, or null if the term is no arithmetic term.
+	 */
+	private static ArithmeticEvaluator compileArithmetics(Term term) {
+		return term instanceof ArithmeticTerm ? ArithmeticEvaluator.compile(term) : null;
+	}
+
+	private boolean compare(Term left, ArithmeticEvaluator leftEvaluator, Term right, ArithmeticEvaluator rightEvaluator, Substitution substitution) {
+		if (leftEvaluator != null && rightEvaluator != null) {
+			return compare(Integer.compare(leftEvaluator.evaluate(substitution), rightEvaluator.evaluate(substitution)));
+		}
+		if (leftEvaluator != null) {
+			return compare(compareToTerm(leftEvaluator.evaluate(substitution), right.substitute(substitution)));
+		}
+		if (rightEvaluator != null) {
+			return compare(-compareToTerm(rightEvaluator.evaluate(substitution), left.substitute(substitution)));
+		}
+		return compare(left.substitute(substitution).compareTo(right.substitute(substitution)));
+	}
+
+	/**
+	 * Compares an integer to a ground term according to the total order of terms, without creating a term for the integer
+	 * unless the other term is no integer.
+	 */
+	public static int compareToTerm(int value, Term term) {
+		if (term instanceof ConstantTerm && ((ConstantTerm<?>) term).getObject() instanceof Integer) {
+			return Integer.compare(value, (Integer) ((ConstantTerm<?>) term).getObject());
+		}
+		// Integers are ordered before all other terms, the term implementation takes care of that.
+		return ConstantTerm.getInstance(value).compareTo(term);
+	}
+
 	public boolean isLeftOrRightAssigning() {
 		final Term left = getTerms().get(0);
 		final Term right = getTerms().get(1);
 		return isNormalizedEquality && (assignable(left) && right.isGround() || assignable(right) && left.isGround());
 	}
 
-	private Term evaluateTerm(Term term) {
-		// Evaluate arithmetics.
-		if (term instanceof ArithmeticTerm) {
-			Integer result = ArithmeticTerm.evaluateGroundTerm(term);
-			if (result == null) {
-				return null;
-			}
-			return ConstantTerm.getInstance(result);
-		}
-		return term;
-	}
-
-	private boolean compare(Term x, Term y) {
-		final int comparisonResult = x.compareTo(y);
+	private boolean compare(int comparisonResult) {
 		ComparisonOperator operator = isNegated() ? getAtom().operator.getNegation() : getAtom().operator;
 		switch (operator) {
 			case EQ:
@@ -42,6 +42,7 @@ public InlineDirectives getInlineDirectives() {
 	@Override
 	public String toString() {
 		final String ls = System.lineSeparator();
+		final List<Atom> facts = getFacts();
 		final String result = facts.isEmpty() ? "" : Util.join("", facts, "." + ls, "." + ls);
 		if (rules.isEmpty()) {
 			return result;
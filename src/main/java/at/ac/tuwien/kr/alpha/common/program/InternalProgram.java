@@ -14,6 +14,7 @@
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A program in the internal representation needed for grounder and solver, i.e.: rules must have normal heads, all
@@ -25,7 +26,7 @@
 public class InternalProgram extends AbstractProgram<InternalRule> {
 
 	private final Map<Predicate, LinkedHashSet<InternalRule>> predicateDefiningRules = new LinkedHashMap<>();
-	private final Map<Predicate, LinkedHashSet<Instance>> factsByPredicate = new LinkedHashMap<>();
+	private final Map<Predicate, Set<Instance>> factsByPredicate = new LinkedHashMap<>();
 	private final Map<Integer, InternalRule> rulesById = new LinkedHashMap<>();
 
 	public InternalProgram(List<InternalRule> rules, List<Atom> facts) {
@@ -34,6 +35,16 @@ public InternalProgram(List<InternalRule> rules, List<Atom> facts) {
 		recordRules(rules);
 	}
 
+	/**
+	 * Creates a program from rules and facts already given by predicate; subclasses holding facts in this form must provide
+	 * {@link #getFacts()}.
+	 */
+	protected InternalProgram(List<InternalRule> rules, Map<Predicate, Set<Instance>> factsByPredicate) {
+		super(rules, Collections.emptyList(), null);
+		this.factsByPredicate.putAll(factsByPredicate);
+		recordRules(rules);
+	}
+
 	static ImmutablePair<List<InternalRule>, List<Atom>> internalizeRulesAndFacts(NormalProgram normalProgram) {
 		List<InternalRule> internalRules = new ArrayList<>();
 		List<Atom> facts = new ArrayList<>(normalProgram.getFacts());
@@ -82,7 +93,7 @@ public Map<Predicate, LinkedHashSet<InternalRule>> getPredicateDefiningRules() {
 		return Collections.unmodifiableMap(predicateDefiningRules);
 	}
 
-	public Map<Predicate, LinkedHashSet<Instance>> getFactsByPredicate() {
+	public Map<Predicate, Set<Instance>> getFactsByPredicate() {
 		return Collections.unmodifiableMap(factsByPredicate);
 	}
 
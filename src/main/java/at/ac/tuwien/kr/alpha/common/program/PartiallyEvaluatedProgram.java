@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common.program;
+
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.Atom;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
+import at.ac.tuwien.kr.alpha.grounder.Instance;
+import at.ac.tuwien.kr.alpha.grounder.WorkingMemory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link InternalProgram} resulting from evaluating (parts of) a program up-front, e.g., by
+ * {@link at.ac.tuwien.kr.alpha.grounder.transformation.StratifiedEvaluation}. Besides the remaining rules and the facts, it carries the
+ * {@link WorkingMemory} holding the facts, such that a grounder can adopt its instance storages and indices instead of building them
+ * anew from the facts.
+ *
+ * Facts are kept by predicate only, the list of fact atoms is built on demand.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class PartiallyEvaluatedProgram extends InternalProgram {
+
+	private WorkingMemory workingMemory;
+	private List<Atom> facts;
+
+	/**
+	 * Creates a partially evaluated program.
+	 *
+	 * @param rules            the rules that remain to be grounded.
+	 * @param factsByPredicate the facts of the program by predicate, e.g., read-only snapshots of the instance storages of the working
+	 *                         memory (cf. {@link at.ac.tuwien.kr.alpha.grounder.IndexedInstanceStorage#getInstancesSnapshot()}).
+	 * @param workingMemory    a working memory whose positive instances are exactly the facts of the program.
+	 */
+	public PartiallyEvaluatedProgram(List<InternalRule> rules, Map<Predicate, Set<Instance>> factsByPredicate, WorkingMemory workingMemory) {
+		super(rules, factsByPredicate);
+		this.workingMemory = workingMemory;
+	}
+
+	/**
+	 * Hands over the working memory holding the facts of this program, with all of them marked as recently added. Since the receiver
+	 * is free to modify the working memory, it is handed over once only.
+	 *
+	 * @return the working memory holding the facts, or {@code null} if it has been handed over before.
+	 */
+	public WorkingMemory takeWorkingMemory() {
+		WorkingMemory result = workingMemory;
+		workingMemory = null;
+		if (result != null) {
+			result.markAllInstancesRecentlyAdded();
+		}
+		return result;
+	}
+
+	@Override
+	public List<Atom> getFacts() {
+		if (facts == null) {
+			List<Atom> factAtoms = new ArrayList<>();
+			for (Map.Entry<Predicate, Set<Instance>> factsOfPredicate : getFactsByPredicate().entrySet()) {
+				for (Instance instance : factsOfPredicate.getValue()) {
+					factAtoms.add(new BasicAtom(factsOfPredicate.getKey(), instance.terms));
+				}
+			}
+			facts = Collections.unmodifiableList(factAtoms);
+		}
+		return facts;
+	}
+
+}
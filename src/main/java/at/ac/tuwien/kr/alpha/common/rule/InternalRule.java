@@ -31,6 +31,7 @@
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import at.ac.tuwien.kr.alpha.common.Predicate;
 import at.ac.tuwien.kr.alpha.common.atoms.AggregateLiteral;
@@ -38,7 +39,6 @@
 import at.ac.tuwien.kr.alpha.common.atoms.Literal;
 import at.ac.tuwien.kr.alpha.common.rule.head.NormalHead;
 import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
-import at.ac.tuwien.kr.alpha.grounder.IntIdGenerator;
 import at.ac.tuwien.kr.alpha.grounder.RuleGroundingOrders;
 import at.ac.tuwien.kr.alpha.grounder.Unifier;
 
@@ -48,7 +48,8 @@
  */
 public class InternalRule extends NormalRule {
 
-	private static final IntIdGenerator ID_GENERATOR = new IntIdGenerator();
+	// Rule ids only need to be unique, hence a single thread-safe counter is shared by all sessions.
+	private static final AtomicInteger ID_GENERATOR = new AtomicInteger();
 
 	private final int ruleId;
 
@@ -62,7 +63,7 @@ public InternalRule(NormalHead head, List<Literal> body) {
 			throw new IllegalArgumentException(
 					"Empty bodies are not supported for InternalRule! (Head = " + (head == null ? "NULL" : head.getAtom().toString()) + ")");
 		}
-		this.ruleId = InternalRule.ID_GENERATOR.getNextId();
+		this.ruleId = InternalRule.ID_GENERATOR.getAndIncrement();
 
 		this.occurringPredicates = new ArrayList<>();
 		if (!isConstraint()) {
@@ -86,7 +87,7 @@ public InternalRule(NormalHead head, List<Literal> body) {
 
 	@VisibleForTesting
 	public static void resetIdGenerator() {
-		InternalRule.ID_GENERATOR.resetGenerator();
+		InternalRule.ID_GENERATOR.set(0);
 	}
 
 	public static InternalRule fromNormalRule(NormalRule rule) {
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common.terms;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import at.ac.tuwien.kr.alpha.grounder.Substitution;
+
+/**
+ * An arithmetic term compiled once into a tree of evaluators over primitive longs. Evaluating it for a substitution
+ * reads the values of the variables directly from the substitution, instead of substituting the term and evaluating
+ * the resulting term, which creates and interns a constant term for every intermediate result.
+ *
+ * All operations are checked for overflow, a result that does not fit into an integer term raises an
+ * {@link ArithmeticException}. According to the ASP-Core-2 standard, arithmetic on non-integer terms does not fail but
+ * makes the ground instance disappear, this is signalled by a {@link NonIntegerException}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public final class ArithmeticEvaluator {
+
+	private final Term term;
+	private final ToLongFunction<Substitution> evaluator;
+
+	private ArithmeticEvaluator(Term term, ToLongFunction<Substitution> evaluator) {
+		this.term = term;
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Compiles the given term, which usually is an {@link ArithmeticTerm}.
+	 */
+	public static ArithmeticEvaluator compile(Term term) {
+		return new ArithmeticEvaluator(term, compile(term, variable -> substitution -> substitution.eval(variable)));
+	}
+
+	/**
+	 * Compiles the given term into an evaluator over bindings of any representation, e.g., an array holding the value
+	 * of each variable at a fixed position. The resolver is called once per variable occurrence when compiling and
+	 * yields the accessor of the variable's value. The result of the evaluator is not narrowed to an integer, it throws
+	 * {@link NonIntegerException} and {@link ArithmeticException} like {@link #evaluate(Substitution)}.
+	 */
+	public static <B> ToLongFunction<B> compile(Term term, Function<VariableTerm, Function<B, Term>> variableResolver) {
+		if (term instanceof ConstantTerm) {
+			Object object = ((ConstantTerm<?>) term).getObject();
+			if (!(object instanceof Integer)) {
+				return bindings -> {
+					throw NonIntegerException.INSTANCE;
+				};
+			}
+			long value = (Integer) object;
+			return bindings -> value;
+		}
+		if (term instanceof VariableTerm) {
+			VariableTerm variable = (VariableTerm) term;
+			Function<B, Term> accessor = variableResolver.apply(variable);
+			return bindings -> valueOf(accessor.apply(bindings), variable);
+		}
+		if (term instanceof ArithmeticTerm.MinusTerm) {
+			ToLongFunction<B> operand = compile(((ArithmeticTerm.MinusTerm) term).getLeft(), variableResolver);
+			return bindings -> Math.negateExact(operand.applyAsLong(bindings));
+		}
+		if (term instanceof ArithmeticTerm) {
+			ArithmeticTerm arithmeticTerm = (ArithmeticTerm) term;
+			ToLongFunction<B> left = compile(arithmeticTerm.getLeft(), variableResolver);
+			ToLongFunction<B> right = compile(arithmeticTerm.getRight(), variableResolver);
+			switch (arithmeticTerm.getArithmeticOperator()) {
+				case PLUS:
+					return bindings -> Math.addExact(left.applyAsLong(bindings), right.applyAsLong(bindings));
+				case MINUS:
+					return bindings -> Math.subtractExact(left.applyAsLong(bindings), right.applyAsLong(bindings));
+				case TIMES:
+					return bindings -> Math.multiplyExact(left.applyAsLong(bindings), right.applyAsLong(bindings));
+				default:
+					ArithmeticTerm.ArithmeticOperator operator = arithmeticTerm.getArithmeticOperator();
+					return bindings -> operator.eval(left.applyAsLong(bindings), right.applyAsLong(bindings));
+			}
+		}
+		// Function terms and the like are no integers either.
+		return bindings -> {
+			throw NonIntegerException.INSTANCE;
+		};
+	}
+
+	private static long valueOf(Term value, VariableTerm variable) {
+		if (value == null) {
+			throw new RuntimeException("Cannot evaluate arithmetic term since variable " + variable + " is not bound.");
+		}
+		if (value instanceof ConstantTerm && ((ConstantTerm<?>) value).getObject() instanceof Integer) {
+			return (Integer) ((ConstantTerm<?>) value).getObject();
+		}
+		throw NonIntegerException.INSTANCE;
+	}
+
+	/**
+	 * Evaluates the term under the given substitution, which must bind all of its variables.
+	 * @throws NonIntegerException if the term contains a non-integer term.
+	 * @throws ArithmeticException if the result does not fit into an integer, or on division by zero.
+	 */
+	public int evaluate(Substitution substitution) {
+		return Math.toIntExact(evaluator.applyAsLong(substitution));
+	}
+
+	/**
+	 * Evaluates the term under the given substitution like {@link #evaluate(Substitution)}, but returns the result as a
+	 * term, or null if the term contains a non-integer term.
+	 */
+	public ConstantTerm<Integer> evaluateToTerm(Substitution substitution) {
+		try {
+			return ConstantTerm.getInstance(evaluate(substitution));
+		} catch (NonIntegerException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return term.toString();
+	}
+
+	/**
+	 * Signals that an arithmetic term contains a non-integer term. Since this is no error, a single instance without
+	 * stack trace is used.
+	 */
+	public static final class NonIntegerException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		static final NonIntegerException INSTANCE = new NonIntegerException();
+
+		private NonIntegerException() {
+			super("Arithmetic term contains a non-integer term.", null, false, false);
+		}
+	}
+}
@@ -29,7 +29,6 @@
 
 import at.ac.tuwien.kr.alpha.common.Interner;
 import at.ac.tuwien.kr.alpha.grounder.Substitution;
-import com.google.common.math.IntMath;
 
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
@@ -183,17 +182,24 @@ public String toString() {
 		}
 
 		public Integer eval(Integer left, Integer right) {
+			return Math.toIntExact(eval((long) left, (long) right));
+		}
+
+		/**
+		 * Applies this operator to the given values, checking for overflow.
+		 */
+		public long eval(long left, long right) {
 			switch (this) {
 				case PLUS:
-					return left + right;
+					return Math.addExact(left, right);
 				case MINUS:
-					return left - right;
+					return Math.subtractExact(left, right);
 				case TIMES:
-					return left * right;
+					return Math.multiplyExact(left, right);
 				case DIV:
 					return left / right;
 				case POWER:
-					return IntMath.checkedPow(left, right);
+					return checkedPow(left, right);
 				case MODULO:
 					return left % right;
 				case BITXOR:
@@ -205,6 +211,24 @@ public Integer eval(Integer left, Integer right) {
 		}
 	}
 
+	private static long checkedPow(long base, long exponent) {
+		if (exponent < 0) {
+			throw new IllegalArgumentException("Exponent must not be negative, but got: " + exponent);
+		}
+		if (base == 0 || base == 1) {
+			return exponent == 0 ? 1 : base;
+		}
+		if (base == -1) {
+			return (exponent & 1) == 0 ? 1 : -1;
+		}
+		// Any other base overflows after at most 63 multiplications.
+		long result = 1;
+		for (long i = 0; i < exponent; i++) {
+			result = Math.multiplyExact(result, base);
+		}
+		return result;
+	}
+
 	public static class MinusTerm extends ArithmeticTerm {
 
 		private MinusTerm(Term term) {
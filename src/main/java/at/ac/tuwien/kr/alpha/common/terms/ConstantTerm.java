@@ -5,6 +5,7 @@
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Copyright (c) 2016-2020, the Alpha Team.
@@ -12,6 +13,11 @@
 public class ConstantTerm<T extends Comparable<T>> extends Term {
 	private static final Interner<ConstantTerm<?>> INTERNER = new Interner<>();
 
+	// Integer terms in this range are cached in an array, such that arithmetic does not go through the interner for them.
+	private static final int SMALL_INTEGER_MIN = -1024;
+	private static final int SMALL_INTEGER_MAX = 16383;
+	private static final AtomicReferenceArray<ConstantTerm<Integer>> SMALL_INTEGERS = new AtomicReferenceArray<>(SMALL_INTEGER_MAX - SMALL_INTEGER_MIN + 1);
+
 	private final T object;
 	private final boolean symbolic;
 
@@ -22,9 +28,27 @@ private ConstantTerm(T object, boolean symbolic) {
 
 	@SuppressWarnings("unchecked")
 	public static <T extends Comparable<T>> ConstantTerm<T> getInstance(T symbol) {
+		if (symbol instanceof Integer) {
+			return (ConstantTerm<T>) getInstance(((Integer) symbol).intValue());
+		}
 		return (ConstantTerm<T>) INTERNER.intern(new ConstantTerm<>(symbol, false));
 	}
 
+	@SuppressWarnings("unchecked")
+	public static ConstantTerm<Integer> getInstance(int value) {
+		if (value < SMALL_INTEGER_MIN || value > SMALL_INTEGER_MAX) {
+			return (ConstantTerm<Integer>) INTERNER.intern(new ConstantTerm<>(value, false));
+		}
+		int index = value - SMALL_INTEGER_MIN;
+		ConstantTerm<Integer> cached = SMALL_INTEGERS.get(index);
+		if (cached == null) {
+			// The interner returns the canonical instance even if several threads get here at once.
+			cached = (ConstantTerm<Integer>) INTERNER.intern(new ConstantTerm<>(value, false));
+			SMALL_INTEGERS.set(index, cached);
+		}
+		return cached;
+	}
+
 	@SuppressWarnings("unchecked")
 	public static <T extends Comparable<T>> ConstantTerm<T> getSymbolicInstance(String symbol) {
 		return (ConstantTerm<T>) INTERNER.intern(new ConstantTerm<>(symbol, true));
@@ -1,7 +1,6 @@
 package at.ac.tuwien.kr.alpha.common.terms;
 
 import at.ac.tuwien.kr.alpha.common.Interner;
-import at.ac.tuwien.kr.alpha.grounder.IntIdGenerator;
 import at.ac.tuwien.kr.alpha.grounder.Substitution;
 
 import java.util.Collections;
@@ -14,7 +13,6 @@ public class VariableTerm extends Term {
 	private static final Interner<VariableTerm> INTERNER = new Interner<>();
 
 	private static final String ANONYMOUS_VARIABLE_PREFIX = "_";
-	private static final IntIdGenerator ANONYMOUS_VARIABLE_COUNTER = new IntIdGenerator();
 
 	private final String variableName;
 
@@ -26,8 +24,12 @@ public static VariableTerm getInstance(String variableName) {
 		return INTERNER.intern(new VariableTerm(variableName));
 	}
 
-	public static VariableTerm getAnonymousInstance() {
-		return getInstance(ANONYMOUS_VARIABLE_PREFIX + ANONYMOUS_VARIABLE_COUNTER.getNextId());
+	/**
+	 * Returns the anonymous variable with the given number. Fresh anonymous variables are obtained from
+	 * {@link at.ac.tuwien.kr.alpha.common.AlphaContext#newAnonymousVariable()}.
+	 */
+	public static VariableTerm getAnonymousInstance(int number) {
+		return getInstance(ANONYMOUS_VARIABLE_PREFIX + number);
 	}
 
 	@Override
@@ -27,6 +27,7 @@
  */
 package at.ac.tuwien.kr.alpha.config;
 
+import at.ac.tuwien.kr.alpha.common.answersetio.AnswerSetWriter;
 import at.ac.tuwien.kr.alpha.solver.BinaryNoGoodPropagationEstimation;
 import at.ac.tuwien.kr.alpha.solver.heuristics.BranchingHeuristicFactory.Heuristic;
 import org.apache.commons.cli.CommandLine;
@@ -87,6 +88,17 @@ public class CommandLineParser {
 			.desc("Write a dot file with the input program's component graph").build();
 	private static final Option OPT_WRITE_XSLX = Option.builder("wx").longOpt("write-xlsx").hasArg(true).argName("path").type(String.class)
 			.desc("Write answer sets to excel files, i.e. xlsx workbooks (one workbook per answer set)").build();
+	private static final Option OPT_WRITE_METRICS = Option.builder("wm").longOpt("writeMetrics").hasArg(true).argName("target")
+			.desc("write runtime metrics (timings of all phases and sizes of the search) as JSON to a file after solving. Writing to STDOUT is possible by setting target to: "
+					+ InputConfig.METRICS_STDOUT_PATH).build();
+	private static final Option OPT_ANSWER_SET_FORMAT = Option.builder("af").longOpt("answerSetFormat").hasArg(true).argName("format")
+			.desc("the format in which answer sets are printed (" + AnswerSetWriter.Format.listAllowedValues() + ", default: "
+					+ InputConfig.DEFAULT_ANSWER_SET_FORMAT + ")").build();
+	private static final Option OPT_SERVER = Option.builder("srv").longOpt("server").hasArg(true).argName("port")
+			.desc("run as a server solving requests together with the input program, listening on the given local port or on standard input if port is "
+					+ InputConfig.SERVER_STDIO).build();
+	private static final Option OPT_SERVER_SESSIONS = Option.builder("srvs").longOpt("serverSessions").hasArg(true).argName("number").type(Integer.class)
+			.desc("the number of requests a server solves concurrently (default: number of available processors)").build();
 
 	// general system-wide config
 	private static final Option OPT_GROUNDER = Option.builder("g").longOpt("grounder").hasArg(true).argName("grounder")
@@ -122,9 +134,18 @@ public class CommandLineParser {
 	private static final Option OPT_NORMALIZATION_GRID = Option.builder("ng").longOpt("normalizationCountingGrid")
 			.desc("use counting grid normalization instead of sorting circuit for #count (default: " + SystemConfig.DEFAULT_USE_NORMALIZATION_GRID + ")")
 			.build();
+	private static final Option OPT_NATIVE_AGGREGATE_CONSTRAINTS = Option.builder("nac").longOpt("nativeAggregateConstraints")
+			.desc("check constraints with a single positive, lower-bounded #count or #sum aggregate in the solver instead of normalizing them, "
+					+ "requires non-negative weights (default: "
+					+ SystemConfig.DEFAULT_NATIVE_AGGREGATE_CONSTRAINTS + ")")
+			.build();
 	private static final Option OPT_NO_EVAL_STRATIFIED = Option.builder("dse").longOpt("disableStratifiedEvaluation")
 			.desc("Disable stratified evaluation")
 			.build();
+	private static final Option OPT_NO_DATALOG_MODE = Option.builder("ddm").longOpt("disableDatalogMode")
+			.desc("disable outputting the model of programs that are completely evaluated by stratified evaluation directly, "
+					+ "without grounder and solver")
+			.build();
 	private static final Option OPT_NO_NOGOOD_DELETION = Option.builder("dnd").longOpt("disableNoGoodDeletion")
 			.desc("disable the deletion of (learned, little active) nogoods (default: " 
 					+ SystemConfig.DEFAULT_DISABLE_NOGOOD_DELETION + ")")
@@ -141,6 +162,37 @@ public class CommandLineParser {
 			.desc("activates the accumulator grounding strategy by disabling removal of instances from grounder memory in certain cases (default: " 
 					+ SystemConfig.DEFAULT_GROUNDER_ACCUMULATOR_ENABLED + ")")
 			.build();
+	private static final Option OPT_GROUNDER_LAZY_CONSTRAINTS_ENABLED = Option.builder("lzc").longOpt("enableLazyConstraints")
+			.desc("passes ground instances of constraints to the solver only once they are unit or violated, useful with a permissive "
+					+ "grounder tolerance for constraints (default: " + SystemConfig.DEFAULT_GROUNDER_LAZY_CONSTRAINTS_ENABLED + ")")
+			.build();
+	private static final Option OPT_GROUNDER_COMPILED_JOINS_ENABLED = Option.builder("cj").longOpt("compileJoins")
+			.desc("compiles the grounding order of each rule into a specialised join procedure, used for rules grounded with tolerance 0 "
+					+ "(default: " + SystemConfig.DEFAULT_GROUNDER_COMPILED_JOINS_ENABLED + ")")
+			.build();
+	private static final Option OPT_GROUNDER_NO_VERIFY_NOGOODS = Option.builder("dvng").longOpt("disableNoGoodVerification")
+			.desc("deduplicate nogoods by their fingerprints only, without verifying matches against the literals of registered "
+					+ "nogoods; saves memory but may drop a new nogood on a fingerprint collision, which is unsound (default: "
+					+ !SystemConfig.DEFAULT_GROUNDER_VERIFY_NOGOODS_ENABLED + ")")
+			.build();
+	private static final Option OPT_GROUNDING_PIPELINED = Option.builder("pg").longOpt("pipelineGrounding")
+			.desc("runs the grounder on a separate thread, overlapping grounding with search, not supported together with permissive "
+					+ "grounder tolerances or lazy constraints (default: " + SystemConfig.DEFAULT_GROUNDING_PIPELINED + ")")
+			.build();
+	private static final Option OPT_PROFILE_RULES = Option.builder("pr").longOpt("profileRules")
+			.desc("profiles grounding and solving per rule and prints a report of the rules sorted by grounding time (default: "
+					+ SystemConfig.DEFAULT_PROFILE_RULES + ")")
+			.build();
+	private static final Option OPT_BUDGET_TIME = Option.builder("bt").longOpt("budgetTime").hasArg(true).argName("milliseconds").type(Long.class)
+			.desc("stops solving (and reports the result as unknown) after the given wall time (default: no limit)").build();
+	private static final Option OPT_BUDGET_CONFLICTS = Option.builder("bc").longOpt("budgetConflicts").hasArg(true).argName("number").type(Long.class)
+			.desc("stops solving after the given number of conflicts (default: no limit)").build();
+	private static final Option OPT_BUDGET_DECISIONS = Option.builder("bd").longOpt("budgetDecisions").hasArg(true).argName("number").type(Long.class)
+			.desc("stops solving after the given number of decisions (default: no limit)").build();
+	private static final Option OPT_BUDGET_NOGOODS = Option.builder("bn").longOpt("budgetNoGoods").hasArg(true).argName("number").type(Long.class)
+			.desc("stops solving once the given number of ground nogoods is exceeded (default: no limit)").build();
+	private static final Option OPT_BUDGET_HEAP = Option.builder("bh").longOpt("budgetHeap").hasArg(true).argName("megabytes").type(Long.class)
+			.desc("stops solving once the used heap exceeds the given size (default: no limit)").build();
 	private static final Option OPT_OUTPUT_ATOM_SEPARATOR = Option.builder("sep").longOpt("atomSeparator").hasArg(true).argName("separator")
 			.desc("a character (sequence) to use as separator for atoms in printed answer sets (default: "
 					+ SystemConfig.DEFAULT_ATOM_SEPARATOR + ")")
@@ -164,6 +216,10 @@ public class CommandLineParser {
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_WRITE_PREPROCESSED);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_WRITE_DEPGRAPH);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_WRITE_COMPGRAPH);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_WRITE_METRICS);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_ANSWER_SET_FORMAT);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_SERVER);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_SERVER_SESSIONS);
 
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_GROUNDER);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_SOLVER);
@@ -180,11 +236,23 @@ public class CommandLineParser {
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_NO_JUSTIFICATION);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_NORMALIZATION_GRID);
 
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_NATIVE_AGGREGATE_CONSTRAINTS);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_NO_EVAL_STRATIFIED);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_NO_DATALOG_MODE);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_NO_NOGOOD_DELETION);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_GROUNDER_TOLERANCE_CONSTRAINTS);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_GROUNDER_TOLERANCE_RULES);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_GROUNDER_ACCUMULATOR_ENABLED);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_GROUNDER_LAZY_CONSTRAINTS_ENABLED);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_GROUNDER_COMPILED_JOINS_ENABLED);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_GROUNDER_NO_VERIFY_NOGOODS);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_GROUNDING_PIPELINED);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_PROFILE_RULES);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_BUDGET_TIME);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_BUDGET_CONFLICTS);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_BUDGET_DECISIONS);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_BUDGET_NOGOODS);
+		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_BUDGET_HEAP);
 		CommandLineParser.CLI_OPTS.addOption(CommandLineParser.OPT_OUTPUT_ATOM_SEPARATOR);
 	}
 
@@ -236,11 +304,23 @@ private void initializeGlobalOptionHandlers() {
 		this.globalOptionHandlers.put(CommandLineParser.OPT_STATS.getOpt(), this::handleStats);
 		this.globalOptionHandlers.put(CommandLineParser.OPT_NO_JUSTIFICATION.getOpt(), this::handleNoJustification);
 		this.globalOptionHandlers.put(CommandLineParser.OPT_NORMALIZATION_GRID.getOpt(), this::handleNormalizationGrid);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_NATIVE_AGGREGATE_CONSTRAINTS.getOpt(), this::handleNativeAggregateConstraints);
 		this.globalOptionHandlers.put(CommandLineParser.OPT_NO_EVAL_STRATIFIED.getOpt(), this::handleDisableStratifedEval);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_NO_DATALOG_MODE.getOpt(), this::handleDisableDatalogMode);
 		this.globalOptionHandlers.put(CommandLineParser.OPT_NO_NOGOOD_DELETION.getOpt(), this::handleNoNoGoodDeletion);
 		this.globalOptionHandlers.put(CommandLineParser.OPT_GROUNDER_TOLERANCE_CONSTRAINTS.getOpt(), this::handleGrounderToleranceConstraints);
 		this.globalOptionHandlers.put(CommandLineParser.OPT_GROUNDER_TOLERANCE_RULES.getOpt(), this::handleGrounderToleranceRules);
 		this.globalOptionHandlers.put(CommandLineParser.OPT_GROUNDER_ACCUMULATOR_ENABLED.getOpt(), this::handleGrounderNoInstanceRemoval);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_GROUNDER_LAZY_CONSTRAINTS_ENABLED.getOpt(), this::handleGrounderLazyConstraints);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_GROUNDER_COMPILED_JOINS_ENABLED.getOpt(), this::handleGrounderCompiledJoins);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_GROUNDER_NO_VERIFY_NOGOODS.getOpt(), this::handleGrounderNoVerifyNoGoods);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_GROUNDING_PIPELINED.getOpt(), this::handleGroundingPipelined);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_PROFILE_RULES.getOpt(), this::handleProfileRules);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_BUDGET_TIME.getOpt(), this::handleBudgetTime);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_BUDGET_CONFLICTS.getOpt(), this::handleBudgetConflicts);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_BUDGET_DECISIONS.getOpt(), this::handleBudgetDecisions);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_BUDGET_NOGOODS.getOpt(), this::handleBudgetNoGoods);
+		this.globalOptionHandlers.put(CommandLineParser.OPT_BUDGET_HEAP.getOpt(), this::handleBudgetHeap);
 		this.globalOptionHandlers.put(CommandLineParser.OPT_OUTPUT_ATOM_SEPARATOR.getOpt(), this::handleAtomSeparator);
 	}
 
@@ -254,6 +334,10 @@ private void initializeInputOptionHandlers() {
 		this.inputOptionHandlers.put(CommandLineParser.OPT_WRITE_PREPROCESSED.getOpt(), this::handleWritePreprocessed);
 		this.inputOptionHandlers.put(CommandLineParser.OPT_WRITE_DEPGRAPH.getOpt(), this::handleWriteDepgraph);
 		this.inputOptionHandlers.put(CommandLineParser.OPT_WRITE_COMPGRAPH.getOpt(), this::handleWriteCompgraph);
+		this.inputOptionHandlers.put(CommandLineParser.OPT_WRITE_METRICS.getOpt(), this::handleWriteMetrics);
+		this.inputOptionHandlers.put(CommandLineParser.OPT_ANSWER_SET_FORMAT.getOpt(), this::handleAnswerSetFormat);
+		this.inputOptionHandlers.put(CommandLineParser.OPT_SERVER.getOpt(), this::handleServer);
+		this.inputOptionHandlers.put(CommandLineParser.OPT_SERVER_SESSIONS.getOpt(), this::handleServerSessions);
 	}
 
 	public AlphaConfig parseCommandLine(String[] args) throws ParseException {
@@ -423,6 +507,37 @@ private void handleWriteXlsx(Option opt, InputConfig cfg) {
 		cfg.setAnswerSetFileOutputPath(outputPath);
 	}
 
+	private void handleAnswerSetFormat(Option opt, InputConfig cfg) throws ParseException {
+		String answerSetFormatName = opt.getValue(InputConfig.DEFAULT_ANSWER_SET_FORMAT.name());
+		try {
+			cfg.setAnswerSetFormatName(answerSetFormatName);
+		} catch (IllegalArgumentException e) {
+			throw new ParseException(
+					"Unknown answer set format: " + answerSetFormatName + ". Please try one of the following: " + AnswerSetWriter.Format.listAllowedValues());
+		}
+	}
+
+	private void handleServer(Option opt, InputConfig cfg) throws ParseException {
+		String endpoint = opt.getValue();
+		if (!InputConfig.SERVER_STDIO.equals(endpoint)) {
+			try {
+				Integer.parseInt(endpoint);
+			} catch (NumberFormatException e) {
+				throw new ParseException("Server endpoint must be a port number or " + InputConfig.SERVER_STDIO + ", but is: " + endpoint);
+			}
+		}
+		cfg.setServerEndpoint(endpoint);
+	}
+
+	private void handleServerSessions(Option opt, InputConfig cfg) throws ParseException {
+		String optVal = opt.getValue();
+		try {
+			cfg.setServerSessions(Integer.parseInt(optVal));
+		} catch (NumberFormatException e) {
+			throw new ParseException("Number of server sessions must be an integer, but is: " + optVal);
+		}
+	}
+
 	private void handleStats(Option opt, SystemConfig cfg) {
 		cfg.setPrintStats(true);
 	}
@@ -435,10 +550,18 @@ private void handleNormalizationGrid(Option opt, SystemConfig cfg) {
 		cfg.setUseNormalizationGrid(true);
 	}
 
+	private void handleNativeAggregateConstraints(Option opt, SystemConfig cfg) {
+		cfg.setNativeAggregateConstraints(true);
+	}
+
 	private void handleDisableStratifedEval(Option opt, SystemConfig cfg) {
 		cfg.setEvaluateStratifiedPart(false);
 	}
 
+	private void handleDisableDatalogMode(Option opt, SystemConfig cfg) {
+		cfg.setDatalogMode(false);
+	}
+
 	private void handleWritePreprocessed(Option opt, InputConfig cfg) {
 		cfg.setWritePreprocessed(true);
 		String preprocessedPath = opt.getValue(InputConfig.DEFAULT_PREPROC_TARGET_FILE);
@@ -457,6 +580,12 @@ private void handleWriteCompgraph(Option opt, InputConfig cfg) {
 		cfg.setCompgraphPath(compgraphPath);
 	}
 
+	private void handleWriteMetrics(Option opt, InputConfig cfg) {
+		cfg.setWriteMetrics(true);
+		String metricsPath = opt.getValue(InputConfig.DEFAULT_METRICS_TARGET_FILE);
+		cfg.setMetricsPath(metricsPath);
+	}
+
 	private void handleNoNoGoodDeletion(Option opt, SystemConfig cfg) {
 		cfg.setDisableNoGoodDeletion(true);
 	}
@@ -475,6 +604,59 @@ private void handleGrounderNoInstanceRemoval(Option opt, SystemConfig cfg) {
 		cfg.setGrounderAccumulatorEnabled(true);
 	}
 
+	private void handleGrounderLazyConstraints(Option opt, SystemConfig cfg) {
+		cfg.setGrounderLazyConstraintsEnabled(true);
+	}
+
+	private void handleGrounderCompiledJoins(Option opt, SystemConfig cfg) {
+		cfg.setGrounderCompiledJoinsEnabled(true);
+	}
+
+	private void handleGrounderNoVerifyNoGoods(Option opt, SystemConfig cfg) {
+		cfg.setGrounderVerifyNoGoodsEnabled(false);
+	}
+
+	private void handleGroundingPipelined(Option opt, SystemConfig cfg) {
+		cfg.setGroundingPipelined(true);
+	}
+
+	private void handleProfileRules(Option opt, SystemConfig cfg) {
+		cfg.setProfileRules(true);
+	}
+
+	private void handleBudgetTime(Option opt, SystemConfig cfg) throws ParseException {
+		cfg.setBudgetWallTimeMillis(parseBudget(opt));
+	}
+
+	private void handleBudgetConflicts(Option opt, SystemConfig cfg) throws ParseException {
+		cfg.setBudgetConflicts(parseBudget(opt));
+	}
+
+	private void handleBudgetDecisions(Option opt, SystemConfig cfg) throws ParseException {
+		cfg.setBudgetDecisions(parseBudget(opt));
+	}
+
+	private void handleBudgetNoGoods(Option opt, SystemConfig cfg) throws ParseException {
+		cfg.setBudgetNoGoods(parseBudget(opt));
+	}
+
+	private void handleBudgetHeap(Option opt, SystemConfig cfg) throws ParseException {
+		cfg.setBudgetHeapMegabytes(parseBudget(opt));
+	}
+
+	private static long parseBudget(Option opt) throws ParseException {
+		String optVal = opt.getValue();
+		try {
+			long budget = Long.parseLong(optVal);
+			if (budget <= 0) {
+				throw new ParseException("Budget for " + opt.getLongOpt() + " must be positive, but is: " + optVal);
+			}
+			return budget;
+		} catch (NumberFormatException e) {
+			throw new ParseException("Budget for " + opt.getLongOpt() + " must be an integer, but is: " + optVal);
+		}
+	}
+
 	private void handleAtomSeparator(Option opt, SystemConfig cfg) {
 		cfg.setAtomSeparator(StringEscapeUtils.unescapeJava(opt.getValue(SystemConfig.DEFAULT_ATOM_SEPARATOR)));
 	}
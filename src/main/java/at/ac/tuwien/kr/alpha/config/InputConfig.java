@@ -2,6 +2,7 @@
 
 import at.ac.tuwien.kr.alpha.api.externals.Externals;
 import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.answersetio.AnswerSetWriter;
 import at.ac.tuwien.kr.alpha.common.fixedinterpretations.PredicateInterpretation;
 
 import java.util.ArrayList;
@@ -24,6 +25,12 @@ public class InputConfig {
 	public static final String PREPROC_STDOUT_PATH = "---"; // indicator preprocessed program should be written to stdout
 	public static final boolean DEFAULT_WRITE_XLSX = false;
 	public static final String DEFAULT_XLSX_OUTFILE_PATH = "alphaAnswerSet"; // current directory, files named "alphaAnswerSet.{num}.{ext}"
+	public static final boolean DEFAULT_WRITE_METRICS = false;
+	public static final String DEFAULT_METRICS_TARGET_FILE = "metrics.json";
+	public static final String METRICS_STDOUT_PATH = "---"; // indicator metrics should be written to stdout
+	public static final AnswerSetWriter.Format DEFAULT_ANSWER_SET_FORMAT = AnswerSetWriter.Format.TEXT;
+	public static final String SERVER_STDIO = "stdio";
+	public static final int DEFAULT_SERVER_SESSIONS = Runtime.getRuntime().availableProcessors();
 
 	private List<String> aspStrings = new ArrayList<>();
 	private List<String> files = new ArrayList<>();
@@ -40,6 +47,11 @@ public class InputConfig {
 	private Map<String, PredicateInterpretation> predicateMethods = Externals.getStandardLibraryExternals();
 	private boolean writeAnswerSetsAsXlsx = InputConfig.DEFAULT_WRITE_XLSX;
 	private String answerSetFileOutputPath;
+	private boolean writeMetrics = InputConfig.DEFAULT_WRITE_METRICS;
+	private String metricsPath = InputConfig.DEFAULT_METRICS_TARGET_FILE;
+	private AnswerSetWriter.Format answerSetFormat = InputConfig.DEFAULT_ANSWER_SET_FORMAT;
+	private String serverEndpoint; // null if not running as server
+	private int serverSessions = InputConfig.DEFAULT_SERVER_SESSIONS;
 
 	public static InputConfig forString(String str) {
 		InputConfig retVal = new InputConfig();
@@ -172,4 +184,56 @@ public void setAnswerSetFileOutputPath(String answerSetFileOutputPath) {
 		this.answerSetFileOutputPath = answerSetFileOutputPath;
 	}
 
+	public boolean isServerMode() {
+		return this.serverEndpoint != null;
+	}
+
+	/**
+	 * @return the port the server listens on, {@link #SERVER_STDIO} if it serves standard input and output, or null if
+	 *         Alpha does not run as a server.
+	 */
+	public String getServerEndpoint() {
+		return this.serverEndpoint;
+	}
+
+	public void setServerEndpoint(String serverEndpoint) {
+		this.serverEndpoint = serverEndpoint;
+	}
+
+	public int getServerSessions() {
+		return this.serverSessions;
+	}
+
+	public void setServerSessions(int serverSessions) {
+		this.serverSessions = serverSessions;
+	}
+
+	public boolean isWriteMetrics() {
+		return this.writeMetrics;
+	}
+
+	public void setWriteMetrics(boolean writeMetrics) {
+		this.writeMetrics = writeMetrics;
+	}
+
+	public String getMetricsPath() {
+		return this.metricsPath;
+	}
+
+	public void setMetricsPath(String metricsPath) {
+		this.metricsPath = metricsPath;
+	}
+
+	public AnswerSetWriter.Format getAnswerSetFormat() {
+		return this.answerSetFormat;
+	}
+
+	public void setAnswerSetFormat(AnswerSetWriter.Format answerSetFormat) {
+		this.answerSetFormat = answerSetFormat;
+	}
+
+	public void setAnswerSetFormatName(String answerSetFormatName) {
+		this.answerSetFormat = AnswerSetWriter.Format.valueOf(answerSetFormatName.toUpperCase());
+	}
+
 }
@@ -54,13 +54,21 @@ public class SystemConfig {
 	public static final boolean DEFAULT_DISABLE_JUSTIFICATION_SEARCH = false;
 	public static final boolean DEFAULT_DEBUG_INTERNAL_CHECKS = false;
 	public static final boolean DEFAULT_USE_NORMALIZATION_GRID = false;
+	public static final boolean DEFAULT_NATIVE_AGGREGATE_CONSTRAINTS = false;
 	public static final boolean DEFAULT_SORT_ANSWER_SETS = false;
 	public static final List<Integer> DEFAULT_REPLAY_CHOICES = Collections.emptyList();
 	public static final boolean DEFAULT_STRATIFIED_EVALUATION = true;
 	public static final boolean DEFAULT_DISABLE_NOGOOD_DELETION = false;
+	public static final boolean DEFAULT_DATALOG_MODE = true;
 	public static final String DEFAULT_GROUNDER_TOLERANCE_CONSTRAINTS = GrounderHeuristicsConfiguration.STRICT_STRING;
 	public static final String DEFAULT_GROUNDER_TOLERANCE_RULES = GrounderHeuristicsConfiguration.STRICT_STRING;
 	public static final boolean DEFAULT_GROUNDER_ACCUMULATOR_ENABLED = false;
+	public static final boolean DEFAULT_GROUNDER_LAZY_CONSTRAINTS_ENABLED = false;
+	public static final boolean DEFAULT_GROUNDER_COMPILED_JOINS_ENABLED = false;
+	public static final boolean DEFAULT_GROUNDER_VERIFY_NOGOODS_ENABLED = true;
+	public static final boolean DEFAULT_GROUNDING_PIPELINED = false;
+	public static final boolean DEFAULT_PROFILE_RULES = false;
+	public static final long NO_BUDGET = 0; // indicates that some resource is not bounded
 	public static final String DEFAULT_ATOM_SEPARATOR = ", ";
 
 	private String grounderName = SystemConfig.DEFAULT_GROUNDER_NAME;
@@ -75,13 +83,25 @@ public class SystemConfig {
 	private boolean printStats = SystemConfig.DEFAULT_PRINT_STATS;
 	private boolean disableJustificationSearch = SystemConfig.DEFAULT_DISABLE_JUSTIFICATION_SEARCH;
 	private boolean useNormalizationGrid = SystemConfig.DEFAULT_USE_NORMALIZATION_GRID;
+	private boolean nativeAggregateConstraints = SystemConfig.DEFAULT_NATIVE_AGGREGATE_CONSTRAINTS;
 	private boolean sortAnswerSets = SystemConfig.DEFAULT_SORT_ANSWER_SETS;
 	private List<Integer> replayChoices = SystemConfig.DEFAULT_REPLAY_CHOICES;
 	private boolean evaluateStratifiedPart = SystemConfig.DEFAULT_STRATIFIED_EVALUATION;
 	private boolean disableNoGoodDeletion = SystemConfig.DEFAULT_DISABLE_NOGOOD_DELETION;
+	private boolean datalogMode = SystemConfig.DEFAULT_DATALOG_MODE;
 	private String grounderToleranceConstraints = DEFAULT_GROUNDER_TOLERANCE_CONSTRAINTS;
 	private String grounderToleranceRules = DEFAULT_GROUNDER_TOLERANCE_RULES;
 	private boolean grounderAccumulatorEnabled = DEFAULT_GROUNDER_ACCUMULATOR_ENABLED;
+	private boolean grounderLazyConstraintsEnabled = DEFAULT_GROUNDER_LAZY_CONSTRAINTS_ENABLED;
+	private boolean grounderCompiledJoinsEnabled = DEFAULT_GROUNDER_COMPILED_JOINS_ENABLED;
+	private boolean grounderVerifyNoGoodsEnabled = DEFAULT_GROUNDER_VERIFY_NOGOODS_ENABLED;
+	private boolean groundingPipelined = DEFAULT_GROUNDING_PIPELINED;
+	private boolean profileRules = DEFAULT_PROFILE_RULES;
+	private long budgetWallTimeMillis = NO_BUDGET;
+	private long budgetConflicts = NO_BUDGET;
+	private long budgetDecisions = NO_BUDGET;
+	private long budgetNoGoods = NO_BUDGET;
+	private long budgetHeapMegabytes = NO_BUDGET;
 	private String atomSeparator = DEFAULT_ATOM_SEPARATOR;
 
 	public String getGrounderName() {
@@ -188,6 +208,14 @@ public void setUseNormalizationGrid(boolean useNormalizationGrid) {
 		this.useNormalizationGrid = useNormalizationGrid;
 	}
 
+	public boolean isNativeAggregateConstraints() {
+		return this.nativeAggregateConstraints;
+	}
+
+	public void setNativeAggregateConstraints(boolean nativeAggregateConstraints) {
+		this.nativeAggregateConstraints = nativeAggregateConstraints;
+	}
+
 	public boolean isSortAnswerSets() {
 		return this.sortAnswerSets;
 	}
@@ -216,6 +244,14 @@ public void setEvaluateStratifiedPart(boolean evaluateStratifiedPart) {
 		this.evaluateStratifiedPart = evaluateStratifiedPart;
 	}
 
+	public boolean isDatalogMode() {
+		return this.datalogMode;
+	}
+
+	public void setDatalogMode(boolean datalogMode) {
+		this.datalogMode = datalogMode;
+	}
+
 	public boolean isDisableNoGoodDeletion() {
 		return this.disableNoGoodDeletion;
 	}
@@ -248,6 +284,86 @@ public void setGrounderAccumulatorEnabled(boolean grounderAccumulatorEnabled) {
 		this.grounderAccumulatorEnabled = grounderAccumulatorEnabled;
 	}
 
+	public boolean isGrounderLazyConstraintsEnabled() {
+		return grounderLazyConstraintsEnabled;
+	}
+
+	public void setGrounderLazyConstraintsEnabled(boolean grounderLazyConstraintsEnabled) {
+		this.grounderLazyConstraintsEnabled = grounderLazyConstraintsEnabled;
+	}
+
+	public boolean isGrounderCompiledJoinsEnabled() {
+		return grounderCompiledJoinsEnabled;
+	}
+
+	public void setGrounderCompiledJoinsEnabled(boolean grounderCompiledJoinsEnabled) {
+		this.grounderCompiledJoinsEnabled = grounderCompiledJoinsEnabled;
+	}
+
+	public boolean isGrounderVerifyNoGoodsEnabled() {
+		return grounderVerifyNoGoodsEnabled;
+	}
+
+	public void setGrounderVerifyNoGoodsEnabled(boolean grounderVerifyNoGoodsEnabled) {
+		this.grounderVerifyNoGoodsEnabled = grounderVerifyNoGoodsEnabled;
+	}
+
+	public boolean isGroundingPipelined() {
+		return groundingPipelined;
+	}
+
+	public void setGroundingPipelined(boolean groundingPipelined) {
+		this.groundingPipelined = groundingPipelined;
+	}
+
+	public boolean isProfileRules() {
+		return profileRules;
+	}
+
+	public void setProfileRules(boolean profileRules) {
+		this.profileRules = profileRules;
+	}
+
+	public long getBudgetWallTimeMillis() {
+		return budgetWallTimeMillis;
+	}
+
+	public void setBudgetWallTimeMillis(long budgetWallTimeMillis) {
+		this.budgetWallTimeMillis = budgetWallTimeMillis;
+	}
+
+	public long getBudgetConflicts() {
+		return budgetConflicts;
+	}
+
+	public void setBudgetConflicts(long budgetConflicts) {
+		this.budgetConflicts = budgetConflicts;
+	}
+
+	public long getBudgetDecisions() {
+		return budgetDecisions;
+	}
+
+	public void setBudgetDecisions(long budgetDecisions) {
+		this.budgetDecisions = budgetDecisions;
+	}
+
+	public long getBudgetNoGoods() {
+		return budgetNoGoods;
+	}
+
+	public void setBudgetNoGoods(long budgetNoGoods) {
+		this.budgetNoGoods = budgetNoGoods;
+	}
+
+	public long getBudgetHeapMegabytes() {
+		return budgetHeapMegabytes;
+	}
+
+	public void setBudgetHeapMegabytes(long budgetHeapMegabytes) {
+		this.budgetHeapMegabytes = budgetHeapMegabytes;
+	}
+
 	public String getAtomSeparator() {
 		return this.atomSeparator;
 	}
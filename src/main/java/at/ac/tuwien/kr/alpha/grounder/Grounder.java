@@ -71,6 +71,13 @@ public interface Grounder {
 	 */
 	Map<Integer, Set<Integer>> getHeadsToBodies();
 
+	/**
+	 * Lets the grounder forget the given atoms, which must never become true again, e.g., because they are assigned false
+	 * at decision level 0. The grounder no longer uses them for grounding new rule instances. The solver removes the
+	 * nogoods these atoms satisfy from its store on its own, but the atoms keep their ids in the
+	 * {@link at.ac.tuwien.kr.alpha.common.AtomStore}.
+	 * @param atomIds the atoms to forget.
+	 */
 	void forgetAssignment(int[] atomIds);
 
 	/**
@@ -53,7 +53,13 @@ public class IndexedInstanceStorage {
 	/**
 	 * A collection of all instances currently stored in this storage.
 	 */
-	private final LinkedHashSet<Instance> instances = new LinkedHashSet<>();
+	private LinkedHashSet<Instance> instances = new LinkedHashSet<>();
+
+	/**
+	 * Whether {@link #instances} is referenced by a snapshot (cf. {@link #getInstancesSnapshot()}) and must be copied before
+	 * it is modified.
+	 */
+	private boolean instancesShared;
 
 	/**
 	 * For each position, a mapping of termIds to list of instances with this termId at the corresponding position
@@ -80,6 +86,14 @@ public void markRecentlyAddedInstancesDone() {
 		recentlyAddedInstances.clear();
 	}
 
+	/**
+	 * Marks all instances of this storage as recently added, e.g., when handing the storage over to a grounder.
+	 */
+	public void markAllInstancesRecentlyAdded() {
+		recentlyAddedInstances.clear();
+		recentlyAddedInstances.addAll(instances);
+	}
+
 	public void addIndexPosition(int position) {
 		if (position < 0 || position > predicate.getArity() - 1) {
 			throw new RuntimeException("Requested to create indices for attribute out of range." +
@@ -119,6 +133,9 @@ public void addInstance(Instance instance) {
 				"instance size: " + instance.terms.size()
 				+ "IndexedInstanceStorage: " + this);
 		}
+		if (instancesShared && !instances.contains(instance)) {
+			unshareInstances();
+		}
 		instances.add(instance);
 		recentlyAddedInstances.add(instance);
 		// Add instance to all indices.
@@ -153,9 +170,17 @@ public void removeInstance(Instance instance) {
 				posIndex.remove(instance.terms.get(i));
 			}
 		}
+		if (instancesShared && instances.contains(instance)) {
+			unshareInstances();
+		}
 		instances.remove(instance);
 	}
 
+	private void unshareInstances() {
+		instances = new LinkedHashSet<>(instances);
+		instancesShared = false;
+	}
+
 	public List<Instance> getRecentlyAddedInstances() {
 		return recentlyAddedInstances;
 	}
@@ -214,6 +239,27 @@ public Set<Instance> getAllInstances() {
 		return instances;
 	}
 
+	/**
+	 * Returns a read-only snapshot of the instances currently stored. Taking the snapshot does not copy the instances, the
+	 * storage copies them only once it is modified afterwards.
+	 * @return an unmodifiable set of all instances currently stored.
+	 */
+	public Set<Instance> getInstancesSnapshot() {
+		instancesShared = true;
+		return Collections.unmodifiableSet(instances);
+	}
+
+	/**
+	 * Returns the number of distinct terms occurring at the given position among all instances, or the number of all instances if the
+	 * position is not indexed (i.e., assuming no two instances share a term at that position).
+	 * @param position
+	 * @return
+	 */
+	public int getDistinctValueCount(int position) {
+		Map<Term, ArrayList<Instance>> indexForPosition = indices.get(position);
+		return indexForPosition == null ? instances.size() : indexForPosition.size();
+	}
+
 	@Override
 	public String toString() {
 		return (positive ? "+" : "-") + predicate;
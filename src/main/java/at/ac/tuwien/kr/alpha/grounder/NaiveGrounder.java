@@ -28,6 +28,7 @@
 package at.ac.tuwien.kr.alpha.grounder;
 
 import at.ac.tuwien.kr.alpha.Util;
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.AnswerSet;
 import at.ac.tuwien.kr.alpha.common.Assignment;
 import at.ac.tuwien.kr.alpha.common.AtomStore;
@@ -40,6 +41,7 @@
 import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
 import at.ac.tuwien.kr.alpha.common.atoms.Literal;
 import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.common.program.PartiallyEvaluatedProgram;
 import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
 import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
 import at.ac.tuwien.kr.alpha.grounder.atoms.ChoiceAtom;
@@ -48,16 +50,27 @@
 import at.ac.tuwien.kr.alpha.grounder.heuristics.GrounderHeuristicsConfiguration;
 import at.ac.tuwien.kr.alpha.grounder.instantiation.AssignmentStatus;
 import at.ac.tuwien.kr.alpha.grounder.instantiation.BindingResult;
+import at.ac.tuwien.kr.alpha.grounder.instantiation.CompiledJoin;
+import at.ac.tuwien.kr.alpha.grounder.instantiation.LeapfrogTriejoin;
 import at.ac.tuwien.kr.alpha.grounder.instantiation.DefaultLazyGroundingInstantiationStrategy;
 import at.ac.tuwien.kr.alpha.grounder.instantiation.LiteralInstantiationResult;
 import at.ac.tuwien.kr.alpha.grounder.instantiation.LiteralInstantiator;
 import at.ac.tuwien.kr.alpha.grounder.structure.AnalyzeUnjustified;
+import at.ac.tuwien.kr.alpha.grounder.transformation.AggregateConstraintRewriting;
+import at.ac.tuwien.kr.alpha.grounder.transformation.StratifiedAggregateRewriting;
+import at.ac.tuwien.kr.alpha.metrics.MetricsRegistry;
+import at.ac.tuwien.kr.alpha.metrics.RuleProfiler;
+import at.ac.tuwien.kr.alpha.metrics.Timer;
+import at.ac.tuwien.kr.alpha.metrics.jfr.FlightRecorderEvents;
+import at.ac.tuwien.kr.alpha.metrics.jfr.GroundingEvent;
+import at.ac.tuwien.kr.alpha.solver.CancellationHandle;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -72,6 +85,7 @@
 
 import static at.ac.tuwien.kr.alpha.Util.oops;
 import static at.ac.tuwien.kr.alpha.common.Literals.atomOf;
+import static at.ac.tuwien.kr.alpha.common.Literals.atomToNegatedLiteral;
 
 /**
  * A semi-naive grounder.
@@ -81,19 +95,21 @@
 public class NaiveGrounder extends BridgedGrounder implements ProgramAnalyzingGrounder {
 	private static final Logger LOGGER = LoggerFactory.getLogger(NaiveGrounder.class);
 
-	private final WorkingMemory workingMemory = new WorkingMemory();
+	final WorkingMemory workingMemory;
 	private final AtomStore atomStore;
-	private final NogoodRegistry registry = new NogoodRegistry();
+	private final NogoodRegistry registry;
+	private final PendingConstraintInstances pendingConstraints = new PendingConstraintInstances();
 	final NoGoodGenerator noGoodGenerator;
 	private final ChoiceRecorder choiceRecorder;
 	private final InternalProgram program;
 	private final AnalyzeUnjustified analyzeUnjustified;
 
-	private final Map<Predicate, LinkedHashSet<Instance>> factsFromProgram;
+	private final Map<Predicate, Set<Instance>> factsFromProgram;
 	private final Map<IndexedInstanceStorage, ArrayList<FirstBindingAtom>> rulesUsingPredicateWorkingMemory = new HashMap<>();
 	private final Map<Integer, InternalRule> knownNonGroundRules;
 
 	private ArrayList<InternalRule> fixedRules = new ArrayList<>();
+	private boolean factsLoaded;
 	private LinkedHashSet<Atom> removeAfterObtainingNewNoGoods = new LinkedHashSet<>();
 	private final boolean debugInternalChecks;
 
@@ -103,6 +119,17 @@ public class NaiveGrounder extends BridgedGrounder implements ProgramAnalyzingGr
 	// according to the rules set by the LiteralInstantiationStrategy used by this grounder.
 	private final LiteralInstantiator ruleInstantiator;
 	private final DefaultLazyGroundingInstantiationStrategy instantiationStrategy;
+	// Joins compiled per grounding order if enabled, null values mark grounding orders that cannot be compiled.
+	private final Map<RuleGroundingOrder, CompiledJoin> compiledJoins = new HashMap<>();
+	// Positive bodies of rules joined by Leapfrog Triejoin when bootstrapping, by rule id.
+	private final Map<Integer, List<Literal>> cyclicFactBodies = new HashMap<>();
+
+	private final Timer groundingTimer;
+	private final Timer justificationTimer;
+	private final Timer answerSetTranslationTimer;
+	private final RuleProfiler ruleProfiler; // null if rules are not profiled
+	private long exploredSubstitutions; // number of substitutions explored by bindNextAtomInRule or compiled joins
+	private final CancellationHandle cancellationHandle;
 
 	public NaiveGrounder(InternalProgram program, AtomStore atomStore, boolean debugInternalChecks, Bridge... bridges) {
 		this(program, atomStore, new GrounderHeuristicsConfiguration(), debugInternalChecks, bridges);
@@ -110,21 +137,26 @@ public NaiveGrounder(InternalProgram program, AtomStore atomStore, boolean debug
 
 	private NaiveGrounder(InternalProgram program, AtomStore atomStore, GrounderHeuristicsConfiguration heuristicsConfiguration, boolean debugInternalChecks,
 			Bridge... bridges) {
-		this(program, atomStore, p -> true, heuristicsConfiguration, debugInternalChecks, bridges);
+		this(program, atomStore, p -> true, heuristicsConfiguration, AlphaContext.getDefault(), debugInternalChecks, bridges);
 	}
 
 	NaiveGrounder(InternalProgram program, AtomStore atomStore, java.util.function.Predicate<Predicate> filter,
-			GrounderHeuristicsConfiguration heuristicsConfiguration, boolean debugInternalChecks, Bridge... bridges) {
+			GrounderHeuristicsConfiguration heuristicsConfiguration, AlphaContext context, boolean debugInternalChecks, Bridge... bridges) {
 		super(filter, bridges);
 		this.atomStore = atomStore;
 		this.heuristicsConfiguration = heuristicsConfiguration;
 		LOGGER.debug("Grounder configuration: {}", heuristicsConfiguration);
+		this.registry = new NogoodRegistry(heuristicsConfiguration.isVerifyNoGoodsEnabled());
 
 		this.program = program;
 
 		this.factsFromProgram = program.getFactsByPredicate();
 		this.knownNonGroundRules = program.getRulesById();
 
+		// Adopt the instance storages of a partially evaluated program instead of building them anew from its facts.
+		WorkingMemory evaluatedWorkingMemory = program instanceof PartiallyEvaluatedProgram ? ((PartiallyEvaluatedProgram) program).takeWorkingMemory() : null;
+		this.workingMemory = evaluatedWorkingMemory != null ? evaluatedWorkingMemory : new WorkingMemory();
+
 		this.analyzeUnjustified = new AnalyzeUnjustified(this.program, this.atomStore, this.factsFromProgram);
 
 		this.initializeFactsAndRules();
@@ -140,14 +172,19 @@ private NaiveGrounder(InternalProgram program, AtomStore atomStore, GrounderHeur
 		this.instantiationStrategy = new DefaultLazyGroundingInstantiationStrategy(this.workingMemory, this.atomStore, this.factsFromProgram,
 				this.heuristicsConfiguration.isAccumulatorEnabled());
 		this.instantiationStrategy.setStaleWorkingMemoryEntries(this.removeAfterObtainingNewNoGoods);
-		this.ruleInstantiator = new LiteralInstantiator(this.instantiationStrategy);
+		this.ruleInstantiator = new LiteralInstantiator(this.instantiationStrategy, context);
+
+		MetricsRegistry metrics = context.getMetrics();
+		this.groundingTimer = metrics.timer(MetricsRegistry.GROUNDING);
+		this.justificationTimer = metrics.timer(MetricsRegistry.JUSTIFICATION);
+		this.answerSetTranslationTimer = metrics.timer(MetricsRegistry.ANSWER_SET_TRANSLATION);
+		this.ruleProfiler = metrics.getRuleProfiler();
+		this.cancellationHandle = context.getCancellationHandle();
 	}
 
 	private void initializeFactsAndRules() {
 		// Initialize all facts.
-		for (Atom fact : program.getFacts()) {
-			final Predicate predicate = fact.getPredicate();
-
+		for (Predicate predicate : factsFromProgram.keySet()) {
 			// Record predicate
 			workingMemory.initialize(predicate);
 		}
@@ -159,6 +196,10 @@ private void initializeFactsAndRules() {
 
 		// Initialize rules and constraints in working memory.
 		for (InternalRule nonGroundRule : program.getRulesById().values()) {
+			if (!nonGroundRule.isConstraint() && StratifiedAggregateRewriting.isOutputPredicate(nonGroundRule.getHeadAtom().getPredicate())) {
+				throw new IllegalStateException("Aggregate rewritten for stratified evaluation reached the grounder, the program must be passed through "
+						+ "StratifiedEvaluation first. Rule is: " + nonGroundRule);
+			}
 			// Create working memories for all predicates occurring in the rule.
 			for (Predicate predicate : nonGroundRule.getOccurringPredicates()) {
 				// FIXME: this also contains interval/builtin predicates that are not needed.
@@ -176,6 +217,20 @@ private void initializeFactsAndRules() {
 				registerLiteralAtWorkingMemory(literal, nonGroundRule);
 			}
 		}
+
+		// Rules whose positive body is cyclic and over facts only are joined by Leapfrog Triejoin when bootstrapping.
+		Set<Predicate> derivedPredicates = new HashSet<>();
+		for (InternalRule nonGroundRule : program.getRulesById().values()) {
+			if (!nonGroundRule.isConstraint()) {
+				derivedPredicates.add(nonGroundRule.getHeadAtom().getPredicate());
+			}
+		}
+		for (InternalRule nonGroundRule : program.getRulesById().values()) {
+			List<Literal> positiveBody = LeapfrogTriejoin.getCyclicPositiveBody(nonGroundRule.getBody());
+			if (!positiveBody.isEmpty() && positiveBody.stream().noneMatch(literal -> derivedPredicates.contains(literal.getPredicate()))) {
+				cyclicFactBodies.put(nonGroundRule.getRuleId(), positiveBody);
+			}
+		}
 	}
 
 	private Set<InternalRule> getRulesWithUniqueHead() {
@@ -194,7 +249,7 @@ private Set<InternalRule> getRulesWithUniqueHead() {
 			Atom headAtom = nonGroundRule.getHeadAtom();
 
 			// Rule is not guaranteed unique if there are facts for it.
-			HashSet<Instance> potentialFacts = factsFromProgram.get(headAtom.getPredicate());
+			Set<Instance> potentialFacts = factsFromProgram.get(headAtom.getPredicate());
 			if (potentialFacts != null && !potentialFacts.isEmpty()) {
 				continue;
 			}
@@ -231,6 +286,7 @@ private void registerLiteralAtWorkingMemory(Literal literal, InternalRule nonGro
 
 	@Override
 	public AnswerSet assignmentToAnswerSet(Iterable<Integer> trueAtoms) {
+		long start = answerSetTranslationTimer.start();
 		Map<Predicate, SortedSet<Atom>> predicateInstances = new LinkedHashMap<>();
 		SortedSet<Predicate> knownPredicates = new TreeSet<>();
 
@@ -256,7 +312,7 @@ public AnswerSet assignmentToAnswerSet(Iterable<Integer> trueAtoms) {
 		}
 
 		// Add true atoms from facts.
-		for (Map.Entry<Predicate, LinkedHashSet<Instance>> facts : factsFromProgram.entrySet()) {
+		for (Map.Entry<Predicate, Set<Instance>> facts : factsFromProgram.entrySet()) {
 			Predicate factPredicate = facts.getKey();
 			// Skip atoms over internal predicates.
 			if (factPredicate.isInternal()) {
@@ -278,31 +334,35 @@ public AnswerSet assignmentToAnswerSet(Iterable<Integer> trueAtoms) {
 			}
 		}
 
-		if (knownPredicates.isEmpty()) {
-			return BasicAnswerSet.EMPTY;
-		}
-
-		return new BasicAnswerSet(knownPredicates, predicateInstances);
+		AnswerSet answerSet = knownPredicates.isEmpty() ? BasicAnswerSet.EMPTY : new BasicAnswerSet(knownPredicates, predicateInstances);
+		answerSetTranslationTimer.stop(start);
+		return answerSet;
 	}
 
 	/**
-	 * Prepares facts of the input program for joining and derives all NoGoods representing ground rules. May only be called once.
+	 * Prepares facts of the input program for joining and derives all NoGoods representing ground rules. If grounding is
+	 * cancelled, the rules not grounded yet are kept and grounded by the next call, otherwise this is only called once.
 	 * 
 	 * @return
 	 */
 	protected HashMap<Integer, NoGood> bootstrap() {
 		final HashMap<Integer, NoGood> groundNogoods = new LinkedHashMap<>();
-
-		for (Predicate predicate : factsFromProgram.keySet()) {
-			// Instead of generating NoGoods, add instance to working memories directly.
-			workingMemory.addInstances(predicate, true, factsFromProgram.get(predicate));
+		if (!factsLoaded) {
+			loadFacts(groundNogoods);
+			factsLoaded = true;
 		}
 
-		for (InternalRule nonGroundRule : fixedRules) {
+		for (int i = 0; i < fixedRules.size(); i++) {
+			if (cancellationHandle.isInterrupted()) {
+				// The solver stops at its next check of the handle, the remaining rules are grounded when grounding resumes.
+				fixedRules.subList(0, i).clear();
+				return groundNogoods;
+			}
 			// Generate NoGoods for all rules that have a fixed grounding.
+			InternalRule nonGroundRule = fixedRules.get(i);
 			RuleGroundingOrder groundingOrder = nonGroundRule.getGroundingOrders().getFixedGroundingOrder();
 			BindingResult bindingResult = getGroundInstantiations(nonGroundRule, groundingOrder, new Substitution(), null);
-			groundAndRegister(nonGroundRule, bindingResult.getGeneratedSubstitutions(), groundNogoods);
+			groundAndRegister(nonGroundRule, bindingResult.getGeneratedSubstitutions(), null, groundNogoods);
 		}
 
 		fixedRules = null;
@@ -310,13 +370,47 @@ protected HashMap<Integer, NoGood> bootstrap() {
 		return groundNogoods;
 	}
 
+	private void loadFacts(Map<Integer, NoGood> groundNogoods) {
+		for (Predicate predicate : factsFromProgram.keySet()) {
+			// Instead of generating NoGoods, add instance to working memories directly.
+			workingMemory.addInstances(predicate, true, factsFromProgram.get(predicate));
+		}
+
+		// Facts of aggregate constraints are checked by the solver, hence they must be known to it as well.
+		for (Predicate predicate : Arrays.asList(AggregateConstraintRewriting.ELEMENT, AggregateConstraintRewriting.CAPACITY)) {
+			Set<Instance> facts = factsFromProgram.get(predicate);
+			if (facts == null) {
+				continue;
+			}
+			for (Instance fact : facts) {
+				NoGood factNoGood = NoGood.fact(atomToNegatedLiteral(atomStore.putIfAbsent(new BasicAtom(predicate, fact.terms))));
+				groundNogoods.put(registry.register(factNoGood), factNoGood);
+			}
+		}
+	}
+
 	@Override
 	public Map<Integer, NoGood> getNoGoods(Assignment currentAssignment) {
+		GroundingEvent groundingEvent = FlightRecorderEvents.newGroundingEvent();
+		if (groundingEvent != null) {
+			groundingEvent.begin();
+		}
+		long start = groundingTimer.start();
 		// In first call, prepare facts and ground rules.
-		final Map<Integer, NoGood> newNoGoods = fixedRules != null ? bootstrap() : new LinkedHashMap<>();
+		final boolean bootstrapping = fixedRules != null;
+		final Map<Integer, NoGood> newNoGoods = bootstrapping ? bootstrap() : new LinkedHashMap<>();
 
 		// Compute new ground rule (evaluate joins with newly changed atoms)
-		for (IndexedInstanceStorage modifiedWorkingMemory : workingMemory.modified()) {
+		boolean cancelled = false;
+		for (Iterator<IndexedInstanceStorage> modifiedIterator = workingMemory.modified().iterator(); modifiedIterator.hasNext();) {
+			if (cancellationHandle.isInterrupted()) {
+				// The solver stops at its next check of the handle. Storages not processed yet stay modified, and pending removals
+				// stay queued until grounding resumes, since instances must not be removed while new instances are unprocessed.
+				cancelled = true;
+				break;
+			}
+			IndexedInstanceStorage modifiedWorkingMemory = modifiedIterator.next();
+			modifiedIterator.remove();
 			// Skip predicates solely used in the solver which do not occur in rules.
 			Predicate workingMemoryPredicate = modifiedWorkingMemory.getPredicate();
 			if (workingMemoryPredicate.isSolverInternal()) {
@@ -335,6 +429,13 @@ public Map<Integer, NoGood> getNoGoods(Assignment currentAssignment) {
 				// Use the recently added instances from the modified working memory to construct an initial substitution
 				InternalRule nonGroundRule = firstBindingAtom.rule;
 
+				// Join cyclic bodies over facts all at once.
+				List<Literal> cyclicFactBody = bootstrapping ? cyclicFactBodies.get(nonGroundRule.getRuleId()) : null;
+				if (cyclicFactBody != null) {
+					groundCyclicFactBody(firstBindingAtom, cyclicFactBody, modifiedWorkingMemory.getRecentlyAddedInstances(), currentAssignment, newNoGoods);
+					continue;
+				}
+
 				// Generate substitutions from each recent instance.
 				for (Instance instance : modifiedWorkingMemory.getRecentlyAddedInstances()) {
 					// Check instance if it matches with the atom.
@@ -352,7 +453,7 @@ public Map<Integer, NoGood> getNoGoods(Assignment currentAssignment) {
 							unifier,
 							currentAssignment);
 
-					groundAndRegister(nonGroundRule, bindingResult.getGeneratedSubstitutions(), newNoGoods);
+					groundAndRegister(nonGroundRule, bindingResult.getGeneratedSubstitutions(), currentAssignment, newNoGoods);
 				}
 			}
 
@@ -360,19 +461,24 @@ public Map<Integer, NoGood> getNoGoods(Assignment currentAssignment) {
 			modifiedWorkingMemory.markRecentlyAddedInstancesDone();
 		}
 
-		workingMemory.reset();
-		for (Atom removeAtom : removeAfterObtainingNewNoGoods) {
-			final IndexedInstanceStorage storage = workingMemory.get(removeAtom, true);
-			Instance instance = new Instance(removeAtom.getTerms());
-			if (storage.containsInstance(instance)) {
-				// permissive grounder heuristics may attempt to remove instances that are not yet in the working memory
-				storage.removeInstance(instance);
+		if (!cancelled) {
+			// Pass on lazily instantiated constraints that became unit or violated, or all of them if there is no assignment.
+			registry.register(currentAssignment != null ? pendingConstraints.removeReady(currentAssignment) : pendingConstraints.removeAll(), newNoGoods);
+
+			workingMemory.reset();
+			for (Atom removeAtom : removeAfterObtainingNewNoGoods) {
+				final IndexedInstanceStorage storage = workingMemory.get(removeAtom, true);
+				Instance instance = new Instance(removeAtom.getTerms());
+				if (storage.containsInstance(instance)) {
+					// permissive grounder heuristics may attempt to remove instances that are not yet in the working memory
+					storage.removeInstance(instance);
+				}
 			}
-		}
 
-		// Re-Initialize the stale working memory entries set and pass to instantiation strategy.
-		removeAfterObtainingNewNoGoods = new LinkedHashSet<>();
-		instantiationStrategy.setStaleWorkingMemoryEntries(removeAfterObtainingNewNoGoods);
+			// Re-Initialize the stale working memory entries set and pass to instantiation strategy.
+			removeAfterObtainingNewNoGoods = new LinkedHashSet<>();
+			instantiationStrategy.setStaleWorkingMemoryEntries(removeAfterObtainingNewNoGoods);
+		}
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("Grounded NoGoods are:");
 			for (Map.Entry<Integer, NoGood> noGoodEntry : newNoGoods.entrySet()) {
@@ -385,24 +491,70 @@ public Map<Integer, NoGood> getNoGoods(Assignment currentAssignment) {
 			checkTypesOfNoGoods(newNoGoods.values());
 		}
 
+		groundingTimer.stop(start);
+		if (groundingEvent != null && groundingEvent.shouldCommit()) {
+			groundingEvent.setNoGoods(newNoGoods.size());
+			groundingEvent.commit();
+		}
 		return newNoGoods;
 	}
 
+	/**
+	 * Grounds the rule of the given {@link FirstBindingAtom} from the given instances of its starting literal, where the positive body of
+	 * the rule is cyclic and only contains predicates of facts: the positive body is joined by a {@link LeapfrogTriejoin}, and the remaining
+	 * literals are bound for each of the resulting substitutions as usual.
+	 */
+	private void groundCyclicFactBody(FirstBindingAtom firstBindingAtom, List<Literal> positiveBody, List<Instance> startingInstances,
+			Assignment currentAssignment, Map<Integer, NoGood> newNoGoods) {
+		InternalRule nonGroundRule = firstBindingAtom.rule;
+		RuleGroundingOrder groundingOrder = nonGroundRule.getGroundingOrders().orderStartingFrom(firstBindingAtom.startingLiteral);
+		List<Substitution> positiveBodySubstitutions = LeapfrogTriejoin.startingFrom(firstBindingAtom.startingLiteral, groundingOrder, positiveBody)
+				.join(startingInstances, workingMemory);
+		for (Substitution substitution : positiveBodySubstitutions) {
+			BindingResult bindingResult = getGroundInstantiations(nonGroundRule, groundingOrder, substitution, currentAssignment);
+			groundAndRegister(nonGroundRule, bindingResult.getGeneratedSubstitutions(), currentAssignment, newNoGoods);
+		}
+	}
+
 	/**
 	 * Grounds the given {@code nonGroundRule} by applying the given {@code substitutions} and registers the nogoods generated during that
 	 * process.
 	 *
 	 * @param nonGroundRule the rule to be grounded.
-	 * @param substitutions the substitutions to be applied.
-	 * @param newNoGoods    a set of nogoods to which newly generated nogoods will be added.
+	 * If lazy instantiation of constraints is enabled, nogoods stemming from constraints are only registered once they are unit or
+	 * violated under the {@code currentAssignment} (cf. {@link PendingConstraintInstances}), otherwise they are kept pending.
+	 *
+	 * @param nonGroundRule     the rule to be grounded.
+	 * @param substitutions     the substitutions to be applied.
+	 * @param currentAssignment the current assignment, or {@code null} if none is available (nogoods are then registered eagerly).
+	 * @param newNoGoods        a set of nogoods to which newly generated nogoods will be added.
 	 */
-	private void groundAndRegister(final InternalRule nonGroundRule, final List<Substitution> substitutions, final Map<Integer, NoGood> newNoGoods) {
+	private void groundAndRegister(final InternalRule nonGroundRule, final List<Substitution> substitutions, final Assignment currentAssignment,
+			final Map<Integer, NoGood> newNoGoods) {
+		final boolean lazy = currentAssignment != null && nonGroundRule.isConstraint() && heuristicsConfiguration.isLazyConstraintsEnabled();
 		for (Substitution substitution : substitutions) {
+			long start = ruleProfiler != null ? System.nanoTime() : 0;
 			List<NoGood> generatedNoGoods = noGoodGenerator.generateNoGoodsFromGroundSubstitution(nonGroundRule, substitution);
+			if (ruleProfiler != null) {
+				ruleProfiler.recordGroundInstance(nonGroundRule, generatedNoGoods, System.nanoTime() - start);
+			}
+			if (lazy) {
+				generatedNoGoods = withoutPending(generatedNoGoods, currentAssignment);
+			}
 			registry.register(generatedNoGoods, newNoGoods);
 		}
 	}
 
+	private List<NoGood> withoutPending(List<NoGood> generatedNoGoods, Assignment currentAssignment) {
+		List<NoGood> ready = new ArrayList<>(generatedNoGoods.size());
+		for (NoGood noGood : generatedNoGoods) {
+			if (registry.isRegistered(noGood) || !pendingConstraints.addIfNotReady(noGood, currentAssignment)) {
+				ready.add(noGood);
+			}
+		}
+		return ready;
+	}
+
 	@Override
 	public int register(NoGood noGood) {
 		return registry.register(noGood);
@@ -415,12 +567,25 @@ BindingResult getGroundInstantiations(InternalRule rule, RuleGroundingOrder grou
 		if (tolerance < 0) {
 			tolerance = Integer.MAX_VALUE;
 		}
+		// Compiled joins never push back literals, which only makes a difference for a permissive tolerance.
+		CompiledJoin compiledJoin = tolerance == 0 ? getCompiledJoin(groundingOrder, partialSubstitution) : null;
 
 		// Update instantiationStrategy with current assignment.
 		// Note: Actually the assignment could be an instance variable of the grounder (shared with solver),
 		// but this would have a larger impact on grounder/solver communication design as a whole.
 		instantiationStrategy.setCurrentAssignment(currentAssignment);
-		BindingResult bindingResult = bindNextAtomInRule(groundingOrder, 0, tolerance, tolerance, partialSubstitution);
+		long substitutionsBefore = exploredSubstitutions;
+		long start = ruleProfiler != null ? System.nanoTime() : 0;
+		BindingResult bindingResult;
+		if (compiledJoin != null) {
+			bindingResult = new BindingResult();
+			exploredSubstitutions += compiledJoin.join(partialSubstitution, bindingResult);
+		} else {
+			bindingResult = bindNextAtomInRule(groundingOrder, 0, tolerance, tolerance, partialSubstitution);
+		}
+		if (ruleProfiler != null) {
+			ruleProfiler.recordBinding(rule, exploredSubstitutions - substitutionsBefore, System.nanoTime() - start);
+		}
 		if (LOGGER.isDebugEnabled()) {
 			for (int i = 0; i < bindingResult.size(); i++) {
 				Integer numberOfUnassignedPositiveBodyAtoms = bindingResult.getNumbersOfUnassignedPositiveBodyAtoms().get(i);
@@ -433,6 +598,22 @@ BindingResult getGroundInstantiations(InternalRule rule, RuleGroundingOrder grou
 		return bindingResult;
 	}
 
+	/**
+	 * Returns the compiled join for the given grounding order, compiling it on first use, if compiled joins are enabled and the
+	 * grounding order can be compiled for the variables bound by the given substitution.
+	 */
+	private CompiledJoin getCompiledJoin(RuleGroundingOrder groundingOrder, Substitution partialSubstitution) {
+		if (!heuristicsConfiguration.isCompiledJoinsEnabled()) {
+			return null;
+		}
+		if (!compiledJoins.containsKey(groundingOrder)) {
+			compiledJoins.put(groundingOrder, CompiledJoin.compile(groundingOrder, partialSubstitution.getMappedVariables(), workingMemory,
+					ruleInstantiator, instantiationStrategy));
+		}
+		CompiledJoin compiledJoin = compiledJoins.get(groundingOrder);
+		return compiledJoin != null && compiledJoin.isApplicableTo(partialSubstitution) ? compiledJoin : null;
+	}
+
 	/**
 	 * Helper method used by {@link NaiveGrounder#bindNextAtomInRule(RuleGroundingOrder, int, int, int, Substitution)}.
 	 * 
@@ -523,6 +704,7 @@ private BindingResult bindNextAtomInRule(RuleGroundingOrder groundingOrder, int
 				 * If remainingTolerance falls below zero, an empty {@link BindingResult} is returned.
 				 */
 				List<ImmutablePair<Substitution, AssignmentStatus>> substitutionInfos = instantiationResult.getSubstitutions();
+				exploredSubstitutions += substitutionInfos.size();
 				LOGGER.trace("Literal instantiator yielded {} substitutions for literal {}.", substitutionInfos.size(), currentLiteral);
 				BindingResult retVal = new BindingResult();
 				for (ImmutablePair<Substitution, AssignmentStatus> substitutionInfo : substitutionInfos) {
@@ -574,13 +756,33 @@ public Map<Integer, Set<Integer>> getHeadsToBodies() {
 	@Override
 	public void updateAssignment(IntIterator it) {
 		while (it.hasNext()) {
-			workingMemory.addInstance(atomStore.get(it.next()), true);
+			Atom atom = atomStore.get(it.next());
+			if (!workingMemory.contains(atom.getPredicate())) {
+				// Atoms over predicates not occurring in the program (e.g., from assumptions of the solver) trigger no grounding.
+				continue;
+			}
+			workingMemory.addInstance(atom, true);
 		}
 	}
 
+	/**
+	 * Removes the instances of the given atoms from the working memory, such that they no longer take part in joins.
+	 * The atoms must never become true again, e.g., because they are assigned false at decision level 0. Removal is
+	 * deferred until after the next grounding step, as for stale working memory entries. Only the working memory is
+	 * affected, the atoms stay in the atom store and in the nogoods registered so far.
+	 */
 	@Override
 	public void forgetAssignment(int[] atomIds) {
-		throw new UnsupportedOperationException("Forgetting assignments is not implemented");
+		for (int atomId : atomIds) {
+			Atom atom = atomStore.get(atomId);
+			if (atom.getPredicate().isSolverInternal() || !workingMemory.contains(atom.getPredicate()) || isFact(atom)) {
+				continue;
+			}
+			// Only instances that are joined by some rule matter, others are never used for grounding anyway.
+			if (rulesUsingPredicateWorkingMemory.containsKey(workingMemory.get(atom, true))) {
+				removeAfterObtainingNewNoGoods.add(atom);
+			}
+		}
 	}
 
 	@Override
@@ -590,7 +792,7 @@ public InternalRule getNonGroundRule(Integer ruleId) {
 
 	@Override
 	public boolean isFact(Atom atom) {
-		LinkedHashSet<Instance> instances = factsFromProgram.get(atom.getPredicate());
+		Set<Instance> instances = factsFromProgram.get(atom.getPredicate());
 		if (instances == null) {
 			return false;
 		}
@@ -599,6 +801,7 @@ public boolean isFact(Atom atom) {
 
 	@Override
 	public Set<Literal> justifyAtom(int atomToJustify, Assignment currentAssignment) {
+		long start = justificationTimer.start();
 		Set<Literal> literals = analyzeUnjustified.analyze(atomToJustify, currentAssignment);
 		// Remove facts from justification before handing it over to the solver.
 		for (Iterator<Literal> iterator = literals.iterator(); iterator.hasNext();) {
@@ -606,11 +809,12 @@ public Set<Literal> justifyAtom(int atomToJustify, Assignment currentAssignment)
 			if (literal.isNegated()) {
 				continue;
 			}
-			LinkedHashSet<Instance> factsOverPredicate = factsFromProgram.get(literal.getPredicate());
+			Set<Instance> factsOverPredicate = factsFromProgram.get(literal.getPredicate());
 			if (factsOverPredicate != null && factsOverPredicate.contains(new Instance(literal.getAtom().getTerms()))) {
 				iterator.remove();
 			}
 		}
+		justificationTimer.stop(start);
 		return literals;
 	}
 
@@ -2,43 +2,215 @@
 
 import at.ac.tuwien.kr.alpha.common.NoGood;
 
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.Map;
 
+import static at.ac.tuwien.kr.alpha.Util.arrayGrowthSize;
+import static at.ac.tuwien.kr.alpha.Util.oops;
+
+/**
+ * Assigns identifiers to nogoods and detects nogoods that have been registered before.
+ *
+ * Instead of keeping all registered {@link NoGood} objects alive, the registry only stores a 64-bit fingerprint of each
+ * nogood (computed from its sorted literals and its head flag) together with its identifier in a primitive open-addressing
+ * hash table. By default, the literals of each registered nogood are additionally kept in a compact int array and a
+ * nogood is only considered known if its literals match, hence a fingerprint collision can never cause a new nogood to be
+ * dropped. Verification can be switched off explicitly to save that memory; then a fingerprint collision (with a
+ * probability of about n^2 / 2^65 for n registered nogoods) causes a new nogood to be dropped, which is unsound.
+ *
+ * Identifiers are generated per registry, starting at 0.
+ */
 public class NogoodRegistry {
-	private static final IntIdGenerator ID_GENERATOR = new IntIdGenerator();
+	private static final int INITIAL_CAPACITY = 1 << 10;
+	private static final int INITIAL_LITERAL_STORAGE = 1 << 12;
+	private static final long EMPTY = 0;
+	// Some virtual machines reserve header words in arrays, hence the literal storage does not grow up to Integer.MAX_VALUE.
+	private static final int MAX_LITERAL_STORAGE = Integer.MAX_VALUE - 8;
+
+	private final IntIdGenerator idGenerator = new IntIdGenerator();
+	private final boolean verify;
 
-	private Map<NoGood, Integer> registeredIdentifiers = new LinkedHashMap<>();
+	private long[] fingerprints = new long[INITIAL_CAPACITY];
+	private int[] identifiers = new int[INITIAL_CAPACITY];
+	private int[] literalOffsets;
+	private int[] literalStorage;
+	private int literalStorageSize;
+	private int size;
+	private long totalLiterals;
+
+	public NogoodRegistry() {
+		this(true);
+	}
+
+	/**
+	 * @param verify whether fingerprint matches are verified against the stored literals of registered nogoods. Passing
+	 *               {@code false} trades soundness under fingerprint collisions for memory.
+	 */
+	public NogoodRegistry(boolean verify) {
+		this.verify = verify;
+		if (verify) {
+			literalOffsets = new int[INITIAL_CAPACITY];
+			literalStorage = new int[INITIAL_LITERAL_STORAGE];
+		}
+	}
 
 	/**
 	 * Helper methods to analyze average nogood length.
 	 * @return
 	 */
-	public float computeAverageNoGoodLength() {
-		int totalSizes = 0;
-		for (Map.Entry<NoGood, Integer> noGoodEntry : registeredIdentifiers.entrySet()) {
-			totalSizes += noGoodEntry.getKey().size();
-		}
-		return ((float) totalSizes) / registeredIdentifiers.size();
+	public synchronized float computeAverageNoGoodLength() {
+		return ((float) totalLiterals) / size;
 	}
 
-	void register(Iterable<NoGood> noGoods, Map<Integer, NoGood> difference) {
+	synchronized int size() {
+		return size;
+	}
+
+	synchronized void register(Iterable<NoGood> noGoods, Map<Integer, NoGood> difference) {
 		for (NoGood noGood : noGoods) {
 			// Check if noGood was already derived earlier, add if it is new
-			if (!registeredIdentifiers.containsKey(noGood)) {
-				int noGoodId = ID_GENERATOR.getNextId();
-				registeredIdentifiers.put(noGood, noGoodId);
+			long fingerprint = fingerprint(noGood);
+			int slot = find(noGood, fingerprint);
+			if (slot < 0) {
+				int noGoodId = insert(noGood, fingerprint, -slot - 1);
 				difference.put(noGoodId, noGood);
 			}
 		}
 	}
 
-	int register(NoGood noGood) {
-		if (!registeredIdentifiers.containsKey(noGood)) {
-			int noGoodId = ID_GENERATOR.getNextId();
-			registeredIdentifiers.put(noGood, noGoodId);
-			return noGoodId;
+	synchronized boolean isRegistered(NoGood noGood) {
+		return find(noGood, fingerprint(noGood)) >= 0;
+	}
+
+	synchronized int register(NoGood noGood) {
+		if (noGood.getType() == NoGood.Type.LEARNT) {
+			// Learned nogoods may get deleted by the solver, retaining them here would only accumulate memory.
+			return idGenerator.getNextId();
+		}
+		long fingerprint = fingerprint(noGood);
+		int slot = find(noGood, fingerprint);
+		if (slot >= 0) {
+			return identifiers[slot];
+		}
+		return insert(noGood, fingerprint, -slot - 1);
+	}
+
+	/**
+	 * Looks up the given nogood.
+	 * @return the slot of the nogood if it is registered, otherwise {@code -(s + 1)} where {@code s} is the free slot the
+	 * 	   nogood would be inserted into.
+	 */
+	private int find(NoGood noGood, long fingerprint) {
+		int mask = fingerprints.length - 1;
+		int slot = (int) fingerprint & mask;
+		while (fingerprints[slot] != EMPTY) {
+			if (fingerprints[slot] == fingerprint && (!verify || literalsMatch(noGood, literalOffsets[slot]))) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -slot - 1;
+	}
+
+	private int insert(NoGood noGood, long fingerprint, int slot) {
+		int noGoodId = idGenerator.getNextId();
+		int offset = verify ? storeLiterals(noGood) : 0;
+		if ((size + 1) * 2 > fingerprints.length) {
+			grow();
+			slot = -find(noGood, fingerprint) - 1;
+		}
+		fingerprints[slot] = fingerprint;
+		identifiers[slot] = noGoodId;
+		if (verify) {
+			literalOffsets[slot] = offset;
+		}
+		size++;
+		totalLiterals += noGood.size();
+		return noGoodId;
+	}
+
+	private void grow() {
+		long[] oldFingerprints = fingerprints;
+		int[] oldIdentifiers = identifiers;
+		int[] oldOffsets = literalOffsets;
+		int capacity = oldFingerprints.length * 2;
+		if (capacity <= 0) {
+			throw oops("NogoodRegistry exceeds maximum capacity");
+		}
+		fingerprints = new long[capacity];
+		identifiers = new int[capacity];
+		literalOffsets = verify ? new int[capacity] : null;
+		int mask = capacity - 1;
+		for (int i = 0; i < oldFingerprints.length; i++) {
+			long fingerprint = oldFingerprints[i];
+			if (fingerprint == EMPTY) {
+				continue;
+			}
+			int slot = (int) fingerprint & mask;
+			while (fingerprints[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			fingerprints[slot] = fingerprint;
+			identifiers[slot] = oldIdentifiers[i];
+			if (verify) {
+				literalOffsets[slot] = oldOffsets[i];
+			}
+		}
+	}
+
+	/**
+	 * Appends a header (number of literals and head flag) followed by the literals of the given nogood to the literal
+	 * storage.
+	 * @return the offset of the header.
+	 */
+	private int storeLiterals(NoGood noGood) {
+		int offset = literalStorageSize;
+		long required = (long) offset + noGood.size() + 1;
+		if (required > literalStorage.length) {
+			if (required > MAX_LITERAL_STORAGE) {
+				throw oops("NogoodRegistry exceeds maximum literal storage");
+			}
+			long capacity = Math.max(arrayGrowthSize(literalStorage.length), required);
+			literalStorage = Arrays.copyOf(literalStorage, (int) Math.min(capacity, MAX_LITERAL_STORAGE));
+		}
+		literalStorage[literalStorageSize++] = header(noGood);
+		for (int i = 0; i < noGood.size(); i++) {
+			literalStorage[literalStorageSize++] = noGood.getLiteral(i);
+		}
+		return offset;
+	}
+
+	private boolean literalsMatch(NoGood noGood, int offset) {
+		if (literalStorage[offset] != header(noGood)) {
+			return false;
+		}
+		for (int i = 0; i < noGood.size(); i++) {
+			if (literalStorage[offset + 1 + i] != noGood.getLiteral(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int header(NoGood noGood) {
+		return noGood.size() << 1 | (noGood.hasHead() ? 1 : 0);
+	}
+
+	/**
+	 * Computes a 64-bit fingerprint of the given nogood from its (sorted) literals and its head flag.
+	 * The fingerprint is never {@link #EMPTY}.
+	 */
+	static long fingerprint(NoGood noGood) {
+		long hash = 0x9E3779B97F4A7C15L * (header(noGood) + 1);
+		for (int i = 0; i < noGood.size(); i++) {
+			hash = Long.rotateLeft(hash ^ (noGood.getLiteral(i) * 0xC2B2AE3D27D4EB4FL), 31) * 0x9E3779B97F4A7C15L;
 		}
-		return registeredIdentifiers.get(noGood);
+		// Final avalanche (as in MurmurHash3).
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		hash ^= hash >>> 33;
+		return hash == EMPTY ? 1 : hash;
 	}
 }
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder;
+
+import at.ac.tuwien.kr.alpha.common.Assignment;
+import at.ac.tuwien.kr.alpha.common.NoGood;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static at.ac.tuwien.kr.alpha.common.Literals.atomOf;
+import static at.ac.tuwien.kr.alpha.common.Literals.isPositive;
+
+/**
+ * Holds ground instances of constraints that have been obtained by the grounder but are not yet passed to the solver.
+ *
+ * A pending instance becomes ready, i.e., is handed over to the solver, as soon as it is unit or violated under the current
+ * assignment (no literal is falsified and at most one literal is unassigned), or once all of its positive literals hold.
+ * The latter condition ensures that no instance is withheld longer than the strict grounder heuristics would withhold it,
+ * hence lazy instantiation of constraints never misses a violated constraint.
+ *
+ * For each pending instance the index of a positive literal that was last seen false is kept as a witness; as long as the
+ * witness is still false, the instance can be skipped without inspecting its other literals.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+class PendingConstraintInstances {
+
+	private final List<NoGood> pending = new ArrayList<>();
+	private final Set<NoGood> pendingSet = new HashSet<>();
+	private int[] witnesses = new int[16];
+
+	/**
+	 * Adds the given ground constraint to the pending instances unless it is ready already.
+	 * @param noGood the nogood representing a ground constraint.
+	 * @param assignment the current assignment.
+	 * @return {@code true} iff the nogood is pending (now or already before), {@code false} if it is ready and must be passed on.
+	 */
+	boolean addIfNotReady(NoGood noGood, Assignment assignment) {
+		if (pendingSet.contains(noGood)) {
+			return true;
+		}
+		assignment.growForMaxAtomId();
+		int witness = findFalsePositiveLiteral(noGood, assignment);
+		if (witness == -1 && isReady(noGood, assignment)) {
+			return false;
+		}
+		if (pending.size() == witnesses.length) {
+			int[] grown = new int[witnesses.length * 2];
+			System.arraycopy(witnesses, 0, grown, 0, witnesses.length);
+			witnesses = grown;
+		}
+		witnesses[pending.size()] = witness;
+		pending.add(noGood);
+		pendingSet.add(noGood);
+		return true;
+	}
+
+	/**
+	 * Removes all pending instances that are ready under the given assignment.
+	 * @param assignment the current assignment.
+	 * @return the list of ground constraints that became ready.
+	 */
+	List<NoGood> removeReady(Assignment assignment) {
+		if (pending.isEmpty()) {
+			return new ArrayList<>();
+		}
+		assignment.growForMaxAtomId();
+		List<NoGood> ready = new ArrayList<>();
+		int kept = 0;
+		for (int i = 0; i < pending.size(); i++) {
+			NoGood noGood = pending.get(i);
+			int witness = witnesses[i];
+			if (witness == -1 || !isFalse(noGood.getLiteral(witness), assignment)) {
+				witness = findFalsePositiveLiteral(noGood, assignment);
+				if (witness == -1 && isReady(noGood, assignment)) {
+					ready.add(noGood);
+					pendingSet.remove(noGood);
+					continue;
+				}
+			}
+			pending.set(kept, noGood);
+			witnesses[kept] = witness;
+			kept++;
+		}
+		pending.subList(kept, pending.size()).clear();
+		return ready;
+	}
+
+	/**
+	 * Removes all pending instances.
+	 * @return the list of all ground constraints that were pending.
+	 */
+	List<NoGood> removeAll() {
+		List<NoGood> all = new ArrayList<>(pending);
+		pending.clear();
+		pendingSet.clear();
+		return all;
+	}
+
+	int size() {
+		return pending.size();
+	}
+
+	private static boolean isFalse(int literal, Assignment assignment) {
+		return assignment.isAssigned(atomOf(literal)) && !assignment.isViolated(literal);
+	}
+
+	/**
+	 * Returns the index of a positive literal of the given nogood that is false, or -1 if there is none.
+	 * An instance having such a literal is not ready, since at least one of its literals is false and not all of its positive
+	 * literals hold.
+	 */
+	private static int findFalsePositiveLiteral(NoGood noGood, Assignment assignment) {
+		for (int i = 0; i < noGood.size(); i++) {
+			int literal = noGood.getLiteral(i);
+			if (isPositive(literal) && isFalse(literal, assignment)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isReady(NoGood noGood, Assignment assignment) {
+		boolean allPositiveHold = true;
+		boolean someFalse = false;
+		int unassigned = 0;
+		for (int i = 0; i < noGood.size(); i++) {
+			int literal = noGood.getLiteral(i);
+			if (!assignment.isAssigned(atomOf(literal))) {
+				unassigned++;
+				if (isPositive(literal)) {
+					allPositiveHold = false;
+				}
+			} else if (!assignment.isViolated(literal)) {
+				someFalse = true;
+				if (isPositive(literal)) {
+					allPositiveHold = false;
+				}
+			}
+		}
+		return allPositiveHold || (!someFalse && unassigned <= 1);
+	}
+}
@@ -38,8 +38,10 @@
 import java.util.Set;
 
 import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicLiteral;
 import at.ac.tuwien.kr.alpha.common.atoms.Literal;
 import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
 import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
 
 /**
@@ -61,6 +63,10 @@
  * literal (whose interpretation is not fixed) is a starting literal, at least for the current grounding procedure.
  */
 public class RuleGroundingOrders {
+	// Estimated number of instances per partial substitution for literals other than basic ones, cf. computeCostBasedGroundingOrder.
+	private static final double ASSIGNMENT_ESTIMATE = 1.0;
+	private static final double FILTER_ESTIMATE = 0.5;
+
 	private final InternalRule internalRule;
 	HashMap<Literal, RuleGroundingOrder> groundingOrders;
 	private HashMap<Literal, Float> literalSelectivity;
@@ -177,11 +183,51 @@ private void computeGroundingOrder(Literal startingLiteral) {
 		} else {
 			literalsOrder = new ArrayList<>(bodyLiterals.size() - 1);
 		}
-		
+		int positionLastVarBound = orderRemainingLiterals(startingLiteral, remainingLiterals, boundVariables, literalsOrder, null);
+		if (fixedGroundingInstantiation) {
+			fixedGroundingOrder = new RuleGroundingOrder(null, literalsOrder, positionLastVarBound, internalRule.isGround());
+		}
+		groundingOrders.put(startingLiteral, new RuleGroundingOrder(startingLiteral, literalsOrder, positionLastVarBound, internalRule.isGround()));
+	}
+
+	/**
+	 * Computes a grounding order starting from the given literal based on statistics of the given working memory: among the literals
+	 * whose non-binding variables are bound, the one estimated to yield the fewest ground instances per partial substitution is joined
+	 * next. The estimate for a positive (or negative) basic literal is the number of instances of its predicate divided by the number of
+	 * distinct values at each position holding a ground term or bound variables (or the estimated probability that there is no such
+	 * instance, respectively), assuming values are distributed independently and uniformly. Other literals are estimated to yield a
+	 * single instance if they bind variables, and to filter half of the partial substitutions otherwise.
+	 *
+	 * The grounding orders computed by {@link #computeGroundingOrders()} are not affected.
+	 *
+	 * @param startingLiteral one of the starting literals of a rule without fixed instantiation.
+	 * @param workingMemory   a working memory holding the instances of (at least) the positive basic literals of the rule.
+	 * @return a grounding order starting from the given literal.
+	 */
+	public RuleGroundingOrder computeCostBasedGroundingOrder(Literal startingLiteral, WorkingMemory workingMemory) {
+		if (fixedGroundingInstantiation || !startingLiterals.contains(startingLiteral)) {
+			throw new IllegalArgumentException("Literal " + startingLiteral + " is no starting literal of rule " + internalRule);
+		}
+		HashSet<VariableTerm> boundVariables = new HashSet<>(startingLiteral.getBindingVariables());
+		LinkedHashSet<Literal> remainingLiterals = new LinkedHashSet<>(internalRule.getBody());
+		remainingLiterals.remove(startingLiteral);
+		ArrayList<Literal> literalsOrder = new ArrayList<>(remainingLiterals.size());
+		int positionLastVarBound = orderRemainingLiterals(startingLiteral, remainingLiterals, boundVariables, literalsOrder, workingMemory);
+		return new RuleGroundingOrder(startingLiteral, literalsOrder, positionLastVarBound, internalRule.isGround());
+	}
+
+	/**
+	 * Appends the remaining literals to the given grounding order, selecting them by the estimates of the given working memory if it is
+	 * non-null and by literal selectivity otherwise.
+	 * @return the position (among the remaining literals) of the last literal binding new variables.
+	 */
+	private int orderRemainingLiterals(Literal startingLiteral, LinkedHashSet<Literal> remainingLiterals, Set<VariableTerm> boundVariables,
+			List<Literal> literalsOrder, WorkingMemory statistics) {
 		int position = 0;
 		int positionLastVarBound = -1;
 		while (!remainingLiterals.isEmpty()) {
-			Literal nextGroundingLiteral = selectNextGroundingLiteral(remainingLiterals, boundVariables);
+			Literal nextGroundingLiteral = statistics == null ? selectNextGroundingLiteral(remainingLiterals, boundVariables)
+					: selectCheapestGroundingLiteral(remainingLiterals, boundVariables, statistics);
 			if (nextGroundingLiteral == null) {
 				throw new RuntimeException("Could not find a grounding order for rule " + internalRule + " with starting literal: " + startingLiteral + ". Rule is not safe.");
 			}
@@ -193,10 +239,42 @@ private void computeGroundingOrder(Literal startingLiteral) {
 			literalsOrder.add(nextGroundingLiteral);
 			position++;
 		}
-		if (fixedGroundingInstantiation) {
-			fixedGroundingOrder = new RuleGroundingOrder(null, literalsOrder, positionLastVarBound, internalRule.isGround());
+		return positionLastVarBound;
+	}
+
+	private Literal selectCheapestGroundingLiteral(LinkedHashSet<Literal> remainingLiterals, Set<VariableTerm> boundVariables, WorkingMemory statistics) {
+		double bestEstimate = Double.MAX_VALUE;
+		Literal bestLiteral = null;
+		for (Literal literal : remainingLiterals) {
+			if (!boundVariables.containsAll(literal.getNonBindingVariables())) {
+				// Only consider literals whose nonbinding variables are already bound.
+				continue;
+			}
+			double estimate = estimateInstancesPerSubstitution(literal, boundVariables, statistics);
+			if (bestLiteral == null || estimate < bestEstimate) {
+				bestLiteral = literal;
+				bestEstimate = estimate;
+			}
 		}
-		groundingOrders.put(startingLiteral, new RuleGroundingOrder(startingLiteral, literalsOrder, positionLastVarBound, internalRule.isGround()));
+		return bestLiteral;
+	}
+
+	private static double estimateInstancesPerSubstitution(Literal literal, Set<VariableTerm> boundVariables, WorkingMemory statistics) {
+		if (literal.getClass() != BasicLiteral.class) {
+			return boundVariables.containsAll(literal.getBindingVariables()) ? FILTER_ESTIMATE : ASSIGNMENT_ESTIMATE;
+		}
+		double instances = 0;
+		if (statistics.contains(literal.getPredicate())) {
+			IndexedInstanceStorage storage = statistics.get(literal.getPredicate(), true);
+			instances = storage.getAllInstances().size();
+			List<Term> terms = literal.getTerms();
+			for (int i = 0; i < terms.size(); i++) {
+				if (boundVariables.containsAll(terms.get(i).getOccurringVariables())) {
+					instances /= Math.max(1, storage.getDistinctValueCount(i));
+				}
+			}
+		}
+		return literal.isNegated() ? 1 - Math.min(1, instances) : instances;
 	}
 
 	private Literal selectNextGroundingLiteral(LinkedHashSet<Literal> remainingLiterals, Set<VariableTerm> boundVariables) {
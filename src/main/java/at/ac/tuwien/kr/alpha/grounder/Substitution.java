@@ -35,6 +35,7 @@
 import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
 import at.ac.tuwien.kr.alpha.grounder.parser.ProgramPartParser;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -216,10 +217,9 @@ public String toString() {
 
 	public static Substitution fromString(String substitution) {
 		String bare = substitution.substring(1, substitution.length() - 1);
-		String[] assignments = bare.split(",");
 		Substitution ret = new Substitution();
-		for (String assignment : assignments) {
-			String[] keyVal = assignment.split("->");
+		for (String assignment : splitAssignments(bare)) {
+			String[] keyVal = assignment.split("->", 2);
 			VariableTerm variable = VariableTerm.getInstance(keyVal[0]);
 			Term assignedTerm = PROGRAM_PART_PARSER.parseTerm(keyVal[1]);
 			ret.put(variable, assignedTerm);
@@ -227,6 +227,34 @@ public static Substitution fromString(String substitution) {
 		return ret;
 	}
 
+	/**
+	 * Splits the given comma-separated assignments, ignoring commas inside of (function) terms and quoted strings.
+	 */
+	private static List<String> splitAssignments(String assignments) {
+		List<String> result = new ArrayList<>();
+		if (assignments.isEmpty()) {
+			return result;
+		}
+		int depth = 0;
+		boolean quoted = false;
+		int start = 0;
+		for (int i = 0; i < assignments.length(); i++) {
+			char c = assignments.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (!quoted && (c == '(' || c == '[')) {
+				depth++;
+			} else if (!quoted && (c == ')' || c == ']')) {
+				depth--;
+			} else if (!quoted && depth == 0 && c == ',') {
+				result.add(assignments.substring(start, i));
+				start = i + 1;
+			}
+		}
+		result.add(assignments.substring(start));
+		return result;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -27,6 +27,7 @@
  */
 package at.ac.tuwien.kr.alpha.grounder;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -103,6 +104,28 @@ public void addInstances(Predicate predicate, boolean value, Iterable<Instance>
 		}
 	}
 
+	/**
+	 * Marks all instances in this working memory as recently added, and all storages holding instances as modified, as if all instances
+	 * had just been added to an empty working memory.
+	 */
+	public void markAllInstancesRecentlyAdded() {
+		for (ImmutablePair<IndexedInstanceStorage, IndexedInstanceStorage> storages : workingMemory.values()) {
+			for (IndexedInstanceStorage storage : new IndexedInstanceStorage[] {storages.getLeft(), storages.getRight()}) {
+				storage.markAllInstancesRecentlyAdded();
+				if (!storage.getAllInstances().isEmpty()) {
+					modifiedWorkingMemories.add(storage);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns all predicates for which storages have been initialized.
+	 */
+	public Set<Predicate> getPredicates() {
+		return Collections.unmodifiableSet(workingMemory.keySet());
+	}
+
 	public void reset() {
 		modifiedWorkingMemories = new LinkedHashSet<>();
 	}
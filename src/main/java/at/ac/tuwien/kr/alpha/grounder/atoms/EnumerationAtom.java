@@ -2,9 +2,9 @@
 
 import static at.ac.tuwien.kr.alpha.Util.oops;
 
-import java.util.HashMap;
 import java.util.List;
 
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.Predicate;
 import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
 import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
@@ -25,7 +25,6 @@
  */
 public class EnumerationAtom extends BasicAtom {
 	public static final Predicate ENUMERATION_PREDICATE = Predicate.getInstance("_Enumeration", 3);
-	private static final HashMap<Term, HashMap<Term, Integer>> ENUMERATIONS = new HashMap<>();
 
 	public EnumerationAtom(List<Term> terms) {
 		super(ENUMERATION_PREDICATE, terms);
@@ -37,39 +36,22 @@ public EnumerationAtom(List<Term> terms) {
 		}
 	}
 
-	public static void resetEnumerations() {
-		ENUMERATIONS.clear();
-	}
-
-	private Integer getEnumerationIndex(Term identifier, Term enumerationTerm) {
-		ENUMERATIONS.putIfAbsent(identifier, new HashMap<>());
-		HashMap<Term, Integer> enumeratedTerms = ENUMERATIONS.get(identifier);
-		Integer assignedInteger = enumeratedTerms.get(enumerationTerm);
-		if (assignedInteger == null) {
-			int enumerationIndex = enumeratedTerms.size() + 1;
-			enumeratedTerms.put(enumerationTerm, enumerationIndex);
-			return enumerationIndex;
-		} else {
-			return assignedInteger;
-		}
-
-	}
-
 	/**
 	 * Based on a given substitution, substitutes the first two terms of this {@link EnumerationAtom} with the values from the substitution,
 	 * and returns a new substitution with all mappings from the input substitution plus a binding for the third term of the enum atom to the
-	 * integer index that is mapped to the first two terms in the internal <code>ENUMERATIONS</code> map.
+	 * integer index that is mapped to the first two terms in the given {@link AlphaContext}.
 	 * 
 	 * @param substitution an input substitution which must provide ground terms for the first two terms of the enumeration atom.
+	 * @param context the context holding the enumeration indices of the current session.
 	 * @return a new substitution where the third term of the enumeration atom is bound to an integer.
 	 */
-	public Substitution addEnumerationIndexToSubstitution(Substitution substitution) {
+	public Substitution addEnumerationIndexToSubstitution(Substitution substitution, AlphaContext context) {
 		Term idTerm = this.getTerms().get(0).substitute(substitution);
 		Term enumerationTerm = this.getTerms().get(1).substitute(substitution);
 		if (!enumerationTerm.isGround()) {
 			throw new RuntimeException("Enumeration term is not ground after substitution. Should not happen.");
 		}
-		Integer enumerationIndex = getEnumerationIndex(idTerm, enumerationTerm);
+		int enumerationIndex = context.getEnumerationIndex(idTerm, enumerationTerm);
 		Substitution retVal = new Substitution(substitution);
 		retVal.put((VariableTerm) getTerms().get(2), ConstantTerm.getInstance(enumerationIndex));
 		return retVal;
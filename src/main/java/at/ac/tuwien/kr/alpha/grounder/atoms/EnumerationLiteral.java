@@ -1,5 +1,6 @@
 package at.ac.tuwien.kr.alpha.grounder.atoms;
 
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.atoms.BasicLiteral;
 import at.ac.tuwien.kr.alpha.common.terms.Term;
 import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
@@ -53,7 +54,7 @@ public Set<VariableTerm> getNonBindingVariables() {
 
 	}
 	
-	public Substitution addEnumerationIndexToSubstitution(Substitution partialSubstitution) {
-		return this.getAtom().addEnumerationIndexToSubstitution(partialSubstitution);
+	public Substitution addEnumerationIndexToSubstitution(Substitution partialSubstitution, AlphaContext context) {
+		return this.getAtom().addEnumerationIndexToSubstitution(partialSubstitution, context);
 	}
 }
@@ -50,6 +50,19 @@
  * The additional parameter {@link #accumulatorEnabled} is a switch for the accumulator grounding strategy
  * which disables the removal of instances from the grounder memory in certain cases.
  *
+ * The additional parameter {@link #lazyConstraintsEnabled} is a switch for lazy instantiation of constraints:
+ * Ground instances of constraints (obtained according to {@link #toleranceConstraints}) are only passed to the solver
+ * once they are violated or unit under the current assignment, or once their positive body is satisfied.
+ * This is most useful in combination with a permissive tolerance for constraints.
+ *
+ * The additional parameter {@link #compiledJoinsEnabled} is a switch for compiling the grounding orders of rules into
+ * specialised join procedures (cf. {@link at.ac.tuwien.kr.alpha.grounder.instantiation.CompiledJoin}). Since compiled
+ * joins do not push back literals, they are only used for rules whose tolerance is {@code 0}.
+ *
+ * The additional parameter {@link #verifyNoGoodsEnabled} is a switch for verifying fingerprint matches of nogoods against
+ * their literals when deduplicating them (cf. {@link at.ac.tuwien.kr.alpha.grounder.NogoodRegistry}). It is enabled by
+ * default, since without it a fingerprint collision silently drops a nogood.
+ *
  */
 public class GrounderHeuristicsConfiguration {
 
@@ -61,6 +74,9 @@ public class GrounderHeuristicsConfiguration {
 	private int toleranceConstraints;
 	private int toleranceRules;
 	private boolean accumulatorEnabled;
+	private boolean lazyConstraintsEnabled;
+	private boolean compiledJoinsEnabled;
+	private boolean verifyNoGoodsEnabled = true;
 	
 	public GrounderHeuristicsConfiguration() {
 		super();
@@ -116,6 +132,30 @@ public void setAccumulatorEnabled(boolean accumulatorEnabled) {
 		this.accumulatorEnabled = accumulatorEnabled;
 	}
 
+	public boolean isLazyConstraintsEnabled() {
+		return lazyConstraintsEnabled;
+	}
+
+	public void setLazyConstraintsEnabled(boolean lazyConstraintsEnabled) {
+		this.lazyConstraintsEnabled = lazyConstraintsEnabled;
+	}
+
+	public boolean isCompiledJoinsEnabled() {
+		return compiledJoinsEnabled;
+	}
+
+	public void setCompiledJoinsEnabled(boolean compiledJoinsEnabled) {
+		this.compiledJoinsEnabled = compiledJoinsEnabled;
+	}
+
+	public boolean isVerifyNoGoodsEnabled() {
+		return verifyNoGoodsEnabled;
+	}
+
+	public void setVerifyNoGoodsEnabled(boolean verifyNoGoodsEnabled) {
+		this.verifyNoGoodsEnabled = verifyNoGoodsEnabled;
+	}
+
 	public static GrounderHeuristicsConfiguration strict() {
 		return new GrounderHeuristicsConfiguration(STRICT_INT, STRICT_INT);
 	}
@@ -144,7 +184,7 @@ private static int parseTolerance(String tolerance) {
 	
 	@Override
 	public String toString() {
-		return this.getClass().getSimpleName() + "(toleranceConstraints=" + toleranceConstraints + ",toleranceRules=" + toleranceRules + ",disableInstanceRemoval=" + accumulatorEnabled + ")";
+		return this.getClass().getSimpleName() + "(toleranceConstraints=" + toleranceConstraints + ",toleranceRules=" + toleranceRules + ",disableInstanceRemoval=" + accumulatorEnabled + ",lazyConstraints=" + lazyConstraintsEnabled + ",compiledJoins=" + compiledJoinsEnabled + ",verifyNoGoods=" + verifyNoGoodsEnabled + ")";
 	}
 
 }
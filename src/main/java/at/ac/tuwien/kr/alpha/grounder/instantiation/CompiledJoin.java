@@ -0,0 +1,582 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder.instantiation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import at.ac.tuwien.kr.alpha.Util;
+import at.ac.tuwien.kr.alpha.common.ComparisonOperator;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.ComparisonLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.ExternalLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.FixedInterpretationLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.terms.ArithmeticEvaluator;
+import at.ac.tuwien.kr.alpha.common.terms.ArithmeticTerm;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.FunctionTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
+import at.ac.tuwien.kr.alpha.grounder.IndexedInstanceStorage;
+import at.ac.tuwien.kr.alpha.grounder.Instance;
+import at.ac.tuwien.kr.alpha.grounder.RuleGroundingOrder;
+import at.ac.tuwien.kr.alpha.grounder.Substitution;
+import at.ac.tuwien.kr.alpha.grounder.WorkingMemory;
+import at.ac.tuwien.kr.alpha.grounder.atoms.EnumerationLiteral;
+import at.ac.tuwien.kr.alpha.grounder.atoms.IntervalLiteral;
+
+/**
+ * A nested-loop join compiled once for a {@link RuleGroundingOrder}, yielding the same substitutions as binding the literals of the grounding
+ * order one after the other with a {@link LiteralInstantiator} under a tolerance of {@code 0}.
+ *
+ * Every variable of the rule is assigned a fixed slot in an array of terms, and every literal of the grounding order is compiled into a
+ * step that reads and writes these slots directly: positive literals look up candidate instances in the indices of their (fixed) instance
+ * storage at the positions known to be bound at that point, and match instances against their terms without building substitutions;
+ * comparisons evaluate their sides with {@link ArithmeticEvaluator}s and test the comparison result with a predicate chosen when compiling.
+ * Literals of other types are delegated to the {@link LiteralInstantiator}. Only when a join is complete, its {@link Substitution} is
+ * created.
+ *
+ * Grounding orders in which a literal could be pushed back are not compiled, see {@link #compile}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public final class CompiledJoin {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CompiledJoin.class);
+
+	private final RuleGroundingOrder groundingOrder;
+	private final VariableTerm[] variables;
+	private final int numInitiallyBound;
+	private final Step first;
+
+	private CompiledJoin(RuleGroundingOrder groundingOrder, VariableTerm[] variables, int numInitiallyBound, Step first) {
+		this.groundingOrder = groundingOrder;
+		this.variables = variables;
+		this.numInitiallyBound = numInitiallyBound;
+		this.first = first;
+	}
+
+	/**
+	 * Compiles the join for the given grounding order.
+	 *
+	 * @param groundingOrder          the grounding order to compile.
+	 * @param initiallyBoundVariables the variables bound by every substitution the join is started from.
+	 * @param workingMemory           the working memory holding the instances of positive literals.
+	 * @param literalInstantiator     the instantiator to delegate literals to that are not compiled.
+	 * @param instantiationStrategy   the strategy determining the truth of ground atoms.
+	 * @return the compiled join, or {@code null} if some literal in the grounding order may have to be pushed back, since it is
+	 *         not sufficiently bound at its position, or if it contains terms that cannot be compiled.
+	 */
+	public static CompiledJoin compile(RuleGroundingOrder groundingOrder, Set<VariableTerm> initiallyBoundVariables, WorkingMemory workingMemory,
+			LiteralInstantiator literalInstantiator, LiteralInstantiationStrategy instantiationStrategy) {
+		Compiler compiler = new Compiler(initiallyBoundVariables, workingMemory, literalInstantiator, instantiationStrategy);
+		List<Function<Step, Step>> steps = new ArrayList<>();
+		for (int orderPosition = 0; groundingOrder.getLiteralAtOrderPosition(orderPosition) != null; orderPosition++) {
+			Literal literal = groundingOrder.getLiteralAtOrderPosition(orderPosition);
+			Function<Step, Step> step = compiler.compileLiteral(literal);
+			if (step == null) {
+				LOGGER.debug("Not compiling grounding order {}, literal {} cannot be compiled.", groundingOrder, literal);
+				return null;
+			}
+			steps.add(step);
+		}
+		VariableTerm[] variables = compiler.slots.keySet().toArray(new VariableTerm[0]);
+		Step step = compiler.compileEmit(variables);
+		for (int i = steps.size() - 1; i >= 0; i--) {
+			step = steps.get(i).apply(step);
+		}
+		return new CompiledJoin(groundingOrder, variables, initiallyBoundVariables.size(), step);
+	}
+
+	/**
+	 * Checks whether the join can be started from the given substitution, i.e., whether it binds exactly the variables the join was
+	 * compiled for.
+	 */
+	public boolean isApplicableTo(Substitution partialSubstitution) {
+		if (partialSubstitution.getMappedVariables().size() != numInitiallyBound) {
+			return false;
+		}
+		for (int i = 0; i < numInitiallyBound; i++) {
+			if (!partialSubstitution.isVariableSet(variables[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes all ground substitutions extending the given one that satisfy the grounding order, and adds them to the given result.
+	 *
+	 * @return the number of substitutions explored for the literals of the grounding order.
+	 */
+	public long join(Substitution partialSubstitution, BindingResult result) {
+		Term[] slots = new Term[variables.length];
+		for (int i = 0; i < numInitiallyBound; i++) {
+			slots[i] = partialSubstitution.eval(variables[i]);
+		}
+		Run run = new Run(result);
+		first.bind(slots, run);
+		return run.exploredSubstitutions;
+	}
+
+	@Override
+	public String toString() {
+		return "compiled(" + groundingOrder + ")";
+	}
+
+	/**
+	 * The state of a single execution of a join.
+	 */
+	private static class Run {
+		private final BindingResult result;
+		private long exploredSubstitutions;
+
+		Run(BindingResult result) {
+			this.result = result;
+		}
+	}
+
+	@FunctionalInterface
+	private interface Step {
+		void bind(Term[] slots, Run run);
+	}
+
+	/**
+	 * Unifies a term of a literal with a ground term, binding the slots of variables that are not bound yet.
+	 */
+	@FunctionalInterface
+	private interface TermMatcher {
+		boolean match(Term groundTerm, Term[] slots);
+	}
+
+	/**
+	 * Builds the ground instance of a term whose variables are all bound.
+	 */
+	@FunctionalInterface
+	private interface TermBuilder {
+		Term build(Term[] slots);
+	}
+
+	private static final class Compiler {
+		private final Map<VariableTerm, Integer> slots = new LinkedHashMap<>();
+		private final Set<VariableTerm> bound = new HashSet<>();
+		private final WorkingMemory workingMemory;
+		private final LiteralInstantiator literalInstantiator;
+		private final LiteralInstantiationStrategy instantiationStrategy;
+
+		Compiler(Set<VariableTerm> initiallyBoundVariables, WorkingMemory workingMemory, LiteralInstantiator literalInstantiator,
+				LiteralInstantiationStrategy instantiationStrategy) {
+			this.workingMemory = workingMemory;
+			this.literalInstantiator = literalInstantiator;
+			this.instantiationStrategy = instantiationStrategy;
+			for (VariableTerm variable : initiallyBoundVariables) {
+				slotOf(variable);
+				bound.add(variable);
+			}
+		}
+
+		private int slotOf(VariableTerm variable) {
+			return slots.computeIfAbsent(variable, v -> slots.size());
+		}
+
+		Function<Step, Step> compileLiteral(Literal literal) {
+			if (literal instanceof ComparisonLiteral) {
+				return compileComparison((ComparisonLiteral) literal);
+			}
+			if (literal instanceof BasicLiteral && !(literal instanceof EnumerationLiteral) && literal.getAtom().getClass() == BasicAtom.class) {
+				if (!literal.isNegated()) {
+					return bound.containsAll(literal.getOccurringVariables()) ? compileGroundCheck(literal) : compileLookup(literal);
+				}
+				if (bound.containsAll(literal.getOccurringVariables())) {
+					return compileGroundCheck(literal);
+				}
+			}
+			if (literal instanceof FixedInterpretationLiteral && !bound.containsAll(literal.getOccurringVariables())
+					&& !(literal instanceof ExternalLiteral)
+					&& !(literal instanceof IntervalLiteral && bound.containsAll(literal.getTerms().get(0).getOccurringVariables()))) {
+				// The literal would be pushed back by the instantiator.
+				return null;
+			}
+			return compileDelegation(literal);
+		}
+
+		/**
+		 * Compiles a positive literal that is not ground at its position into a lookup of candidate instances in the indices of
+		 * the positions that are bound, followed by matching the candidates against the terms of the literal.
+		 */
+		private Function<Step, Step> compileLookup(Literal literal) {
+			Predicate predicate = literal.getPredicate();
+			if (!workingMemory.contains(predicate)) {
+				return null;
+			}
+			IndexedInstanceStorage storage = workingMemory.get(predicate, true);
+			List<Term> terms = literal.getTerms();
+			List<Integer> probePositions = new ArrayList<>();
+			List<TermBuilder> probeBuilders = new ArrayList<>();
+			for (int i = 0; i < terms.size(); i++) {
+				if (bound.containsAll(terms.get(i).getOccurringVariables())) {
+					TermBuilder builder = compileBuilder(terms.get(i));
+					if (builder == null) {
+						return null;
+					}
+					probePositions.add(i);
+					probeBuilders.add(builder);
+				}
+			}
+			TermMatcher[] matchers = new TermMatcher[terms.size()];
+			for (int i = 0; i < terms.size(); i++) {
+				matchers[i] = compileMatcher(terms.get(i));
+				if (matchers[i] == null) {
+					return null;
+				}
+			}
+			int[] positions = probePositions.stream().mapToInt(Integer::intValue).toArray();
+			TermBuilder[] builders = probeBuilders.toArray(new TermBuilder[0]);
+			return next -> (slots, run) -> {
+				Collection<Instance> candidates = positions.length == 0 ? storage.getAllInstances() : null;
+				for (int i = 0; i < positions.length; i++) {
+					// Select the most selective of the bound positions.
+					List<Instance> matching = storage.getInstancesMatchingAtPosition(builders[i].build(slots), positions[i]);
+					if (candidates == null || matching.size() < candidates.size()) {
+						candidates = matching;
+					}
+					if (candidates.isEmpty()) {
+						return;
+					}
+				}
+				candidates:
+				for (Instance instance : candidates) {
+					for (int i = 0; i < matchers.length; i++) {
+						if (!matchers[i].match(instance.terms.get(i), slots)) {
+							continue candidates;
+						}
+					}
+					AssignmentStatus assignmentStatus = instantiationStrategy.getTruthForGroundLiteral(new BasicLiteral(new BasicAtom(predicate, instance.terms), true));
+					if (assignmentStatus == AssignmentStatus.FALSE) {
+						continue;
+					}
+					run.exploredSubstitutions++;
+					// Under tolerance 0, substitutions based on unassigned atoms do not yield ground instances.
+					if (assignmentStatus == AssignmentStatus.TRUE) {
+						next.bind(slots, run);
+					}
+				}
+			};
+		}
+
+		/**
+		 * Compiles a literal that is ground at its position into a check of its truth.
+		 */
+		private Function<Step, Step> compileGroundCheck(Literal literal) {
+			Predicate predicate = literal.getPredicate();
+			boolean positive = !literal.isNegated();
+			List<Term> terms = literal.getTerms();
+			TermBuilder[] builders = new TermBuilder[terms.size()];
+			for (int i = 0; i < terms.size(); i++) {
+				builders[i] = compileBuilder(terms.get(i));
+				if (builders[i] == null) {
+					return null;
+				}
+			}
+			return next -> (slots, run) -> {
+				Term[] groundTerms = new Term[builders.length];
+				for (int i = 0; i < builders.length; i++) {
+					groundTerms[i] = builders[i].build(slots);
+				}
+				BasicLiteral groundLiteral = new BasicLiteral(new BasicAtom(predicate, groundTerms), positive);
+				if (instantiationStrategy.getTruthForGroundLiteral(groundLiteral) == AssignmentStatus.TRUE) {
+					run.exploredSubstitutions++;
+					next.bind(slots, run);
+				}
+			};
+		}
+
+		/**
+		 * Compiles a comparison into either a test of the comparison result, or an assignment of the variable of an equality whose other
+		 * side is bound.
+		 */
+		private Function<Step, Step> compileComparison(ComparisonLiteral literal) {
+			Term left = literal.getTerms().get(0);
+			Term right = literal.getTerms().get(1);
+			if (bound.containsAll(literal.getOccurringVariables())) {
+				ToIntFunction<Term[]> comparator = compileComparator(left, right);
+				if (comparator == null) {
+					return null;
+				}
+				IntPredicate holds = compileComparisonResultTest(literal.isNegated() ? literal.getAtom().getOperator().getNegation()
+						: literal.getAtom().getOperator());
+				return next -> (slots, run) -> {
+					int comparisonResult;
+					try {
+						comparisonResult = comparator.applyAsInt(slots);
+					} catch (ArithmeticEvaluator.NonIntegerException e) {
+						// Arithmetics over non-integers make the ground instance disappear.
+						return;
+					}
+					if (holds.test(comparisonResult)) {
+						run.exploredSubstitutions++;
+						next.bind(slots, run);
+					}
+				};
+			}
+			boolean leftAssigning = left instanceof VariableTerm && !bound.contains(left) && bound.containsAll(right.getOccurringVariables());
+			boolean rightAssigning = right instanceof VariableTerm && !bound.contains(right) && bound.containsAll(left.getOccurringVariables());
+			if (!literal.isNormalizedEquality() || !leftAssigning && !rightAssigning) {
+				// The literal would be pushed back by the instantiator.
+				return null;
+			}
+			Term expression = leftAssigning ? right : left;
+			TermBuilder value = compileValue(expression);
+			if (value == null) {
+				return null;
+			}
+			VariableTerm variable = (VariableTerm) (leftAssigning ? left : right);
+			int slot = slotOf(variable);
+			bound.add(variable);
+			return next -> (slots, run) -> {
+				Term result = value.build(slots);
+				if (result == null) {
+					return;
+				}
+				slots[slot] = result;
+				run.exploredSubstitutions++;
+				next.bind(slots, run);
+			};
+		}
+
+		/**
+		 * Compiles a literal that is left to the {@link LiteralInstantiator}. Since the instantiator works on substitutions, one is
+		 * created from the bound slots, and the variables bound by the literal are read back from its results.
+		 */
+		private Function<Step, Step> compileDelegation(Literal literal) {
+			VariableTerm[] boundVariables = bound.toArray(new VariableTerm[0]);
+			int[] boundSlots = Arrays.stream(boundVariables).mapToInt(this::slotOf).toArray();
+			List<VariableTerm> newlyBound = new ArrayList<>();
+			for (VariableTerm variable : literal.getBindingVariables()) {
+				if (bound.add(variable)) {
+					newlyBound.add(variable);
+				}
+			}
+			VariableTerm[] newVariables = newlyBound.toArray(new VariableTerm[0]);
+			int[] newSlots = newlyBound.stream().mapToInt(this::slotOf).toArray();
+			return next -> (slots, run) -> {
+				Substitution partialSubstitution = new Substitution();
+				for (int i = 0; i < boundSlots.length; i++) {
+					partialSubstitution.put(boundVariables[i], slots[boundSlots[i]]);
+				}
+				LiteralInstantiationResult instantiationResult = literalInstantiator.instantiateLiteral(literal, partialSubstitution);
+				switch (instantiationResult.getType()) {
+					case CONTINUE:
+						break;
+					case MAYBE_PUSH_BACK:
+					case STOP_BINDING:
+						return;
+					default:
+						throw Util.oops("Unexpected literal instantiation result in compiled join: " + instantiationResult.getType());
+				}
+				run.exploredSubstitutions += instantiationResult.getSubstitutions().size();
+				for (ImmutablePair<Substitution, AssignmentStatus> substitutionInfo : instantiationResult.getSubstitutions()) {
+					if (substitutionInfo.right != AssignmentStatus.TRUE) {
+						continue;
+					}
+					for (int i = 0; i < newSlots.length; i++) {
+						Term value = substitutionInfo.left.eval(newVariables[i]);
+						if (value == null) {
+							throw Util.oops("Literal " + literal + " did not bind variable " + newVariables[i]);
+						}
+						slots[newSlots[i]] = value;
+					}
+					next.bind(slots, run);
+				}
+			};
+		}
+
+		Step compileEmit(VariableTerm[] variables) {
+			return (slots, run) -> {
+				Substitution substitution = new Substitution();
+				for (int i = 0; i < variables.length; i++) {
+					substitution.put(variables[i], slots[i]);
+				}
+				run.result.add(substitution, 0);
+			};
+		}
+
+		private TermMatcher compileMatcher(Term term) {
+			if (term.isGround()) {
+				return (groundTerm, slots) -> groundTerm == term;
+			}
+			if (term instanceof VariableTerm) {
+				int slot = slotOf((VariableTerm) term);
+				if (!bound.add((VariableTerm) term)) {
+					return (groundTerm, slots) -> groundTerm == slots[slot];
+				}
+				return (groundTerm, slots) -> {
+					slots[slot] = groundTerm;
+					return true;
+				};
+			}
+			if (term instanceof FunctionTerm) {
+				String symbol = ((FunctionTerm) term).getSymbol();
+				List<Term> subTerms = ((FunctionTerm) term).getTerms();
+				TermMatcher[] subMatchers = new TermMatcher[subTerms.size()];
+				for (int i = 0; i < subMatchers.length; i++) {
+					subMatchers[i] = compileMatcher(subTerms.get(i));
+					if (subMatchers[i] == null) {
+						return null;
+					}
+				}
+				return (groundTerm, slots) -> {
+					if (!(groundTerm instanceof FunctionTerm)) {
+						return false;
+					}
+					FunctionTerm functionTerm = (FunctionTerm) groundTerm;
+					if (!functionTerm.getSymbol().equals(symbol) || functionTerm.getTerms().size() != subMatchers.length) {
+						return false;
+					}
+					for (int i = 0; i < subMatchers.length; i++) {
+						if (!subMatchers[i].match(functionTerm.getTerms().get(i), slots)) {
+							return false;
+						}
+					}
+					return true;
+				};
+			}
+			return null;
+		}
+
+		private TermBuilder compileBuilder(Term term) {
+			if (term.isGround()) {
+				return slots -> term;
+			}
+			if (term instanceof VariableTerm) {
+				int slot = slotOf((VariableTerm) term);
+				return slots -> slots[slot];
+			}
+			if (term instanceof FunctionTerm) {
+				String symbol = ((FunctionTerm) term).getSymbol();
+				List<Term> subTerms = ((FunctionTerm) term).getTerms();
+				TermBuilder[] subBuilders = new TermBuilder[subTerms.size()];
+				for (int i = 0; i < subBuilders.length; i++) {
+					subBuilders[i] = compileBuilder(subTerms.get(i));
+					if (subBuilders[i] == null) {
+						return null;
+					}
+				}
+				return slots -> {
+					Term[] groundSubTerms = new Term[subBuilders.length];
+					for (int i = 0; i < subBuilders.length; i++) {
+						groundSubTerms[i] = subBuilders[i].build(slots);
+					}
+					return FunctionTerm.getInstance(symbol, groundSubTerms);
+				};
+			}
+			return null;
+		}
+
+		/**
+		 * Compiles a term into a builder of its value, which evaluates arithmetic terms and yields {@code null} for arithmetic terms
+		 * over non-integers.
+		 */
+		private TermBuilder compileValue(Term term) {
+			if (!(term instanceof ArithmeticTerm)) {
+				return compileBuilder(term);
+			}
+			ToLongFunction<Term[]> evaluator = compileEvaluator(term);
+			return slots -> {
+				try {
+					return ConstantTerm.getInstance(Math.toIntExact(evaluator.applyAsLong(slots)));
+				} catch (ArithmeticEvaluator.NonIntegerException e) {
+					return null;
+				}
+			};
+		}
+
+		private ToLongFunction<Term[]> compileEvaluator(Term term) {
+			return ArithmeticEvaluator.compile(term, variable -> {
+				int slot = slotOf(variable);
+				return slots -> slots[slot];
+			});
+		}
+
+		private ToIntFunction<Term[]> compileComparator(Term left, Term right) {
+			ToLongFunction<Term[]> leftEvaluator = left instanceof ArithmeticTerm ? compileEvaluator(left) : null;
+			ToLongFunction<Term[]> rightEvaluator = right instanceof ArithmeticTerm ? compileEvaluator(right) : null;
+			TermBuilder leftBuilder = leftEvaluator == null ? compileBuilder(left) : null;
+			TermBuilder rightBuilder = rightEvaluator == null ? compileBuilder(right) : null;
+			if (leftEvaluator != null && rightEvaluator != null) {
+				return slots -> Integer.compare(Math.toIntExact(leftEvaluator.applyAsLong(slots)), Math.toIntExact(rightEvaluator.applyAsLong(slots)));
+			}
+			if (leftEvaluator != null) {
+				return rightBuilder == null ? null
+						: slots -> ComparisonLiteral.compareToTerm(Math.toIntExact(leftEvaluator.applyAsLong(slots)), rightBuilder.build(slots));
+			}
+			if (rightEvaluator != null) {
+				return leftBuilder == null ? null
+						: slots -> -ComparisonLiteral.compareToTerm(Math.toIntExact(rightEvaluator.applyAsLong(slots)), leftBuilder.build(slots));
+			}
+			if (leftBuilder == null || rightBuilder == null) {
+				return null;
+			}
+			return slots -> leftBuilder.build(slots).compareTo(rightBuilder.build(slots));
+		}
+
+		private static IntPredicate compileComparisonResultTest(ComparisonOperator operator) {
+			switch (operator) {
+				case EQ:
+					return comparisonResult -> comparisonResult == 0;
+				case NE:
+					return comparisonResult -> comparisonResult != 0;
+				case LT:
+					return comparisonResult -> comparisonResult < 0;
+				case GT:
+					return comparisonResult -> comparisonResult > 0;
+				case LE:
+					return comparisonResult -> comparisonResult <= 0;
+				case GE:
+					return comparisonResult -> comparisonResult >= 0;
+				default:
+					throw new UnsupportedOperationException("Unknown comparison operator requested!");
+			}
+		}
+	}
+}
@@ -27,6 +27,7 @@
 
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import at.ac.tuwien.kr.alpha.Util;
 import at.ac.tuwien.kr.alpha.common.Assignment;
@@ -68,11 +69,11 @@ public class DefaultLazyGroundingInstantiationStrategy extends AbstractLiteralIn
 	private AtomStore atomStore;
 	private Assignment currentAssignment;
 	private LinkedHashSet<Atom> staleWorkingMemoryEntries;
-	private Map<Predicate, LinkedHashSet<Instance>> facts;
+	private Map<Predicate, Set<Instance>> facts;
 	private boolean accumulatorEnabled;
 
 	public DefaultLazyGroundingInstantiationStrategy(WorkingMemory workingMemory, AtomStore atomStore,
-			Map<Predicate, LinkedHashSet<Instance>> facts, boolean accumulator) {
+			Map<Predicate, Set<Instance>> facts, boolean accumulator) {
 		this.workingMemory = workingMemory;
 		this.atomStore = atomStore;
 		this.facts = facts;
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder.instantiation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import at.ac.tuwien.kr.alpha.common.atoms.Atom;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
+import at.ac.tuwien.kr.alpha.grounder.IndexedInstanceStorage;
+import at.ac.tuwien.kr.alpha.grounder.Instance;
+import at.ac.tuwien.kr.alpha.grounder.Substitution;
+
+/**
+ * Joins a whole batch of partial substitutions with the instances of a positive {@link BasicLiteral} at once, yielding the same
+ * substitutions as instantiating the literal with a {@link LiteralInstantiator} based on a
+ * {@link WorkingMemoryBasedInstantiationStrategy} for each partial substitution in turn.
+ *
+ * The join positions of the literal are the ones holding a constant or a variable bound by the partial substitutions. In the build phase,
+ * all instances are hashed on their terms at the join positions; in the probe phase, the join key of each partial substitution selects the
+ * instances to extend it with. Partial substitutions that do not bind all join variables (which does not happen when all of them stem from
+ * the same grounding order) are extended by looking up instances in the storage one by one.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public final class HashJoin {
+
+	private final Literal literal;
+	private final int[] joinPositions;
+	private final Map<Object, List<Instance>> buckets = new HashMap<>();
+
+	private HashJoin(Literal literal, int[] joinPositions) {
+		this.literal = literal;
+		this.joinPositions = joinPositions;
+	}
+
+	/**
+	 * Checks whether the given literal can be joined by a {@link HashJoin}, i.e., whether it is a positive {@link BasicLiteral}.
+	 */
+	public static boolean isApplicable(Literal literal) {
+		return literal.getClass() == BasicLiteral.class && !literal.isNegated();
+	}
+
+	/**
+	 * Extends all given partial substitutions by the instances of the given literal in the given storage.
+	 *
+	 * @param literal       a positive basic literal (cf. {@link #isApplicable(Literal)}).
+	 * @param substitutions the partial substitutions to extend, all binding the same variables of the literal.
+	 * @param instances     the storage of the literal's instances.
+	 * @return all extensions of the partial substitutions.
+	 */
+	public static List<Substitution> join(Literal literal, List<Substitution> substitutions, IndexedInstanceStorage instances) {
+		if (!isApplicable(literal)) {
+			throw new IllegalArgumentException("Cannot hash-join literal " + literal);
+		}
+		if (substitutions.isEmpty()) {
+			return Collections.emptyList();
+		}
+		HashJoin join = new HashJoin(literal, joinPositionsFor(literal, substitutions.get(0)));
+		join.build(instances.getAllInstances());
+		return join.probe(substitutions, instances);
+	}
+
+	private static int[] joinPositionsFor(Literal literal, Substitution substitution) {
+		List<Term> terms = literal.getTerms();
+		int[] positions = new int[terms.size()];
+		int numPositions = 0;
+		for (int i = 0; i < terms.size(); i++) {
+			Term term = terms.get(i);
+			if (term instanceof ConstantTerm || term instanceof VariableTerm && substitution.isVariableSet((VariableTerm) term)) {
+				positions[numPositions++] = i;
+			}
+		}
+		return Arrays.copyOf(positions, numPositions);
+	}
+
+	private void build(Collection<Instance> instances) {
+		for (Instance instance : instances) {
+			buckets.computeIfAbsent(keyOf(instance.terms), k -> new ArrayList<>()).add(instance);
+		}
+	}
+
+	private List<Substitution> probe(List<Substitution> substitutions, IndexedInstanceStorage instances) {
+		List<Term> terms = literal.getTerms();
+		List<Term> boundTerms = new ArrayList<>(terms.size());
+		List<Substitution> result = new ArrayList<>();
+		for (Substitution substitution : substitutions) {
+			boundTerms.clear();
+			boolean keyComplete = true;
+			for (Term term : terms) {
+				Term boundTerm = term instanceof VariableTerm ? substitution.eval((VariableTerm) term) : term;
+				boundTerms.add(boundTerm);
+			}
+			for (int position : joinPositions) {
+				keyComplete &= boundTerms.get(position) != null;
+			}
+			Iterable<Instance> candidates;
+			if (keyComplete) {
+				candidates = buckets.getOrDefault(keyOf(boundTerms), Collections.emptyList());
+			} else {
+				Atom partiallyGroundAtom = literal.getAtom().substitute(substitution);
+				candidates = instances.getInstancesFromPartiallyGroundAtom(partiallyGroundAtom);
+			}
+			for (Instance candidate : candidates) {
+				Substitution extended = Substitution.specializeSubstitution(literal, candidate, substitution);
+				if (extended != null) {
+					result.add(extended);
+				}
+			}
+		}
+		return result;
+	}
+
+	private Object keyOf(List<Term> terms) {
+		if (joinPositions.length == 1) {
+			return terms.get(joinPositions[0]);
+		}
+		Term[] key = new Term[joinPositions.length];
+		for (int i = 0; i < joinPositions.length; i++) {
+			key[i] = terms.get(joinPositions[i]);
+		}
+		return Arrays.asList(key);
+	}
+
+}
@@ -0,0 +1,405 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder.instantiation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import at.ac.tuwien.kr.alpha.common.atoms.BasicLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
+import at.ac.tuwien.kr.alpha.grounder.Instance;
+import at.ac.tuwien.kr.alpha.grounder.RuleGroundingOrder;
+import at.ac.tuwien.kr.alpha.grounder.Substitution;
+import at.ac.tuwien.kr.alpha.grounder.WorkingMemory;
+
+/**
+ * A worst-case optimal join of positive {@link BasicLiteral}s following the Leapfrog Triejoin algorithm (Veldhuizen, 2014).
+ *
+ * Instead of joining one literal after the other, the join binds one variable after the other in a fixed variable order: the instances of
+ * every literal are sorted into a trie over the literal's variables (in that order), and the values of a variable are found by
+ * intersecting the tries of all literals containing the variable by leapfrogging over their sorted values. This avoids the large
+ * intermediate results that binary joins produce for cyclic bodies like {@code r(X,Y), s(Y,Z), t(Z,X)}, hence the join is used for rule
+ * bodies whose positive literals are cyclic (cf. {@link #isApplicable(List)}).
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public final class LeapfrogTriejoin {
+
+	private static final Comparator<Term[]> LEXICOGRAPHIC_ORDER = (left, right) -> {
+		for (int i = 0; i < left.length; i++) {
+			int result = left[i].compareTo(right[i]);
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	};
+
+	private final List<Literal> literals;
+	private final List<VariableTerm> variables;
+	// For each literal, the positions of its variables ordered by the variable order, i.e., the levels of its trie.
+	private final int[][] trieLevelPositions;
+	// For each variable (by index in the variable order), the indices of the literals containing it.
+	private final int[][] literalsContainingVariable;
+
+	/**
+	 * Prepares the join of the given literals.
+	 *
+	 * @param literals      positive basic literals whose terms are constants or variables, no variable occurring twice in one literal.
+	 * @param variableOrder all variables of the literals in the order they are to be bound in.
+	 */
+	public LeapfrogTriejoin(List<Literal> literals, List<VariableTerm> variableOrder) {
+		this.literals = literals;
+		this.variables = variableOrder;
+		this.trieLevelPositions = new int[literals.size()][];
+		List<List<Integer>> containing = new ArrayList<>();
+		for (int v = 0; v < variableOrder.size(); v++) {
+			containing.add(new ArrayList<>());
+		}
+		for (int l = 0; l < literals.size(); l++) {
+			if (!isJoinable(literals.get(l))) {
+				throw new IllegalArgumentException("Cannot join literal " + literals.get(l) + " by Leapfrog Triejoin.");
+			}
+			List<Term> terms = literals.get(l).getTerms();
+			List<Integer> levelPositions = new ArrayList<>();
+			for (int v = 0; v < variableOrder.size(); v++) {
+				int position = terms.indexOf(variableOrder.get(v));
+				if (position >= 0) {
+					levelPositions.add(position);
+					containing.get(v).add(l);
+				}
+			}
+			if (levelPositions.size() != literals.get(l).getOccurringVariables().size()) {
+				throw new IllegalArgumentException("Variable order " + variableOrder + " misses variables of " + literals.get(l));
+			}
+			trieLevelPositions[l] = levelPositions.stream().mapToInt(Integer::intValue).toArray();
+		}
+		this.literalsContainingVariable = new int[variableOrder.size()][];
+		for (int v = 0; v < variableOrder.size(); v++) {
+			if (containing.get(v).isEmpty()) {
+				throw new IllegalArgumentException("Variable " + variableOrder.get(v) + " does not occur in any literal.");
+			}
+			literalsContainingVariable[v] = containing.get(v).stream().mapToInt(Integer::intValue).toArray();
+		}
+	}
+
+	/**
+	 * Prepares the join of the given literals for grounding a rule starting from the given literal: the starting literal is joined first,
+	 * the others in the order of the grounding order, and the variables are bound in the order they occur in the literals.
+	 *
+	 * @param startingLiteral the starting literal of the grounding order, which must be one of the literals to join.
+	 * @param groundingOrder  the grounding order starting from the starting literal.
+	 * @param literals        the literals to join (cf. {@link #isApplicable(List)}).
+	 */
+	public static LeapfrogTriejoin startingFrom(Literal startingLiteral, RuleGroundingOrder groundingOrder, Collection<Literal> literals) {
+		if (!literals.contains(startingLiteral)) {
+			throw new IllegalArgumentException("Starting literal " + startingLiteral + " is not among the joined literals " + literals);
+		}
+		List<Literal> orderedLiterals = new ArrayList<>();
+		orderedLiterals.add(startingLiteral);
+		Set<VariableTerm> variableOrder = new LinkedHashSet<>(startingLiteral.getOccurringVariables());
+		Literal currentLiteral;
+		for (int orderPosition = 0; (currentLiteral = groundingOrder.getLiteralAtOrderPosition(orderPosition)) != null; orderPosition++) {
+			if (literals.contains(currentLiteral)) {
+				orderedLiterals.add(currentLiteral);
+				variableOrder.addAll(currentLiteral.getOccurringVariables());
+			}
+		}
+		return new LeapfrogTriejoin(orderedLiterals, new ArrayList<>(variableOrder));
+	}
+
+	/**
+	 * Checks whether the given positive literals are best joined by Leapfrog Triejoin, i.e., whether there are at least three of them, all of
+	 * them consisting of constants and pairwise distinct variables only, and the hypergraph formed by their variables is cyclic.
+	 */
+	public static boolean isApplicable(List<Literal> literals) {
+		if (literals.size() < 3) {
+			return false;
+		}
+		List<Set<VariableTerm>> edges = new ArrayList<>();
+		for (Literal literal : literals) {
+			if (!isJoinable(literal)) {
+				return false;
+			}
+			edges.add(new HashSet<>(literal.getOccurringVariables()));
+		}
+		return !isAcyclic(edges);
+	}
+
+	/**
+	 * Returns the positive basic literals of the given rule body if they are best joined by Leapfrog Triejoin, an empty list otherwise.
+	 */
+	public static List<Literal> getCyclicPositiveBody(Collection<Literal> body) {
+		List<Literal> positiveLiterals = new ArrayList<>();
+		for (Literal literal : body) {
+			if (literal.getClass() == BasicLiteral.class && !literal.isNegated()) {
+				positiveLiterals.add(literal);
+			}
+		}
+		return isApplicable(positiveLiterals) ? positiveLiterals : Collections.emptyList();
+	}
+
+	private static boolean isJoinable(Literal literal) {
+		if (literal.getClass() != BasicLiteral.class || literal.isNegated()) {
+			return false;
+		}
+		Set<Term> variablesSeen = new HashSet<>();
+		for (Term term : literal.getTerms()) {
+			if (term instanceof VariableTerm) {
+				if (!variablesSeen.add(term)) {
+					return false;
+				}
+			} else if (!(term instanceof ConstantTerm)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * GYO reduction: a hypergraph is acyclic iff repeatedly removing vertices contained in a single edge only and edges contained in other
+	 * edges leaves no edges.
+	 */
+	private static boolean isAcyclic(List<Set<VariableTerm>> edges) {
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (Set<VariableTerm> edge : edges) {
+				changed |= edge.removeIf(variable -> edges.stream().filter(other -> other.contains(variable)).count() == 1);
+			}
+			for (int i = 0; i < edges.size(); i++) {
+				for (int j = 0; j < edges.size(); j++) {
+					if (i != j && edges.get(j).containsAll(edges.get(i))) {
+						edges.remove(i);
+						changed = true;
+						i = edges.size();
+						break;
+					}
+				}
+			}
+			if (edges.size() == 1 && edges.get(0).isEmpty()) {
+				edges.clear();
+			}
+		}
+		return edges.isEmpty();
+	}
+
+	/**
+	 * Joins the given instances of the first literal with all instances of the other literals in the given working memory.
+	 *
+	 * @param firstLiteralInstances the instances of the first literal to join.
+	 * @param workingMemory         the working memory holding the (positive) instances of the other literals.
+	 * @return all substitutions of the variables such that all literals are instances of their relation.
+	 */
+	public List<Substitution> join(Collection<Instance> firstLiteralInstances, WorkingMemory workingMemory) {
+		List<Collection<Instance>> relations = new ArrayList<>();
+		relations.add(firstLiteralInstances);
+		for (Literal literal : literals.subList(1, literals.size())) {
+			relations.add(workingMemory.get(literal.getPredicate(), true).getAllInstances());
+		}
+		return join(relations);
+	}
+
+	/**
+	 * Joins the given relations.
+	 *
+	 * @param relations the instances of each literal, in the order of the literals.
+	 * @return all substitutions of the variables such that all literals are instances of their relation.
+	 */
+	public List<Substitution> join(List<? extends Collection<Instance>> relations) {
+		TrieIterator[] tries = new TrieIterator[literals.size()];
+		for (int l = 0; l < literals.size(); l++) {
+			tries[l] = buildTrie(literals.get(l), trieLevelPositions[l], relations.get(l));
+			if (tries[l].isEmpty()) {
+				return new ArrayList<>();
+			}
+		}
+		TrieIterator[][] iteratorsPerVariable = new TrieIterator[variables.size()][];
+		for (int v = 0; v < variables.size(); v++) {
+			iteratorsPerVariable[v] = new TrieIterator[literalsContainingVariable[v].length];
+			for (int i = 0; i < literalsContainingVariable[v].length; i++) {
+				iteratorsPerVariable[v][i] = tries[literalsContainingVariable[v][i]];
+			}
+		}
+		List<Substitution> result = new ArrayList<>();
+		join(0, new Term[variables.size()], iteratorsPerVariable, result);
+		return result;
+	}
+
+	private void join(int depth, Term[] binding, TrieIterator[][] iteratorsPerVariable, List<Substitution> result) {
+		if (depth == variables.size()) {
+			Substitution substitution = new Substitution();
+			for (int v = 0; v < binding.length; v++) {
+				substitution.put(variables.get(v), binding[v]);
+			}
+			result.add(substitution);
+			return;
+		}
+		TrieIterator[] iterators = iteratorsPerVariable[depth];
+		boolean atEnd = false;
+		for (TrieIterator iterator : iterators) {
+			iterator.open();
+			atEnd |= iterator.atEnd();
+		}
+		if (!atEnd) {
+			// Leapfrog over the sorted values of all iterators: the iterator behind seeks to the value of the one ahead until all agree.
+			Arrays.sort(iterators, Comparator.comparing(TrieIterator::key));
+			Term max = iterators[iterators.length - 1].key();
+			for (int p = 0; !atEnd; p = (p + 1) % iterators.length) {
+				TrieIterator iterator = iterators[p];
+				if (iterator.key().compareTo(max) == 0) {
+					binding[depth] = max;
+					join(depth + 1, binding, iteratorsPerVariable, result);
+					iterator.next();
+				} else {
+					iterator.seek(max);
+				}
+				atEnd = iterator.atEnd();
+				if (!atEnd) {
+					max = iterator.key();
+				}
+			}
+		}
+		for (TrieIterator iterator : iterators) {
+			iterator.up();
+		}
+	}
+
+	private static TrieIterator buildTrie(Literal literal, int[] levelPositions, Collection<Instance> instances) {
+		List<Term> terms = literal.getTerms();
+		List<Term[]> rows = new ArrayList<>();
+		nextInstance:
+		for (Instance instance : instances) {
+			for (int i = 0; i < terms.size(); i++) {
+				if (terms.get(i) instanceof ConstantTerm && terms.get(i) != instance.terms.get(i)) {
+					continue nextInstance;
+				}
+			}
+			Term[] row = new Term[levelPositions.length];
+			for (int level = 0; level < levelPositions.length; level++) {
+				row[level] = instance.terms.get(levelPositions[level]);
+			}
+			rows.add(row);
+		}
+		Term[][] sortedRows = rows.toArray(new Term[0][]);
+		Arrays.sort(sortedRows, LEXICOGRAPHIC_ORDER);
+		return new TrieIterator(sortedRows, levelPositions.length);
+	}
+
+	/**
+	 * Iterates over a trie given by lexicographically sorted rows: at each level, the iterator ranges over the distinct values at that level
+	 * among the rows sharing the values chosen on the levels above.
+	 */
+	private static final class TrieIterator {
+		private final Term[][] rows;
+		private final int[] rangeEnd;
+		private final int[] parentPosition;
+		private int depth = -1;
+		private int position;
+
+		TrieIterator(Term[][] rows, int levels) {
+			this.rows = rows;
+			this.rangeEnd = new int[levels];
+			this.parentPosition = new int[levels];
+		}
+
+		boolean isEmpty() {
+			return rows.length == 0;
+		}
+
+		void open() {
+			depth++;
+			parentPosition[depth] = position;
+			if (depth == 0) {
+				position = 0;
+				rangeEnd[depth] = rows.length;
+			} else {
+				rangeEnd[depth] = upperBound(depth - 1, rows[position][depth - 1], position, rangeEnd[depth - 1]);
+			}
+		}
+
+		void up() {
+			position = parentPosition[depth];
+			depth--;
+		}
+
+		boolean atEnd() {
+			return position >= rangeEnd[depth];
+		}
+
+		Term key() {
+			return rows[position][depth];
+		}
+
+		void next() {
+			position = upperBound(depth, key(), position, rangeEnd[depth]);
+		}
+
+		void seek(Term target) {
+			position = lowerBound(depth, target, position, rangeEnd[depth]);
+		}
+
+		// First row in [from, to) whose value at the given level is greater than the given one.
+		private int upperBound(int level, Term value, int from, int to) {
+			int low = from;
+			int high = to;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (rows[middle][level].compareTo(value) <= 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		// First row in [from, to) whose value at the given level is not less than the given one.
+		private int lowerBound(int level, Term value, int from, int to) {
+			int low = from;
+			int high = to;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (rows[middle][level].compareTo(value) < 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+	}
+}
@@ -31,6 +31,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.atoms.ComparisonLiteral;
 import at.ac.tuwien.kr.alpha.common.atoms.ExternalLiteral;
 import at.ac.tuwien.kr.alpha.common.atoms.FixedInterpretationLiteral;
@@ -53,6 +54,7 @@ public class LiteralInstantiator {
 	private static final Logger LOGGER = LoggerFactory.getLogger(LiteralInstantiator.class);
 
 	private final LiteralInstantiationStrategy instantiationStrategy;
+	private final AlphaContext context;
 
 	/**
 	 * Creates a new {@link LiteralInstantiator} with the given {@link LiteralInstantiationStrategy}.
@@ -60,7 +62,18 @@ public class LiteralInstantiator {
 	 * @param instantiationStrategy the instantiation strategy to use for this instantiator
 	 */
 	public LiteralInstantiator(LiteralInstantiationStrategy instantiationStrategy) {
+		this(instantiationStrategy, AlphaContext.getDefault());
+	}
+
+	/**
+	 * Creates a new {@link LiteralInstantiator} with the given {@link LiteralInstantiationStrategy}.
+	 * 
+	 * @param instantiationStrategy the instantiation strategy to use for this instantiator
+	 * @param context               the context supplying enumeration indices
+	 */
+	public LiteralInstantiator(LiteralInstantiationStrategy instantiationStrategy, AlphaContext context) {
 		this.instantiationStrategy = instantiationStrategy;
+		this.context = context;
 	}
 
 	/**
@@ -111,7 +124,7 @@ private LiteralInstantiationResult instantiateFixedInterpretationLiteral(FixedIn
 	}
 
 	/**
-	 * Calculates a substitution that adds an enumeration index (see {@link EnumerationLiteral#addEnumerationIndexToSubstitution(Substitution)})
+	 * Calculates a substitution that adds an enumeration index (see {@link EnumerationLiteral#addEnumerationIndexToSubstitution(Substitution, AlphaContext)})
 	 * to the given partial substitution. Due to the special nature of enumeration literals, this method will always return
 	 * {@link LiteralInstantiationResult.Type#CONTINUE} as its result type. This method assumes that the partial substitution has
 	 * <emph>not</emph> been applied to the passed literal.
@@ -121,7 +134,7 @@ private LiteralInstantiationResult instantiateFixedInterpretationLiteral(FixedIn
 	 */
 	private LiteralInstantiationResult instantiateEnumerationLiteral(EnumerationLiteral lit, Substitution partialSubstitution) {
 		LOGGER.trace("Instantiating EnumerationLiteral: {}", lit);
-		return LiteralInstantiationResult.continueBinding(lit.addEnumerationIndexToSubstitution(partialSubstitution), AssignmentStatus.TRUE);
+		return LiteralInstantiationResult.continueBinding(lit.addEnumerationIndexToSubstitution(partialSubstitution, context), AssignmentStatus.TRUE);
 	}
 
 	/**
@@ -30,6 +30,7 @@
 import at.ac.tuwien.kr.alpha.antlr.ASPCore2BaseVisitor;
 import at.ac.tuwien.kr.alpha.antlr.ASPCore2Lexer;
 import at.ac.tuwien.kr.alpha.antlr.ASPCore2Parser;
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.AnswerSet;
 import at.ac.tuwien.kr.alpha.common.BasicAnswerSet;
 import at.ac.tuwien.kr.alpha.common.ComparisonOperator;
@@ -77,6 +78,7 @@
 public class ParseTreeVisitor extends ASPCore2BaseVisitor<Object> {
 	private final Map<String, PredicateInterpretation> externals;
 	private final boolean acceptVariables;
+	private final AlphaContext context;
 
 	private InputProgram.Builder programBuilder;
 	private InlineDirectives inlineDirectives;
@@ -86,8 +88,13 @@ public ParseTreeVisitor(Map<String, PredicateInterpretation> externals) {
 	}
 
 	public ParseTreeVisitor(Map<String, PredicateInterpretation> externals, boolean acceptVariables) {
+		this(externals, acceptVariables, AlphaContext.getDefault());
+	}
+
+	public ParseTreeVisitor(Map<String, PredicateInterpretation> externals, boolean acceptVariables, AlphaContext context) {
 		this.externals = externals;
 		this.acceptVariables = acceptVariables;
+		this.context = context;
 	}
 
 	private UnsupportedOperationException notSupported(RuleContext ctx) {
@@ -398,7 +405,7 @@ public Term visitVariable_term(ASPCore2Parser.Variable_termContext ctx) {
 		if (ctx.VARIABLE() != null) {
 			return VariableTerm.getInstance(ctx.VARIABLE().getText());
 		} else {
-			return VariableTerm.getAnonymousInstance();
+			return context.newAnonymousVariable();
 		}
 	}
 
@@ -516,7 +523,7 @@ public VariableTerm visitTerm_anonymousVariable(ASPCore2Parser.Term_anonymousVar
 			throw notSupported(ctx);
 		}
 
-		return VariableTerm.getAnonymousInstance();
+		return context.newAnonymousVariable();
 	}
 
 	@Override
@@ -16,14 +16,21 @@
 import at.ac.tuwien.kr.alpha.CustomErrorListener;
 import at.ac.tuwien.kr.alpha.antlr.ASPCore2Lexer;
 import at.ac.tuwien.kr.alpha.antlr.ASPCore2Parser;
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.fixedinterpretations.PredicateInterpretation;
 import at.ac.tuwien.kr.alpha.common.program.InputProgram;
 
 public class ProgramParser {
 	private final Map<String, PredicateInterpretation> externals;
+	private final AlphaContext context;
 
 	public ProgramParser(Map<String, PredicateInterpretation> externals) {
+		this(externals, AlphaContext.getDefault());
+	}
+
+	public ProgramParser(Map<String, PredicateInterpretation> externals, AlphaContext context) {
 		this.externals = externals;
+		this.context = context;
 	}
 
 	public ProgramParser() {
@@ -105,7 +112,7 @@ public InputProgram parse(CharStream stream) throws IOException {
 		}
 
 		// Construct internal program representation.
-		ParseTreeVisitor visitor = new ParseTreeVisitor(externals);
+		ParseTreeVisitor visitor = new ParseTreeVisitor(externals, true, context);
 		return visitor.translate(programContext);
 	}
 }
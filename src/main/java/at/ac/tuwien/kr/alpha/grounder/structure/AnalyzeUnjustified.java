@@ -39,11 +39,11 @@ public class AnalyzeUnjustified {
 	private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzeUnjustified.class);
 	private final InternalProgram programAnalysis;
 	private final AtomStore atomStore;
-	private final Map<Predicate, LinkedHashSet<Instance>> factsFromProgram;
+	private final Map<Predicate, Set<Instance>> factsFromProgram;
 	private int renamingCounter;
 	private int padDepth;
 
-	public AnalyzeUnjustified(InternalProgram programAnalysis, AtomStore atomStore, Map<Predicate, LinkedHashSet<Instance>> factsFromProgram) {
+	public AnalyzeUnjustified(InternalProgram programAnalysis, AtomStore atomStore, Map<Predicate, Set<Instance>> factsFromProgram) {
 		this.programAnalysis = programAnalysis;
 		this.atomStore = atomStore;
 		this.factsFromProgram = factsFromProgram;
@@ -295,7 +295,7 @@ private AssignedAtomsIterator getAssignedAtomsOverPredicate(Predicate predicate)
 		// Find more substitutions, consider currentAssignment.
 		List<Atom> assignedAtoms = this.assignedAtoms.get(predicate);
 		// Consider instances from facts.
-		LinkedHashSet<Instance> factsOverPredicate = factsFromProgram.get(predicate);
+		Set<Instance> factsOverPredicate = factsFromProgram.get(predicate);
 		return new AssignedAtomsIterator(predicate, assignedAtoms, factsOverPredicate);
 	}
 
@@ -334,7 +334,7 @@ private List<RuleAndUnifier> rulesHeadUnifyingWith(Atom p) {
 		
 		ArrayList<FactOrNonGroundRule> definingRulesAndFacts = new ArrayList<>();
 		// Get facts over the same predicate.
-		LinkedHashSet<Instance> factInstances = factsFromProgram.get(predicate);
+		Set<Instance> factInstances = factsFromProgram.get(predicate);
 		if (factInstances != null) {
 			for (Instance factInstance : factInstances) {
 				definingRulesAndFacts.add(new FactOrNonGroundRule(factInstance));
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder.transformation;
+
+import at.ac.tuwien.kr.alpha.common.ComparisonOperator;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.AggregateAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.AggregateLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.program.InputProgram;
+import at.ac.tuwien.kr.alpha.common.rule.BasicRule;
+import at.ac.tuwien.kr.alpha.common.rule.head.NormalHead;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.FunctionTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Rewrites constraints containing a #count or #sum aggregate such that the aggregate is not normalized into a sorting
+ * circuit or summation encoding but checked natively by the solver, see
+ * {@link at.ac.tuwien.kr.alpha.solver.AggregateConstraintPropagator}. Only the elements and the bound of each
+ * aggregate are grounded, hence the ground program grows linearly with the number of aggregate elements.
+ *
+ * A constraint with a single positive aggregate, like the capacity constraint
+ * <code>:- bin(B), limit(B,L), L &lt;= #sum { W,I : in(I,B), weight(I,W) }.</code>, is rewritten to
+ * <code>aggregate_element(agg(B,1), element_tuple(W,I), W) :- in(I,B), weight(I,W), bin(B), limit(B,L).</code> and
+ * <code>aggregate_capacity(agg(B,1), L) :- bin(B), limit(B,L).</code>, where a true capacity atom states that
+ * the sum of the weights of the true elements must stay below the bound. Elements of #count aggregates have weight 1.
+ * Weights must not be negative. The upper bounds of choice rules are always rewritten like this, see
+ * {@link ChoiceHeadToNormal}.
+ *
+ * The scope of this rewriting is deliberately narrow: only constraints with exactly one positive, lower-bounded #count
+ * or #sum aggregate are rewritten, i.e., constraints stating that the true elements must stay below a bound. All other
+ * rules are left to the other normalizations, which either encode them (aggregates in rules with heads, negative
+ * weights) or reject them (upper bounds, negated aggregates, several aggregates per rule). The latter would require the
+ * solver to conclude that too few elements are true, which is not sound while further elements may still be grounded
+ * lazily. Since negative weights are only supported by the normalizations, this rewriting is not applied by default.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class AggregateConstraintRewriting extends ProgramTransformation<InputProgram, InputProgram> {
+
+	public static final Predicate ELEMENT = Predicate.getInstance("aggregate_element", 3, true);
+	public static final Predicate CAPACITY = Predicate.getInstance("aggregate_capacity", 2, true);
+
+	private static final ConstantTerm<Integer> COUNT_WEIGHT = ConstantTerm.getInstance(1);
+
+	private int aggregateCount;
+
+	@Override
+	public InputProgram apply(InputProgram inputProgram) {
+		InputProgram.Builder programBuilder = InputProgram.builder();
+		programBuilder.addFacts(inputProgram.getFacts());
+		programBuilder.addInlineDirectives(inputProgram.getInlineDirectives());
+		for (BasicRule rule : inputProgram.getRules()) {
+			AggregateLiteral aggregateLiteral = getRewritableAggregate(rule);
+			if (aggregateLiteral == null) {
+				programBuilder.addRule(rule);
+			} else {
+				programBuilder.addRules(rewriteConstraint(rule, aggregateLiteral));
+			}
+		}
+		return programBuilder.build();
+	}
+
+	/**
+	 * Returns the aggregate literal of the given rule if the rule is a constraint whose only aggregate is a positive,
+	 * lower-bounded #count or #sum aggregate without upper bound, and null otherwise.
+	 */
+	private static AggregateLiteral getRewritableAggregate(BasicRule rule) {
+		if (!rule.isConstraint()) {
+			return null;
+		}
+		AggregateLiteral aggregateLiteral = null;
+		for (Literal literal : rule.getBody()) {
+			if (!(literal instanceof AggregateLiteral)) {
+				continue;
+			}
+			if (aggregateLiteral != null) {
+				return null;
+			}
+			aggregateLiteral = (AggregateLiteral) literal;
+		}
+		if (aggregateLiteral == null || aggregateLiteral.isNegated()) {
+			return null;
+		}
+		AggregateAtom aggregateAtom = aggregateLiteral.getAtom();
+		if (aggregateAtom.getLowerBoundOperator() != ComparisonOperator.LE || aggregateAtom.getUpperBoundOperator() != null) {
+			return null;
+		}
+		AggregateAtom.AGGREGATEFUNCTION aggregateFunction = aggregateAtom.getAggregatefunction();
+		if (aggregateFunction != AggregateAtom.AGGREGATEFUNCTION.COUNT && aggregateFunction != AggregateAtom.AGGREGATEFUNCTION.SUM) {
+			return null;
+		}
+		return aggregateLiteral;
+	}
+
+	/**
+	 * Rewrites the given constraint, whose only aggregate is the given positive #count or #sum aggregate, into the rules
+	 * deriving the elements and the capacity of the aggregate.
+	 */
+	List<BasicRule> rewriteConstraint(BasicRule constraint, AggregateLiteral aggregateLiteral) {
+		AggregateAtom aggregateAtom = aggregateLiteral.getAtom();
+		List<Literal> body = new ArrayList<>(constraint.getBody());
+		body.remove(aggregateLiteral);
+
+		// Identify each ground instance of the aggregate by its global variables, like the other normalizations do.
+		aggregateCount++;
+		Collection<Term> globalVariables = CardinalityNormalization.getGlobalVariables(body, aggregateAtom);
+		Term aggregateId;
+		if (globalVariables.isEmpty()) {
+			aggregateId = ConstantTerm.getInstance(aggregateCount);
+		} else {
+			List<Term> globalVariableTermlist = new ArrayList<>(globalVariables);
+			globalVariableTermlist.add(ConstantTerm.getInstance(aggregateCount));
+			aggregateId = FunctionTerm.getInstance("agg", globalVariableTermlist);
+		}
+
+		List<BasicRule> rewrittenRules = new ArrayList<>();
+		boolean isCount = aggregateAtom.getAggregatefunction() == AggregateAtom.AGGREGATEFUNCTION.COUNT;
+		for (AggregateAtom.AggregateElement aggregateElement : aggregateAtom.getAggregateElements()) {
+			List<Term> elementTerms = aggregateElement.getElementTerms();
+			Term weight = isCount ? COUNT_WEIGHT : elementTerms.get(0);
+			BasicAtom elementAtom = new BasicAtom(ELEMENT, aggregateId, FunctionTerm.getInstance("element_tuple", elementTerms), weight);
+			List<Literal> elementBody = new ArrayList<>(aggregateElement.getElementLiterals());
+			// If there are global variables used inside the aggregate, add the body of the constraint to bind them.
+			if (!globalVariables.isEmpty()) {
+				elementBody.addAll(body);
+			}
+			rewrittenRules.add(new BasicRule(new NormalHead(elementAtom), elementBody));
+		}
+		BasicAtom capacityAtom = new BasicAtom(CAPACITY, aggregateId, aggregateAtom.getLowerBoundTerm());
+		rewrittenRules.add(new BasicRule(new NormalHead(capacityAtom), body));
+		return rewrittenRules;
+	}
+}
@@ -1,5 +1,6 @@
 package at.ac.tuwien.kr.alpha.grounder.transformation;
 
+import at.ac.tuwien.kr.alpha.common.Predicate;
 import at.ac.tuwien.kr.alpha.common.atoms.AggregateAtom;
 import at.ac.tuwien.kr.alpha.common.atoms.AggregateLiteral;
 import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
@@ -28,6 +29,12 @@
  */
 public class CardinalityNormalization extends ProgramTransformation<InputProgram, InputProgram> {
 
+	// The interface of the rewritten aggregates to the cardinality encoding, the first term of each atom is aggregate_arguments(ID).
+	static final Predicate INPUT_PREDICATE = Predicate.getInstance("sorting_network_input", 2, true);
+	static final Predicate BOUND_PREDICATE = Predicate.getInstance("sorting_network_bound", 2, true);
+	static final Predicate OUTPUT_PREDICATE = Predicate.getInstance("sorting_network_output", 2, true);
+	static final String AGGREGATE_ID_SYMBOL = "aggregate_arguments";
+
 	private int aggregateCount;
 	private ProgramParser parser = new ProgramParser();
 	private final boolean useSortingCircuitEncoding;
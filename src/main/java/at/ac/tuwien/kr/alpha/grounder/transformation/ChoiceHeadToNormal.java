@@ -27,28 +27,56 @@
  */
 package at.ac.tuwien.kr.alpha.grounder.transformation;
 
+import at.ac.tuwien.kr.alpha.common.ComparisonOperator;
 import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.AggregateAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.AggregateLiteral;
 import at.ac.tuwien.kr.alpha.common.atoms.Atom;
 import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.ComparisonAtom;
 import at.ac.tuwien.kr.alpha.common.atoms.Literal;
 import at.ac.tuwien.kr.alpha.common.program.InputProgram;
 import at.ac.tuwien.kr.alpha.common.rule.BasicRule;
 import at.ac.tuwien.kr.alpha.common.rule.head.ChoiceHead;
 import at.ac.tuwien.kr.alpha.common.rule.head.Head;
 import at.ac.tuwien.kr.alpha.common.rule.head.NormalHead;
+import at.ac.tuwien.kr.alpha.common.terms.ArithmeticTerm;
 import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.FunctionTerm;
 import at.ac.tuwien.kr.alpha.common.terms.IntervalTerm;
 import at.ac.tuwien.kr.alpha.common.terms.Term;
+import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Copyright (c) 2017-2020, the Alpha Team.
  */
 public class ChoiceHeadToNormal extends ProgramTransformation<InputProgram, InputProgram> {
 	private final static String PREDICATE_NEGATION_PREFIX = "_n";
+	private static final Predicate LOWER_BOUND = Predicate.getInstance("choice_lower_bound", 1, true);
+
+	private final AggregateConstraintRewriting aggregateConstraintRewriting;
+
+	private int boundedChoiceCount;
+	private int boundVariableCount;
+
+	public ChoiceHeadToNormal() {
+		this(new AggregateConstraintRewriting());
+	}
+
+	/**
+	 * @param aggregateConstraintRewriting the rewriting of the constraints enforcing upper bounds, which must be shared with
+	 *                                     any other {@link AggregateConstraintRewriting} of the same program such that the
+	 *                                     identifiers of the aggregates do not clash.
+	 */
+	public ChoiceHeadToNormal(AggregateConstraintRewriting aggregateConstraintRewriting) {
+		this.aggregateConstraintRewriting = aggregateConstraintRewriting;
+	}
 
 	@Override
 	public InputProgram apply(InputProgram inputProgram) {
@@ -70,9 +98,8 @@ public InputProgram apply(InputProgram inputProgram) {
 			ruleIterator.remove();
 
 			ChoiceHead choiceHead = (ChoiceHead) ruleHead;
-			// Choice rules with boundaries are not yet supported.
 			if (choiceHead.getLowerBound() != null || choiceHead.getUpperBound() != null) {
-				throw new UnsupportedOperationException("Found choice rule with bounds, which are not yet supported. Rule is: " + rule);
+				additionalRules.addAll(rewriteBounds(rule, choiceHead));
 			}
 
 			// Only rewrite rules with a choice in their head.
@@ -105,14 +132,140 @@ public InputProgram apply(InputProgram inputProgram) {
 				List<Literal> guessingRuleBodyWithHead = new ArrayList<>(ruleBody);
 				guessingRuleBodyWithHead.add(new BasicAtom(negPredicate, headTerms).toLiteral(false));
 				additionalRules.add(new BasicRule(new NormalHead(head), guessingRuleBodyWithHead));
-
-				// TODO: when cardinality constraints are possible, process the boundaries by adding a constraint with a cardinality check.
 			}
 		}
 		return programBuilder.addRules(srcRules).addRules(additionalRules).addFacts(inputProgram.getFacts())
 				.addInlineDirectives(inputProgram.getInlineDirectives()).build();
 	}
 
+	/**
+	 * Creates the rules enforcing the bounds of a bounded choice rule, which are stated on the number of true atoms of
+	 * the choice. An upper bound <code>U</code> becomes the constraint <code>:- body, U+1 &lt;= #count{...}</code>, which
+	 * is always checked natively by the solver, see {@link AggregateConstraintRewriting}. A lower bound <code>L</code>
+	 * cannot be checked on the elements grounded so far: a nogood stating that too few elements are true would have to
+	 * contain all elements as false, but further elements may be grounded later on, hence no such nogood is valid.
+	 * Instead, the lower bound is derived into an atom that the rule body requires: <code>lb :- body, L &lt;= #count{...}</code>
+	 * and <code>:- body, not lb</code>. For the common lower bound 1 the aggregate is replaced by one rule per choice element.
+	 */
+	private List<BasicRule> rewriteBounds(BasicRule rule, ChoiceHead choiceHead) {
+		boundedChoiceCount++;
+		// Bring the bounds "lt lop count" and "count uop ut" into the form "L <= count <= U".
+		CountBounds bounds = new CountBounds(rule);
+		if (choiceHead.getLowerBound() != null) {
+			bounds.add(mirror(choiceHead.getLowerOperator()), choiceHead.getLowerBound());
+		}
+		if (choiceHead.getUpperBound() != null) {
+			bounds.add(choiceHead.getUpperOperator(), choiceHead.getUpperBound());
+		}
+
+		List<BasicRule> boundRules = new ArrayList<>();
+		if (bounds.upper != null) {
+			List<Literal> constraintBody = new ArrayList<>(rule.getBody());
+			// The constraint fires if the number of true atoms reaches U+1.
+			Term violationBound = offsetBound(bounds.upper, bounds.upperOffset + 1, constraintBody);
+			if (isNonPositive(violationBound)) {
+				boundRules.add(new BasicRule(null, constraintBody));
+			} else {
+				AggregateLiteral violationCount = countChoiceAtoms(choiceHead, violationBound);
+				constraintBody.add(violationCount);
+				boundRules.addAll(aggregateConstraintRewriting.rewriteConstraint(new BasicRule(null, constraintBody), violationCount));
+			}
+		}
+		if (bounds.lower != null) {
+			List<Literal> lowerBoundBody = new ArrayList<>(rule.getBody());
+			Term lowerBound = offsetBound(bounds.lower, bounds.lowerOffset, lowerBoundBody);
+			if (isNonPositive(lowerBound)) {
+				return boundRules;
+			}
+			BasicAtom lowerBoundAtom = new BasicAtom(LOWER_BOUND, FunctionTerm.getInstance("choice", getBodyVariables(rule)));
+			if (ConstantTerm.getInstance(1).equals(lowerBound)) {
+				for (ChoiceHead.ChoiceElement choiceElement : choiceHead.getChoiceElements()) {
+					List<Literal> elementBody = new ArrayList<>(rule.getBody());
+					elementBody.add(choiceElement.choiceAtom.toLiteral());
+					elementBody.addAll(choiceElement.conditionLiterals);
+					boundRules.add(new BasicRule(new NormalHead(lowerBoundAtom), elementBody));
+				}
+			} else {
+				lowerBoundBody.add(countChoiceAtoms(choiceHead, lowerBound));
+				boundRules.add(new BasicRule(new NormalHead(lowerBoundAtom), lowerBoundBody));
+			}
+			List<Literal> constraintBody = new ArrayList<>(rule.getBody());
+			constraintBody.add(lowerBoundAtom.toLiteral(false));
+			boundRules.add(new BasicRule(null, constraintBody));
+		}
+		return boundRules;
+	}
+
+	/**
+	 * Returns the operator op' such that "t op count" holds if and only if "count op' t" holds.
+	 */
+	private static ComparisonOperator mirror(ComparisonOperator operator) {
+		switch (operator) {
+			case LT:
+				return ComparisonOperator.GT;
+			case GT:
+				return ComparisonOperator.LT;
+			case LE:
+				return ComparisonOperator.GE;
+			case GE:
+				return ComparisonOperator.LE;
+			default:
+				return operator;
+		}
+	}
+
+	/**
+	 * Returns the given bound plus the given offset. Integer constants are added up directly, otherwise a fresh variable
+	 * is bound to the sum by a comparison literal added to the given body.
+	 */
+	private Term offsetBound(Term bound, int offset, List<Literal> body) {
+		if (offset == 0) {
+			return bound;
+		}
+		if (bound instanceof ConstantTerm && ((ConstantTerm<?>) bound).getObject() instanceof Integer) {
+			return ConstantTerm.getInstance((Integer) ((ConstantTerm<?>) bound).getObject() + offset);
+		}
+		VariableTerm boundVariable = VariableTerm.getInstance("_ChoiceBound" + boundVariableCount++);
+		Term sum = ArithmeticTerm.getInstance(bound, ArithmeticTerm.ArithmeticOperator.PLUS, ConstantTerm.getInstance(offset));
+		body.add(new ComparisonAtom(boundVariable, sum, ComparisonOperator.EQ).toLiteral());
+		return boundVariable;
+	}
+
+	private static boolean isNonPositive(Term bound) {
+		return bound instanceof ConstantTerm && ((ConstantTerm<?>) bound).getObject() instanceof Integer && (Integer) ((ConstantTerm<?>) bound).getObject() <= 0;
+	}
+
+	/**
+	 * Creates the literal <code>bound &lt;= #count{...}</code> counting the distinct true atoms of the given choice head.
+	 */
+	private static AggregateLiteral countChoiceAtoms(ChoiceHead choiceHead, Term bound) {
+		List<AggregateAtom.AggregateElement> aggregateElements = new ArrayList<>();
+		for (ChoiceHead.ChoiceElement choiceElement : choiceHead.getChoiceElements()) {
+			Atom choiceAtom = choiceElement.choiceAtom;
+			// Identify each atom by its predicate and terms, such that atoms chosen by several elements are counted once.
+			List<Term> elementTerms = new ArrayList<>();
+			elementTerms.add(ConstantTerm.getSymbolicInstance(choiceAtom.getPredicate().getName()));
+			elementTerms.addAll(choiceAtom.getTerms());
+			List<Literal> elementLiterals = new ArrayList<>();
+			elementLiterals.add(choiceAtom.toLiteral());
+			elementLiterals.addAll(choiceElement.conditionLiterals);
+			aggregateElements.add(new AggregateAtom.AggregateElement(elementTerms, elementLiterals));
+		}
+		AggregateAtom countAtom = new AggregateAtom(ComparisonOperator.LE, bound, null, null, AggregateAtom.AGGREGATEFUNCTION.COUNT, aggregateElements);
+		return new AggregateLiteral(countAtom, true);
+	}
+
+	private List<Term> getBodyVariables(BasicRule rule) {
+		Set<Term> bodyVariables = new LinkedHashSet<>();
+		for (Literal literal : rule.getBody()) {
+			bodyVariables.addAll(literal.getBindingVariables());
+			bodyVariables.addAll(literal.getNonBindingVariables());
+		}
+		List<Term> idTerms = new ArrayList<>(bodyVariables);
+		idTerms.add(ConstantTerm.getInstance(boundedChoiceCount));
+		return idTerms;
+	}
+
 	private static boolean containsIntervalTerms(Atom atom) {
 		for (Term term : atom.getTerms()) {
 			if (IntervalTerm.termContainsIntervalTerm(term)) {
@@ -121,4 +274,61 @@ private static boolean containsIntervalTerms(Atom atom) {
 		}
 		return false;
 	}
+
+	/**
+	 * The bounds L+lowerOffset &lt;= count &lt;= U+upperOffset of a choice rule, each one may be absent.
+	 */
+	private static class CountBounds {
+		private final BasicRule rule;
+		private Term lower;
+		private int lowerOffset;
+		private Term upper;
+		private int upperOffset;
+
+		private CountBounds(BasicRule rule) {
+			this.rule = rule;
+		}
+
+		/**
+		 * Adds the bound "count operator bound".
+		 */
+		private void add(ComparisonOperator operator, Term bound) {
+			switch (operator) {
+				case LE:
+					setUpper(bound, 0);
+					break;
+				case LT:
+					setUpper(bound, -1);
+					break;
+				case GE:
+					setLower(bound, 0);
+					break;
+				case GT:
+					setLower(bound, 1);
+					break;
+				case EQ:
+					setLower(bound, 0);
+					setUpper(bound, 0);
+					break;
+				default:
+					throw new UnsupportedOperationException("Found choice rule with bound operator " + operator + ", which is not supported. Rule is: " + rule);
+			}
+		}
+
+		private void setLower(Term bound, int offset) {
+			if (lower != null) {
+				throw new UnsupportedOperationException("Found choice rule with two lower bounds, which is not supported. Rule is: " + rule);
+			}
+			lower = bound;
+			lowerOffset = offset;
+		}
+
+		private void setUpper(Term bound, int offset) {
+			if (upper != null) {
+				throw new UnsupportedOperationException("Found choice rule with two upper bounds, which is not supported. Rule is: " + rule);
+			}
+			upper = bound;
+			upperOffset = offset;
+		}
+	}
 }
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder.transformation;
+
+import at.ac.tuwien.kr.alpha.common.atoms.AggregateAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.AggregateLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.program.InputProgram;
+import at.ac.tuwien.kr.alpha.common.rule.BasicRule;
+import at.ac.tuwien.kr.alpha.common.rule.NormalRule;
+import at.ac.tuwien.kr.alpha.common.rule.head.NormalHead;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.FunctionTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Rewrites #min and #max aggregates, for which there is no encoding into normal rules, into the interface of
+ * {@link StratifiedAggregateRewriting}, such that {@link StratifiedEvaluation} computes them directly. The rewritten
+ * program hence must be preprocessed by {@link StratifiedAggregateRewriting} and {@link StratifiedEvaluation}, which
+ * fail if an aggregate is not part of the stratifiable part of the program. Other aggregates are left untouched.
+ *
+ * Example: <code>big(G) :- g(G), 6 &lt;= #max{ V : v(G,V) }.</code> is rewritten into
+ * <code>big(G) :- g(G), stratified_aggregate_output_max_1(agg(G,1), 6).</code>,
+ * <code>stratified_aggregate_element_max_1(agg(G,1), element_tuple(V), V) :- v(G,V), g(G).</code>,
+ * <code>stratified_aggregate_bound_max_1(agg(G,1), 6, max) :- g(G).</code> and the dependency rule of the output.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class MinMaxAggregateRewriting extends ProgramTransformation<InputProgram, InputProgram> {
+
+	private int aggregateCount;
+
+	@Override
+	public InputProgram apply(InputProgram inputProgram) {
+		InputProgram.Builder programBuilder = InputProgram.builder();
+		programBuilder.addFacts(inputProgram.getFacts());
+		programBuilder.addInlineDirectives(inputProgram.getInlineDirectives());
+		for (BasicRule rule : inputProgram.getRules()) {
+			programBuilder.addRules(rewriteAggregatesInRule(rule));
+		}
+		return programBuilder.build();
+	}
+
+	private List<BasicRule> rewriteAggregatesInRule(BasicRule rule) {
+		List<BasicRule> rewrittenRules = new ArrayList<>();
+		List<Literal> rewrittenBody = new ArrayList<>(rule.getBody());
+		List<Literal> outputLiterals = new ArrayList<>();
+		for (Literal literal : rule.getBody()) {
+			if (!(literal instanceof AggregateLiteral)) {
+				continue;
+			}
+			AggregateLiteral aggregateLiteral = (AggregateLiteral) literal;
+			AggregateAtom aggregateAtom = aggregateLiteral.getAtom();
+			if (aggregateAtom.getAggregatefunction() != AggregateAtom.AGGREGATEFUNCTION.MIN
+					&& aggregateAtom.getAggregatefunction() != AggregateAtom.AGGREGATEFUNCTION.MAX) {
+				continue;
+			}
+			if (aggregateLiteral.isNegated() || aggregateAtom.getUpperBoundOperator() != null) {
+				throw new UnsupportedOperationException("Only limited #min/#max aggregates without upper bound are currently supported.");
+			}
+			rewrittenBody.remove(aggregateLiteral);
+			outputLiterals.add(rewriteAggregate(aggregateAtom, rewrittenBody, rewrittenRules));
+		}
+		if (outputLiterals.isEmpty()) {
+			rewrittenRules.add(rule);
+			return rewrittenRules;
+		}
+		rewrittenBody.addAll(outputLiterals);
+		rewrittenRules.add(new BasicRule(rule.getHead(), rewrittenBody));
+		return rewrittenRules;
+	}
+
+	/**
+	 * Adds the element, bound and output rules of the given aggregate and returns the literal replacing it.
+	 */
+	private Literal rewriteAggregate(AggregateAtom aggregateAtom, List<Literal> body, List<BasicRule> rewrittenRules) {
+		aggregateCount++;
+		String aggregateName = aggregateAtom.getAggregatefunction().name().toLowerCase() + "_" + aggregateCount;
+
+		// Identify each ground instance of the aggregate by its global variables, like the other normalizations do.
+		Collection<Term> globalVariables = CardinalityNormalization.getGlobalVariables(body, aggregateAtom);
+		Term aggregateId;
+		if (globalVariables.isEmpty()) {
+			aggregateId = ConstantTerm.getInstance(aggregateCount);
+		} else {
+			List<Term> globalVariableTermlist = new ArrayList<>(globalVariables);
+			globalVariableTermlist.add(ConstantTerm.getInstance(aggregateCount));
+			aggregateId = FunctionTerm.getInstance("agg", globalVariableTermlist);
+		}
+
+		for (AggregateAtom.AggregateElement aggregateElement : aggregateAtom.getAggregateElements()) {
+			List<Term> elementTerms = aggregateElement.getElementTerms();
+			BasicAtom elementAtom = new BasicAtom(StratifiedAggregateRewriting.elementPredicate(aggregateName), aggregateId,
+				FunctionTerm.getInstance("element_tuple", elementTerms), elementTerms.get(0));
+			List<Literal> elementBody = new ArrayList<>(aggregateElement.getElementLiterals());
+			// If there are global variables used inside the aggregate, add the body of the rule to bind them.
+			if (!globalVariables.isEmpty()) {
+				elementBody.addAll(body);
+			}
+			rewrittenRules.add(new BasicRule(new NormalHead(elementAtom), elementBody));
+		}
+		Term aggregateFunction = ConstantTerm.getSymbolicInstance(aggregateAtom.getAggregatefunction().name().toLowerCase());
+		BasicAtom boundAtom = new BasicAtom(StratifiedAggregateRewriting.boundPredicate(aggregateName), aggregateId,
+			aggregateAtom.getLowerBoundTerm(), aggregateFunction);
+		rewrittenRules.add(new BasicRule(new NormalHead(boundAtom), new ArrayList<>(body)));
+		NormalRule outputRule = StratifiedAggregateRewriting.createOutputRule(aggregateName);
+		rewrittenRules.add(new BasicRule(outputRule.getHead(), new ArrayList<>(outputRule.getBody())));
+
+		return new BasicAtom(StratifiedAggregateRewriting.outputPredicate(aggregateName), aggregateId, aggregateAtom.getLowerBoundTerm()).toLiteral();
+	}
+}
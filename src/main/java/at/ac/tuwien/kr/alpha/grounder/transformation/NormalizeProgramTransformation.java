@@ -1,8 +1,8 @@
 package at.ac.tuwien.kr.alpha.grounder.transformation;
 
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.program.InputProgram;
 import at.ac.tuwien.kr.alpha.common.program.NormalProgram;
-import at.ac.tuwien.kr.alpha.grounder.atoms.EnumerationAtom;
 
 /**
  * Encapsulates all transformations necessary to transform a given program into a @{link NormalProgram} that is understood by Alpha internally
@@ -12,23 +12,55 @@
 public class NormalizeProgramTransformation extends ProgramTransformation<InputProgram, NormalProgram> {
 
 	private boolean useNormalizationGrid;
+	private final boolean nativeAggregateConstraints;
+	private final boolean evaluateStratifiedAggregates;
+	private final AlphaContext context;
 
 	public NormalizeProgramTransformation(boolean useNormalizationGrid) {
+		this(useNormalizationGrid, AlphaContext.getDefault());
+	}
+
+	public NormalizeProgramTransformation(boolean useNormalizationGrid, AlphaContext context) {
+		this(useNormalizationGrid, false, context);
+	}
+
+	public NormalizeProgramTransformation(boolean useNormalizationGrid, boolean nativeAggregateConstraints, AlphaContext context) {
+		this(useNormalizationGrid, nativeAggregateConstraints, false, context);
+	}
+
+	/**
+	 * @param evaluateStratifiedAggregates whether #min and #max aggregates are left to {@link StratifiedEvaluation}, which
+	 *                                     then must be applied to the result, see {@link MinMaxAggregateRewriting}.
+	 */
+	public NormalizeProgramTransformation(boolean useNormalizationGrid, boolean nativeAggregateConstraints, boolean evaluateStratifiedAggregates,
+			AlphaContext context) {
 		this.useNormalizationGrid = useNormalizationGrid;
+		this.nativeAggregateConstraints = nativeAggregateConstraints;
+		this.evaluateStratifiedAggregates = evaluateStratifiedAggregates;
+		this.context = context;
 	}
 
 	@Override
 	public NormalProgram apply(InputProgram inputProgram) {
 		InputProgram tmpPrg;
-		// Transform choice rules.
-		tmpPrg = new ChoiceHeadToNormal().apply(inputProgram);
+		// Transform choice rules, their upper bounds are checked by the solver.
+		AggregateConstraintRewriting aggregateConstraintRewriting = new AggregateConstraintRewriting();
+		tmpPrg = new ChoiceHeadToNormal(aggregateConstraintRewriting).apply(inputProgram);
+		// Leave #min and #max aggregates, which have no encoding, to the stratified evaluation.
+		if (evaluateStratifiedAggregates) {
+			tmpPrg = new MinMaxAggregateRewriting().apply(tmpPrg);
+		}
+		// Keep aggregates in constraints for the solver, if requested.
+		if (nativeAggregateConstraints) {
+			tmpPrg = aggregateConstraintRewriting.apply(tmpPrg);
+		}
 		// Transform cardinality aggregates.
 		tmpPrg = new CardinalityNormalization(!this.useNormalizationGrid).apply(tmpPrg);
 		// Transform sum aggregates.
 		tmpPrg = new SumNormalization().apply(tmpPrg);
 		// Transform enumeration atoms.
 		tmpPrg = new EnumerationRewriting().apply(tmpPrg);
-		EnumerationAtom.resetEnumerations();
+		context.resetEnumerations();
 
 		// Construct the normal program.
 		NormalProgram retVal = NormalProgram.fromInputProgram(tmpPrg);
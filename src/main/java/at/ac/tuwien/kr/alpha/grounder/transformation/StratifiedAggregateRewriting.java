@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder.transformation;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.Atom;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.depgraph.ComponentGraph.SCComponent;
+import at.ac.tuwien.kr.alpha.common.depgraph.StratificationAlgorithm;
+import at.ac.tuwien.kr.alpha.common.program.AnalyzedProgram;
+import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
+import at.ac.tuwien.kr.alpha.common.rule.NormalRule;
+import at.ac.tuwien.kr.alpha.common.rule.head.NormalHead;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.FunctionTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hands aggregates whose value is fully determined by the stratifiable part of a normalized program over to
+ * {@link StratifiedEvaluation}, which computes them directly instead of evaluating their sorting circuit or summation
+ * encoding rule by rule. This transformation must be applied right before {@link StratifiedEvaluation}.
+ *
+ * An aggregate rewritten by {@link CardinalityNormalization} or {@link SumNormalization} is recognized by the atoms
+ * connecting it to the encoding. With n identifying the aggregate, f being count or sum, and ID being the instance
+ * of the aggregate, i.e., its global variables, the aggregate is rewritten into
+ * <code>stratified_aggregate_element_f_n(ID, element_tuple(t), W)</code> for each input element with weight W,
+ * <code>stratified_aggregate_bound_f_n(ID, L, f)</code> for the bound, and
+ * <code>stratified_aggregate_output_f_n(ID, L)</code> for the output literal. The additional rule
+ * <code>stratified_aggregate_output_f_n(ID, L) :- stratified_aggregate_bound_f_n(ID, L, F), stratified_aggregate_element_f_n(ID, T, W).</code>
+ * only establishes the dependencies of the output on the elements and the bound, it is never grounded but evaluated by
+ * grouping the elements by ID. #min and #max aggregates are already rewritten into this form by
+ * {@link MinMaxAggregateRewriting}.
+ *
+ * An aggregate is kept in its encoding if the stratification of the rewritten program, as computed by
+ * {@link StratificationAlgorithm}, does not cover its output in a component of its own, e.g., because it depends on a
+ * cycle through negation or is part of a recursion. #min and #max aggregates have no encoding to fall back to.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class StratifiedAggregateRewriting extends ProgramTransformation<InternalProgram, AnalyzedProgram> {
+
+	private static final String ELEMENT_PREFIX = "stratified_aggregate_element_";
+	private static final String BOUND_PREFIX = "stratified_aggregate_bound_";
+	private static final String OUTPUT_PREFIX = "stratified_aggregate_output_";
+
+	private static final ConstantTerm<Integer> COUNT_WEIGHT = ConstantTerm.getInstance(1);
+
+	/**
+	 * Returns true if the given predicate is the output predicate of a rewritten aggregate.
+	 */
+	public static boolean isOutputPredicate(Predicate predicate) {
+		return predicate.isInternal() && predicate.getArity() == 2 && predicate.getName().startsWith(OUTPUT_PREFIX);
+	}
+
+	/**
+	 * Returns the predicate holding the elements of the rewritten aggregate with the given output predicate.
+	 */
+	public static Predicate getElementPredicate(Predicate outputPredicate) {
+		return elementPredicate(getAggregateName(outputPredicate));
+	}
+
+	/**
+	 * Returns the predicate holding the bounds of the rewritten aggregate with the given output predicate.
+	 */
+	public static Predicate getBoundPredicate(Predicate outputPredicate) {
+		return boundPredicate(getAggregateName(outputPredicate));
+	}
+
+	static Predicate elementPredicate(String aggregateName) {
+		return Predicate.getInstance(ELEMENT_PREFIX + aggregateName, 3, true);
+	}
+
+	static Predicate boundPredicate(String aggregateName) {
+		return Predicate.getInstance(BOUND_PREFIX + aggregateName, 3, true);
+	}
+
+	static Predicate outputPredicate(String aggregateName) {
+		return Predicate.getInstance(OUTPUT_PREFIX + aggregateName, 2, true);
+	}
+
+	/**
+	 * Creates the rule establishing the dependencies of the output of the given aggregate on its elements and bounds.
+	 */
+	static NormalRule createOutputRule(String aggregateName) {
+		VariableTerm id = VariableTerm.getInstance("ID");
+		VariableTerm bound = VariableTerm.getInstance("L");
+		List<Literal> outputBody = new ArrayList<>();
+		outputBody.add(new BasicAtom(boundPredicate(aggregateName), id, bound, VariableTerm.getInstance("F")).toLiteral());
+		outputBody.add(new BasicAtom(elementPredicate(aggregateName), id, VariableTerm.getInstance("T"), VariableTerm.getInstance("W")).toLiteral());
+		return new NormalRule(new NormalHead(new BasicAtom(outputPredicate(aggregateName), id, bound)), outputBody);
+	}
+
+	private static String getAggregateName(Predicate outputPredicate) {
+		return outputPredicate.getName().substring(OUTPUT_PREFIX.length());
+	}
+
+	@Override
+	public AnalyzedProgram apply(InternalProgram inputProgram) {
+		Set<String> rewrittenAggregates = new LinkedHashSet<>();
+		boolean hasMinMaxAggregates = false;
+		for (InternalRule rule : inputProgram.getRules()) {
+			for (Literal literal : rule.getBody()) {
+				if (isOutputPredicate(literal.getPredicate())) {
+					hasMinMaxAggregates = true;
+				}
+				String aggregateName = getEncodedAggregateName(literal.getAtom());
+				if (aggregateName != null && isEncodingOutputPredicate(literal.getPredicate())) {
+					rewrittenAggregates.add(aggregateName);
+				}
+			}
+		}
+		if (rewrittenAggregates.isEmpty() && !hasMinMaxAggregates) {
+			return inputProgram instanceof AnalyzedProgram ? (AnalyzedProgram) inputProgram
+				: new AnalyzedProgram(inputProgram.getRules(), inputProgram.getFacts());
+		}
+
+		// Aggregates that fall back to their encoding may render others unstratifiable, hence iterate until no more change.
+		while (true) {
+			AnalyzedProgram rewrittenProgram = rewriteAggregates(inputProgram, rewrittenAggregates);
+			Set<String> nonEvaluableAggregates = getNonEvaluableAggregates(rewrittenProgram);
+			for (String aggregateName : nonEvaluableAggregates) {
+				if (!rewrittenAggregates.contains(aggregateName)) {
+					throw new UnsupportedOperationException("#min and #max aggregates are only supported over the stratifiable part of a program, but "
+						+ outputPredicate(aggregateName) + " is not.");
+				}
+			}
+			if (nonEvaluableAggregates.isEmpty()) {
+				return rewrittenProgram;
+			}
+			rewrittenAggregates.removeAll(nonEvaluableAggregates);
+		}
+	}
+
+	private static AnalyzedProgram rewriteAggregates(InternalProgram inputProgram, Set<String> rewrittenAggregates) {
+		List<InternalRule> rules = new ArrayList<>();
+		for (InternalRule rule : inputProgram.getRules()) {
+			rules.add(rewriteRule(rule, rewrittenAggregates));
+		}
+		for (String aggregateName : rewrittenAggregates) {
+			rules.add(InternalRule.fromNormalRule(createOutputRule(aggregateName)));
+		}
+		// Input elements and bounds may have become facts.
+		List<Atom> facts = new ArrayList<>();
+		for (Atom fact : inputProgram.getFacts()) {
+			String aggregateName = getEncodedAggregateName(fact);
+			facts.add(aggregateName != null && rewrittenAggregates.contains(aggregateName) ? rewriteAtom(fact, aggregateName) : fact);
+		}
+		return new AnalyzedProgram(rules, facts);
+	}
+
+	private static InternalRule rewriteRule(InternalRule rule, Set<String> rewrittenAggregates) {
+		boolean isRewritten = false;
+		NormalHead head = rule.getHead();
+		if (!rule.isConstraint()) {
+			String aggregateName = getEncodedAggregateName(rule.getHeadAtom());
+			if (aggregateName != null && rewrittenAggregates.contains(aggregateName)) {
+				head = new NormalHead(rewriteAtom(rule.getHeadAtom(), aggregateName));
+				isRewritten = true;
+			}
+		}
+		List<Literal> body = new ArrayList<>(rule.getBody().size());
+		for (Literal literal : rule.getBody()) {
+			String aggregateName = getEncodedAggregateName(literal.getAtom());
+			if (aggregateName != null && rewrittenAggregates.contains(aggregateName)) {
+				body.add(rewriteAtom(literal.getAtom(), aggregateName).toLiteral(!literal.isNegated()));
+				isRewritten = true;
+			} else {
+				body.add(literal);
+			}
+		}
+		return isRewritten ? new InternalRule(head, body) : rule;
+	}
+
+	/**
+	 * Returns the names of all rewritten aggregates whose output is not evaluated by {@link StratifiedEvaluation} on its
+	 * own, i.e., it is not stratifiable or it shares its component with other predicates.
+	 */
+	private static Set<String> getNonEvaluableAggregates(AnalyzedProgram program) {
+		Set<Predicate> evaluablePredicates = new HashSet<>();
+		for (SCComponent component : StratificationAlgorithm.calculateStratification(program.getComponentGraph())) {
+			if (component.getNodes().size() == 1) {
+				evaluablePredicates.add(component.getNodes().get(0).getPredicate());
+			}
+		}
+		Set<String> nonEvaluableAggregates = new LinkedHashSet<>();
+		for (Predicate predicate : program.getPredicateDefiningRules().keySet()) {
+			if (isOutputPredicate(predicate) && !evaluablePredicates.contains(predicate)) {
+				nonEvaluableAggregates.add(getAggregateName(predicate));
+			}
+		}
+		return nonEvaluableAggregates;
+	}
+
+	private static boolean isEncodingOutputPredicate(Predicate predicate) {
+		return predicate.equals(CardinalityNormalization.OUTPUT_PREDICATE) || predicate.equals(SumNormalization.OUTPUT_PREDICATE);
+	}
+
+	/**
+	 * Returns the name of the aggregate connected to its encoding by the given atom, or null if the atom is not part of
+	 * the interface of a {@link CardinalityNormalization} or {@link SumNormalization}.
+	 */
+	private static String getEncodedAggregateName(Atom atom) {
+		Predicate predicate = atom.getPredicate();
+		String aggregateFunction;
+		String aggregateIdSymbol;
+		if (predicate.equals(CardinalityNormalization.INPUT_PREDICATE) || predicate.equals(CardinalityNormalization.BOUND_PREDICATE)
+				|| predicate.equals(CardinalityNormalization.OUTPUT_PREDICATE)) {
+			aggregateFunction = "count";
+			aggregateIdSymbol = CardinalityNormalization.AGGREGATE_ID_SYMBOL;
+		} else if (predicate.equals(SumNormalization.INPUT_PREDICATE) || predicate.equals(SumNormalization.BOUND_PREDICATE)
+				|| predicate.equals(SumNormalization.OUTPUT_PREDICATE)) {
+			aggregateFunction = "sum";
+			aggregateIdSymbol = SumNormalization.AGGREGATE_ID_SYMBOL;
+		} else {
+			return null;
+		}
+		// Atoms of the encoding itself have a variable instead of the aggregate id.
+		Term aggregateArguments = atom.getTerms().get(0);
+		if (!(aggregateArguments instanceof FunctionTerm) || !((FunctionTerm) aggregateArguments).getSymbol().equals(aggregateIdSymbol)
+				|| ((FunctionTerm) aggregateArguments).getTerms().size() != 1) {
+			return null;
+		}
+		// The aggregate id is either the number of the aggregate or agg(X1,...,Xn,number) for global variables X1 to Xn.
+		Term aggregateId = ((FunctionTerm) aggregateArguments).getTerms().get(0);
+		if (aggregateId instanceof FunctionTerm) {
+			List<Term> idTerms = ((FunctionTerm) aggregateId).getTerms();
+			aggregateId = idTerms.get(idTerms.size() - 1);
+		}
+		if (!(aggregateId instanceof ConstantTerm)) {
+			return null;
+		}
+		return aggregateFunction + "_" + aggregateId;
+	}
+
+	private static BasicAtom rewriteAtom(Atom atom, String aggregateName) {
+		Predicate predicate = atom.getPredicate();
+		Term aggregateId = ((FunctionTerm) atom.getTerms().get(0)).getTerms().get(0);
+		Term secondTerm = atom.getTerms().get(1);
+		if (predicate.equals(CardinalityNormalization.INPUT_PREDICATE)) {
+			return new BasicAtom(elementPredicate(aggregateName), aggregateId, secondTerm, COUNT_WEIGHT);
+		} else if (predicate.equals(SumNormalization.INPUT_PREDICATE)) {
+			return new BasicAtom(elementPredicate(aggregateName), aggregateId, secondTerm, atom.getTerms().get(2));
+		} else if (predicate.equals(CardinalityNormalization.BOUND_PREDICATE) || predicate.equals(SumNormalization.BOUND_PREDICATE)) {
+			String aggregateFunction = aggregateName.substring(0, aggregateName.indexOf('_'));
+			return new BasicAtom(boundPredicate(aggregateName), aggregateId, secondTerm, ConstantTerm.getSymbolicInstance(aggregateFunction));
+		} else {
+			return new BasicAtom(outputPredicate(aggregateName), aggregateId, secondTerm);
+		}
+	}
+}
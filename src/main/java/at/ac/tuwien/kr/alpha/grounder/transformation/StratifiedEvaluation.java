@@ -1,8 +1,13 @@
 package at.ac.tuwien.kr.alpha.grounder.transformation;
 
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.AggregateAtom;
 import at.ac.tuwien.kr.alpha.common.atoms.Atom;
 import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.ComparisonLiteral;
+import at.ac.tuwien.kr.alpha.common.atoms.FixedInterpretationLiteral;
 import at.ac.tuwien.kr.alpha.common.atoms.Literal;
 import at.ac.tuwien.kr.alpha.common.depgraph.ComponentGraph;
 import at.ac.tuwien.kr.alpha.common.depgraph.ComponentGraph.SCComponent;
@@ -10,23 +15,32 @@
 import at.ac.tuwien.kr.alpha.common.depgraph.StratificationAlgorithm;
 import at.ac.tuwien.kr.alpha.common.program.AnalyzedProgram;
 import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.common.program.PartiallyEvaluatedProgram;
 import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
 import at.ac.tuwien.kr.alpha.grounder.IndexedInstanceStorage;
 import at.ac.tuwien.kr.alpha.grounder.Instance;
 import at.ac.tuwien.kr.alpha.grounder.RuleGroundingOrder;
 import at.ac.tuwien.kr.alpha.grounder.RuleGroundingOrders;
 import at.ac.tuwien.kr.alpha.grounder.Substitution;
 import at.ac.tuwien.kr.alpha.grounder.WorkingMemory;
+import at.ac.tuwien.kr.alpha.grounder.atoms.IntervalLiteral;
 import at.ac.tuwien.kr.alpha.grounder.instantiation.AssignmentStatus;
+import at.ac.tuwien.kr.alpha.grounder.instantiation.HashJoin;
+import at.ac.tuwien.kr.alpha.grounder.instantiation.LeapfrogTriejoin;
 import at.ac.tuwien.kr.alpha.grounder.instantiation.LiteralInstantiationResult;
 import at.ac.tuwien.kr.alpha.grounder.instantiation.LiteralInstantiator;
 import at.ac.tuwien.kr.alpha.grounder.instantiation.WorkingMemoryBasedInstantiationStrategy;
+import at.ac.tuwien.kr.alpha.metrics.jfr.ComponentEvaluationEvent;
+import at.ac.tuwien.kr.alpha.metrics.jfr.FlightRecorderEvents;
 import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -35,10 +49,17 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static at.ac.tuwien.kr.alpha.Util.oops;
 
 /**
  * Evaluates the stratifiable part of a given (analyzed) ASP program.
+ *
+ * Within one evaluation run of a component, the ground substitutions of rules are calculated concurrently if the rules only
+ * read the working memory while doing so, cf. {@link #evaluateRules(Set, boolean)}.
  * 
  * Copyright (c) 2019-2020, the Alpha Team.
  */
@@ -46,19 +67,38 @@ public class StratifiedEvaluation extends ProgramTransformation<AnalyzedProgram,
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(StratifiedEvaluation.class);
 
+	// Partial substitutions are hash-joined with a literal's instances only if there are at least this many of them, and at most
+	// this many times as many instances as partial substitutions; otherwise they are extended one by one using the indices.
+	private static final int HASH_JOIN_MIN_BATCH_SIZE = 8;
+	private static final int HASH_JOIN_MAX_BUILD_RATIO = 4;
+
 	private WorkingMemory workingMemory = new WorkingMemory();
 	private Map<Predicate, LinkedHashSet<InternalRule>> predicateDefiningRules;
 
 	private Map<Predicate, Set<Instance>> modifiedInLastEvaluationRun = new HashMap<>();
 
-	private List<Atom> additionalFacts = new ArrayList<>(); // The additional facts derived by stratified evaluation. Note that it may contain duplicates.
+	private int derivedFacts; // The number of facts derived by stratified evaluation so far.
 	private Set<Integer> solvedRuleIds = new HashSet<>(); // Set of rules that have been completely evaluated.
 
 	private LiteralInstantiator literalInstantiator;
 
+	// Positive bodies of rules joined by Leapfrog Triejoin, by rule id; empty for all other rules. Filled concurrently by evaluateRules.
+	private final Map<Integer, List<Literal>> cyclicPositiveBodies = new ConcurrentHashMap<>();
+
+	// Grounding orders planned from the statistics of the working memory, by rule id and starting literal.
+	private final Map<Integer, Map<Literal, RuleGroundingOrder>> plannedGroundingOrders = new HashMap<>();
+
+	private final AlphaContext context;
+
+	public StratifiedEvaluation() {
+		this(AlphaContext.getDefault());
+	}
+
+	public StratifiedEvaluation(AlphaContext context) {
+		this.context = context;
+	}
+
 	@Override
-	// Note: ideally this returns a "PartiallyEvaluatedProgram" such that the grounder can directly use the working
-	// memories created here rather than re-initialize everything.
 	public InternalProgram apply(AnalyzedProgram inputProgram) {
 		// Calculate a stratification and initialize the working memory.
 		ComponentGraph componentGraph = inputProgram.getComponentGraph();
@@ -82,21 +122,84 @@ public InternalProgram apply(AnalyzedProgram inputProgram) {
 		workingMemory.reset();
 
 		// Set up literal instantiator.
-		literalInstantiator = new LiteralInstantiator(new WorkingMemoryBasedInstantiationStrategy(workingMemory));
+		literalInstantiator = new LiteralInstantiator(new WorkingMemoryBasedInstantiationStrategy(workingMemory), context);
 
 		// Evaluate the program part covered by the calculated stratification.
 		for (SCComponent currComponent : strata) {
 			evaluateComponent(currComponent);
 		}
 
-		// Build the program resulting from evaluating the stratified part.
-		additionalFacts.addAll(inputProgram.getFacts()); // Add original input facts to newly derived ones.
+		// Constraints over completely evaluated predicates can be checked right away, satisfied ones are not needed any more.
+		checkConstraints(inputProgram);
+
+		// Build the program resulting from evaluating the stratified part, all facts are the positive instances in the working memory.
+		// The facts are snapshots of the instance storages, which the grounder adopting the working memory may modify later on.
+		Map<Predicate, Set<Instance>> factsByPredicate = new LinkedHashMap<>();
+		for (Predicate predicate : workingMemory.getPredicates()) {
+			IndexedInstanceStorage storage = workingMemory.get(predicate, true);
+			if (!storage.getAllInstances().isEmpty()) {
+				factsByPredicate.put(predicate, storage.getInstancesSnapshot());
+			}
+		}
 		List<InternalRule> outputRules = new ArrayList<>();
 		inputProgram.getRulesById().entrySet().stream().filter((entry) -> !solvedRuleIds.contains(entry.getKey()))
 				.forEach((entry) -> outputRules.add(entry.getValue()));
+		for (InternalRule rule : outputRules) {
+			if (!rule.isConstraint() && StratifiedAggregateRewriting.isOutputPredicate(rule.getHeadAtom().getPredicate())) {
+				throw oops("Aggregate rewritten for stratified evaluation lies outside of the stratified part: " + rule);
+			}
+		}
 
 		// NOTE: if InternalProgram requires solved rules, they should be added here.
-		return new InternalProgram(outputRules, additionalFacts);
+		return new PartiallyEvaluatedProgram(outputRules, factsByPredicate, workingMemory);
+	}
+
+	/**
+	 * Checks all constraints whose body only contains predicates that have been evaluated completely and marks the
+	 * satisfied ones as solved. Violated constraints are left to the solver, which then finds the program to be
+	 * inconsistent right away.
+	 */
+	private void checkConstraints(AnalyzedProgram inputProgram) {
+		Set<Predicate> incompletePredicates = new HashSet<>();
+		for (InternalRule rule : inputProgram.getRulesById().values()) {
+			if (!rule.isConstraint() && !solvedRuleIds.contains(rule.getRuleId())) {
+				incompletePredicates.add(rule.getHeadAtom().getPredicate());
+			}
+		}
+		for (InternalRule rule : inputProgram.getRulesById().values()) {
+			if (!rule.isConstraint() || !isCheckable(rule, incompletePredicates)) {
+				continue;
+			}
+			planGroundingOrders(Collections.singleton(rule));
+			if (isViolated(rule)) {
+				LOGGER.debug("Constraint {} is violated by the stratified part.", rule);
+			} else {
+				solvedRuleIds.add(rule.getRuleId());
+			}
+		}
+	}
+
+	private static boolean isCheckable(InternalRule constraint, Set<Predicate> incompletePredicates) {
+		for (Literal literal : constraint.getBody()) {
+			if (literal instanceof FixedInterpretationLiteral) {
+				continue;
+			}
+			if (literal.getClass() != BasicLiteral.class || incompletePredicates.contains(literal.getPredicate())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isViolated(InternalRule constraint) {
+		RuleGroundingOrders groundingOrders = constraint.getGroundingOrders();
+		if (groundingOrders.fixedInstantiation()) {
+			return !calcSubstitutionsWithGroundingOrder(groundingOrders.getFixedGroundingOrder(), Collections.singletonList(new Substitution())).isEmpty();
+		}
+		Literal startingLiteral = getSmallestStartingLiteral(groundingOrders.getStartingLiterals(),
+				lit -> workingMemory.get(lit.getPredicate(), true).getAllInstances());
+		return !calcSubstitutionsStartingFrom(constraint, startingLiteral, workingMemory.get(startingLiteral.getPredicate(), true).getAllInstances())
+				.isEmpty();
 	}
 
 	private void evaluateComponent(SCComponent comp) {
@@ -106,16 +209,20 @@ private void evaluateComponent(SCComponent comp) {
 			LOGGER.debug("No rules to evaluate for component {}", comp);
 			return;
 		}
+		ComponentEvaluationEvent evaluationEvent = FlightRecorderEvents.newComponentEvaluationEvent();
+		if (evaluationEvent != null) {
+			evaluationEvent.begin();
+		}
+		int factsBefore = derivedFacts;
 
 		// Rules outside of dependency cycles only need to be evaluated once.
 		if (!evaluationInfo.nonRecursiveRules.isEmpty()) {
+			planGroundingOrders(evaluationInfo.nonRecursiveRules);
 			prepareInitialEvaluation(evaluationInfo.nonRecursiveRules);
 			evaluateRules(evaluationInfo.nonRecursiveRules, true);
 			for (IndexedInstanceStorage instanceStorage : workingMemory.modified()) {
-				// Directly record all newly derived instances as additional facts.
-				for (Instance recentlyAddedInstance : instanceStorage.getRecentlyAddedInstances()) {
-					additionalFacts.add(new BasicAtom(instanceStorage.getPredicate(), recentlyAddedInstance.terms));
-				}
+				// All newly derived instances are facts.
+				derivedFacts += instanceStorage.getRecentlyAddedInstances().size();
 				instanceStorage.markRecentlyAddedInstancesDone();
 			}
 		}
@@ -127,15 +234,15 @@ private void evaluateComponent(SCComponent comp) {
 				if (isInitialRun) {
 					prepareInitialEvaluation(evaluationInfo.recursiveRules);
 				}
+				// The relations defined in this component grow with every run, hence grounding orders are planned anew each time.
+				planGroundingOrders(evaluationInfo.recursiveRules);
 				evaluateRules(evaluationInfo.recursiveRules, isInitialRun);
 				isInitialRun = false;
 				modifiedInLastEvaluationRun = new HashMap<>();
 				// Since we are stratified we never have to backtrack, therefore just collect the added instances.
 				for (IndexedInstanceStorage instanceStorage : workingMemory.modified()) {
-					// Directly record all newly derived instances as additional facts.
-					for (Instance recentlyAddedInstance : instanceStorage.getRecentlyAddedInstances()) {
-						additionalFacts.add(new BasicAtom(instanceStorage.getPredicate(), recentlyAddedInstance.terms));
-					}
+					// All newly derived instances are facts.
+					derivedFacts += instanceStorage.getRecentlyAddedInstances().size();
 					modifiedInLastEvaluationRun.putIfAbsent(instanceStorage.getPredicate(), new LinkedHashSet<>());
 					modifiedInLastEvaluationRun.get(instanceStorage.getPredicate()).addAll(instanceStorage.getRecentlyAddedInstances());
 					instanceStorage.markRecentlyAddedInstancesDone();
@@ -146,14 +253,106 @@ private void evaluateComponent(SCComponent comp) {
 		LOGGER.debug("Evaluation done - reached a fixed point on component {}", comp);
 		SetUtils.union(evaluationInfo.nonRecursiveRules, evaluationInfo.recursiveRules)
 				.forEach((rule) -> solvedRuleIds.add(rule.getRuleId()));
+		if (evaluationEvent != null && evaluationEvent.shouldCommit()) {
+			evaluationEvent.setComponentId(comp.getId());
+			evaluationEvent.setRules(evaluationInfo.nonRecursiveRules.size() + evaluationInfo.recursiveRules.size());
+			evaluationEvent.setDerivedFacts(derivedFacts - factsBefore);
+			evaluationEvent.commit();
+		}
+	}
+
+	/**
+	 * Plans the grounding orders of the given rules from the current cardinalities and distinct values per position of the relations in
+	 * the working memory, cf. {@link RuleGroundingOrders#computeCostBasedGroundingOrder(Literal, WorkingMemory)}. Rules with fixed
+	 * instantiation keep their precomputed grounding order.
+	 */
+	private void planGroundingOrders(Set<InternalRule> rules) {
+		for (InternalRule rule : rules) {
+			RuleGroundingOrders groundingOrders = rule.getGroundingOrders();
+			if (groundingOrders.fixedInstantiation()) {
+				continue;
+			}
+			Map<Literal, RuleGroundingOrder> ordersByStartingLiteral = new HashMap<>();
+			for (Literal startingLiteral : groundingOrders.getStartingLiterals()) {
+				ordersByStartingLiteral.put(startingLiteral, groundingOrders.computeCostBasedGroundingOrder(startingLiteral, workingMemory));
+			}
+			plannedGroundingOrders.put(rule.getRuleId(), ordersByStartingLiteral);
+		}
+	}
+
+	private RuleGroundingOrder getGroundingOrder(InternalRule rule, Literal startingLiteral) {
+		Map<Literal, RuleGroundingOrder> ordersByStartingLiteral = plannedGroundingOrders.get(rule.getRuleId());
+		if (ordersByStartingLiteral == null) {
+			return rule.getGroundingOrders().orderStartingFrom(startingLiteral);
+		}
+		return ordersByStartingLiteral.get(startingLiteral);
+	}
+
+	/**
+	 * Returns the starting literal with the fewest instances to start grounding from.
+	 */
+	private static Literal getSmallestStartingLiteral(List<Literal> startingLiterals, Function<Literal, Collection<Instance>> instances) {
+		Literal smallestStartingLiteral = startingLiterals.get(0);
+		int smallestSize = instances.apply(smallestStartingLiteral).size();
+		for (Literal startingLiteral : startingLiterals) {
+			int size = instances.apply(startingLiteral).size();
+			if (size < smallestSize) {
+				smallestStartingLiteral = startingLiteral;
+				smallestSize = size;
+			}
+		}
+		return smallestStartingLiteral;
 	}
 
+	/**
+	 * Evaluates the given rules once. Rules that only read the working memory while their substitutions are calculated (cf.
+	 * {@link #isEvaluableConcurrently(InternalRule)}) do not depend on each other within one run: rules outside of cycles only depend on
+	 * lower strata, and what recursive rules derive in this run is picked up by the next one. Their substitutions are therefore calculated
+	 * concurrently and the rules are fired afterwards, in the given order. All other rules are evaluated one after the other first.
+	 */
 	private void evaluateRules(Set<InternalRule> rules, boolean isInitialRun) {
 		workingMemory.reset();
 		LOGGER.debug("Starting component evaluation run...");
+		List<InternalRule> concurrentRules = new ArrayList<>();
 		for (InternalRule r : rules) {
-			evaluateRule(r, !isInitialRun);
+			if (isEvaluableConcurrently(r)) {
+				concurrentRules.add(r);
+			} else {
+				evaluateRule(r, !isInitialRun);
+			}
+		}
+		if (concurrentRules.size() < 2) {
+			for (InternalRule r : concurrentRules) {
+				evaluateRule(r, !isInitialRun);
+			}
+			return;
+		}
+		List<List<Substitution>> satisfyingSubstitutions = concurrentRules.parallelStream()
+				.map(r -> calculateSatisfyingSubstitutionsForRule(r, !isInitialRun))
+				.collect(Collectors.toList());
+		for (int i = 0; i < concurrentRules.size(); i++) {
+			for (Substitution subst : satisfyingSubstitutions.get(i)) {
+				fireRule(concurrentRules.get(i), subst);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the substitutions of the given rule can be calculated concurrently with those of other rules. This is not the case
+	 * for aggregates evaluated by {@link #evaluateAggregate(Predicate)}, which add to the working memory directly, nor for rules with
+	 * external atoms (which may call code that is not thread-safe) or enumeration atoms (whose indices depend on the order of evaluation).
+	 */
+	private static boolean isEvaluableConcurrently(InternalRule rule) {
+		if (StratifiedAggregateRewriting.isOutputPredicate(rule.getHeadAtom().getPredicate())) {
+			return false;
+		}
+		for (Literal literal : rule.getBody()) {
+			Class<?> literalClass = literal.getClass();
+			if (literalClass != BasicLiteral.class && literalClass != ComparisonLiteral.class && literalClass != IntervalLiteral.class) {
+				return false;
+			}
 		}
+		return true;
 	}
 
 	/**
@@ -185,12 +384,37 @@ private void prepareInitialEvaluation(Set<InternalRule> rulesToEvaluate) {
 
 	private void evaluateRule(InternalRule rule, boolean checkAllStartingLiterals) {
 		LOGGER.debug("Evaluating rule {}", rule);
+		Predicate headPredicate = rule.getHeadAtom().getPredicate();
+		if (StratifiedAggregateRewriting.isOutputPredicate(headPredicate)) {
+			evaluateAggregate(headPredicate);
+			return;
+		}
 		List<Substitution> satisfyingSubstitutions = calculateSatisfyingSubstitutionsForRule(rule, checkAllStartingLiterals);
 		for (Substitution subst : satisfyingSubstitutions) {
 			fireRule(rule, subst);
 		}
 	}
 
+	/**
+	 * Evaluates an aggregate rewritten by {@link StratifiedAggregateRewriting} by grouping its elements by aggregate id
+	 * and derives the output atoms for all bounds reached by the value of their group.
+	 */
+	private void evaluateAggregate(Predicate outputPredicate) {
+		Map<Term, AggregateGroup> groups = new HashMap<>();
+		for (Instance element : workingMemory.get(StratifiedAggregateRewriting.getElementPredicate(outputPredicate), true).getAllInstances()) {
+			groups.computeIfAbsent(element.terms.get(0), id -> new AggregateGroup()).add(element.terms.get(2));
+		}
+		for (Instance bound : workingMemory.get(StratifiedAggregateRewriting.getBoundPredicate(outputPredicate), true).getAllInstances()) {
+			Term aggregateId = bound.terms.get(0);
+			Term lowerBound = bound.terms.get(1);
+			AggregateAtom.AGGREGATEFUNCTION aggregateFunction = AggregateAtom.AGGREGATEFUNCTION.valueOf(bound.terms.get(2).toString().toUpperCase());
+			AggregateGroup group = groups.getOrDefault(aggregateId, AggregateGroup.EMPTY);
+			if (group.isReached(aggregateFunction, lowerBound)) {
+				workingMemory.addInstance(new BasicAtom(outputPredicate, aggregateId, lowerBound), true);
+			}
+		}
+	}
+
 	private List<Substitution> calculateSatisfyingSubstitutionsForRule(InternalRule rule, boolean checkAllStartingLiterals) {
 		LOGGER.debug("Grounding rule {}", rule);
 		RuleGroundingOrders groundingOrders = rule.getGroundingOrders();
@@ -205,36 +429,59 @@ private List<Substitution> calculateSatisfyingSubstitutionsForRule(InternalRule
 		List<Literal> startingLiterals = groundingOrders.getStartingLiterals();
 		// Check only one starting literal if indicated by the parameter.
 		if (!checkAllStartingLiterals) {
-			// If this is the first evaluation run, it suffices to start from the first starting literal only.
-			Literal lit = startingLiterals.get(0);
-			return calcSubstitutionsWithGroundingOrder(groundingOrders.orderStartingFrom(lit), substituteFromRecentlyAddedInstances(lit));
+			// If this is the first evaluation run, it suffices to start from one starting literal only, take the one with fewest instances.
+			Literal lit = getSmallestStartingLiteral(startingLiterals, this::getRecentlyAddedInstances);
+			return calcSubstitutionsStartingFrom(rule, lit, getRecentlyAddedInstances(lit));
 		}
 
 		// Ground from all starting literals.
 		List<Substitution> groundSubstitutions = new ArrayList<>(); // Collection of full ground substitutions for the given rule.
 		for (Literal lit : startingLiterals) {
-			List<Substitution> substitutionsForStartingLiteral = calcSubstitutionsWithGroundingOrder(groundingOrders.orderStartingFrom(lit),
-					substituteFromRecentlyAddedInstances(lit));
+			List<Substitution> substitutionsForStartingLiteral = calcSubstitutionsStartingFrom(rule, lit, getRecentlyAddedInstances(lit));
 			groundSubstitutions.addAll(substitutionsForStartingLiteral);
 		}
 		return groundSubstitutions;
 	}
 
 	/**
-	 * Use this to find initial substitutions for a starting literal when grounding a rule.
+	 * Use this to find initial instances for a starting literal when grounding a rule.
 	 * In order to avoid finding the same ground instantiations of rules again, only look at
 	 * <code>modifiedInLastEvaluationRun</code> to obtain instances.
 	 * 
-	 * @param lit the literal to substitute.
-	 * @return valid ground substitutions for the literal based on the recently added instances (i.e. instances derived in
-	 *         the last evaluation run).
+	 * @param lit the starting literal.
+	 * @return the recently added instances of the literal's predicate (i.e. instances derived in the last evaluation run).
 	 */
-	private List<Substitution> substituteFromRecentlyAddedInstances(Literal lit) {
-		List<Substitution> retVal = new ArrayList<>();
+	private Set<Instance> getRecentlyAddedInstances(Literal lit) {
 		Set<Instance> instances = modifiedInLastEvaluationRun.get(lit.getPredicate());
-		if (instances == null) {
-			return Collections.emptyList();
+		return instances == null ? Collections.emptySet() : instances;
+	}
+
+	/**
+	 * Calculates all substitutions of the given rule that are grounded starting from the given literal with one of the given instances
+	 * for it. If the positive body of the rule is cyclic, it is joined by a {@link LeapfrogTriejoin} before working through the remaining
+	 * literals of the grounding order, otherwise the whole grounding order is worked through literal by literal.
+	 */
+	private List<Substitution> calcSubstitutionsStartingFrom(InternalRule rule, Literal startingLiteral, Collection<Instance> startingInstances) {
+		RuleGroundingOrder groundingOrder = getGroundingOrder(rule, startingLiteral);
+		List<Literal> positiveLiterals = cyclicPositiveBodies.computeIfAbsent(rule.getRuleId(), id -> LeapfrogTriejoin.getCyclicPositiveBody(rule.getBody()));
+		if (positiveLiterals.isEmpty() || !positiveLiterals.contains(startingLiteral)) {
+			return calcSubstitutionsWithGroundingOrder(groundingOrder, substituteFromInstances(startingLiteral, startingInstances));
+		}
+		// Join the positive literals first, then work through the remaining literals of the grounding order.
+		List<Substitution> substitutions = LeapfrogTriejoin.startingFrom(startingLiteral, groundingOrder, positiveLiterals)
+				.join(startingInstances, workingMemory);
+		Literal currentLiteral;
+		for (int orderPosition = 0; !substitutions.isEmpty()
+				&& (currentLiteral = groundingOrder.getLiteralAtOrderPosition(orderPosition)) != null; orderPosition++) {
+			if (!positiveLiterals.contains(currentLiteral)) {
+				substitutions = extendSubstitutions(currentLiteral, substitutions);
+			}
 		}
+		return substitutions;
+	}
+
+	private static List<Substitution> substituteFromInstances(Literal lit, Iterable<Instance> instances) {
+		List<Substitution> retVal = new ArrayList<>();
 		for (Instance instance : instances) {
 			Substitution unifyingSubstitution = Substitution.specializeSubstitution(lit, instance, Substitution.EMPTY_SUBSTITUTION);
 			if (unifyingSubstitution != null) {
@@ -245,54 +492,40 @@ private List<Substitution> substituteFromRecentlyAddedInstances(Literal lit) {
 	}
 
 	private List<Substitution> calcSubstitutionsWithGroundingOrder(RuleGroundingOrder groundingOrder, List<Substitution> startingSubstitutions) {
-		// Iterate through the grounding order and whenever instantiation of a Literal with a given substitution
-		// causes a result with a type other than CONTINUE, discard that substitution.
-
-		// Note that this function uses a stack of partial substitutions to simulate a recursive function.
-		Stack<ArrayList<Substitution>> substitutionStack = new Stack<>(); // For speed, we really want ArrayLists on the stack.
-		if (startingSubstitutions instanceof ArrayList) {
-			substitutionStack.push((ArrayList<Substitution>) startingSubstitutions);
-		} else {
-			substitutionStack.push(new ArrayList<>(startingSubstitutions)); // Copy startingSubstitutions into ArrayList. Note: mostly happens for empty or
-																			// singleton lists.
-		}
-		int currentOrderPosition = 0;
-		List<Substitution> fullSubstitutions = new ArrayList<>();
-		while (!substitutionStack.isEmpty()) {
-			List<Substitution> currentSubstitutions = substitutionStack.peek();
-			// If no more substitutions remain at current position, all have been processed, continue on next lower level.
-			if (currentSubstitutions.isEmpty()) {
-				substitutionStack.pop();
-				currentOrderPosition--;
-				continue;
-			}
-			// In case the full grounding order has been worked on, all current substitutions are full substitutions, add them to
-			// result.
-			Literal currentLiteral = groundingOrder.getLiteralAtOrderPosition(currentOrderPosition);
-			if (currentLiteral == null) {
-				fullSubstitutions.addAll(currentSubstitutions);
-				currentSubstitutions.clear();
-				// Continue on next lower level.
-				substitutionStack.pop();
-				currentOrderPosition--;
-				continue;
+		// Work through the grounding order set-at-a-time, i.e., extend all partial substitutions by the literal at the current
+		// position before moving on to the next one. Substitutions that cannot be extended by some literal are discarded.
+		List<Substitution> currentSubstitutions = new ArrayList<>(startingSubstitutions);
+		Literal currentLiteral;
+		for (int orderPosition = 0; !currentSubstitutions.isEmpty()
+				&& (currentLiteral = groundingOrder.getLiteralAtOrderPosition(orderPosition)) != null; orderPosition++) {
+			currentSubstitutions = extendSubstitutions(currentLiteral, currentSubstitutions);
+		}
+		return currentSubstitutions;
+	}
+
+	/**
+	 * Extends all given partial substitutions by the given literal. Positive basic literals are joined with a {@link HashJoin} if there are
+	 * enough partial substitutions to pay for hashing all instances of the literal, all other literals are instantiated for each partial
+	 * substitution separately.
+	 */
+	private List<Substitution> extendSubstitutions(Literal literal, List<Substitution> partialSubstitutions) {
+		if (HashJoin.isApplicable(literal)) {
+			IndexedInstanceStorage instances = workingMemory.get(literal.getPredicate(), true);
+			if (partialSubstitutions.size() >= HASH_JOIN_MIN_BATCH_SIZE
+					&& instances.getAllInstances().size() <= HASH_JOIN_MAX_BUILD_RATIO * partialSubstitutions.size()) {
+				return HashJoin.join(literal, partialSubstitutions, instances);
 			}
-			// Take one substitution from the top-list of the stack and try extending it.
-			Substitution currentSubstitution = currentSubstitutions.remove(currentSubstitutions.size() - 1); // Work on last element (removing last element is
-																												// O(1) for ArrayList).
-			LiteralInstantiationResult currentLiteralResult = literalInstantiator.instantiateLiteral(currentLiteral, currentSubstitution);
-			if (currentLiteralResult.getType() == LiteralInstantiationResult.Type.CONTINUE) {
-				// The currentSubstitution could be extended, push the extensions on the stack and continue working on them.
-				ArrayList<Substitution> furtheredSubstitutions = new ArrayList<>();
-				for (ImmutablePair<Substitution, AssignmentStatus> resultSubstitution : currentLiteralResult.getSubstitutions()) {
-					furtheredSubstitutions.add(resultSubstitution.left);
+		}
+		List<Substitution> extendedSubstitutions = new ArrayList<>();
+		for (Substitution partialSubstitution : partialSubstitutions) {
+			LiteralInstantiationResult literalResult = literalInstantiator.instantiateLiteral(literal, partialSubstitution);
+			if (literalResult.getType() == LiteralInstantiationResult.Type.CONTINUE) {
+				for (ImmutablePair<Substitution, AssignmentStatus> resultSubstitution : literalResult.getSubstitutions()) {
+					extendedSubstitutions.add(resultSubstitution.left);
 				}
-				substitutionStack.push(furtheredSubstitutions);
-				// Continue work on the higher level.
-				currentOrderPosition++;
 			}
 		}
-		return fullSubstitutions;
+		return extendedSubstitutions;
 	}
 
 	private void fireRule(InternalRule rule, Substitution substitution) {
@@ -365,4 +598,55 @@ boolean isEmpty() {
 
 	}
 
+	/**
+	 * The values of the elements of one ground aggregate, as far as needed to compute #count, #sum, #min and #max.
+	 */
+	private static class AggregateGroup {
+		static final AggregateGroup EMPTY = new AggregateGroup();
+
+		int count;
+		int sum;
+		Term nonIntegerWeight;
+		Term min;
+		Term max;
+
+		void add(Term weight) {
+			count++;
+			if (weight instanceof ConstantTerm && ((ConstantTerm<?>) weight).getObject() instanceof Integer) {
+				sum = Math.addExact(sum, (Integer) ((ConstantTerm<?>) weight).getObject());
+			} else {
+				nonIntegerWeight = weight;
+			}
+			if (min == null || weight.compareTo(min) < 0) {
+				min = weight;
+			}
+			if (max == null || weight.compareTo(max) > 0) {
+				max = weight;
+			}
+		}
+
+		/**
+		 * Returns true if the given lower bound is less than or equal to the value of the given aggregate function.
+		 */
+		boolean isReached(AggregateAtom.AGGREGATEFUNCTION aggregateFunction, Term lowerBound) {
+			switch (aggregateFunction) {
+				case COUNT:
+					return lowerBound.compareTo(ConstantTerm.getInstance(count)) <= 0;
+				case SUM:
+					if (nonIntegerWeight != null) {
+						throw new IllegalArgumentException("Sum aggregates require integer weights, but got: " + nonIntegerWeight);
+					}
+					return lowerBound.compareTo(ConstantTerm.getInstance(sum)) <= 0;
+				case MIN:
+					// The minimum of no elements is the supremum.
+					return min == null || lowerBound.compareTo(min) <= 0;
+				case MAX:
+					// The maximum of no elements is the infimum.
+					return max != null && lowerBound.compareTo(max) <= 0;
+				default:
+					throw oops("Unknown aggregate function " + aggregateFunction);
+			}
+		}
+	}
+
 }
@@ -1,5 +1,6 @@
 package at.ac.tuwien.kr.alpha.grounder.transformation;
 
+import at.ac.tuwien.kr.alpha.common.Predicate;
 import at.ac.tuwien.kr.alpha.common.atoms.AggregateAtom;
 import at.ac.tuwien.kr.alpha.common.atoms.AggregateLiteral;
 import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
@@ -30,6 +31,12 @@
  */
 public class SumNormalization extends ProgramTransformation<InputProgram, InputProgram> {
 
+	// The interface of the rewritten aggregates to the summation encoding, the first term of each atom is aggregate(ID).
+	static final Predicate INPUT_PREDICATE = Predicate.getInstance("input_with_first", 3, true);
+	static final Predicate BOUND_PREDICATE = Predicate.getInstance("bound", 2, true);
+	static final Predicate OUTPUT_PREDICATE = Predicate.getInstance("output", 2, true);
+	static final String AGGREGATE_ID_SYMBOL = "aggregate";
+
 	private int aggregateCount;
 	private ProgramParser parser = new ProgramParser();
 
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.metrics;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects runtime metrics of one Alpha session, i.e., {@link Timer}s and {@link Counter}s updated by parsing, grounding
+ * and solving, and gauges that report the current size of some data structure.
+ *
+ * Components look up their timers and counters once (on construction) and update them on the hot path, which only costs
+ * taking the time and an uncontended increment. Gauges are suppliers that are only evaluated when a snapshot is taken,
+ * hence they cost nothing on the hot path. Registering a gauge under a name that is already taken replaces the previous
+ * gauge, such that the gauges of a session always refer to the most recent solver.
+ *
+ * The names of the metrics maintained by Alpha itself are given by the constants of this class. In addition, a session may
+ * profile the work done per rule with a {@link RuleProfiler}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class MetricsRegistry {
+
+	// Timers.
+	public static final String PARSE = "parse";
+	public static final String NORMALIZATION = "normalization";
+	public static final String STRATIFIED_EVALUATION = "stratifiedEvaluation";
+	public static final String GROUNDING = "grounding";
+	public static final String PROPAGATION = "propagation";
+	public static final String CONFLICT_ANALYSIS = "conflictAnalysis";
+	public static final String JUSTIFICATION = "justification";
+	public static final String NOGOOD_DELETION = "noGoodDeletion";
+	public static final String ANSWER_SET_TRANSLATION = "answerSetTranslation";
+
+	// Counters.
+	public static final String ANSWER_SETS = "answerSets";
+
+	// Gauges.
+	public static final String ATOMS = "atoms";
+	public static final String NOGOODS = "noGoods";
+	public static final String LEARNED_NOGOODS = "learnedNoGoods";
+	public static final String CHOICES = "choices";
+	public static final String CONFLICTS = "conflicts";
+
+	private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+	private volatile RuleProfiler ruleProfiler;
+
+	/**
+	 * @return the timer with the given name, which is created if it does not exist yet.
+	 */
+	public Timer timer(String name) {
+		return timers.computeIfAbsent(name, k -> new Timer());
+	}
+
+	/**
+	 * @return the counter with the given name, which is created if it does not exist yet.
+	 */
+	public Counter counter(String name) {
+		return counters.computeIfAbsent(name, k -> new Counter());
+	}
+
+	/**
+	 * Registers a gauge under the given name, replacing any gauge registered under that name before.
+	 */
+	public void gauge(String name, LongSupplier gauge) {
+		gauges.put(name, gauge);
+	}
+
+	/**
+	 * @return the current value of the gauge with the given name, or -1 if there is no such gauge.
+	 */
+	public long sampleGauge(String name) {
+		LongSupplier gauge = gauges.get(name);
+		return gauge == null ? -1 : gauge.getAsLong();
+	}
+
+	/**
+	 * Enables profiling of rules for components created from now on, see {@link #getRuleProfiler()}.
+	 */
+	public synchronized void enableRuleProfiler() {
+		if (ruleProfiler == null) {
+			ruleProfiler = new RuleProfiler();
+		}
+	}
+
+	/**
+	 * @return the rule profiler of this session, or {@code null} if profiling of rules is not enabled.
+	 */
+	public RuleProfiler getRuleProfiler() {
+		return ruleProfiler;
+	}
+
+	/**
+	 * Resets all timers, counters and rule statistics to zero, e.g., before handling a new request with the same session.
+	 * Gauges are not affected.
+	 */
+	public void reset() {
+		timers.values().forEach(Timer::reset);
+		counters.values().forEach(Counter::reset);
+		if (ruleProfiler != null) {
+			ruleProfiler.reset();
+		}
+	}
+
+	/**
+	 * Takes a snapshot of all metrics and renders it as a JSON object of the form
+	 * <pre>
+	 * {"timers": {"grounding": {"count": 12, "totalMs": 35.102}, ...}, "counters": {...}, "gauges": {...}}
+	 * </pre>
+	 * where metrics are sorted by name. If rules are profiled, the object additionally contains the statistics of all
+	 * rules as {@code "rules": [...]}, see {@link RuleProfiler#toJson()}.
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder("{\"timers\": {");
+		boolean first = true;
+		for (Map.Entry<String, Timer> timer : new TreeMap<>(timers).entrySet()) {
+			appendKey(sb, timer.getKey(), first);
+			sb.append(String.format(Locale.ROOT, "{\"count\": %d, \"totalMs\": %.3f}", timer.getValue().getCount(),
+					timer.getValue().getTotalNanos() / 1_000_000.0));
+			first = false;
+		}
+		sb.append("}, \"counters\": {");
+		first = true;
+		for (Map.Entry<String, Counter> counter : new TreeMap<>(counters).entrySet()) {
+			appendKey(sb, counter.getKey(), first);
+			sb.append(counter.getValue().get());
+			first = false;
+		}
+		sb.append("}, \"gauges\": {");
+		first = true;
+		for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(gauges).entrySet()) {
+			appendKey(sb, gauge.getKey(), first);
+			sb.append(gauge.getValue().getAsLong());
+			first = false;
+		}
+		sb.append("}");
+		RuleProfiler profiler = ruleProfiler;
+		if (profiler != null) {
+			sb.append(", \"rules\": ").append(profiler.toJson());
+		}
+		return sb.append("}").toString();
+	}
+
+	private static void appendKey(StringBuilder sb, String key, boolean first) {
+		if (!first) {
+			sb.append(", ");
+		}
+		sb.append('"').append(key.replace("\\", "\\\\").replace("\"", "\\\"")).append("\": ");
+	}
+
+	public void writeJson(PrintStream out) {
+		out.println(toJson());
+	}
+
+	@Override
+	public String toString() {
+		return toJson();
+	}
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.metrics;
+
+import at.ac.tuwien.kr.alpha.common.NoGood;
+import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
+import at.ac.tuwien.kr.alpha.solver.Antecedent;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Attributes grounding and solving work to the non-ground rules of a program, in order to find the rules responsible
+ * for a slow encoding. For each {@link InternalRule} the profiler records:
+ * <ul>
+ * <li>the number of (partial) substitutions explored while binding the rule body,</li>
+ * <li>the number of ground instances and nogoods generated,</li>
+ * <li>the time spent on grounding the rule,</li>
+ * <li>how often nogoods of the rule were violated or resolved in a conflict, and</li>
+ * <li>how often nogoods of the rule propagated a literal.</li>
+ * </ul>
+ * Nogoods are recognized in the solver by their literals, hence the profiler keeps the literals of all nogoods generated
+ * from rules. Learned nogoods are not attributed to any rule. Since this costs time and memory, profiling is optional
+ * and enabled via {@link MetricsRegistry#enableRuleProfiler()}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class RuleProfiler {
+
+	private final Map<Integer, RuleStatistics> statistics = new ConcurrentHashMap<>();
+	private final Map<Literals, RuleStatistics> noGoodOrigins = new ConcurrentHashMap<>();
+
+	/**
+	 * Records that the given number of substitutions were explored within the given time while binding the body of the
+	 * given rule.
+	 */
+	public void recordBinding(InternalRule rule, long substitutions, long nanos) {
+		RuleStatistics ruleStatistics = statisticsOf(rule);
+		ruleStatistics.substitutions.add(substitutions);
+		ruleStatistics.nanos.add(nanos);
+	}
+
+	/**
+	 * Records that one ground instance of the given rule yielding the given nogoods was generated within the given time.
+	 */
+	public void recordGroundInstance(InternalRule rule, List<NoGood> noGoods, long nanos) {
+		RuleStatistics ruleStatistics = statisticsOf(rule);
+		ruleStatistics.groundInstances.increment();
+		ruleStatistics.noGoods.add(noGoods.size());
+		ruleStatistics.nanos.add(nanos);
+		for (NoGood noGood : noGoods) {
+			int[] literals = new int[noGood.size()];
+			for (int i = 0; i < literals.length; i++) {
+				literals[i] = noGood.getLiteral(i);
+			}
+			noGoodOrigins.putIfAbsent(new Literals(literals), ruleStatistics);
+		}
+	}
+
+	/**
+	 * Records that the nogood given as antecedent took part in a conflict, i.e., it was violated or it was resolved
+	 * during conflict analysis.
+	 */
+	public void recordConflict(Antecedent antecedent) {
+		RuleStatistics ruleStatistics = originOf(antecedent);
+		if (ruleStatistics != null) {
+			ruleStatistics.conflicts.increment();
+		}
+	}
+
+	/**
+	 * Records that the nogood given as antecedent propagated a literal.
+	 */
+	public void recordPropagation(Antecedent antecedent) {
+		RuleStatistics ruleStatistics = originOf(antecedent);
+		if (ruleStatistics != null) {
+			ruleStatistics.propagations.increment();
+		}
+	}
+
+	/**
+	 * @return the statistics of all profiled rules, sorted by decreasing grounding time.
+	 */
+	public List<RuleStatistics> getStatistics() {
+		List<RuleStatistics> sorted = new ArrayList<>(statistics.values());
+		sorted.sort(Comparator.comparingLong(RuleStatistics::getNanos).reversed().thenComparingInt(RuleStatistics::getRuleId));
+		return sorted;
+	}
+
+	/**
+	 * Forgets all statistics, but keeps the origins of nogoods known.
+	 */
+	void reset() {
+		for (RuleStatistics ruleStatistics : statistics.values()) {
+			ruleStatistics.reset();
+		}
+	}
+
+	/**
+	 * Prints a report of all profiled rules, sorted by decreasing grounding time.
+	 */
+	public void printReport(PrintStream out) {
+		out.println("Rule profile (sorted by grounding time):");
+		out.println(String.format(Locale.ROOT, "%10s %14s %10s %10s %10s %12s  %s", "time[ms]", "substitutions", "instances", "nogoods", "conflicts",
+				"propagations", "rule"));
+		for (RuleStatistics ruleStatistics : getStatistics()) {
+			out.println(String.format(Locale.ROOT, "%10.3f %14d %10d %10d %10d %12d  %s", ruleStatistics.getNanos() / 1_000_000.0,
+					ruleStatistics.getSubstitutions(), ruleStatistics.getGroundInstances(), ruleStatistics.getNoGoods(), ruleStatistics.getConflicts(),
+					ruleStatistics.getPropagations(), ruleStatistics.getRule()));
+		}
+	}
+
+	/**
+	 * Renders all profiled rules, sorted by decreasing grounding time, as a JSON array.
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder("[");
+		boolean first = true;
+		for (RuleStatistics ruleStatistics : getStatistics()) {
+			if (!first) {
+				sb.append(", ");
+			}
+			sb.append(String.format(Locale.ROOT,
+					"{\"ruleId\": %d, \"rule\": \"%s\", \"timeMs\": %.3f, \"substitutions\": %d, \"groundInstances\": %d, \"noGoods\": %d, "
+							+ "\"conflicts\": %d, \"propagations\": %d}",
+					ruleStatistics.getRuleId(), ruleStatistics.getRule().replace("\\", "\\\\").replace("\"", "\\\""), ruleStatistics.getNanos() / 1_000_000.0,
+					ruleStatistics.getSubstitutions(), ruleStatistics.getGroundInstances(), ruleStatistics.getNoGoods(), ruleStatistics.getConflicts(),
+					ruleStatistics.getPropagations()));
+			first = false;
+		}
+		return sb.append("]").toString();
+	}
+
+	private RuleStatistics statisticsOf(InternalRule rule) {
+		return statistics.computeIfAbsent(rule.getRuleId(), id -> new RuleStatistics(id, rule.toString()));
+	}
+
+	private RuleStatistics originOf(Antecedent antecedent) {
+		if (antecedent == null) {
+			return null;
+		}
+		return noGoodOrigins.get(new Literals(antecedent.getReasonLiterals().clone()));
+	}
+
+	/**
+	 * The statistics of a single non-ground rule.
+	 */
+	public static class RuleStatistics {
+		private final int ruleId;
+		private final String rule;
+		private final LongAdder substitutions = new LongAdder();
+		private final LongAdder groundInstances = new LongAdder();
+		private final LongAdder noGoods = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder conflicts = new LongAdder();
+		private final LongAdder propagations = new LongAdder();
+
+		RuleStatistics(int ruleId, String rule) {
+			this.ruleId = ruleId;
+			this.rule = rule;
+		}
+
+		public int getRuleId() {
+			return ruleId;
+		}
+
+		public String getRule() {
+			return rule;
+		}
+
+		public long getSubstitutions() {
+			return substitutions.sum();
+		}
+
+		public long getGroundInstances() {
+			return groundInstances.sum();
+		}
+
+		public long getNoGoods() {
+			return noGoods.sum();
+		}
+
+		public long getNanos() {
+			return nanos.sum();
+		}
+
+		public long getConflicts() {
+			return conflicts.sum();
+		}
+
+		public long getPropagations() {
+			return propagations.sum();
+		}
+
+		private void reset() {
+			substitutions.reset();
+			groundInstances.reset();
+			noGoods.reset();
+			nanos.reset();
+			conflicts.reset();
+			propagations.reset();
+		}
+	}
+
+	/**
+	 * The literals of a nogood, independent of their order.
+	 */
+	private static final class Literals {
+		private final int[] literals;
+		private final int hashCode;
+
+		/**
+		 * @param literals the literals, which are sorted in place.
+		 */
+		Literals(int[] literals) {
+			Arrays.sort(literals);
+			this.literals = literals;
+			this.hashCode = Arrays.hashCode(literals);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Literals)) {
+				return false;
+			}
+			return Arrays.equals(literals, ((Literals) o).literals);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
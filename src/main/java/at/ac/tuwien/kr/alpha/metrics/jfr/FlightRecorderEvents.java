@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.metrics.jfr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Java Flight Recorder events emitted by the grounder and the solver.
+ *
+ * The events themselves extend {@code jdk.jfr.Event} and are built from a source set of their own, which is only compiled and
+ * packaged if Alpha is built on Java 11 or later, whereas the rest of Alpha still targets Java 8. They are loaded reflectively,
+ * hence events are created only if {@link #ENABLED} holds, i.e., if they are on the classpath and the running JVM provides the
+ * {@code jdk.jfr} API; otherwise the factory methods return {@code null}. Events only compute expensive fields after checking
+ * {@code shouldCommit()}.
+ *
+ * Events are recorded by starting a recording, e.g., with {@code -XX:StartFlightRecording}, and can be found under the
+ * category "Alpha". Frequent events (propagation, conflicts) are recorded without stack traces and propagation only
+ * above a threshold duration.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public final class FlightRecorderEvents {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecorderEvents.class);
+
+	private static final String EVENT_FACTORY_CLASS = "at.ac.tuwien.kr.alpha.metrics.jfr.JfrEventFactory";
+
+	private static final EventFactory FACTORY = loadEventFactory();
+
+	public static final boolean ENABLED = FACTORY != null;
+
+	private FlightRecorderEvents() {
+		throw new AssertionError(FlightRecorderEvents.class.getSimpleName() + " is a non-instantiable utility class!");
+	}
+
+	private static EventFactory loadEventFactory() {
+		ClassLoader classLoader = FlightRecorderEvents.class.getClassLoader();
+		try {
+			Class.forName("jdk.jfr.Event", false, classLoader);
+		} catch (ClassNotFoundException | LinkageError e) {
+			LOGGER.debug("JVM provides no Flight Recorder API, no events are emitted.");
+			return null;
+		}
+		try {
+			return (EventFactory) Class.forName(EVENT_FACTORY_CLASS, true, classLoader).getConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			LOGGER.debug("Flight Recorder events are not available, no events are emitted.", e);
+			return null;
+		}
+	}
+
+	public static AnswerSetEvent newAnswerSetEvent() {
+		return ENABLED ? FACTORY.newAnswerSetEvent() : null;
+	}
+
+	public static ComponentEvaluationEvent newComponentEvaluationEvent() {
+		return ENABLED ? FACTORY.newComponentEvaluationEvent() : null;
+	}
+
+	public static ConflictEvent newConflictEvent() {
+		return ENABLED ? FACTORY.newConflictEvent() : null;
+	}
+
+	public static GroundingEvent newGroundingEvent() {
+		return ENABLED ? FACTORY.newGroundingEvent() : null;
+	}
+
+	public static NoGoodDeletionEvent newNoGoodDeletionEvent() {
+		return ENABLED ? FACTORY.newNoGoodDeletionEvent() : null;
+	}
+
+	public static PropagationEvent newPropagationEvent() {
+		return ENABLED ? FACTORY.newPropagationEvent() : null;
+	}
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.server;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.AnswerSetFormatter;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.SimpleAnswerSetFormatter;
+import at.ac.tuwien.kr.alpha.common.fixedinterpretations.PredicateInterpretation;
+import at.ac.tuwien.kr.alpha.common.program.InputProgram;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.solver.InterruptionReason;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * A long-running Alpha process that answers solve requests over a local socket or over standard input and output.
+ *
+ * The server is started with an encoding, which is parsed once, and solves each request consisting of additional facts
+ * and rules together with that encoding. Requests are solved by {@link Alpha} instances taken from a {@link SessionPool},
+ * hence the JVM, the standard library externals and the JIT stay warm across requests.
+ *
+ * The protocol is line-based. A request starts with a line {@code SOLVE [n]}, where the optional {@code n} limits the
+ * number of answer sets, followed by the lines of the program, terminated by a line {@value #END_OF_PROGRAM} (which is a
+ * comment in ASP). The server responds with a line {@code ANSWER i} followed by the i-th answer set on one line for each
+ * answer set as soon as it is found, and finally a line {@code SATISFIABLE} or {@code UNSATISFIABLE}. If the search is
+ * stopped by a budget of the {@link SystemConfig}, the final line is {@code INTERRUPTED} followed by the name of the
+ * {@link InterruptionReason} instead, since it is then not known whether further answer sets exist. If a request
+ * cannot be solved, the response is a single line starting with {@code ERROR}. A line {@code QUIT} ends the connection.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class AlphaServer implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AlphaServer.class);
+
+	public static final String END_OF_PROGRAM = "%%";
+
+	private static final String SOLVE = "SOLVE";
+	private static final String QUIT = "QUIT";
+
+	private final SessionPool sessions;
+	private final InputProgram encoding;
+	private final Map<String, PredicateInterpretation> externals;
+	private final java.util.function.Predicate<Predicate> filter;
+	private final AnswerSetFormatter<String> formatter;
+	private final ExecutorService connectionHandlers;
+
+	private volatile ServerSocket serverSocket;
+
+	/**
+	 * @param config     the configuration of the pooled {@link Alpha} instances.
+	 * @param encoding   the program each request is solved together with.
+	 * @param externals  the external predicates available to requests.
+	 * @param filter     the predicates to show in answer sets.
+	 * @param numSessions the number of pooled sessions, i.e., the maximum number of requests solved concurrently.
+	 */
+	public AlphaServer(SystemConfig config, InputProgram encoding, Map<String, PredicateInterpretation> externals,
+			java.util.function.Predicate<Predicate> filter, int numSessions) {
+		this.sessions = new SessionPool(config, numSessions);
+		this.encoding = encoding;
+		this.externals = externals;
+		this.filter = filter;
+		this.formatter = new SimpleAnswerSetFormatter(config.getAtomSeparator());
+		final AtomicInteger threadCount = new AtomicInteger();
+		this.connectionHandlers = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "alpha-connection-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Accepts connections on the given port of the loopback interface until the server is closed.
+	 */
+	public void serve(int port) throws IOException {
+		serve(new ServerSocket(port, 0, InetAddress.getLoopbackAddress()));
+	}
+
+	/**
+	 * Accepts connections on the given socket until the server is closed. Each connection is served by its own thread.
+	 */
+	public void serve(ServerSocket socket) throws IOException {
+		serverSocket = socket;
+		LOGGER.info("Alpha server listening on {}", socket.getLocalSocketAddress());
+		try {
+			while (!socket.isClosed()) {
+				final Socket connection;
+				try {
+					connection = socket.accept();
+				} catch (SocketException e) {
+					if (socket.isClosed()) {
+						break;
+					}
+					throw e;
+				}
+				connectionHandlers.execute(() -> {
+					try (Socket c = connection) {
+						serve(c.getInputStream(), c.getOutputStream());
+					} catch (IOException e) {
+						LOGGER.warn("Connection failed.", e);
+					}
+				});
+			}
+		} finally {
+			socket.close();
+		}
+	}
+
+	/**
+	 * Serves requests read from the given input stream until the stream ends or a {@code QUIT} line is read.
+	 */
+	public void serve(InputStream in, OutputStream out) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty()) {
+				continue;
+			}
+			if (line.equals(QUIT)) {
+				break;
+			}
+			String[] command = line.split("\\s+");
+			if (command[0].equals(SOLVE) && command.length <= 2) {
+				handleSolve(command, reader, writer);
+			} else {
+				writer.println("ERROR Unknown command: " + line);
+			}
+			writer.flush();
+		}
+		writer.flush();
+	}
+
+	private void handleSolve(String[] command, BufferedReader reader, PrintWriter writer) throws IOException {
+		StringBuilder program = new StringBuilder();
+		String line;
+		while ((line = reader.readLine()) != null && !line.trim().equals(END_OF_PROGRAM)) {
+			program.append(line).append(System.lineSeparator());
+		}
+		int limit;
+		try {
+			limit = command.length > 1 ? Integer.parseInt(command[1]) : 0;
+		} catch (NumberFormatException e) {
+			writer.println("ERROR Invalid number of answer sets: " + command[1]);
+			return;
+		}
+		solve(program.toString(), limit, writer);
+	}
+
+	private void solve(String program, int limit, PrintWriter writer) {
+		Alpha session;
+		try {
+			session = sessions.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			writer.println("ERROR Interrupted while waiting for a session.");
+			return;
+		}
+		session.getMetrics().reset();
+		try {
+			InputProgram request = session.readProgramString(program, externals);
+			InputProgram combined = InputProgram.builder().accumulate(encoding).accumulate(request).build();
+			Stream<AnswerSet> answerSets = session.solve(combined, filter);
+			if (limit > 0) {
+				answerSets = answerSets.limit(limit);
+			}
+			AtomicInteger counter = new AtomicInteger();
+			answerSets.forEach(answerSet -> {
+				writer.println("ANSWER " + counter.incrementAndGet());
+				writer.println(formatter.format(answerSet));
+				writer.flush();
+			});
+			InterruptionReason interruptionReason = session.getInterruptionReason();
+			if (interruptionReason != null) {
+				writer.println("INTERRUPTED " + interruptionReason.name());
+			} else {
+				writer.println(counter.get() == 0 ? "UNSATISFIABLE" : "SATISFIABLE");
+			}
+			LOGGER.debug("Metrics of request: {}", session.getMetrics());
+		} catch (RuntimeException e) {
+			LOGGER.debug("Failed to solve request.", e);
+			String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+			writer.println("ERROR " + message.replace(System.lineSeparator(), " ").replace('\n', ' '));
+		} finally {
+			sessions.release(session);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		connectionHandlers.shutdownNow();
+		if (serverSocket != null) {
+			serverSocket.close();
+		}
+	}
+}
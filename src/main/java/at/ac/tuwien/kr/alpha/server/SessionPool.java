@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.server;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A fixed-size pool of {@link Alpha} instances. Each instance holds its own session state, the pool size hence bounds the
+ * number of programs being solved concurrently.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+class SessionPool {
+	private final BlockingQueue<Alpha> idle;
+
+	SessionPool(SystemConfig config, int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Session pool needs at least one session, but size is " + size);
+		}
+		idle = new ArrayBlockingQueue<>(size);
+		for (int i = 0; i < size; i++) {
+			idle.add(new Alpha(config));
+		}
+	}
+
+	/**
+	 * Takes a session from the pool, waiting until one is available.
+	 */
+	Alpha acquire() throws InterruptedException {
+		return idle.take();
+	}
+
+	/**
+	 * Returns a session previously obtained by {@link #acquire()} to the pool.
+	 */
+	void release(Alpha session) {
+		if (!idle.offer(session)) {
+			throw new IllegalStateException("Released a session that does not belong to this pool.");
+		}
+	}
+
+	int available() {
+		return idle.size();
+	}
+}
@@ -0,0 +1,334 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import at.ac.tuwien.kr.alpha.common.AtomStore;
+import at.ac.tuwien.kr.alpha.common.NoGood;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.Atom;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+import at.ac.tuwien.kr.alpha.grounder.Grounder;
+import at.ac.tuwien.kr.alpha.grounder.transformation.AggregateConstraintRewriting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static at.ac.tuwien.kr.alpha.Util.arrayGrowthSize;
+import static at.ac.tuwien.kr.alpha.common.Literals.atomOf;
+import static at.ac.tuwien.kr.alpha.common.Literals.atomToLiteral;
+import static at.ac.tuwien.kr.alpha.common.Literals.isNegated;
+import static at.ac.tuwien.kr.alpha.solver.ThriceTruth.FALSE;
+
+/**
+ * Checks the aggregate constraints produced by {@link AggregateConstraintRewriting} directly on the assignment, in the
+ * style of a weight constraint: whenever a capacity atom is true (or must-be-true), the weights of the true elements of
+ * its aggregate must sum up to less than its bound.
+ *
+ * The propagator keeps the sum of the true (or must-be-true) elements of each aggregate up to date by following the
+ * trail of the {@link TrailAssignment}: newly assigned elements are added, elements whose assignment is undone by
+ * backtracking are subtracted again. A constraint is only checked again if the sum of its aggregate increased, its
+ * capacity atom was assigned, or new elements of its aggregate were grounded.
+ *
+ * Violations and propagations are explained by nogoods that are handed to the solver like nogoods from the grounder:
+ * if the true elements reach the bound, the nogood consisting of the capacity atom and a smallest set of true elements
+ * reaching the bound is violated (or unit and forces the capacity atom to false), and an unassigned element that would
+ * reach the bound is forced to false by the nogood additionally containing that element. Since weights are not
+ * negative, such a nogood remains valid no matter which further elements are grounded later on, hence the propagator
+ * works with the elements grounded so far and does not need to know all elements of an aggregate. For the same reason,
+ * the propagator only enforces that sums stay below their bounds, never that they reach them.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class AggregateConstraintPropagator {
+
+	private final AtomStore atomStore;
+	private final Grounder grounder;
+
+	private final Map<Term, Aggregate> aggregates = new HashMap<>();
+	private int maxAtomId;
+	private int maxScannedAtomId;
+	private long explanationCount;
+
+	// For each atom, the aggregate it is an element of and its weight, or the capacity it states.
+	private Aggregate[] aggregateOfElement = new Aggregate[0];
+	private int[] weightOfElement = new int[0];
+	private Capacity[] capacityOfAtom = new Capacity[0];
+
+	// The elements added to the sums of their aggregates, with the positions in the trail they were added for.
+	private int[] countedElements = new int[16];
+	private int[] countedPositions = new int[16];
+	private int countedSize;
+	private boolean[] isCounted = new boolean[0];
+
+	// The capacities to check in the next propagation.
+	private final List<Capacity> wokenCapacities = new ArrayList<>();
+
+	public AggregateConstraintPropagator(AtomStore atomStore, Grounder grounder) {
+		this.atomStore = atomStore;
+		this.grounder = grounder;
+	}
+
+	/**
+	 * Makes atoms up to the given id known to the propagator, which must also be known to the assignment.
+	 */
+	public void growForMaxAtomId(int maxAtomId) {
+		this.maxAtomId = maxAtomId;
+	}
+
+	/**
+	 * Checks all aggregate constraints affected by the assignments since the last call.
+	 * @return the nogoods explaining violations and propagations, which are registered with the grounder already, or an
+	 *         empty map if every aggregate constraint is satisfied and nothing can be propagated.
+	 */
+	public Map<Integer, NoGood> propagate(TrailAssignment assignment) {
+		scanNewAtoms();
+		if (aggregates.isEmpty()) {
+			// Without aggregate constraints, e.g. without bounded choice rules, there is nothing to follow on the trail.
+			assignment.observeTrail();
+			return Collections.emptyMap();
+		}
+		updateSums(assignment);
+		if (wokenCapacities.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<Integer, NoGood> explanations = new LinkedHashMap<>();
+		for (Capacity capacity : wokenCapacities) {
+			capacity.isWoken = false;
+			ThriceTruth capacityTruth = assignment.getTruth(capacity.atom);
+			if (capacityTruth == FALSE) {
+				continue;
+			}
+			Aggregate aggregate = capacity.aggregate;
+			if (aggregate.trueSum >= capacity.bound) {
+				addExplanation(explanations, assignment, capacity, capacity.bound, 0);
+				continue;
+			}
+			if (capacityTruth == null) {
+				continue;
+			}
+			// Only elements at least as heavy as the remaining capacity can reach the bound, check them from the heaviest.
+			long[] elementsByWeight = aggregate.getElementsByWeight();
+			for (int i = aggregate.size - 1; i >= 0; i--) {
+				int element = (int) elementsByWeight[i];
+				int weight = (int) (elementsByWeight[i] >>> 32);
+				if (aggregate.trueSum + weight < capacity.bound) {
+					break;
+				}
+				if (assignment.getTruth(element) == null) {
+					addExplanation(explanations, assignment, capacity, capacity.bound - weight, element);
+				}
+			}
+		}
+		wokenCapacities.clear();
+		return explanations;
+	}
+
+	/**
+	 * @return the number of nogoods generated to explain violations and propagations so far.
+	 */
+	public long getExplanationCount() {
+		return explanationCount;
+	}
+
+	/**
+	 * Subtracts the elements whose assignment was undone by backtracking since the last call from the sums of their
+	 * aggregates, and adds the elements newly assigned to true (or must-be-true).
+	 */
+	private void updateSums(TrailAssignment assignment) {
+		int observedTrailSize = assignment.getObservedTrailSize();
+		while (countedSize > 0 && countedPositions[countedSize - 1] >= observedTrailSize) {
+			int element = countedElements[--countedSize];
+			isCounted[element] = false;
+			aggregateOfElement[element].trueSum -= weightOfElement[element];
+		}
+		for (int position = observedTrailSize; position < assignment.getTrailSize(); position++) {
+			int literal = assignment.getLiteralOnTrail(position);
+			if (isNegated(literal)) {
+				continue;
+			}
+			int atom = atomOf(literal);
+			Capacity capacity = capacityOfAtom[atom];
+			if (capacity != null) {
+				wake(capacity);
+				continue;
+			}
+			Aggregate aggregate = aggregateOfElement[atom];
+			// An atom assigned must-be-true and later true occurs twice on the trail, but is counted only once.
+			if (aggregate == null || isCounted[atom]) {
+				continue;
+			}
+			if (countedSize == countedElements.length) {
+				int newCapacity = arrayGrowthSize(countedSize);
+				countedElements = Arrays.copyOf(countedElements, newCapacity);
+				countedPositions = Arrays.copyOf(countedPositions, newCapacity);
+			}
+			countedElements[countedSize] = atom;
+			countedPositions[countedSize] = position;
+			countedSize++;
+			isCounted[atom] = true;
+			aggregate.trueSum += weightOfElement[atom];
+			wakeAll(aggregate);
+		}
+		assignment.observeTrail();
+	}
+
+	private void wake(Capacity capacity) {
+		if (!capacity.isWoken) {
+			capacity.isWoken = true;
+			wokenCapacities.add(capacity);
+		}
+	}
+
+	private void wakeAll(Aggregate aggregate) {
+		for (Capacity capacity : aggregate.capacities) {
+			wake(capacity);
+		}
+	}
+
+	/**
+	 * Adds the nogood consisting of the capacity atom, the true elements with the largest weights until their sum reaches
+	 * the given weight, and the given element (if it is not 0).
+	 */
+	private void addExplanation(Map<Integer, NoGood> explanations, TrailAssignment assignment, Capacity capacity, long weight, int element) {
+		Aggregate aggregate = capacity.aggregate;
+		int[] literals = new int[aggregate.size + 2];
+		int size = 0;
+		literals[size++] = atomToLiteral(capacity.atom);
+		if (element != 0) {
+			literals[size++] = atomToLiteral(element);
+		}
+		long sum = 0;
+		long[] elementsByWeight = aggregate.getElementsByWeight();
+		for (int i = aggregate.size - 1; i >= 0 && sum < weight; i--) {
+			int trueElement = (int) elementsByWeight[i];
+			if (isCounted[trueElement]) {
+				sum += elementsByWeight[i] >>> 32;
+				literals[size++] = atomToLiteral(trueElement);
+			}
+		}
+		NoGood explanation = new NoGood(Arrays.copyOf(literals, size));
+		explanations.put(grounder.register(explanation), explanation);
+		explanationCount++;
+	}
+
+	private void scanNewAtoms() {
+		if (maxAtomId <= maxScannedAtomId) {
+			return;
+		}
+		if (maxAtomId >= capacityOfAtom.length) {
+			int newCapacity = Math.max(maxAtomId + 1, arrayGrowthSize(capacityOfAtom.length));
+			aggregateOfElement = Arrays.copyOf(aggregateOfElement, newCapacity);
+			weightOfElement = Arrays.copyOf(weightOfElement, newCapacity);
+			capacityOfAtom = Arrays.copyOf(capacityOfAtom, newCapacity);
+			isCounted = Arrays.copyOf(isCounted, newCapacity);
+		}
+		for (int atomId = maxScannedAtomId + 1; atomId <= maxAtomId; atomId++) {
+			Atom atom = atomStore.get(atomId);
+			Predicate predicate = atom.getPredicate();
+			if (predicate == AggregateConstraintRewriting.ELEMENT) {
+				List<Term> terms = atom.getTerms();
+				int weight = toInteger(terms.get(2), atom);
+				if (weight < 0) {
+					throw new IllegalArgumentException("Aggregate constraints checked by the solver require non-negative weights, but got: " + atom);
+				}
+				Aggregate aggregate = getAggregate(terms.get(0));
+				aggregate.add(atomId, weight);
+				aggregateOfElement[atomId] = aggregate;
+				weightOfElement[atomId] = weight;
+				// The new element may already be forced to false by the other elements.
+				wakeAll(aggregate);
+			} else if (predicate == AggregateConstraintRewriting.CAPACITY) {
+				List<Term> terms = atom.getTerms();
+				Aggregate aggregate = getAggregate(terms.get(0));
+				Capacity capacity = new Capacity(atomId, aggregate, toInteger(terms.get(1), atom));
+				aggregate.capacities.add(capacity);
+				capacityOfAtom[atomId] = capacity;
+				wake(capacity);
+			}
+		}
+		maxScannedAtomId = maxAtomId;
+	}
+
+	private Aggregate getAggregate(Term aggregateId) {
+		return aggregates.computeIfAbsent(aggregateId, id -> new Aggregate());
+	}
+
+	private static int toInteger(Term term, Atom atom) {
+		if (!(term instanceof ConstantTerm) || !(((ConstantTerm<?>) term).getObject() instanceof Integer)) {
+			throw new IllegalArgumentException("Aggregate constraints checked by the solver require integer weights and bounds, but got: " + atom);
+		}
+		return (Integer) ((ConstantTerm<?>) term).getObject();
+	}
+
+	private static class Capacity {
+		private final int atom;
+		private final Aggregate aggregate;
+		private final int bound;
+		private boolean isWoken;
+
+		private Capacity(int atom, Aggregate aggregate, int bound) {
+			this.atom = atom;
+			this.aggregate = aggregate;
+			this.bound = bound;
+		}
+	}
+
+	/**
+	 * The elements grounded so far of one ground aggregate.
+	 */
+	private static class Aggregate {
+		private final List<Capacity> capacities = new ArrayList<>(1);
+
+		// The elements as weight (high bits) and atom (low bits), sorted ascending up to sortedSize.
+		private long[] elementsByWeight = new long[4];
+		private int size;
+		private int sortedSize;
+
+		// The sum of the weights of all elements that are true or must-be-true.
+		private long trueSum;
+
+		private void add(int element, int weight) {
+			if (size == elementsByWeight.length) {
+				elementsByWeight = Arrays.copyOf(elementsByWeight, arrayGrowthSize(size));
+			}
+			elementsByWeight[size++] = (long) weight << 32 | element;
+		}
+
+		private long[] getElementsByWeight() {
+			if (sortedSize != size) {
+				Arrays.sort(elementsByWeight, 0, size);
+				sortedSize = size;
+			}
+			return elementsByWeight;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Signals to a running solver and its grounder that they should stop, either because the handle has been cancelled
+ * (possibly from another thread) or because some budget has been exceeded. The solver polls the handle regularly and
+ * ends the stream of answer sets once it is interrupted. Since the search space has not been exhausted then, the answer
+ * sets obtained so far may be incomplete and the absence of answer sets does not imply that the program is
+ * unsatisfiable. Once interrupted, a handle stays interrupted.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class CancellationHandle {
+	private final AtomicReference<InterruptionReason> interruptionReason = new AtomicReference<>();
+	private volatile long deadline;
+	private volatile boolean hasDeadline;
+
+	/**
+	 * Requests the solver to stop as soon as possible. May be called from any thread.
+	 */
+	public void cancel() {
+		interrupt(InterruptionReason.CANCELLED);
+	}
+
+	/**
+	 * Interrupts the solver for the given reason, unless it has been interrupted before.
+	 */
+	public void interrupt(InterruptionReason reason) {
+		interruptionReason.compareAndSet(null, reason);
+	}
+
+	/**
+	 * Sets the deadline after which this handle is interrupted, unless a deadline has already been set.
+	 * @param wallTimeMillis the number of milliseconds from now until the deadline.
+	 */
+	public synchronized void startDeadline(long wallTimeMillis) {
+		if (hasDeadline) {
+			return;
+		}
+		deadline = System.nanoTime() + wallTimeMillis * 1_000_000;
+		hasDeadline = true;
+	}
+
+	/**
+	 * @return true iff the handle has been cancelled, some budget has been exceeded, or the deadline has passed.
+	 */
+	public boolean isInterrupted() {
+		if (interruptionReason.get() != null) {
+			return true;
+		}
+		if (hasDeadline && System.nanoTime() - deadline > 0) {
+			interrupt(InterruptionReason.WALL_TIME);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the reason why this handle was interrupted, or {@code null} if it was not.
+	 */
+	public InterruptionReason getInterruptionReason() {
+		return interruptionReason.get();
+	}
+}
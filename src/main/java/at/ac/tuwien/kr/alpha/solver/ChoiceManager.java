@@ -164,6 +164,35 @@ public void choose(Choice choice) {
 		choiceStack.push(choice);
 	}
 
+	/**
+	 * Places an assumption as a new decision. Assumptions are not counted as choices and are never inverted by
+	 * backtracking.
+	 * @param atom the atom to assume.
+	 * @param value the assumed truth value, i.e., MBT for atoms required to be true (they still have to be derived)
+	 *              and FALSE for atoms required to be false.
+	 */
+	public void assume(int atom, ThriceTruth value) {
+		if (assignment.choose(atom, value) != null) {
+			throw oops("Assumption is incompatible with current assignment");
+		}
+		LOGGER.debug("Assumption {}={}@{}", atom, value, assignment.getDecisionLevel());
+
+		choiceStack.push(new Choice(atom, value.toBoolean(), true));
+	}
+
+	/**
+	 * Returns whether all choices have been backtracked already (assumptions count as such), i.e., whether backtracking
+	 * chronologically returns to decision level 0.
+	 */
+	boolean areAllChoicesBacktracked() {
+		for (Choice choice : choiceStack) {
+			if (!choice.isBacktracked()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	public void backjump(int target) {
 		if (target < 0) {
 			throw oops("Backjumping to decision level less than 0");
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.BasicAnswerSet;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.Atom;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.grounder.Instance;
+import at.ac.tuwien.kr.alpha.grounder.transformation.AggregateConstraintRewriting;
+
+/**
+ * Outputs the single answer set of a program that consists of facts only, as it is the case for programs that are
+ * completely evaluated by {@link at.ac.tuwien.kr.alpha.grounder.transformation.StratifiedEvaluation}, i.e., stratified
+ * programs whose constraints are satisfied. Neither a grounder nor a search is needed for such programs.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class DatalogSolver implements Solver {
+
+	private final InternalProgram program;
+	private final java.util.function.Predicate<Predicate> filter;
+	private boolean exhausted;
+
+	public DatalogSolver(InternalProgram program, java.util.function.Predicate<Predicate> filter) {
+		if (!isApplicable(program)) {
+			throw new IllegalArgumentException("Program is not completely evaluated: " + program);
+		}
+		this.program = program;
+		this.filter = filter;
+	}
+
+	/**
+	 * Checks whether the given program consists of facts only, which are not checked by the solver either, like the
+	 * facts about aggregates checked natively by the solver.
+	 */
+	public static boolean isApplicable(InternalProgram program) {
+		if (!program.getRules().isEmpty()) {
+			return false;
+		}
+		for (Predicate predicate : program.getFactsByPredicate().keySet()) {
+			// A capacity fact states an aggregate constraint that only the solver checks.
+			if (predicate.isSolverInternal() || predicate.equals(AggregateConstraintRewriting.CAPACITY)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Spliterator<AnswerSet> spliterator() {
+		return new Spliterators.AbstractSpliterator<AnswerSet>(1, Spliterator.SIZED) {
+			@Override
+			public boolean tryAdvance(Consumer<? super AnswerSet> action) {
+				if (exhausted) {
+					return false;
+				}
+				exhausted = true;
+				action.accept(buildAnswerSet());
+				return true;
+			}
+		};
+	}
+
+	private AnswerSet buildAnswerSet() {
+		Map<Predicate, SortedSet<Atom>> predicateInstances = new TreeMap<>();
+		for (Map.Entry<Predicate, Set<Instance>> facts : program.getFactsByPredicate().entrySet()) {
+			Predicate predicate = facts.getKey();
+			// Skip internal and filtered predicates, as well as predicates without any instances.
+			if (predicate.isInternal() || !filter.test(predicate) || facts.getValue().isEmpty()) {
+				continue;
+			}
+			SortedSet<Atom> instances = new TreeSet<>();
+			for (Instance instance : facts.getValue()) {
+				instances.add(new BasicAtom(predicate, instance.terms));
+			}
+			predicateInstances.put(predicate, instances);
+		}
+		if (predicateInstances.isEmpty()) {
+			return BasicAnswerSet.EMPTY;
+		}
+		return new BasicAnswerSet(new TreeSet<>(predicateInstances.keySet()), predicateInstances);
+	}
+}
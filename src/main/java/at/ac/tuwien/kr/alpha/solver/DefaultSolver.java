@@ -27,10 +27,12 @@
  */
 package at.ac.tuwien.kr.alpha.solver;
 
+import static at.ac.tuwien.kr.alpha.Util.arrayGrowthSize;
 import static at.ac.tuwien.kr.alpha.Util.oops;
 import static at.ac.tuwien.kr.alpha.common.Literals.atomOf;
 import static at.ac.tuwien.kr.alpha.common.Literals.atomToLiteral;
 import static at.ac.tuwien.kr.alpha.common.Literals.atomToNegatedLiteral;
+import static at.ac.tuwien.kr.alpha.common.Literals.isPositive;
 import static at.ac.tuwien.kr.alpha.solver.NoGoodStore.LBD_NO_VALUE;
 import static at.ac.tuwien.kr.alpha.solver.ThriceTruth.MBT;
 import static at.ac.tuwien.kr.alpha.solver.heuristics.BranchingHeuristic.DEFAULT_CHOICE_LITERAL;
@@ -39,21 +41,33 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 import at.ac.tuwien.kr.alpha.common.AnswerSet;
 import at.ac.tuwien.kr.alpha.common.Assignment;
 import at.ac.tuwien.kr.alpha.common.AtomStore;
+import at.ac.tuwien.kr.alpha.common.IntIterator;
 import at.ac.tuwien.kr.alpha.common.NoGood;
+import at.ac.tuwien.kr.alpha.common.NoGoodInterface;
+import at.ac.tuwien.kr.alpha.common.Predicate;
 import at.ac.tuwien.kr.alpha.common.atoms.Atom;
 import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
 import at.ac.tuwien.kr.alpha.common.atoms.ComparisonAtom;
@@ -65,6 +79,15 @@
 import at.ac.tuwien.kr.alpha.grounder.ProgramAnalyzingGrounder;
 import at.ac.tuwien.kr.alpha.grounder.Substitution;
 import at.ac.tuwien.kr.alpha.grounder.atoms.RuleAtom;
+import at.ac.tuwien.kr.alpha.grounder.heuristics.GrounderHeuristicsConfiguration;
+import at.ac.tuwien.kr.alpha.metrics.Counter;
+import at.ac.tuwien.kr.alpha.metrics.MetricsRegistry;
+import at.ac.tuwien.kr.alpha.metrics.RuleProfiler;
+import at.ac.tuwien.kr.alpha.metrics.Timer;
+import at.ac.tuwien.kr.alpha.metrics.jfr.AnswerSetEvent;
+import at.ac.tuwien.kr.alpha.metrics.jfr.ConflictEvent;
+import at.ac.tuwien.kr.alpha.metrics.jfr.FlightRecorderEvents;
+import at.ac.tuwien.kr.alpha.metrics.jfr.PropagationEvent;
 import at.ac.tuwien.kr.alpha.solver.heuristics.BranchingHeuristic;
 import at.ac.tuwien.kr.alpha.solver.heuristics.BranchingHeuristicFactory;
 import at.ac.tuwien.kr.alpha.solver.heuristics.ChainedBranchingHeuristics;
@@ -77,9 +100,23 @@
  *
  * Copyright (c) 2016-2020, the Alpha Team.
  */
-public class DefaultSolver extends AbstractSolver implements SolverMaintainingStatistics {
+public class DefaultSolver extends AbstractSolver implements SolverMaintainingStatistics, SolverWithAssumptions {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultSolver.class);
 
+	/**
+	 * Atoms over this predicate activate the enumeration nogoods of queries under assumptions. The activation atom is
+	 * assumed true first, hence enumeration nogoods (and nogoods learned from them) contain it. Once enumeration nogoods
+	 * have been added under an activation atom, the next query releases it by fixing it to false, which satisfies all
+	 * these nogoods for good, and uses a fresh activation atom. Otherwise, the activation atom is reused.
+	 */
+	private static final Predicate ASSUMPTIONS_ACTIVATION = Predicate.getInstance("_Assumptions", 1, true, true);
+
+	/**
+	 * The number of iterations of the search loop between checks of the budgets for nogoods and heap, which are more
+	 * expensive to check than the other budgets.
+	 */
+	private static final int EXPENSIVE_BUDGET_CHECK_INTERVAL = 256;
+
 	private final NoGoodStore store;
 	private final ChoiceManager choiceManager;
 	private final WritableAssignment assignment;
@@ -91,13 +128,52 @@ public class DefaultSolver extends AbstractSolver implements SolverMaintainingSt
 	private boolean initialize = true;
 	private int mbtAtFixpoint;
 	private int conflictsAfterClosing;
+	private int conflicts;
+	private long groundingTime;
 	private final boolean disableJustifications;
 	private boolean disableJustificationAfterClosing = true;	// Keep disabled for now, case not fully worked out yet.
 	private final boolean disableNoGoodDeletion;
 
 	private final PerformanceLog performanceLog;
+
+	private final GroundingPipeline groundingPipeline;
+
+	private List<Literal> assumptions = Collections.emptyList();
+	private int[] assumptionLiterals = new int[0];
+	private int assumptionsActivationAtom;
+	private boolean enumeratedUnderActivationAtom;
+	private int numberOfActivationAtoms;
+	private boolean newQuery;
+	private boolean answerSetFoundForQuery;
+	private boolean enumeratedWithoutAssumptions;
+	private Set<Literal> failedAssumptions = Collections.emptySet();
 	
+	private final Timer propagationTimer;
+	private final Timer conflictAnalysisTimer;
+	private final Counter answerSetCounter;
+	private final RuleProfiler ruleProfiler; // null if rules are not profiled
+
+	private final AggregateConstraintPropagator aggregateConstraintPropagator;
+
+	private final CancellationHandle cancellationHandle;
+	private final long budgetWallTimeMillis;
+	private final long budgetConflicts;
+	private final long budgetDecisions;
+	private final long budgetNoGoods;
+	private final long budgetHeapBytes;
+	private int iterationsUntilExpensiveBudgetCheck;
+
 	public DefaultSolver(AtomStore atomStore, Grounder grounder, NoGoodStore store, WritableAssignment assignment, Random random, SystemConfig config, HeuristicsConfiguration heuristicsConfiguration) {
+		this(atomStore, grounder, store, assignment, random, config, heuristicsConfiguration, new MetricsRegistry());
+	}
+
+	public DefaultSolver(AtomStore atomStore, Grounder grounder, NoGoodStore store, WritableAssignment assignment, Random random, SystemConfig config,
+			HeuristicsConfiguration heuristicsConfiguration, MetricsRegistry metrics) {
+		this(atomStore, grounder, store, assignment, random, config, heuristicsConfiguration, metrics, new CancellationHandle());
+	}
+
+	public DefaultSolver(AtomStore atomStore, Grounder grounder, NoGoodStore store, WritableAssignment assignment, Random random, SystemConfig config,
+			HeuristicsConfiguration heuristicsConfiguration, MetricsRegistry metrics, CancellationHandle cancellationHandle) {
 		super(atomStore, grounder);
 
 		this.assignment = assignment;
@@ -108,6 +184,48 @@ public DefaultSolver(AtomStore atomStore, Grounder grounder, NoGoodStore store,
 		this.disableJustifications = config.isDisableJustificationSearch();
 		this.disableNoGoodDeletion = config.isDisableNoGoodDeletion();
 		this.performanceLog = new PerformanceLog(choiceManager, (TrailAssignment) assignment, 1000);
+		this.groundingPipeline = config.isGroundingPipelined() ? new GroundingPipeline(grounder) : null;
+		if (groundingPipeline != null) {
+			GrounderHeuristicsConfiguration grounderHeuristics = GrounderHeuristicsConfiguration.getInstance(config.getGrounderToleranceConstraints(),
+					config.getGrounderToleranceRules());
+			if (grounderHeuristics.isPermissive(true) || grounderHeuristics.isPermissive(false) || config.isGrounderLazyConstraintsEnabled()) {
+				// The grounding thread grounds without the assignment, which permissive tolerances and lazy constraints depend on.
+				throw new IllegalArgumentException("Pipelined grounding cannot be combined with permissive grounder tolerances or lazy constraints.");
+			}
+		}
+
+		this.propagationTimer = metrics.timer(MetricsRegistry.PROPAGATION);
+		this.conflictAnalysisTimer = metrics.timer(MetricsRegistry.CONFLICT_ANALYSIS);
+		this.answerSetCounter = metrics.counter(MetricsRegistry.ANSWER_SETS);
+		this.ruleProfiler = metrics.getRuleProfiler();
+
+		this.aggregateConstraintPropagator = new AggregateConstraintPropagator(atomStore, grounder);
+
+		this.cancellationHandle = cancellationHandle;
+		this.budgetWallTimeMillis = config.getBudgetWallTimeMillis();
+		this.budgetConflicts = config.getBudgetConflicts();
+		this.budgetDecisions = config.getBudgetDecisions();
+		this.budgetNoGoods = config.getBudgetNoGoods();
+		this.budgetHeapBytes = config.getBudgetHeapMegabytes() * 1024 * 1024;
+		metrics.gauge(MetricsRegistry.ATOMS, atomStore::getMaxAtomId);
+		metrics.gauge(MetricsRegistry.NOGOODS, () -> countNoGoods(false));
+		metrics.gauge(MetricsRegistry.LEARNED_NOGOODS, () -> countNoGoods(true));
+		metrics.gauge(MetricsRegistry.CHOICES, this::getNumberOfChoices);
+		metrics.gauge(MetricsRegistry.CONFLICTS, this::getNumberOfConflicts);
+	}
+
+	private long countNoGoods(boolean learned) {
+		NoGoodCounter noGoodCounter = store.getNoGoodCounter();
+		if (learned) {
+			return noGoodCounter.getNumberOfNoGoods(NoGoodInterface.Type.LEARNT);
+		}
+		long count = 0;
+		for (NoGoodInterface.Type type : NoGoodInterface.Type.values()) {
+			if (type != NoGoodInterface.Type.LEARNT) {
+				count += noGoodCounter.getNumberOfNoGoods(type);
+			}
+		}
+		return count;
 	}
 
 	private BranchingHeuristic chainFallbackHeuristic(Grounder grounder, WritableAssignment assignment, Random random, HeuristicsConfiguration heuristicsConfiguration) {
@@ -123,18 +241,43 @@ private BranchingHeuristic chainFallbackHeuristic(Grounder grounder, WritableAss
 
 	@Override
 	protected boolean tryAdvance(Consumer<? super AnswerSet> action) {
+		boolean foundAnswerSet = search(action);
+		if (!foundAnswerSet && groundingPipeline != null) {
+			// Solving (of the current query) has ended, release the grounding thread.
+			groundingPipeline.shutdown();
+		}
+		return foundAnswerSet;
+	}
+
+	private boolean search(Consumer<? super AnswerSet> action) {
 		boolean didChange = false;
 
+		if (budgetWallTimeMillis != SystemConfig.NO_BUDGET) {
+			cancellationHandle.startDeadline(budgetWallTimeMillis);
+		}
+		if (isInterrupted()) {
+			return false;
+		}
+
 		// Initially, get NoGoods from grounder.
 		if (initialize) {
 			performanceLog.initialize();
+			long groundingStart = System.nanoTime();
 			Map<Integer, NoGood> obtained = grounder.getNoGoods(assignment);
+			groundingTime += System.nanoTime() - groundingStart;
 			didChange = !obtained.isEmpty();
 			if (!ingest(obtained)) {
 				logStats();
 				return false;
 			}
+			if (groundingPipeline != null) {
+				// The grounding thread has not been started yet, take the choice information of the initial nogoods directly.
+				choiceManager.addChoiceInformation(grounder.getChoiceAtoms(), grounder.getHeadsToBodies());
+			}
 			initialize = false;
+		} else if (newQuery) {
+			// A new query under assumptions starts at decision level 0 and has no answer set to exclude yet.
+			didChange = true;
 		} else if (assignment.getDecisionLevel() == 0) {
 			logStats();
 			return false;
@@ -153,24 +296,61 @@ protected boolean tryAdvance(Consumer<? super AnswerSet> action) {
 			// Backjump instead of backtrackSlow, enumerationNoGood will invert last choice.
 			choiceManager.backjump(backjumpLevel - 1);
 			LOGGER.debug("Adding enumeration nogood: {}", enumerationNoGood);
+			enumeratedWithoutAssumptions |= assumptionsActivationAtom == 0;
+			enumeratedUnderActivationAtom |= assumptionsActivationAtom != 0;
 			if (!addAndBackjumpIfNecessary(grounder.register(enumerationNoGood), enumerationNoGood, Integer.MAX_VALUE)) {
 				return false;
 			}
 		}
+		newQuery = false;
 
 		boolean afterAllAtomsAssigned = false;
+		GroundingPipeline.GroundingResult pipelineResult;
 
 		// Try all assignments until grounder reports no more NoGoods and all of them are satisfied
 		while (true) {
 			performanceLog.infoIfTimeForOutput(LOGGER);
+			if (isInterrupted()) {
+				LOGGER.info("Solving interrupted: {}", cancellationHandle.getInterruptionReason());
+				logStats();
+				return false;
+			}
+			PropagationEvent propagationEvent = FlightRecorderEvents.newPropagationEvent();
+			if (propagationEvent != null) {
+				propagationEvent.begin();
+			}
+			int trailSizeBeforePropagation = ruleProfiler != null ? ((TrailAssignment) assignment).getTrailSize() : 0;
+			long propagationStart = propagationTimer.start();
 			ConflictCause conflictCause = store.propagate();
+			propagationTimer.stop(propagationStart);
+			if (ruleProfiler != null) {
+				profilePropagation(trailSizeBeforePropagation);
+			}
+			if (propagationEvent != null && propagationEvent.shouldCommit()) {
+				propagationEvent.setDecisionLevel(assignment.getDecisionLevel());
+				propagationEvent.setConflict(conflictCause != null);
+				propagationEvent.commit();
+			}
 			didChange |= store.didPropagate();
 			LOGGER.trace("Assignment after propagation is: {}", assignment);
+			if (conflictCause == null) {
+				// Add nogoods explaining violated or propagating aggregate constraints, then propagate again.
+				Map<Integer, NoGood> explanations = aggregateConstraintPropagator.propagate((TrailAssignment) assignment);
+				if (!explanations.isEmpty()) {
+					if (!ingest(explanations)) {
+						logStats();
+						return false;
+					}
+					didChange = true;
+					continue;
+				}
+			}
 			if (!disableNoGoodDeletion && conflictCause == null) {
 				// Run learned NoGood deletion strategy.
 				store.cleanupLearnedNoGoods();
 			}
 			if (conflictCause != null) {
+				conflicts++;
 				// Learn from conflict.
 				LOGGER.debug("Violating assignment is: {}", assignment);
 				Antecedent conflictAntecedent = conflictCause.getAntecedent();
@@ -194,25 +374,71 @@ protected boolean tryAdvance(Consumer<? super AnswerSet> action) {
 				// Ask the grounder for new NoGoods, then propagate (again).
 				LOGGER.trace("Doing propagation step.");
 
-				grounder.updateAssignment(assignment.getNewPositiveAssignmentsIterator());
+				if (groundingPipeline != null) {
+					// Hand the new assignments to the grounding thread and continue with whatever it has produced so far.
+					groundingPipeline.submit(assignment.getNewPositiveAssignmentsIterator(), forgetFalseAtomsAtLevelZero());
+					didChange = false;
+					if (!ingestFromPipeline(groundingPipeline.poll())) {
+						return false;
+					}
+				} else {
+					int[] falseAtomsAtLevelZero = forgetFalseAtomsAtLevelZero();
+					if (falseAtomsAtLevelZero.length > 0) {
+						grounder.forgetAssignment(falseAtomsAtLevelZero);
+					}
+					long groundingStart = System.nanoTime();
+					grounder.updateAssignment(assignment.getNewPositiveAssignmentsIterator());
 
-				Map<Integer, NoGood> obtained = grounder.getNoGoods(assignment);
-				didChange = !obtained.isEmpty();
-				if (!ingest(obtained)) {
-					logStats();
+					Map<Integer, NoGood> obtained = grounder.getNoGoods(assignment);
+					groundingTime += System.nanoTime() - groundingStart;
+					didChange = !obtained.isEmpty();
+					if (!ingest(obtained)) {
+						logStats();
+						return false;
+					}
+				}
+			} else if (assumptionViolated()) {
+				LOGGER.debug("Assumption is violated, no (further) answer sets under the assumptions.");
+				logStats();
+				return false;
+			} else if (assume()) {
+				LOGGER.debug("Did assumption.");
+				didChange = true;
+			} else if (groundingPipeline != null && (pipelineResult = groundingPipeline.poll()) != null) {
+				// Consider what the grounding thread delivered meanwhile, including its choice information, before choosing.
+				if (!ingestFromPipeline(pipelineResult)) {
 					return false;
 				}
+				didChange = true;
 			} else if (choose()) {
 				LOGGER.debug("Did choice.");
 				didChange = true;
+			} else if (groundingPipeline != null && groundingPipeline.awaitIdle()) {
+				// No choices left, but the grounding thread delivered further results that must be considered first.
+				LOGGER.debug("Obtained further results from grounding thread.");
+				if (!ingestFromPipeline(groundingPipeline.poll())) {
+					return false;
+				}
+				didChange = true;
 			} else if (close()) {
 				LOGGER.debug("Closed unassigned known atoms (assigning FALSE).");
 				afterAllAtomsAssigned = true;
 			} else if (assignment.getMBTCount() == 0) {
 				// NOTE: If we would do optimization, we would now have a guaranteed upper bound.
+				AnswerSetEvent answerSetEvent = FlightRecorderEvents.newAnswerSetEvent();
+				if (answerSetEvent != null) {
+					answerSetEvent.begin();
+				}
 				AnswerSet as = translate(assignment.getTrueAssignments());
 				LOGGER.debug("Answer-Set found: {}", as);
+				answerSetFoundForQuery = true;
+				answerSetCounter.increment();
 				action.accept(as);
+				if (answerSetEvent != null && answerSetEvent.shouldCommit()) {
+					answerSetEvent.setNumber((int) answerSetCounter.get());
+					answerSetEvent.setPredicates(as.getPredicates().size());
+					answerSetEvent.commit();
+				}
 				logStats();
 				return true;
 			} else {
@@ -252,7 +478,25 @@ private boolean addAndBackjumpIfNecessary(int noGoodId, NoGood noGood, int lbd)
 	 * @return false iff the analysis result shows that the set of NoGoods is unsatisfiable.
 	 */
 	private boolean learnBackjumpAddFromConflict(ConflictCause conflictCause) {
+		ConflictEvent conflictEvent = FlightRecorderEvents.newConflictEvent();
+		if (conflictEvent != null) {
+			conflictEvent.begin();
+		}
+		long analysisStart = conflictAnalysisTimer.start();
 		GroundConflictNoGoodLearner.ConflictAnalysisResult analysisResult = learner.analyzeConflictingNoGood(conflictCause.getAntecedent());
+		conflictAnalysisTimer.stop(analysisStart);
+		if (ruleProfiler != null) {
+			profileConflict(conflictCause, analysisResult);
+		}
+		if (conflictEvent != null && conflictEvent.shouldCommit()) {
+			conflictEvent.setDecisionLevel(assignment.getDecisionLevel());
+			if (analysisResult != UNSAT) {
+				conflictEvent.setBackjumpLevel(analysisResult.backjumpLevel);
+				conflictEvent.setLearnedSize(analysisResult.learnedNoGood != null ? analysisResult.learnedNoGood.size() : 0);
+				conflictEvent.setLbd(analysisResult.lbd);
+			}
+			conflictEvent.commit();
+		}
 
 		LOGGER.debug("Analysis result: {}", analysisResult);
 
@@ -287,11 +531,64 @@ private boolean learnBackjumpAddFromConflict(ConflictCause conflictCause) {
 		return true;
 	}
 
+	/**
+	 * Checks whether the cancellation handle has been interrupted or some budget is exceeded, in which case the handle is
+	 * interrupted accordingly. Budgets that are more expensive to check are only checked periodically.
+	 */
+	private boolean isInterrupted() {
+		if (cancellationHandle.isInterrupted()) {
+			return true;
+		}
+		if (budgetConflicts != SystemConfig.NO_BUDGET && conflicts >= budgetConflicts) {
+			cancellationHandle.interrupt(InterruptionReason.CONFLICTS);
+		} else if (budgetDecisions != SystemConfig.NO_BUDGET && choiceManager.getChoices() >= budgetDecisions) {
+			cancellationHandle.interrupt(InterruptionReason.DECISIONS);
+		} else if (--iterationsUntilExpensiveBudgetCheck <= 0) {
+			iterationsUntilExpensiveBudgetCheck = EXPENSIVE_BUDGET_CHECK_INTERVAL;
+			if (budgetNoGoods != SystemConfig.NO_BUDGET && countNoGoods(false) > budgetNoGoods) {
+				cancellationHandle.interrupt(InterruptionReason.NOGOODS);
+			} else if (budgetHeapBytes != SystemConfig.NO_BUDGET && usedHeapBytes() > budgetHeapBytes) {
+				cancellationHandle.interrupt(InterruptionReason.HEAP);
+			}
+		}
+		return cancellationHandle.getInterruptionReason() != null;
+	}
+
+	private static long usedHeapBytes() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Attributes all assignments made by the last propagation to the rules whose nogoods implied them.
+	 */
+	private void profilePropagation(int trailSizeBeforePropagation) {
+		TrailAssignment trailAssignment = (TrailAssignment) assignment;
+		TrailAssignment.TrailBackwardsWalker trailWalker = trailAssignment.getTrailBackwardsWalker();
+		for (int i = trailAssignment.getTrailSize(); i > trailSizeBeforePropagation; i--) {
+			ruleProfiler.recordPropagation(assignment.getImpliedBy(atomOf(trailWalker.getNextLowerLiteral())));
+		}
+	}
+
+	/**
+	 * Attributes a conflict to the rules whose nogoods were violated or resolved during conflict analysis. Must be called
+	 * before backjumping.
+	 */
+	private void profileConflict(ConflictCause conflictCause, GroundConflictNoGoodLearner.ConflictAnalysisResult analysisResult) {
+		ruleProfiler.recordConflict(conflictCause.getAntecedent());
+		if (analysisResult.resolutionAtoms == null) {
+			return;
+		}
+		for (Integer resolutionAtom : analysisResult.resolutionAtoms) {
+			ruleProfiler.recordConflict(assignment.getImpliedBy(resolutionAtom));
+		}
+	}
+
 	private boolean justifyMbtAndBacktrack() {
 		mbtAtFixpoint++;
 		// Run justification only if enabled and possible.
 		if (disableJustifications || !(grounder instanceof ProgramAnalyzingGrounder)) {
-			if (!backtrack()) {
+			if (!backtrack(null)) {
 				logStats();
 				return false;
 			}
@@ -321,21 +618,27 @@ private boolean justifyMbtAndBacktrack() {
 	}
 
 	private NoGood noGoodFromJustificationReasons(int atomToJustify, Set<Literal> reasonsForUnjustified) {
-		// Turn the justification into a NoGood.
+		return NoGood.learnt(justificationLiterals(atomToJustify, reasonsForUnjustified));
+	}
+
+	/**
+	 * Turns the justification into the literals of a nogood, the first literal being the unjustified atom.
+	 */
+	private int[] justificationLiterals(int atomToJustify, Set<Literal> reasonsForUnjustified) {
 		int[] reasons = new int[reasonsForUnjustified.size() + 1];
 		reasons[0] = atomToLiteral(atomToJustify);
 		int arrpos = 1;
 		for (Literal literal : reasonsForUnjustified) {
 			reasons[arrpos++] = atomToLiteral(atomStore.get(literal.getAtom()), !literal.isNegated());
 		}
-		return NoGood.learnt(reasons);
+		return reasons;
 	}
 
 	private boolean treatConflictAfterClosing(Antecedent violatedNoGood) {
 		if (disableJustificationAfterClosing || disableJustifications || !(grounder instanceof ProgramAnalyzingGrounder)) {
 			// Will not learn from violated NoGood, do simple backtrack.
 			LOGGER.debug("NoGood was violated after all unassigned atoms were assigned to false; will not learn from it; skipping.");
-			if (!backtrack()) {
+			if (!backtrack(getAssumptionsImplyingClosingConflict(violatedNoGood))) {
 				logStats();
 				return false;
 			}
@@ -366,25 +669,7 @@ private boolean treatConflictAfterClosing(Antecedent violatedNoGood) {
 				continue;
 			}
 			// For RuleAtoms in toJustify the corresponding ground body contains BasicAtoms that have been assigned FALSE in the closing.
-			// First, translate RuleAtom back to NonGroundRule + Substitution.
-			String ruleId = (String) ((ConstantTerm<?>)atom.getTerms().get(0)).getObject();
-			InternalRule nonGroundRule = analyzingGrounder.getNonGroundRule(Integer.parseInt(ruleId));
-			String substitution = (String) ((ConstantTerm<?>)atom.getTerms().get(1)).getObject();
-			Substitution groundingSubstitution = Substitution.fromString(substitution);
-			// Find ground literals in the body that have been assigned false and justify those.
-			for (Literal bodyLiteral : nonGroundRule.getBody()) {
-				Atom groundAtom = bodyLiteral.getAtom().substitute(groundingSubstitution);
-				if (groundAtom instanceof ComparisonAtom || analyzingGrounder.isFact(groundAtom)) {
-					// Facts and ComparisonAtoms are always true, no justification needed.
-					continue;
-				}
-				int groundAtomId = atomStore.get(groundAtom);
-				Antecedent impliedBy = assignment.getImpliedBy(groundAtomId);
-				// Check if atom was assigned to FALSE during the closing.
-				if (impliedBy == TrailAssignment.CLOSING_INDICATOR_ANTECEDENT) {
-					ruleAtomReplacements.add(atomToNegatedLiteral(groundAtomId));
-				}
-			}
+			ruleAtomReplacements.addAll(getBodyLiteralsFalseByClosing(analyzingGrounder, atom));
 			toJustifyIterator.remove();
 		}
 		toJustify.addAll(ruleAtomReplacements);
@@ -397,7 +682,7 @@ private boolean treatConflictAfterClosing(Antecedent violatedNoGood) {
 			LOGGER.debug("Learned NoGood is: {}", atomStore.noGoodToString(noGood));
 		}
 		// Backtrack to remove the violation.
-		if (!backtrack()) {
+		if (!backtrack(getAssumptionsImplyingClosingConflict(violatedNoGood))) {
 			logStats();
 			return false;
 		}
@@ -409,6 +694,57 @@ private boolean treatConflictAfterClosing(Antecedent violatedNoGood) {
 		return true;
 	}
 
+	/**
+	 * Returns the negated literals of the atoms in the ground body of the given {@link RuleAtom} that have been assigned
+	 * FALSE in the closing.
+	 */
+	private List<Integer> getBodyLiteralsFalseByClosing(ProgramAnalyzingGrounder analyzingGrounder, Atom ruleAtom) {
+		// Translate RuleAtom back to NonGroundRule + Substitution.
+		String ruleId = (String) ((ConstantTerm<?>) ruleAtom.getTerms().get(0)).getObject();
+		InternalRule nonGroundRule = analyzingGrounder.getNonGroundRule(Integer.parseInt(ruleId));
+		String substitution = (String) ((ConstantTerm<?>) ruleAtom.getTerms().get(1)).getObject();
+		Substitution groundingSubstitution = Substitution.fromString(substitution);
+		List<Integer> falseBodyLiterals = new ArrayList<>();
+		// Find ground literals in the body that have been assigned false.
+		for (Literal bodyLiteral : nonGroundRule.getBody()) {
+			Atom groundAtom = bodyLiteral.getAtom().substitute(groundingSubstitution);
+			if (groundAtom instanceof ComparisonAtom || analyzingGrounder.isFact(groundAtom)) {
+				// Facts and ComparisonAtoms are always true, no justification needed.
+				continue;
+			}
+			int groundAtomId = atomStore.get(groundAtom);
+			Antecedent impliedBy = assignment.getImpliedBy(groundAtomId);
+			// Check if atom was assigned to FALSE during the closing.
+			if (impliedBy == TrailAssignment.CLOSING_INDICATOR_ANTECEDENT) {
+				falseBodyLiterals.add(atomToNegatedLiteral(groundAtomId));
+			}
+		}
+		return falseBodyLiterals;
+	}
+
+	/**
+	 * Computes the assumptions to blame in case backtracking from the given conflict after closing exhausts the search
+	 * space below the assumptions. Atoms assigned FALSE in the closing are traced back to the reasons for their falsity.
+	 * @return the implying assumptions, or {@code null} if they are unknown.
+	 */
+	private Set<Literal> getAssumptionsImplyingClosingConflict(Antecedent violatedNoGood) {
+		if (assumptionsActivationAtom == 0 || !choiceManager.areAllChoicesBacktracked() || !(grounder instanceof ProgramAnalyzingGrounder)) {
+			return null;
+		}
+		ProgramAnalyzingGrounder analyzingGrounder = (ProgramAnalyzingGrounder) grounder;
+		return getAssumptionsImplying(violatedNoGood.getReasonLiterals(), closedAtom -> {
+			Atom atom = atomStore.get(closedAtom);
+			if (atom instanceof RuleAtom) {
+				return getBodyLiteralsFalseByClosing(analyzingGrounder, atom).stream().mapToInt(Integer::intValue).toArray();
+			}
+			if (atom instanceof BasicAtom) {
+				int[] justification = justificationLiterals(closedAtom, analyzingGrounder.justifyAtom(closedAtom, assignment));
+				return Arrays.copyOfRange(justification, 1, justification.length);
+			}
+			return null;
+		});
+	}
+
 	private boolean close() {
 		return assignment.closeUnassignedAtoms();
 	}
@@ -416,9 +752,11 @@ private boolean close() {
 	/**
 	 * Iterative implementation of recursive backtracking.
 	 *
+	 * @param conflictingAssumptions the assumptions implying the conflict that causes backtracking, or {@code null} if the
+	 *                               conflict does not stem from assumptions alone or is unknown.
 	 * @return {@code true} iff it is possible to backtrack even further, {@code false} otherwise
 	 */
-	private boolean backtrack() {
+	private boolean backtrack(Set<Literal> conflictingAssumptions) {
 		while (assignment.getDecisionLevel() != 0) {
 			final Assignment.Entry choice = choiceManager.backtrackSlow();
 			store.propagate();
@@ -458,15 +796,26 @@ private boolean backtrack() {
 			// Continue backtracking.
 		}
 
-		return assignment.getDecisionLevel() != 0;
+		if (assignment.getDecisionLevel() == 0) {
+			// Search space below the assumptions is exhausted. Blame the assumptions implying the last conflict if it stems
+			// from them alone, and all of them otherwise.
+			recordFailedAssumptions(conflictingAssumptions != null ? conflictingAssumptions : assumptions);
+			return false;
+		}
+		return true;
 	}
 
-	private boolean ingest(Map<Integer, NoGood> obtained) {
+	private void growForMaxAtomId() {
 		assignment.growForMaxAtomId();
 		int maxAtomId = atomStore.getMaxAtomId();
 		store.growForMaxAtomId(maxAtomId);
 		choiceManager.growForMaxAtomId(maxAtomId);
 		branchingHeuristic.growForMaxAtomId(maxAtomId);
+		aggregateConstraintPropagator.growForMaxAtomId(maxAtomId);
+	}
+
+	private boolean ingest(Map<Integer, NoGood> obtained) {
+		growForMaxAtomId();
 		branchingHeuristic.newNoGoods(obtained.values());
 
 		LinkedList<Map.Entry<Integer, NoGood>> noGoodsToAdd = new LinkedList<>(obtained.entrySet());
@@ -518,8 +867,50 @@ private boolean fixContradiction(Map.Entry<Integer, NoGood> noGoodEntry, Conflic
 
 	}
 
+	/**
+	 * Returns the atoms that became false at decision level 0 since the last call, after removing the nogoods they satisfy
+	 * from the store. These atoms can never be true again, hence the grounder may forget them as well, see
+	 * {@link Grounder#forgetAssignment(int[])}.
+	 */
+	private int[] forgetFalseAtomsAtLevelZero() {
+		IntIterator it = assignment.getNewFalseAssignmentsAtLevelZeroIterator();
+		int[] falseAtoms = new int[16];
+		int size = 0;
+		while (it.hasNext()) {
+			if (size == falseAtoms.length) {
+				falseAtoms = Arrays.copyOf(falseAtoms, arrayGrowthSize(size));
+			}
+			falseAtoms[size++] = it.next();
+		}
+		falseAtoms = Arrays.copyOf(falseAtoms, size);
+		if (size > 0) {
+			store.removeSatisfiedNoGoods(falseAtoms);
+		}
+		return falseAtoms;
+	}
+
+	/**
+	 * Ingests the nogoods and choice information obtained from the grounding pipeline, if any.
+	 * @return false iff the program is found to be unsatisfiable.
+	 */
+	private boolean ingestFromPipeline(GroundingPipeline.GroundingResult result) {
+		if (result == null) {
+			return true;
+		}
+		if (!ingest(result.getNoGoods())) {
+			logStats();
+			return false;
+		}
+		choiceManager.addChoiceInformation(result.getChoiceAtoms(), result.getHeadsToBodies());
+		return true;
+	}
+
 	private boolean choose() {
-		choiceManager.addChoiceInformation(grounder.getChoiceAtoms(), grounder.getHeadsToBodies());
+		if (groundingPipeline == null) {
+			choiceManager.addChoiceInformation(grounder.getChoiceAtoms(), grounder.getHeadsToBodies());
+		}
+		// With pipelined grounding, the grounder belongs to the grounding thread. Its choice information is added together
+		// with the nogoods it belongs to by ingestFromPipeline, which the search loop calls for all results before choosing.
 		choiceManager.updateAssignments();
 
 		// Hint: for custom heuristics, evaluate them here and pick a value if the heuristics suggests one.
@@ -537,6 +928,160 @@ private boolean choose() {
 		return true;
 	}
 	
+	@Override
+	public Spliterator<AnswerSet> spliterator(Collection<? extends Literal> assumptions) {
+		if (enumeratedWithoutAssumptions) {
+			throw new IllegalStateException("Answer sets have been enumerated without assumptions, these cannot be reused for queries under assumptions.");
+		}
+		LOGGER.debug("Starting new query under assumptions: {}", assumptions);
+		if (groundingPipeline != null) {
+			groundingPipeline.awaitIdle();
+		}
+		if (assignment.getDecisionLevel() > 0) {
+			choiceManager.backjump(0);
+		}
+		this.assumptions = new ArrayList<>();
+		this.assumptionLiterals = new int[assumptions.size()];
+		Map<Integer, NoGood> factNoGoods = new LinkedHashMap<>();
+		for (Literal assumption : assumptions) {
+			if (!assumption.isGround()) {
+				throw new IllegalArgumentException("Assumption is not ground: " + assumption);
+			}
+			int atom = atomStore.putIfAbsent(assumption.getAtom());
+			if (grounder instanceof ProgramAnalyzingGrounder && ((ProgramAnalyzingGrounder) grounder).isFact(assumption.getAtom())) {
+				// Facts are not represented in the solver, record them as true so that assumptions on them can be checked.
+				NoGood factNoGood = NoGood.fact(atomToNegatedLiteral(atom));
+				factNoGoods.put(grounder.register(factNoGood), factNoGood);
+			}
+			assumptionLiterals[this.assumptions.size()] = atomToLiteral(atom, !assumption.isNegated());
+			this.assumptions.add(assumption);
+		}
+		if (assumptionsActivationAtom == 0 || enumeratedUnderActivationAtom) {
+			if (assumptionsActivationAtom != 0) {
+				NoGood releaseNoGood = new NoGood(atomToLiteral(assumptionsActivationAtom));
+				factNoGoods.put(grounder.register(releaseNoGood), releaseNoGood);
+			}
+			assumptionsActivationAtom = atomStore.putIfAbsent(new BasicAtom(ASSUMPTIONS_ACTIVATION, ConstantTerm.getInstance(++numberOfActivationAtoms)));
+			enumeratedUnderActivationAtom = false;
+		}
+		growForMaxAtomId();
+		if (!ingest(factNoGoods)) {
+			throw oops("Adding facts of assumptions caused unsatisfiability");
+		}
+		failedAssumptions = Collections.emptySet();
+		answerSetFoundForQuery = false;
+		newQuery = true;
+		return spliterator();
+	}
+
+	@Override
+	public Set<Literal> getFailedAssumptions() {
+		return failedAssumptions;
+	}
+
+	/**
+	 * Checks whether some assumption is violated by the current assignment. If so, computes the subset of the
+	 * assumptions responsible for the violation and backjumps to decision level 0, ending the current query.
+	 * @return true iff some assumption is violated.
+	 */
+	private boolean assumptionViolated() {
+		for (int i = 0; i < assumptionLiterals.length; i++) {
+			int assumptionLiteral = assumptionLiterals[i];
+			ThriceTruth truth = assignment.getTruth(atomOf(assumptionLiteral));
+			if (truth == null || truth.toBoolean() == isPositive(assumptionLiteral)) {
+				continue;
+			}
+			LOGGER.debug("Assumption {} is violated.", assumptions.get(i));
+			Set<Literal> involvedAssumptions = new LinkedHashSet<>();
+			involvedAssumptions.add(assumptions.get(i));
+			Set<Literal> implyingAssumptions = getAssumptionsImplying(new int[] {assumptionLiteral}, closedAtom -> null);
+			// If the violation does not stem from assumptions alone, fall back to blaming all of them.
+			involvedAssumptions.addAll(implyingAssumptions != null ? implyingAssumptions : assumptions);
+			recordFailedAssumptions(involvedAssumptions);
+			choiceManager.backjump(0);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Computes the assumptions whose decisions imply the current assignment of the atoms of the given literals, i.e., the
+	 * final conflict analysis for a conflict under assumptions.
+	 * @param closingReasons yields for an atom assigned FALSE in the closing the literals causing it to be false, or
+	 *                       {@code null} if these are unknown.
+	 * @return the implying assumptions, or {@code null} if the assignment also depends on other decisions or on atoms
+	 *         assigned in the closing for unknown reasons.
+	 */
+	private Set<Literal> getAssumptionsImplying(int[] literals, IntFunction<int[]> closingReasons) {
+		Set<Literal> implyingAssumptions = new LinkedHashSet<>();
+		Set<Integer> seenAtoms = new HashSet<>();
+		Deque<Integer> atomsToProcess = new ArrayDeque<>();
+		for (int literal : literals) {
+			if (seenAtoms.add(atomOf(literal))) {
+				atomsToProcess.push(atomOf(literal));
+			}
+		}
+		while (!atomsToProcess.isEmpty()) {
+			for (int decisionAtom : learner.computeImplyingDecisions(atomsToProcess.pop())) {
+				if (decisionAtom == assumptionsActivationAtom) {
+					continue;
+				}
+				Literal assumption = getAssumption(decisionAtom);
+				if (assumption != null) {
+					implyingAssumptions.add(assumption);
+					continue;
+				}
+				int[] reasons = assignment.getImpliedBy(decisionAtom) == TrailAssignment.CLOSING_INDICATOR_ANTECEDENT ? closingReasons.apply(decisionAtom) : null;
+				if (reasons == null) {
+					return null;
+				}
+				for (int reason : reasons) {
+					if (seenAtoms.add(atomOf(reason))) {
+						atomsToProcess.push(atomOf(reason));
+					}
+				}
+			}
+		}
+		return implyingAssumptions;
+	}
+
+	private Literal getAssumption(int atom) {
+		for (int i = 0; i < assumptionLiterals.length; i++) {
+			if (atomOf(assumptionLiterals[i]) == atom) {
+				return assumptions.get(i);
+			}
+		}
+		return null;
+	}
+
+	private void recordFailedAssumptions(Collection<Literal> involvedAssumptions) {
+		// Assumptions are only to blame if no answer set exists under them.
+		if (!answerSetFoundForQuery) {
+			failedAssumptions = new LinkedHashSet<>(involvedAssumptions);
+		}
+	}
+
+	/**
+	 * Places the activation atom of the current query and then the first unassigned assumption as a decision.
+	 * @return true iff an assumption was placed, false if all assumptions already hold.
+	 */
+	private boolean assume() {
+		if (assumptionsActivationAtom == 0) {
+			return false;
+		}
+		if (!assignment.isAssigned(assumptionsActivationAtom)) {
+			choiceManager.assume(assumptionsActivationAtom, ThriceTruth.TRUE);
+			return true;
+		}
+		for (int assumptionLiteral : assumptionLiterals) {
+			if (!assignment.isAssigned(atomOf(assumptionLiteral))) {
+				choiceManager.assume(atomOf(assumptionLiteral), isPositive(assumptionLiteral) ? MBT : ThriceTruth.FALSE);
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public int getNumberOfChoices() {
 		return choiceManager.getChoices();
@@ -567,6 +1112,16 @@ public int getNumberOfConflictsAfterClosing() {
 		return conflictsAfterClosing;
 	}
 
+	@Override
+	public int getNumberOfConflicts() {
+		return conflicts;
+	}
+
+	@Override
+	public long getGroundingTime() {
+		return groundingTime;
+	}
+
 	@Override
 	public int getNumberOfDeletedNoGoods() {
 		if (!(store instanceof NoGoodStoreAlphaRoaming)) {
@@ -0,0 +1,293 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import at.ac.tuwien.kr.alpha.common.IntIterator;
+import at.ac.tuwien.kr.alpha.common.NoGood;
+import at.ac.tuwien.kr.alpha.grounder.Grounder;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static at.ac.tuwien.kr.alpha.Util.oops;
+
+/**
+ * Runs the grounder on a separate thread such that grounding overlaps with search in the {@link DefaultSolver}.
+ *
+ * The solver hands over deltas of positively assigned atoms, together with the atoms the grounder may forget, via
+ * {@link #submit(IntIterator, int[])}, which never blocks. Deltas
+ * are put into a lock-free queue that is consumed by a single grounding thread, which feeds them into the grounder and
+ * puts the resulting nogoods (together with the corresponding choice information) into a buffer. The solver takes the
+ * buffered results at safe points via {@link #poll()}, and before concluding that no more choices are possible (i.e.,
+ * before closing the assignment or reporting an answer set) it waits for all in-flight work via {@link #awaitIdle()}.
+ *
+ * The grounding thread never reads the solver's assignment, it grounds all instances supported by the atoms it received
+ * (as {@link Grounder#getNoGoods(at.ac.tuwien.kr.alpha.common.Assignment)} does when called without an assignment).
+ * Grounder heuristics that depend on the assignment, i.e., permissive tolerances and lazy constraints, are therefore not
+ * supported together with pipelining.
+ * Hence every nogood it produces is a valid ground nogood regardless of backjumps that happen meanwhile, and no in-flight
+ * work ever has to be discarded: results computed from a delta that got backjumped over are ingested just like nogoods
+ * stemming from the current assignment.
+ *
+ * Since the grounder's {@link Grounder#register(NoGood)} may be called by the solver while grounding is in progress and
+ * the atom store is shared, both must be safe for concurrent use when pipelining is enabled.
+ *
+ * The grounding thread is started on demand and released by {@link #shutdown()} once solving ends. A pipeline that has
+ * been shut down starts a new thread when it is handed further deltas, e.g., for a subsequent query under assumptions.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+class GroundingPipeline {
+	private static final Logger LOGGER = LoggerFactory.getLogger(GroundingPipeline.class);
+
+	private final Grounder grounder;
+	private ExecutorService executor;
+	private final ConcurrentLinkedQueue<Delta> deltas = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<GroundingResult> results = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean running = new AtomicBoolean();
+	private final Object idleMonitor = new Object();
+	private volatile Throwable failure;
+
+	private int submittedDeltas;
+	private int polledResults;
+
+	GroundingPipeline(Grounder grounder) {
+		this.grounder = grounder;
+	}
+
+	private static ExecutorService newExecutor() {
+		// At most one grounding task is active at any time, the thread terminates when idle for a second.
+		return new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "alpha-grounding");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Hands the given atoms (that have been newly assigned a positive truth value) to the grounding thread.
+	 * @param newPositiveAssignments the newly assigned positive atoms, consumed immediately by this method.
+	 * @param forgottenAtoms the atoms to pass to {@link Grounder#forgetAssignment(int[])} before grounding.
+	 */
+	void submit(IntIterator newPositiveAssignments, int[] forgottenAtoms) {
+		int[] delta = new int[16];
+		int size = 0;
+		while (newPositiveAssignments.hasNext()) {
+			if (size == delta.length) {
+				delta = Arrays.copyOf(delta, size * 2);
+			}
+			delta[size++] = newPositiveAssignments.next();
+		}
+		deltas.offer(new Delta(Arrays.copyOf(delta, size), forgottenAtoms));
+		submittedDeltas++;
+		if (running.compareAndSet(false, true)) {
+			if (executor == null) {
+				executor = newExecutor();
+			}
+			executor.execute(this::work);
+		}
+	}
+
+	/**
+	 * Shuts the grounding thread down once it has finished its current work. Buffered results remain available to
+	 * {@link #poll()}.
+	 */
+	void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	/**
+	 * Takes all results the grounding thread has produced so far, without waiting for in-flight work.
+	 * @return the combined results, or {@code null} if there are none.
+	 */
+	GroundingResult poll() {
+		rethrowFailure();
+		GroundingResult combined = null;
+		GroundingResult result;
+		while ((result = results.poll()) != null) {
+			polledResults++;
+			if (combined == null) {
+				combined = result;
+			} else {
+				combined.add(result);
+			}
+		}
+		return combined;
+	}
+
+	/**
+	 * Blocks until all submitted deltas have been grounded. Results are left in the buffer for {@link #poll()}.
+	 * @return true iff there are buffered results.
+	 */
+	boolean awaitIdle() {
+		synchronized (idleMonitor) {
+			while (running.get() || !deltas.isEmpty()) {
+				try {
+					idleMonitor.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw oops("Interrupted while waiting for grounding thread", e);
+				}
+			}
+		}
+		rethrowFailure();
+		LOGGER.trace("Grounding thread idle after {} deltas, {} results taken so far.", submittedDeltas, polledResults);
+		return !results.isEmpty();
+	}
+
+	private void work() {
+		try {
+			while (true) {
+				boolean receivedDelta = false;
+				Delta delta;
+				while ((delta = deltas.poll()) != null) {
+					if (delta.forgottenAtoms.length > 0) {
+						grounder.forgetAssignment(delta.forgottenAtoms);
+					}
+					grounder.updateAssignment(new ArrayIntIterator(delta.newPositiveAssignments));
+					receivedDelta = true;
+				}
+				if (!receivedDelta) {
+					// Leave, unless a delta was submitted after the queue was found empty but before running was reset.
+					running.set(false);
+					if (deltas.isEmpty() || !running.compareAndSet(false, true)) {
+						break;
+					}
+					continue;
+				}
+				Map<Integer, NoGood> noGoods = grounder.getNoGoods(null);
+				results.offer(new GroundingResult(noGoods, grounder.getChoiceAtoms(), grounder.getHeadsToBodies()));
+			}
+		} catch (Throwable t) {
+			failure = t;
+			deltas.clear();
+			running.set(false);
+		} finally {
+			synchronized (idleMonitor) {
+				idleMonitor.notifyAll();
+			}
+		}
+	}
+
+	private void rethrowFailure() {
+		Throwable t = failure;
+		if (t == null) {
+			return;
+		}
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		}
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+		throw oops("Grounding thread failed", (Exception) t);
+	}
+
+	private static class Delta {
+		private final int[] newPositiveAssignments;
+		private final int[] forgottenAtoms;
+
+		private Delta(int[] newPositiveAssignments, int[] forgottenAtoms) {
+			this.newPositiveAssignments = newPositiveAssignments;
+			this.forgottenAtoms = forgottenAtoms;
+		}
+	}
+
+	/**
+	 * Nogoods and choice information obtained from the grounder in one or more grounding steps.
+	 */
+	static class GroundingResult {
+		private final Map<Integer, NoGood> noGoods;
+		private final Map<Integer, Integer> choiceOn;
+		private final Map<Integer, Integer> choiceOff;
+		private final Map<Integer, Set<Integer>> headsToBodies;
+
+		private GroundingResult(Map<Integer, NoGood> noGoods, Pair<Map<Integer, Integer>, Map<Integer, Integer>> choiceAtoms,
+				Map<Integer, Set<Integer>> headsToBodies) {
+			this.noGoods = new LinkedHashMap<>(noGoods);
+			this.choiceOn = new HashMap<>(choiceAtoms.getLeft());
+			this.choiceOff = new HashMap<>(choiceAtoms.getRight());
+			this.headsToBodies = new HashMap<>(headsToBodies);
+		}
+
+		private void add(GroundingResult other) {
+			noGoods.putAll(other.noGoods);
+			choiceOn.putAll(other.choiceOn);
+			choiceOff.putAll(other.choiceOff);
+			for (Map.Entry<Integer, Set<Integer>> entry : other.headsToBodies.entrySet()) {
+				headsToBodies.computeIfAbsent(entry.getKey(), k -> new LinkedHashSet<>()).addAll(entry.getValue());
+			}
+		}
+
+		Map<Integer, NoGood> getNoGoods() {
+			return noGoods;
+		}
+
+		Pair<Map<Integer, Integer>, Map<Integer, Integer>> getChoiceAtoms() {
+			return new ImmutablePair<>(choiceOn, choiceOff);
+		}
+
+		Map<Integer, Set<Integer>> getHeadsToBodies() {
+			return headsToBodies;
+		}
+	}
+
+	private static class ArrayIntIterator implements IntIterator {
+		private final int[] values;
+		private int position;
+
+		ArrayIntIterator(int[] values) {
+			this.values = values;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return position < values.length;
+		}
+
+		@Override
+		public int next() {
+			return values[position++];
+		}
+	}
+}
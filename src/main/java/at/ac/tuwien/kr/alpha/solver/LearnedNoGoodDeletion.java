@@ -1,6 +1,8 @@
 package at.ac.tuwien.kr.alpha.solver;
 
 import at.ac.tuwien.kr.alpha.common.Assignment;
+import at.ac.tuwien.kr.alpha.metrics.jfr.FlightRecorderEvents;
+import at.ac.tuwien.kr.alpha.metrics.jfr.NoGoodDeletionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +10,7 @@
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import static at.ac.tuwien.kr.alpha.common.Literals.atomOf;
 
@@ -53,6 +56,13 @@ void recordLearnedNoGood(WatchedNoGood learnedWatchedNoGood) {
 		learnedNoGoods.add(learnedWatchedNoGood);
 	}
 
+	/**
+	 * Stops considering the given nogoods for deletion, since they have been removed from the store already.
+	 */
+	void forget(Set<WatchedNoGood> removedNoGoods) {
+		learnedNoGoods.removeIf(removedNoGoods::contains);
+	}
+
 	void increaseConflictCounter() {
 		conflictCounter++;
 	}
@@ -73,6 +83,10 @@ void runNoGoodDeletion() {
 		if (originalSize == 0) {
 			return;
 		}
+		NoGoodDeletionEvent deletionEvent = FlightRecorderEvents.newNoGoodDeletionEvent();
+		if (deletionEvent != null) {
+			deletionEvent.begin();
+		}
 		int toDeleteMax = originalSize / 2;
 		long activitySum = 0;
 		for (WatchedNoGood learnedNoGood : learnedNoGoods) {
@@ -98,6 +112,11 @@ void runNoGoodDeletion() {
 		}
 		LOGGER.debug("Removed {} NoGoods from store.", deletedNoGoods);
 		this.numberOfDeletedNoGoods += deletedNoGoods;
+		if (deletionEvent != null && deletionEvent.shouldCommit()) {
+			deletionEvent.setLearnedNoGoods(originalSize);
+			deletionEvent.setDeletedNoGoods(deletedNoGoods);
+			deletionEvent.commit();
+		}
 	}
 
 	private boolean isLocked(WatchedNoGood noGood, Assignment assignment) {
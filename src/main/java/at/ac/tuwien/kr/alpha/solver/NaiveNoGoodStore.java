@@ -142,6 +142,10 @@ public NoGoodCounter getNoGoodCounter() {
 	public void cleanupLearnedNoGoods() {
 	}
 
+	@Override
+	public void removeSatisfiedNoGoods(int[] falseAtomsAtLevelZero) {
+	}
+
 	/**
 	 * Infer an assignment from a nogood if it is weakly unit.
 	 *
@@ -31,7 +31,11 @@
 import at.ac.tuwien.kr.alpha.common.AtomStore;
 import at.ac.tuwien.kr.alpha.common.IntIterator;
 import at.ac.tuwien.kr.alpha.common.NoGood;
+import at.ac.tuwien.kr.alpha.common.atoms.Atom;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
 import at.ac.tuwien.kr.alpha.grounder.Grounder;
+import at.ac.tuwien.kr.alpha.grounder.transformation.AggregateConstraintRewriting;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -427,6 +431,33 @@ private boolean assignmentViolatesNoGoods() {
 				return true;
 			}
 		}
+		return violatesAggregateConstraints();
+	}
+
+	/**
+	 * Checks the aggregate constraints left to the solver by {@link AggregateConstraintRewriting}: the weights of the true
+	 * elements of an aggregate must sum up to less than the bound of each of its true capacity atoms.
+	 */
+	private boolean violatesAggregateConstraints() {
+		Map<Term, Long> trueSums = new HashMap<>();
+		List<Atom> trueCapacities = new ArrayList<>();
+		for (Map.Entry<Integer, Boolean> atomAssignment : truthAssignments.entrySet()) {
+			if (!atomAssignment.getValue()) {
+				continue;
+			}
+			Atom atom = atomStore.get(atomAssignment.getKey());
+			if (atom.getPredicate() == AggregateConstraintRewriting.ELEMENT) {
+				trueSums.merge(atom.getTerms().get(0), (long) (Integer) ((ConstantTerm<?>) atom.getTerms().get(2)).getObject(), Long::sum);
+			} else if (atom.getPredicate() == AggregateConstraintRewriting.CAPACITY) {
+				trueCapacities.add(atom);
+			}
+		}
+		for (Atom capacity : trueCapacities) {
+			if (trueSums.getOrDefault(capacity.getTerms().get(0), 0L) >= (Integer) ((ConstantTerm<?>) capacity.getTerms().get(1)).getObject()) {
+				LOGGER.trace("Violated aggregate constraint: {}", capacity);
+				return true;
+			}
+		}
 		return false;
 	}
 }
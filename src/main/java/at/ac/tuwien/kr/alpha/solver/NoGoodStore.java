@@ -55,4 +55,11 @@ public interface NoGoodStore {
 	void cleanupLearnedNoGoods();
 
 	NoGoodCounter getNoGoodCounter();
+
+	/**
+	 * Removes nogoods that can never be violated again, since they contain a positive literal of an atom that is false
+	 * at decision level 0. A store may keep some of them.
+	 * @param falseAtomsAtLevelZero atoms that became false at decision level 0.
+	 */
+	void removeSatisfiedNoGoods(int[] falseAtomsAtLevelZero);
 }
@@ -31,14 +31,20 @@
 import at.ac.tuwien.kr.alpha.common.NoGood;
 import at.ac.tuwien.kr.alpha.common.NoGoodInterface;
 import at.ac.tuwien.kr.alpha.common.NoGoodInterface.Type;
+import at.ac.tuwien.kr.alpha.metrics.MetricsRegistry;
+import at.ac.tuwien.kr.alpha.metrics.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import static at.ac.tuwien.kr.alpha.Util.arrayGrowthSize;
 import static at.ac.tuwien.kr.alpha.Util.oops;
@@ -84,11 +90,17 @@ public class NoGoodStoreAlphaRoaming implements NoGoodStore, BinaryNoGoodPropaga
 	private boolean hasBinaryNoGoods;
 
 	private final NoGoodCounter counter = new NoGoodCounter();
+	private final Timer noGoodDeletionTimer;
 
-	public NoGoodStoreAlphaRoaming(WritableAssignment assignment, boolean checksEnabled) {
+	public NoGoodStoreAlphaRoaming(WritableAssignment assignment, boolean checksEnabled, MetricsRegistry metrics) {
 		this.assignment = assignment;
 		this.checksEnabled = checksEnabled;
 		this.learnedNoGoodDeletion = new LearnedNoGoodDeletion(this, assignment);
+		this.noGoodDeletionTimer = metrics.timer(MetricsRegistry.NOGOOD_DELETION);
+	}
+
+	public NoGoodStoreAlphaRoaming(WritableAssignment assignment, boolean checksEnabled) {
+		this(assignment, checksEnabled, new MetricsRegistry());
 	}
 
 	public NoGoodStoreAlphaRoaming(WritableAssignment assignment) {
@@ -156,8 +168,53 @@ public NoGoodCounter getNoGoodCounter() {
 	@Override
 	public void cleanupLearnedNoGoods() {
 		if (learnedNoGoodDeletion.needToRunNoGoodDeletion()) {
+			long start = noGoodDeletionTimer.start();
 			learnedNoGoodDeletion.runNoGoodDeletion();
+			noGoodDeletionTimer.stop(start);
+		}
+	}
+
+	/**
+	 * Removes the watched nogoods containing a positive literal of an atom that is false at decision level 0. Such a
+	 * nogood can never be violated or propagate again, since assignments at decision level 0 are never backtracked. Only
+	 * the nogoods watched (or alpha-watched) on such a literal are found, which are all of them unless a watch was moved
+	 * to another satisfied literal. Binary nogoods are kept, they only take up two ints per watch list.
+	 */
+	@Override
+	public void removeSatisfiedNoGoods(int[] falseAtomsAtLevelZero) {
+		Set<WatchedNoGood> satisfiedNoGoods = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (int atom : falseAtomsAtLevelZero) {
+			int literal = atomToLiteral(atom);
+			if (literal >= watches.length) {
+				continue;
+			}
+			satisfiedNoGoods.addAll(watches[literal]);
+			satisfiedNoGoods.addAll(watchesAlpha[literal]);
+			clearOrdinaryWatchList(literal);
+			clearAlphaWatchList(literal);
+		}
+		if (satisfiedNoGoods.isEmpty()) {
+			return;
+		}
+		// Remove the satisfied nogoods from the other lists they are watched in, each list is filtered only once.
+		Set<Integer> otherLiterals = new HashSet<>();
+		Set<Integer> otherAlphaLiterals = new HashSet<>();
+		for (WatchedNoGood satisfiedNoGood : satisfiedNoGoods) {
+			otherLiterals.add(satisfiedNoGood.getLiteral(0));
+			otherLiterals.add(satisfiedNoGood.getLiteral(1));
+			if (satisfiedNoGood.getAlphaPointer() != -1) {
+				otherAlphaLiterals.add(satisfiedNoGood.getLiteralAtAlpha());
+			}
+			counter.remove(satisfiedNoGood);
+		}
+		for (int literal : otherLiterals) {
+			watches(literal).removeIf(satisfiedNoGoods::contains);
+		}
+		for (int literal : otherAlphaLiterals) {
+			watchesAlpha(literal).removeIf(satisfiedNoGoods::contains);
 		}
+		learnedNoGoodDeletion.forget(satisfiedNoGoods);
+		LOGGER.debug("Removed {} nogoods satisfied at decision level 0.", satisfiedNoGoods.size());
 	}
 
 	void removeFromWatches(WatchedNoGood toRemove) {
@@ -30,6 +30,7 @@
 import at.ac.tuwien.kr.alpha.common.AtomStore;
 import at.ac.tuwien.kr.alpha.config.SystemConfig;
 import at.ac.tuwien.kr.alpha.grounder.Grounder;
+import at.ac.tuwien.kr.alpha.metrics.MetricsRegistry;
 import at.ac.tuwien.kr.alpha.solver.heuristics.HeuristicsConfiguration;
 import at.ac.tuwien.kr.alpha.solver.heuristics.HeuristicsConfigurationBuilder;
 
@@ -37,6 +38,22 @@
 
 public final class SolverFactory {
 	public static Solver getInstance(SystemConfig config, AtomStore atomStore, Grounder grounder) {
+		return getInstance(config, atomStore, grounder, new MetricsRegistry());
+	}
+
+	/**
+	 * Creates a solver that records its runtime metrics in the given registry.
+	 */
+	public static Solver getInstance(SystemConfig config, AtomStore atomStore, Grounder grounder, MetricsRegistry metrics) {
+		return getInstance(config, atomStore, grounder, metrics, new CancellationHandle());
+	}
+
+	/**
+	 * Creates a solver that records its runtime metrics in the given registry and stops once the given handle is
+	 * interrupted or the budgets of the given configuration are exceeded.
+	 */
+	public static Solver getInstance(SystemConfig config, AtomStore atomStore, Grounder grounder, MetricsRegistry metrics,
+			CancellationHandle cancellationHandle) {
 		final String solverName = config.getSolverName();
 		final String nogoodStoreName = config.getNogoodStoreName();
 		final Random random = new Random(config.getSeed());
@@ -51,7 +68,7 @@ public static Solver getInstance(SystemConfig config, AtomStore atomStore, Groun
 				store = new NaiveNoGoodStore(assignment);
 				break;
 			case "alpharoaming":
-				store = new NoGoodStoreAlphaRoaming(assignment, debugInternalChecks);
+				store = new NoGoodStoreAlphaRoaming(assignment, debugInternalChecks, metrics);
 				break;
 			default:
 				throw new IllegalArgumentException("Unknown store requested.");
@@ -61,7 +78,7 @@ public static Solver getInstance(SystemConfig config, AtomStore atomStore, Groun
 			case "naive" :
 				return new NaiveSolver(atomStore, grounder);
 			case "default":
-				return new DefaultSolver(atomStore, grounder, store, assignment, random, config, heuristicsConfiguration);
+				return new DefaultSolver(atomStore, grounder, store, assignment, random, config, heuristicsConfiguration, metrics, cancellationHandle);
 		}
 		throw new IllegalArgumentException("Unknown solver requested.");
 	}
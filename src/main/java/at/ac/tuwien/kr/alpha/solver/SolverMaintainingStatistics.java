@@ -46,6 +46,17 @@ public interface SolverMaintainingStatistics {
 	 */
 	int getNumberOfConflictsAfterClosing();
 
+	/**
+	 * @return the number of conflicts encountered during propagation, including those after closing
+	 */
+	int getNumberOfConflicts();
+
+	/**
+	 * @return the time (in nanoseconds) the solver spent waiting for the grounder; with pipelined grounding, this
+	 * excludes the time spent in the grounding thread
+	 */
+	long getGroundingTime();
+
 	NoGoodCounter getNoGoodCounter();
 
 	default String getStatisticsString() {
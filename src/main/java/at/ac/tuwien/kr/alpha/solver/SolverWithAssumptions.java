@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link Solver} that is able to solve under assumptions, i.e., a set of ground literals whose truth values are
+ * fixed for one query. Assumptions are placed as the first decisions of the search, hence all ground nogoods and all
+ * learned nogoods are kept and reused by subsequent queries under different assumptions.
+ *
+ * Note that answer sets enumerated without assumptions (i.e., via {@link #spliterator()}) are excluded permanently,
+ * so solvers used for queries under assumptions should obtain all answer sets via {@link #spliterator(Collection)}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public interface SolverWithAssumptions extends Solver {
+
+	/**
+	 * Starts a new query under the given assumptions. Any search state of a previous query is discarded.
+	 * @param assumptions the ground literals that must hold in all answer sets of the query, a positive literal
+	 *                    requires its atom to be true, a negated literal requires it to be false.
+	 * @return a spliterator over all answer sets satisfying the assumptions.
+	 */
+	Spliterator<AnswerSet> spliterator(Collection<? extends Literal> assumptions);
+
+	/**
+	 * Returns the assumptions responsible for the last query having no answer sets.
+	 * @return a subset of the assumptions of the last query that is unsatisfiable together with the program. The set
+	 *         is empty if the last query has answer sets (or has not been exhausted yet), or if the program is
+	 *         unsatisfiable regardless of any assumptions.
+	 */
+	Set<Literal> getFailedAssumptions();
+
+	default Stream<AnswerSet> stream(Collection<? extends Literal> assumptions) {
+		return StreamSupport.stream(spliterator(assumptions), false);
+	}
+
+	default Set<AnswerSet> collectSet(Collection<? extends Literal> assumptions) {
+		return stream(assumptions).collect(Collectors.toSet());
+	}
+
+	default List<AnswerSet> collectList(Collection<? extends Literal> assumptions) {
+		return stream(assumptions).collect(Collectors.toList());
+	}
+}
@@ -91,7 +91,9 @@ public void decreaseActivity() {
 	private int nextPositionInTrail;
 	private int newAssignmentsPositionInTrail;
 	private int newAssignmentsIterator;
+	private int levelZeroFalseAssignmentsIterator;
 	private int assignmentsForChoicePosition;
+	private int observedTrailSize;
 	private int mbtCount;
 	private boolean checksEnabled;
 	long replayCounter;
@@ -106,8 +108,10 @@ public TrailAssignment(AtomStore atomStore, boolean checksEnabled) {
 		this.trailIndicesOfDecisionLevels.add(0);
 		nextPositionInTrail = 0;
 		newAssignmentsIterator = 0;
+		levelZeroFalseAssignmentsIterator = 0;
 		newAssignmentsPositionInTrail = 0;
 		assignmentsForChoicePosition = 0;
+		observedTrailSize = 0;
 	}
 
 	public TrailAssignment(AtomStore atomStore) {
@@ -129,6 +133,7 @@ public void clear() {
 		trailIndicesOfDecisionLevels.add(0);
 		nextPositionInTrail = 0;
 		newAssignmentsIterator = 0;
+		levelZeroFalseAssignmentsIterator = 0;
 		newAssignmentsPositionInTrail = 0;
 		assignmentsForChoicePosition = 0;
 	}
@@ -271,6 +276,7 @@ private void resetTrailPointersAndReplayOutOfOrderLiterals() {
 		newAssignmentsPositionInTrail = Math.min(newAssignmentsPositionInTrail, trailSize);
 		newAssignmentsIterator = Math.min(newAssignmentsIterator, trailSize);
 		assignmentsForChoicePosition = Math.min(assignmentsForChoicePosition, trailSize);
+		observedTrailSize = Math.min(observedTrailSize, trailSize);
 		replayOutOfOrderLiterals();
 		if (checksEnabled) {
 			runInternalChecks();
@@ -603,6 +609,30 @@ public AssignmentIterator getNewPositiveAssignmentsIterator() {
 		return new AssignmentIterator();
 	}
 
+	@Override
+	public IntIterator getNewFalseAssignmentsAtLevelZeroIterator() {
+		// Assignments at decision level 0 are never backtracked, they form a prefix of the trail that only grows.
+		final int levelZeroEnd = getDecisionLevel() == 0 ? trailSize : trailIndicesOfDecisionLevels.get(1);
+		return new IntIterator() {
+			@Override
+			public boolean hasNext() {
+				while (levelZeroFalseAssignmentsIterator < levelZeroEnd) {
+					int literal = trail[levelZeroFalseAssignmentsIterator];
+					if (isNegated(literal) && getTruth(atomOf(literal)) == FALSE) {
+						return true;
+					}
+					levelZeroFalseAssignmentsIterator++;
+				}
+				return false;
+			}
+
+			@Override
+			public int next() {
+				return atomOf(trail[levelZeroFalseAssignmentsIterator++]);
+			}
+		};
+	}
+
 	@Override
 	public void setChecksEnabled(boolean checksEnabled) {
 		this.checksEnabled = checksEnabled;
@@ -672,6 +702,36 @@ public boolean isEmpty() {
 		}
 	}
 
+	/**
+	 * @return the number of assignments on the trail (atoms assigned MBT and later TRUE occur twice).
+	 */
+	public int getTrailSize() {
+		return trailSize;
+	}
+
+	/**
+	 * Returns the literal at the given position of the trail, with 0 &lt;= position &lt; {@link #getTrailSize()}.
+	 */
+	public int getLiteralOnTrail(int position) {
+		return trail[position];
+	}
+
+	/**
+	 * @return the size of the trail as of the last call to {@link #observeTrail()}, lowered to the size of the remaining
+	 *         trail by any backtracking since. Hence all positions of the trail from the returned one on have been
+	 *         (re-)assigned since the last observation, and all observed assignments at these positions have been undone.
+	 */
+	public int getObservedTrailSize() {
+		return observedTrailSize;
+	}
+
+	/**
+	 * Marks the whole trail as observed, see {@link #getObservedTrailSize()}.
+	 */
+	public void observeTrail() {
+		observedTrailSize = trailSize;
+	}
+
 	public TrailBackwardsWalker getTrailBackwardsWalker() {
 		return new TrailBackwardsWalker();
 	}
@@ -28,6 +28,7 @@
 package at.ac.tuwien.kr.alpha.solver;
 
 import at.ac.tuwien.kr.alpha.common.Assignment;
+import at.ac.tuwien.kr.alpha.common.IntIterator;
 import at.ac.tuwien.kr.alpha.common.NoGood;
 
 import static at.ac.tuwien.kr.alpha.common.Literals.atomOf;
@@ -76,6 +77,13 @@ default ConflictCause assign(int atom, ThriceTruth value) {
 
 	void setCallback(ChoiceManager choiceManager);
 
+	/**
+	 * Returns an iterator over all atoms that have been assigned FALSE at decision level 0 since the iterator was last
+	 * requested. Such atoms remain false for the rest of the search, hence they can be forgotten by the grounder.
+	 * @return an iterator over the newly false atoms at decision level 0.
+	 */
+	IntIterator getNewFalseAssignmentsAtLevelZeroIterator();
+
 	default ConflictCause choose(int atom, boolean value) {
 		return choose(atom, ThriceTruth.valueOf(value));
 	}
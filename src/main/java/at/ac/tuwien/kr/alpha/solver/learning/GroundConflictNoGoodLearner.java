@@ -155,6 +155,43 @@ public ConflictAnalysisResult analyzeConflictFromAddingNoGood(Antecedent violate
 		return new ConflictAnalysisResult(null, removingConflict, Collections.emptyList(), LBD_NO_VALUE);
 	}
 
+	/**
+	 * Computes all decisions from which the current assignment of the given atom has been derived, by following its
+	 * antecedents back through the implication graph. This explains a violated assumption in terms of the
+	 * assumptions (i.e., decisions) involved in the conflict.
+	 * Atoms whose antecedent gives no reasons (e.g., those assigned when closing) are reported like decisions.
+	 *
+	 * @param atom the assigned atom to explain.
+	 * @return the atoms of all decisions above decision level 0 the assignment of the atom depends on.
+	 */
+	public Set<Integer> computeImplyingDecisions(int atom) {
+		LOGGER.trace("Computing decisions implying the assignment of atom {}.", atom);
+		Set<Integer> decisions = new LinkedHashSet<>();
+		Set<Integer> seenAtoms = new HashSet<>();
+		Deque<Integer> atomsToProcess = new ArrayDeque<>();
+		seenAtoms.add(atom);
+		atomsToProcess.push(atom);
+		while (!atomsToProcess.isEmpty()) {
+			int currentAtom = atomsToProcess.pop();
+			if (assignment.getWeakDecisionLevel(currentAtom) == 0) {
+				// Assignments at decision level 0 do not depend on any decision.
+				continue;
+			}
+			Antecedent impliedBy = assignment.getImpliedBy(currentAtom);
+			if (impliedBy == null || impliedBy.getReasonLiterals().length == 0) {
+				decisions.add(currentAtom);
+				continue;
+			}
+			for (int reasonLiteral : impliedBy.getReasonLiterals()) {
+				if (seenAtoms.add(atomOf(reasonLiteral))) {
+					atomsToProcess.push(atomOf(reasonLiteral));
+				}
+			}
+		}
+		LOGGER.trace("Implying decisions are: {}", decisions);
+		return decisions;
+	}
+
 	private int backjumpLevelRemovingConflict(Antecedent violatedNoGood) {
 		int highestDL = 0;
 		int[] reasonLiterals = violatedNoGood.getReasonLiterals();
@@ -45,6 +45,8 @@
 import at.ac.tuwien.kr.alpha.config.InputConfig;
 import at.ac.tuwien.kr.alpha.config.SystemConfig;
 import at.ac.tuwien.kr.alpha.grounder.parser.InlineDirectives;
+import at.ac.tuwien.kr.alpha.metrics.MetricsRegistry;
+import at.ac.tuwien.kr.alpha.solver.InterruptionReason;
 import at.ac.tuwien.kr.alpha.test.util.TestUtils;
 import org.junit.Assert;
 import org.junit.Ignore;
@@ -57,7 +59,12 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -66,6 +73,8 @@
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class AlphaTest {
 	private static int invocations;
@@ -497,6 +506,107 @@ public void problematicRun_3col_1119718541727902_sorted_400() throws IOException
 		assertFalse(system.solve(prog).sorted().limit(400).collect(Collectors.toList()).isEmpty());
 	}
 
+	/**
+	 * Independent {@link Alpha} instances do not share session state, hence they can solve concurrently. The program
+	 * relies on enumeration indices, which were held globally before.
+	 */
+	@Test
+	public void independentInstancesSolveConcurrently() throws Exception {
+		final String program = "# enumeration_predicate_is enum."
+				+ "dom(a). dom(b). dom(c). dom(d). dom(e)."
+				+ "pos(T, P) :- dom(T), enum(id, T, P)."
+				+ "clash :- pos(T1, P), pos(T2, P), T1 != T2."
+				+ "maxpos(P) :- pos(_, P), not higher(P)."
+				+ "higher(P) :- pos(_, P), pos(_, Q), Q > P.";
+		final int sessions = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(sessions);
+		try {
+			List<Future<Set<AnswerSet>>> results = new ArrayList<>();
+			for (int i = 0; i < sessions; i++) {
+				results.add(executor.submit((Callable<Set<AnswerSet>>) () -> {
+					Set<AnswerSet> answerSets = new HashSet<>();
+					for (int run = 0; run < 20; run++) {
+						Alpha system = new Alpha();
+						answerSets.addAll(system.solve(system.readProgramString(program), p -> p.getName().equals("clash") || p.getName().equals("maxpos"))
+								.collect(Collectors.toSet()));
+					}
+					return answerSets;
+				}));
+			}
+			Set<AnswerSet> expected = AnswerSetsParser.parse("{ maxpos(5) }");
+			for (Future<Set<AnswerSet>> result : results) {
+				assertEquals(expected, result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void metricsAfterSolving() throws Exception {
+		Alpha system = new Alpha();
+		List<AnswerSet> answerSets = system.solve(system.readProgramString("a :- not b. b :- not a. c :- a. c :- b.")).collect(Collectors.toList());
+		MetricsRegistry metrics = system.getMetrics();
+		assertEquals(2, answerSets.size());
+		assertEquals(1, metrics.timer(MetricsRegistry.PARSE).getCount());
+		assertTrue(metrics.timer(MetricsRegistry.GROUNDING).getCount() > 0);
+		assertTrue(metrics.timer(MetricsRegistry.PROPAGATION).getCount() > 0);
+		assertEquals(2, metrics.counter(MetricsRegistry.ANSWER_SETS).get());
+		assertTrue(metrics.sampleGauge(MetricsRegistry.ATOMS) > 0);
+		assertTrue(metrics.sampleGauge(MetricsRegistry.NOGOODS) > 0);
+		assertTrue(metrics.sampleGauge(MetricsRegistry.CHOICES) > 0);
+	}
+
+	private static final String PIGEON_HOLE_PROGRAM = "pigeon(1..9). hole(1..8). "
+			+ "in(P, H) :- pigeon(P), hole(H), not not_in(P, H). not_in(P, H) :- pigeon(P), hole(H), not in(P, H). "
+			+ ":- in(P, H1), in(P, H2), H1 != H2. placed(P) :- in(P, H). :- pigeon(P), not placed(P). "
+			+ ":- in(P1, H), in(P2, H), P1 != P2.";
+
+	@Test
+	public void conflictBudget() throws Exception {
+		SystemConfig cfg = new SystemConfig();
+		cfg.setBudgetConflicts(1);
+		Alpha system = new Alpha(cfg);
+		assertEquals(0, system.solve(system.readProgramString(PIGEON_HOLE_PROGRAM)).count());
+		assertEquals(InterruptionReason.CONFLICTS, system.getInterruptionReason());
+	}
+
+	@Test
+	public void decisionBudget() throws Exception {
+		SystemConfig cfg = new SystemConfig();
+		cfg.setBudgetDecisions(3);
+		Alpha system = new Alpha(cfg);
+		assertEquals(0, system.solve(system.readProgramString(PIGEON_HOLE_PROGRAM)).count());
+		assertEquals(InterruptionReason.DECISIONS, system.getInterruptionReason());
+	}
+
+	@Test(timeout = 10000)
+	public void wallTimeBudget() throws Exception {
+		SystemConfig cfg = new SystemConfig();
+		cfg.setBudgetWallTimeMillis(100);
+		Alpha system = new Alpha(cfg);
+		assertEquals(0, system.solve(system.readProgramString(PIGEON_HOLE_PROGRAM)).count());
+		assertEquals(InterruptionReason.WALL_TIME, system.getInterruptionReason());
+	}
+
+	@Test
+	public void cancelBeforeSolving() throws Exception {
+		Alpha system = new Alpha();
+		Stream<AnswerSet> answerSets = system.solve(system.readProgramString("a :- not b. b :- not a."));
+		system.cancel();
+		assertEquals(0, answerSets.count());
+		assertEquals(InterruptionReason.CANCELLED, system.getInterruptionReason());
+	}
+
+	@Test
+	public void noInterruptionWithinBudget() throws Exception {
+		SystemConfig cfg = new SystemConfig();
+		cfg.setBudgetConflicts(1000);
+		Alpha system = new Alpha(cfg);
+		assertEquals(2, system.solve(system.readProgramString("a :- not b. b :- not a.")).count());
+		assertNull(system.getInterruptionReason());
+	}
+
 	private void problematicRun(String program, long seed, int limit) throws IOException {
 		final Path base = Paths.get("src", "test", "resources", "PreviouslyProblematic");
 		SystemConfig cfg = new SystemConfig();
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.benchmark;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BenchmarkComparisonTest {
+
+	private static BenchmarkResult result(String instance, double wallTimeMs) {
+		return new BenchmarkResult(instance, "default", 0, 1, wallTimeMs, 0, 0, 0, 0, 0, 0, 0);
+	}
+
+	@Test
+	public void comparesMedianWallTimes() {
+		List<BenchmarkResult> baseline = Arrays.asList(result("a", 100), result("a", 300), result("a", 110), result("b", 50), result("b", 70));
+		List<BenchmarkResult> current = Arrays.asList(result("a", 105), result("a", 120), result("a", 108), result("b", 80), result("b", 60));
+		BenchmarkComparison comparison = new BenchmarkComparison(baseline, current, 0.1);
+		assertEquals(2, comparison.getEntries().size());
+		BenchmarkComparison.Entry a = comparison.getEntries().get(0);
+		assertEquals(110, a.getBaselineMedianMs(), 0);
+		assertEquals(108, a.getCurrentMedianMs(), 0);
+		assertFalse(a.isRegression());
+		BenchmarkComparison.Entry b = comparison.getEntries().get(1);
+		assertEquals(60, b.getBaselineMedianMs(), 0);
+		assertEquals(70, b.getCurrentMedianMs(), 0);
+		assertTrue(b.isRegression());
+		assertTrue(comparison.hasRegressions());
+	}
+
+	@Test
+	public void slowdownWithinThresholdIsNoRegression() {
+		BenchmarkComparison comparison = new BenchmarkComparison(Arrays.asList(result("a", 100)), Arrays.asList(result("a", 109)), 0.1);
+		assertFalse(comparison.hasRegressions());
+	}
+
+	@Test
+	public void unmatchedResultsAreReportedButNotRegressions() {
+		BenchmarkComparison comparison = new BenchmarkComparison(Arrays.asList(result("a", 100)), Arrays.asList(result("b", 1000)), 0);
+		assertEquals(2, comparison.getEntries().size());
+		assertTrue(comparison.getEntries().get(0).toString().startsWith("NEW"));
+		assertTrue(comparison.getEntries().get(1).toString().startsWith("MISSING"));
+		assertFalse(comparison.hasRegressions());
+	}
+}
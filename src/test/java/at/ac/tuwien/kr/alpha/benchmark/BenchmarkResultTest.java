@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.benchmark;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class BenchmarkResultTest {
+
+	private static final BenchmarkResult RESULT = new BenchmarkResult("enc.lp+inst \"1\", 2.lp", "heuristic=VSIDS;stratifiedEvaluation=false", 2, 1,
+			123.4567, 45.5, 12.25, 100, 7, 2000, 5, 1L << 33);
+
+	private static void assertSameResult(BenchmarkResult expected, BenchmarkResult actual) {
+		assertEquals(expected.toCsv(), actual.toCsv());
+		assertEquals(expected.getInstance(), actual.getInstance());
+		assertEquals(expected.getConfiguration(), actual.getConfiguration());
+		assertEquals(expected.getPeakHeapBytes(), actual.getPeakHeapBytes());
+		assertEquals(123.457, actual.getWallTimeMs(), 0);
+	}
+
+	@Test
+	public void csvRoundTrip() {
+		assertSameResult(RESULT, BenchmarkResult.fromCsv(RESULT.toCsv()));
+	}
+
+	@Test
+	public void jsonRoundTrip() {
+		assertSameResult(RESULT, BenchmarkResult.fromJson(RESULT.toJson()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void malformedCsv() {
+		BenchmarkResult.fromCsv("a,b,1,1,x,1,1,1,1,1,1,1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void jsonWithMissingField() {
+		BenchmarkResult.fromJson("{\"instance\": \"a\"}");
+	}
+
+	@Test
+	public void writeAndReadFiles() throws IOException {
+		List<BenchmarkResult> results = Arrays.asList(RESULT, new BenchmarkResult("a.lp", "default", 0, 0, 1, 0, 0, -1, -1, -1, -1, 0));
+		for (ResultFormat format : ResultFormat.values()) {
+			Path file = Files.createTempFile("alpha-benchmark-results", "." + format.name().toLowerCase());
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			format.write(results, new PrintStream(out, true, "UTF-8"));
+			Files.write(file, out.toByteArray());
+			assertEquals(format, ResultFormat.forFile(file));
+			List<BenchmarkResult> read = ResultFormat.read(file);
+			Files.delete(file);
+			assertEquals(results.size(), read.size());
+			for (int i = 0; i < results.size(); i++) {
+				assertEquals(results.get(i).toCsv(), read.get(i).toCsv());
+			}
+		}
+	}
+}
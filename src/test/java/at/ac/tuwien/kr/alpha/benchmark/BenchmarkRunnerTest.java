@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.benchmark;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BenchmarkRunnerTest {
+
+	@Test
+	public void runsMatrixWithRepetitions() throws IOException {
+		Path directory = Files.createTempDirectory("alpha-test-benchmark");
+		Path encoding = directory.resolve("encoding.lp");
+		Path instance = directory.resolve("instance.lp");
+		Path suiteFile = directory.resolve("suite.properties");
+		Files.write(encoding, Arrays.asList("a(X) :- n(X), not b(X).", "b(X) :- n(X), not a(X).", "c :- a(1), a(2)."), StandardCharsets.UTF_8);
+		Files.write(instance, Arrays.asList("n(1). n(2)."), StandardCharsets.UTF_8);
+		Files.write(suiteFile, Arrays.asList(
+				BenchmarkSuite.INSTANCES + " = encoding.lp + instance.lp",
+				BenchmarkSuite.WARMUP + " = 1",
+				BenchmarkSuite.REPETITIONS + " = 2",
+				BenchmarkSuite.ANSWER_SETS + " = 0",
+				BenchmarkSuite.HEURISTIC + " = VSIDS, NAIVE"), StandardCharsets.UTF_8);
+
+		List<BenchmarkResult> results = new BenchmarkRunner(BenchmarkSuite.read(suiteFile)).run();
+
+		assertEquals(4, results.size());
+		for (BenchmarkResult result : results) {
+			assertEquals("encoding.lp+instance.lp", result.getInstance());
+			assertEquals(4, result.getAnswerSets());
+			assertTrue(result.getWallTimeMs() >= result.getPreprocessingTimeMs());
+			assertTrue(result.getChoices() > 0);
+			assertTrue(result.getNoGoods() > 0);
+			assertTrue(result.getPeakHeapBytes() > 0);
+		}
+		assertEquals("heuristic=VSIDS", results.get(0).getConfiguration());
+		assertEquals(1, results.get(1).getRepetition());
+		assertEquals("heuristic=NAIVE", results.get(3).getConfiguration());
+
+		Files.delete(suiteFile);
+		Files.delete(instance);
+		Files.delete(encoding);
+		Files.delete(directory);
+	}
+}
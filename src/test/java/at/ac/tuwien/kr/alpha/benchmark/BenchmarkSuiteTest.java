@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.benchmark;
+
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.solver.heuristics.BranchingHeuristicFactory.Heuristic;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BenchmarkSuiteTest {
+
+	private static final Path BASE_DIRECTORY = Paths.get("benchmarks");
+
+	private static Properties properties(String... keysAndValues) {
+		Properties properties = new Properties();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return properties;
+	}
+
+	@Test
+	public void defaultsWithoutMatrix() {
+		BenchmarkSuite suite = BenchmarkSuite.parse(properties(BenchmarkSuite.INSTANCES, "a.lp"), BASE_DIRECTORY);
+		assertEquals(1, suite.getInstances().size());
+		assertEquals(Arrays.asList(BASE_DIRECTORY.resolve("a.lp")), suite.getInstances().get(0).getFiles());
+		assertEquals(BenchmarkSuite.DEFAULT_WARMUP, suite.getWarmup());
+		assertEquals(BenchmarkSuite.DEFAULT_REPETITIONS, suite.getRepetitions());
+		assertEquals(BenchmarkSuite.DEFAULT_ANSWER_SETS, suite.getAnswerSets());
+		assertEquals(1, suite.getConfigurations().size());
+		BenchmarkSuite.Configuration configuration = suite.getConfigurations().get(0);
+		assertEquals("default", configuration.getName());
+		SystemConfig systemConfig = configuration.toSystemConfig();
+		assertEquals(SystemConfig.DEFAULT_BRANCHING_HEURISTIC, systemConfig.getBranchingHeuristic());
+		assertEquals(BenchmarkSuite.DEFAULT_SEED, systemConfig.getSeed());
+	}
+
+	@Test
+	public void instanceWithSeveralFiles() {
+		BenchmarkSuite suite = BenchmarkSuite.parse(properties(BenchmarkSuite.INSTANCES, "enc.lp + inst1.lp, enc.lp+inst2.lp"), BASE_DIRECTORY);
+		assertEquals(2, suite.getInstances().size());
+		assertEquals("enc.lp+inst1.lp", suite.getInstances().get(0).getName());
+		assertEquals(Arrays.asList(BASE_DIRECTORY.resolve("enc.lp"), BASE_DIRECTORY.resolve("inst2.lp")), suite.getInstances().get(1).getFiles());
+	}
+
+	@Test
+	public void matrixIsExpandedToAllCombinations() {
+		BenchmarkSuite suite = BenchmarkSuite.parse(properties(
+				BenchmarkSuite.INSTANCES, "a.lp",
+				BenchmarkSuite.HEURISTIC, "VSIDS, BERKMIN, NAIVE",
+				BenchmarkSuite.STRATIFIED_EVALUATION, "true,false",
+				BenchmarkSuite.SEED, "42"), BASE_DIRECTORY);
+		assertEquals(6, suite.getConfigurations().size());
+		BenchmarkSuite.Configuration last = suite.getConfigurations().get(5);
+		assertEquals("heuristic=NAIVE;stratifiedEvaluation=false", last.getName());
+		SystemConfig systemConfig = last.toSystemConfig();
+		assertEquals(Heuristic.NAIVE, systemConfig.getBranchingHeuristic());
+		assertFalse(systemConfig.isEvaluateStratifiedPart());
+		assertEquals(42, systemConfig.getSeed());
+		assertTrue(suite.getConfigurations().get(0).toSystemConfig().isEvaluateStratifiedPart());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void missingInstances() {
+		BenchmarkSuite.parse(properties(BenchmarkSuite.REPETITIONS, "1"), BASE_DIRECTORY);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownKey() {
+		BenchmarkSuite.parse(properties(BenchmarkSuite.INSTANCES, "a.lp", "heuristics", "VSIDS"), BASE_DIRECTORY);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownHeuristic() {
+		BenchmarkSuite.parse(properties(BenchmarkSuite.INSTANCES, "a.lp", BenchmarkSuite.HEURISTIC, "FOO"), BASE_DIRECTORY);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidGrounderTolerance() {
+		BenchmarkSuite.parse(properties(BenchmarkSuite.INSTANCES, "a.lp", BenchmarkSuite.GROUNDER_TOLERANCE_RULES, "lenient"), BASE_DIRECTORY);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroRepetitions() {
+		BenchmarkSuite.parse(properties(BenchmarkSuite.INSTANCES, "a.lp", BenchmarkSuite.REPETITIONS, "0"), BASE_DIRECTORY);
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common;
+
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests {@link AlphaContext}.
+ */
+public class AlphaContextTest {
+
+	@Test
+	public void anonymousVariablesAreFresh() {
+		AlphaContext context = new AlphaContext();
+		assertNotEquals(context.newAnonymousVariable(), context.newAnonymousVariable());
+	}
+
+	@Test
+	public void enumerationIndicesArePerIdentifier() {
+		AlphaContext context = new AlphaContext();
+		ConstantTerm<String> id = ConstantTerm.getInstance("id");
+		ConstantTerm<String> otherId = ConstantTerm.getInstance("otherId");
+		assertEquals(1, context.getEnumerationIndex(id, ConstantTerm.getInstance("a")));
+		assertEquals(2, context.getEnumerationIndex(id, ConstantTerm.getInstance("b")));
+		assertEquals(1, context.getEnumerationIndex(id, ConstantTerm.getInstance("a")));
+		assertEquals(1, context.getEnumerationIndex(otherId, ConstantTerm.getInstance("b")));
+	}
+
+	@Test
+	public void enumerationIndicesArePerContext() {
+		AlphaContext first = new AlphaContext();
+		AlphaContext second = new AlphaContext();
+		ConstantTerm<String> id = ConstantTerm.getInstance("id");
+		first.getEnumerationIndex(id, ConstantTerm.getInstance("a"));
+		assertEquals(1, second.getEnumerationIndex(id, ConstantTerm.getInstance("b")));
+		assertEquals(2, first.getEnumerationIndex(id, ConstantTerm.getInstance("b")));
+	}
+
+	@Test
+	public void resetEnumerationsRestartsNumbering() {
+		AlphaContext context = new AlphaContext();
+		ConstantTerm<String> id = ConstantTerm.getInstance("id");
+		context.getEnumerationIndex(id, ConstantTerm.getInstance("a"));
+		context.resetEnumerations();
+		assertEquals(1, context.getEnumerationIndex(id, ConstantTerm.getInstance("b")));
+	}
+}
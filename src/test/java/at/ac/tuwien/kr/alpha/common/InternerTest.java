@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests {@link Interner}.
+ */
+public class InternerTest {
+
+	@Test
+	public void equalObjectsAreInternedToSameInstance() {
+		Interner<String> interner = new Interner<>();
+		String first = new String("alpha");
+		String second = new String("alpha");
+		assertNotSame(first, second);
+		assertSame(first, interner.intern(first));
+		assertSame(first, interner.intern(second));
+		assertEquals(1, interner.size());
+	}
+
+	@Test
+	public void concurrentInterningYieldsCanonicalInstances() throws Exception {
+		final Interner<String> interner = new Interner<>();
+		final int threads = 4;
+		final int values = 2000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<String[]>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit((Callable<String[]>) () -> {
+					String[] interned = new String[values];
+					for (int i = 0; i < values; i++) {
+						interned[i] = interner.intern(new String("v" + i));
+					}
+					return interned;
+				}));
+			}
+			String[] expected = futures.get(0).get();
+			for (Future<String[]> future : futures) {
+				String[] actual = future.get();
+				for (int i = 0; i < values; i++) {
+					assertSame(expected[i], actual[i]);
+				}
+			}
+			assertEquals(values, interner.size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
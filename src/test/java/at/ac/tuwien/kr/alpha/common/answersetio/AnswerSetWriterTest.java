@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common.answersetio;
+
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.AnswerSetBuilder;
+import at.ac.tuwien.kr.alpha.common.SimpleAnswerSetFormatter;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class AnswerSetWriterTest {
+
+	private static final AnswerSet ANSWER_SET = new AnswerSetBuilder().predicate("p").instance("a").instance("b").predicate("q").instance(1, 2)
+			.predicate("r").build();
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+	private String output() {
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void textEqualsFormatter() throws IOException {
+		AnswerSetWriter writer = AnswerSetWriter.getInstance(AnswerSetWriter.Format.TEXT, Channels.newChannel(out), ", ");
+		writer.accept(1, ANSWER_SET);
+		writer.writeResult("SATISFIABLE");
+		String expected = "Answer set 1:" + System.lineSeparator() + new SimpleAnswerSetFormatter(", ").format(ANSWER_SET) + System.lineSeparator()
+				+ "SATISFIABLE" + System.lineSeparator();
+		assertEquals(expected, output());
+	}
+
+	@Test
+	public void ndjson() throws IOException {
+		AnswerSetWriter writer = AnswerSetWriter.getInstance(AnswerSetWriter.Format.NDJSON, Channels.newChannel(out), ", ");
+		writer.accept(1, ANSWER_SET);
+		writer.writeResult("SATISFIABLE");
+		assertEquals("{\"answerSet\":1,\"atoms\":[\"p(\\\"a\\\")\",\"p(\\\"b\\\")\",\"q(1, 2)\",\"r\"]}\n{\"result\":\"SATISFIABLE\"}\n", output());
+	}
+
+	@Test
+	public void binary() throws IOException {
+		AnswerSetWriter writer = AnswerSetWriter.getInstance(AnswerSetWriter.Format.BINARY, Channels.newChannel(out), ", ");
+		writer.accept(7, ANSWER_SET);
+		writer.writeResult("SATISFIABLE");
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(BinaryAnswerSetWriter.ANSWER_SET_RECORD, in.readByte());
+		assertEquals(7, in.readInt());
+		assertEquals(4, in.readInt());
+		assertEquals("p(\"a\")", readString(in));
+		assertEquals("p(\"b\")", readString(in));
+		assertEquals("q(1, 2)", readString(in));
+		assertEquals("r", readString(in));
+		assertEquals(BinaryAnswerSetWriter.RESULT_RECORD, in.readByte());
+		assertEquals("SATISFIABLE", readString(in));
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	public void answerSetLargerThanBuffer() {
+		AnswerSetBuilder builder = new AnswerSetBuilder().predicate("p");
+		for (int i = 0; i < 50_000; i++) {
+			builder.instance(i);
+		}
+		AnswerSet answerSet = builder.build();
+		AnswerSetWriter writer = AnswerSetWriter.getInstance(AnswerSetWriter.Format.TEXT, Channels.newChannel(out), " ");
+		writer.accept(1, answerSet);
+		assertEquals("Answer set 1:" + System.lineSeparator() + new SimpleAnswerSetFormatter(" ").format(answerSet) + System.lineSeparator(), output());
+	}
+
+	@Test
+	public void nonAsciiCharacters() {
+		AnswerSet answerSet = new AnswerSetBuilder().predicate("p").instance("äöü€😀").build();
+		AnswerSetWriter writer = AnswerSetWriter.getInstance(AnswerSetWriter.Format.TEXT, Channels.newChannel(out), ", ");
+		writer.accept(1, answerSet);
+		assertEquals("Answer set 1:" + System.lineSeparator() + "{ p(\"äöü€😀\") }" + System.lineSeparator(), output());
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
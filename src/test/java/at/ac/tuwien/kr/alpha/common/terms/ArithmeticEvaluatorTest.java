@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.common.terms;
+
+import at.ac.tuwien.kr.alpha.common.terms.ArithmeticTerm.ArithmeticOperator;
+import at.ac.tuwien.kr.alpha.common.terms.ArithmeticTerm.MinusTerm;
+import at.ac.tuwien.kr.alpha.grounder.Substitution;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class ArithmeticEvaluatorTest {
+
+	private static final VariableTerm X = VariableTerm.getInstance("X");
+	private static final VariableTerm Y = VariableTerm.getInstance("Y");
+
+	private static Substitution substitution(Term x, Term y) {
+		Substitution substitution = new Substitution();
+		substitution.put(X, x);
+		substitution.put(Y, y);
+		return substitution;
+	}
+
+	@Test
+	public void evaluatesNestedTerms() {
+		// (X + 3) * Y - -X
+		Term term = ArithmeticTerm.getInstance(
+			ArithmeticTerm.getInstance(ArithmeticTerm.getInstance(X, ArithmeticOperator.PLUS, ConstantTerm.getInstance(3)), ArithmeticOperator.TIMES, Y),
+			ArithmeticOperator.MINUS, MinusTerm.getInstance(X));
+		ArithmeticEvaluator evaluator = ArithmeticEvaluator.compile(term);
+		assertEquals(22, evaluator.evaluate(substitution(ConstantTerm.getInstance(2), ConstantTerm.getInstance(4))));
+		assertEquals(-14, evaluator.evaluate(substitution(ConstantTerm.getInstance(-2), ConstantTerm.getInstance(-12))));
+	}
+
+	@Test
+	public void evaluatesAllOperators() {
+		Substitution substitution = substitution(ConstantTerm.getInstance(7), ConstantTerm.getInstance(2));
+		assertEquals(3, ArithmeticEvaluator.compile(ArithmeticTerm.getInstance(X, ArithmeticOperator.DIV, Y)).evaluate(substitution));
+		assertEquals(1, ArithmeticEvaluator.compile(ArithmeticTerm.getInstance(X, ArithmeticOperator.MODULO, Y)).evaluate(substitution));
+		assertEquals(49, ArithmeticEvaluator.compile(ArithmeticTerm.getInstance(X, ArithmeticOperator.POWER, Y)).evaluate(substitution));
+		assertEquals(5, ArithmeticEvaluator.compile(ArithmeticTerm.getInstance(X, ArithmeticOperator.BITXOR, Y)).evaluate(substitution));
+	}
+
+	@Test
+	public void nonIntegerTermsYieldNoResult() {
+		ArithmeticEvaluator evaluator = ArithmeticEvaluator.compile(ArithmeticTerm.getInstance(X, ArithmeticOperator.PLUS, Y));
+		assertNull(evaluator.evaluateToTerm(substitution(ConstantTerm.getSymbolicInstance("a"), ConstantTerm.getInstance(1))));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void overflowIsDetected() {
+		ArithmeticEvaluator evaluator = ArithmeticEvaluator.compile(ArithmeticTerm.getInstance(X, ArithmeticOperator.TIMES, Y));
+		evaluator.evaluate(substitution(ConstantTerm.getInstance(65536), ConstantTerm.getInstance(65536)));
+	}
+
+	@Test
+	public void intermediateResultsMayExceedIntegers() {
+		// X * Y / Y with X * Y not fitting into an integer.
+		Term term = ArithmeticTerm.getInstance(ArithmeticTerm.getInstance(X, ArithmeticOperator.TIMES, Y), ArithmeticOperator.DIV, Y);
+		assertEquals(65536, ArithmeticEvaluator.compile(term).evaluate(substitution(ConstantTerm.getInstance(65536), ConstantTerm.getInstance(65536))));
+	}
+
+	@Test
+	public void smallIntegersAreCanonical() {
+		assertSame(ConstantTerm.getInstance(42), ConstantTerm.getInstance(Integer.valueOf(42)));
+		assertSame(ConstantTerm.getInstance(1 << 20), ConstantTerm.getInstance(Integer.valueOf(1 << 20)));
+		ArithmeticEvaluator evaluator = ArithmeticEvaluator.compile(ArithmeticTerm.getInstance(X, ArithmeticOperator.PLUS, Y));
+		assertSame(ConstantTerm.getInstance(5), evaluator.evaluateToTerm(substitution(ConstantTerm.getInstance(2), ConstantTerm.getInstance(3))));
+	}
+}
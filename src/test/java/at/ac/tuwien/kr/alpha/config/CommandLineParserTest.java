@@ -27,6 +27,7 @@
  */
 package at.ac.tuwien.kr.alpha.config;
 
+import at.ac.tuwien.kr.alpha.common.answersetio.AnswerSetWriter;
 import org.apache.commons.cli.ParseException;
 import org.junit.Assert;
 import org.junit.Test;
@@ -149,6 +150,41 @@ public void noInstanceRemoval() throws ParseException {
 		assertTrue(alphaConfig.getSystemConfig().isGrounderAccumulatorEnabled());
 	}
 
+	@Test
+	public void lazyConstraints() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig alphaConfig = parser.parseCommandLine(new String[]{"-str", "aString.", "-lzc"});
+		assertTrue(alphaConfig.getSystemConfig().isGrounderLazyConstraintsEnabled());
+	}
+
+	@Test
+	public void compiledJoins() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig alphaConfig = parser.parseCommandLine(new String[]{"-str", "aString.", "-cj"});
+		assertTrue(alphaConfig.getSystemConfig().isGrounderCompiledJoinsEnabled());
+	}
+
+	@Test
+	public void verifyNoGoodsByDefault() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig alphaConfig = parser.parseCommandLine(new String[]{"-str", "aString."});
+		assertTrue(alphaConfig.getSystemConfig().isGrounderVerifyNoGoodsEnabled());
+	}
+
+	@Test
+	public void disableNoGoodVerification() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig alphaConfig = parser.parseCommandLine(new String[]{"-str", "aString.", "-dvng"});
+		Assert.assertFalse(alphaConfig.getSystemConfig().isGrounderVerifyNoGoodsEnabled());
+	}
+
+	@Test
+	public void pipelinedGrounding() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig alphaConfig = parser.parseCommandLine(new String[]{"-str", "aString.", "-pg"});
+		assertTrue(alphaConfig.getSystemConfig().isGroundingPipelined());
+	}
+
 	@Test
 	public void disableStratifiedEval() throws ParseException {
 		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
@@ -163,6 +199,13 @@ public void disableStratifiedEvalLongOpt() throws ParseException {
 		Assert.assertFalse(ctx.getSystemConfig().isEvaluateStratifiedPart());
 	}
 
+	@Test
+	public void disableDatalogMode() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig ctx = parser.parseCommandLine(new String[]{"-str", "aString.", "-ddm"});
+		Assert.assertFalse(ctx.getSystemConfig().isDatalogMode());
+	}
+
 	@Test
 	public void atomSeparator() throws ParseException {
 		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
@@ -170,4 +213,80 @@ public void atomSeparator() throws ParseException {
 		assertEquals("some-string", cfg.getSystemConfig().getAtomSeparator());
 	}
 
+	@Test
+	public void server() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig cfg = parser.parseCommandLine(new String[]{"-str", "aString.", "-srv", "4711", "-srvs", "3"});
+		assertTrue(cfg.getInputConfig().isServerMode());
+		assertEquals("4711", cfg.getInputConfig().getServerEndpoint());
+		assertEquals(3, cfg.getInputConfig().getServerSessions());
+	}
+
+	@Test
+	public void serverOnStdio() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig cfg = parser.parseCommandLine(new String[]{"-str", "aString.", "--server", "stdio"});
+		assertEquals(InputConfig.SERVER_STDIO, cfg.getInputConfig().getServerEndpoint());
+	}
+
+	@Test(expected = ParseException.class)
+	public void serverInvalidEndpoint() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		parser.parseCommandLine(new String[]{"-str", "aString.", "-srv", "somewhere"});
+	}
+
+	@Test
+	public void profileRules() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig alphaConfig = parser.parseCommandLine(new String[]{"-str", "aString.", "--profileRules"});
+		assertTrue(alphaConfig.getSystemConfig().isProfileRules());
+	}
+
+	@Test
+	public void nativeAggregateConstraints() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig alphaConfig = parser.parseCommandLine(new String[]{"-str", "aString.", "--nativeAggregateConstraints"});
+		assertTrue(alphaConfig.getSystemConfig().isNativeAggregateConstraints());
+	}
+
+	@Test
+	public void budgets() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig alphaConfig = parser.parseCommandLine(new String[]{"-str", "aString.", "--budgetTime", "5000", "--budgetConflicts", "100",
+				"--budgetDecisions", "200", "--budgetNoGoods", "300", "--budgetHeap", "512"});
+		SystemConfig systemConfig = alphaConfig.getSystemConfig();
+		assertEquals(5000, systemConfig.getBudgetWallTimeMillis());
+		assertEquals(100, systemConfig.getBudgetConflicts());
+		assertEquals(200, systemConfig.getBudgetDecisions());
+		assertEquals(300, systemConfig.getBudgetNoGoods());
+		assertEquals(512, systemConfig.getBudgetHeapMegabytes());
+	}
+
+	@Test(expected = ParseException.class)
+	public void invalidBudget() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		parser.parseCommandLine(new String[]{"-str", "aString.", "--budgetConflicts", "0"});
+	}
+
+	@Test
+	public void answerSetFormat() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig cfg = parser.parseCommandLine(new String[]{"-str", "aString.", "-af", "ndjson"});
+		assertEquals(AnswerSetWriter.Format.NDJSON, cfg.getInputConfig().getAnswerSetFormat());
+	}
+
+	@Test(expected = ParseException.class)
+	public void unknownAnswerSetFormat() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		parser.parseCommandLine(new String[]{"-str", "aString.", "--answerSetFormat", "xml"});
+	}
+
+	@Test
+	public void writeMetrics() throws ParseException {
+		CommandLineParser parser = new CommandLineParser(DEFAULT_COMMAND_LINE, DEFAULT_ABORT_ACTION);
+		AlphaConfig cfg = parser.parseCommandLine(new String[]{"-str", "aString.", "-wm", "run.json"});
+		assertTrue(cfg.getInputConfig().isWriteMetrics());
+		assertEquals("run.json", cfg.getInputConfig().getMetricsPath());
+	}
+
 }
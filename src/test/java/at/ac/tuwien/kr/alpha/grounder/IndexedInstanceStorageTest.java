@@ -31,7 +31,11 @@
 import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -91,4 +95,28 @@ public void testIndexedInstanceStorage() {
 		assertEquals(matching1.size(), 0);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void snapshotIsUnaffectedByLaterModifications() {
+		IndexedInstanceStorage storage = new IndexedInstanceStorage(Predicate.getInstance("p", 1), true);
+		storage.addIndexPosition(0);
+		Instance inst1 = new Instance(ConstantTerm.getInstance("1"));
+		Instance inst2 = new Instance(ConstantTerm.getInstance("2"));
+		storage.addInstance(inst1);
+		Set<Instance> snapshot = storage.getInstancesSnapshot();
+		storage.markRecentlyAddedInstancesDone();
+		storage.addInstance(inst1);
+		storage.addInstance(inst2);
+		assertEquals(Collections.singleton(inst1), snapshot);
+		assertEquals(new HashSet<>(Arrays.asList(inst1, inst2)), storage.getAllInstances());
+		storage.markRecentlyAddedInstancesDone();
+		storage.removeInstance(inst1);
+		assertEquals(Collections.singleton(inst1), snapshot);
+		assertEquals(Collections.singleton(inst2), storage.getAllInstances());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void snapshotIsReadOnly() {
+		IndexedInstanceStorage storage = new IndexedInstanceStorage(Predicate.getInstance("p", 1), true);
+		storage.getInstancesSnapshot().add(new Instance(ConstantTerm.getInstance("1")));
+	}
+}
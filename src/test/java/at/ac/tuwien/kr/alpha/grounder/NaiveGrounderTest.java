@@ -26,6 +26,7 @@
 package at.ac.tuwien.kr.alpha.grounder;
 
 import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.AlphaContext;
 import at.ac.tuwien.kr.alpha.common.Assignment;
 import at.ac.tuwien.kr.alpha.common.AtomStore;
 import at.ac.tuwien.kr.alpha.common.AtomStoreImpl;
@@ -406,6 +407,152 @@ private void testPermissiveGrounderHeuristicTolerance(InputProgram program, int
 		}
 	}
 
+	@Test
+	public void testLazyConstraintIsPassedOnOnlyWhenUnit() {
+		testLazyConstraintInstantiation(true);
+	}
+
+	@Test
+	public void testEagerConstraintIsPassedOnImmediately() {
+		testLazyConstraintInstantiation(false);
+	}
+
+	/**
+	 * Grounds the constraint {@code :- a(1), b(1), c(1).} with permissive grounder heuristics, once with and once without
+	 * lazy instantiation of constraints. In lazy mode, the constraint must only be passed on after {@code b(1)} has been
+	 * assigned true, i.e., once it is unit.
+	 */
+	private void testLazyConstraintInstantiation(boolean lazy) {
+		InputProgram program = PROGRAM_PARSER.parse("a(1). "
+				+ ":- a(X), b(X), c(X). "
+				+ "b(X) :- something(X). "
+				+ "c(X) :- something(X). ");
+		Alpha system = new Alpha();
+		system.getConfig().setEvaluateStratifiedPart(false);
+		InternalProgram internalPrg = InternalProgram.fromNormalProgram(system.normalizeProgram(program));
+		AtomStore atomStore = new AtomStoreImpl();
+		TrailAssignment currentAssignment = new TrailAssignment(atomStore);
+		GrounderHeuristicsConfiguration heuristicsConfiguration = GrounderHeuristicsConfiguration.permissive();
+		heuristicsConfiguration.setLazyConstraintsEnabled(lazy);
+		NaiveGrounder grounder = (NaiveGrounder) GrounderFactory.getInstance("naive", internalPrg, atomStore, p -> true, heuristicsConfiguration, true);
+
+		Map<Integer, NoGood> noGoods = grounder.getNoGoods(currentAssignment);
+		int b = atomStore.get(atom("b", 1));
+		int c = atomStore.get(atom("c", 1));
+		assertEquals(!lazy, containsNoGoodWith(noGoods.values(), Literals.atomToLiteral(b), Literals.atomToLiteral(c)));
+
+		assign(currentAssignment, new int[]{b}, new ThriceTruth[]{TRUE});
+		grounder.updateAssignment(currentAssignment.getNewPositiveAssignmentsIterator());
+		noGoods = grounder.getNoGoods(currentAssignment);
+		assertEquals(lazy, containsNoGoodWith(noGoods.values(), Literals.atomToLiteral(b), Literals.atomToLiteral(c)));
+	}
+
+	@Test
+	public void testForgottenAtomIsNotJoined() {
+		testForgetAssignment(true);
+	}
+
+	@Test
+	public void testRememberedAtomIsJoined() {
+		testForgetAssignment(false);
+	}
+
+	/**
+	 * Adds {@code b(1)} and later {@code d(1)} to the working memory of a grounder in accumulator mode, such that the rule
+	 * {@code c(X) :- a(X), b(X), d(X).} is grounded once both are present, unless {@code b(1)} has been forgotten in between.
+	 */
+	private void testForgetAssignment(boolean forget) {
+		InputProgram program = PROGRAM_PARSER.parse("a(1). "
+				+ "c(X) :- a(X), b(X), d(X). "
+				+ "b(X) :- something(X). "
+				+ "d(X) :- something(X). ");
+		Alpha system = new Alpha();
+		system.getConfig().setEvaluateStratifiedPart(false);
+		InternalProgram internalPrg = InternalProgram.fromNormalProgram(system.normalizeProgram(program));
+		AtomStore atomStore = new AtomStoreImpl();
+		TrailAssignment currentAssignment = new TrailAssignment(atomStore);
+		GrounderHeuristicsConfiguration heuristicsConfiguration = GrounderHeuristicsConfiguration.strict();
+		heuristicsConfiguration.setAccumulatorEnabled(true);
+		NaiveGrounder grounder = (NaiveGrounder) GrounderFactory.getInstance("naive", internalPrg, atomStore, p -> true, heuristicsConfiguration, true);
+		grounder.getNoGoods(currentAssignment);
+
+		int b = atomStore.putIfAbsent(atom("b", 1));
+		int d = atomStore.putIfAbsent(atom("d", 1));
+		addAtomsToWorkingMemoryWithoutChangingTheAssignment(atomStore, grounder, new int[]{b});
+		grounder.getNoGoods(currentAssignment);
+		if (forget) {
+			grounder.forgetAssignment(new int[]{b});
+			grounder.getNoGoods(currentAssignment);
+		}
+
+		addAtomsToWorkingMemoryWithoutChangingTheAssignment(atomStore, grounder, new int[]{d});
+		Map<Integer, NoGood> noGoods = grounder.getNoGoods(currentAssignment);
+		assertEquals(!forget, containsNoGoodWith(noGoods.values(), Literals.atomToLiteral(b), Literals.atomToLiteral(d)));
+	}
+
+	/**
+	 * Forgets {@code b(1)} while {@code b(2)} is new in the same storage and cancels grounding, which must neither remove
+	 * {@code b(1)} from the storage holding the unprocessed {@code b(2)} nor drop the pending removal.
+	 */
+	@Test
+	public void cancellingGroundingKeepsForgottenAtomsPending() {
+		InputProgram program = PROGRAM_PARSER.parse("a(1). a(2). "
+				+ "c(X) :- a(X), b(X), d(X). "
+				+ "b(X) :- something(X). "
+				+ "d(X) :- something(X). ");
+		Alpha system = new Alpha();
+		system.getConfig().setEvaluateStratifiedPart(false);
+		InternalProgram internalPrg = InternalProgram.fromNormalProgram(system.normalizeProgram(program));
+		AtomStore atomStore = new AtomStoreImpl();
+		TrailAssignment currentAssignment = new TrailAssignment(atomStore);
+		GrounderHeuristicsConfiguration heuristicsConfiguration = GrounderHeuristicsConfiguration.strict();
+		heuristicsConfiguration.setAccumulatorEnabled(true);
+		AlphaContext context = new AlphaContext();
+		NaiveGrounder grounder = (NaiveGrounder) GrounderFactory.getInstance("naive", internalPrg, atomStore, p -> true, heuristicsConfiguration, context, true);
+		grounder.getNoGoods(currentAssignment);
+
+		int b1 = atomStore.putIfAbsent(atom("b", 1));
+		int b2 = atomStore.putIfAbsent(atom("b", 2));
+		addAtomsToWorkingMemoryWithoutChangingTheAssignment(atomStore, grounder, new int[]{b1});
+		grounder.getNoGoods(currentAssignment);
+
+		grounder.forgetAssignment(new int[]{b1});
+		addAtomsToWorkingMemoryWithoutChangingTheAssignment(atomStore, grounder, new int[]{b2});
+		context.getCancellationHandle().cancel();
+		assertTrue(grounder.getNoGoods(currentAssignment).isEmpty());
+		assertTrue(grounder.getNoGoods(currentAssignment).isEmpty());
+
+		IndexedInstanceStorage storage = grounder.workingMemory.get(atom("b", 1), true);
+		assertTrue(storage.containsInstance(new Instance(ConstantTerm.getInstance(1))));
+		assertEquals(Collections.singletonList(new Instance(ConstantTerm.getInstance(2))), storage.getRecentlyAddedInstances());
+	}
+
+	@Test
+	public void learnedNoGoodsAreNotRetainedByRegistry() {
+		Alpha system = new Alpha();
+		InternalProgram internalPrg = InternalProgram.fromNormalProgram(system.normalizeProgram(PROGRAM_PARSER.parse("a.")));
+		NaiveGrounder grounder = (NaiveGrounder) GrounderFactory.getInstance("naive", internalPrg, new AtomStoreImpl(), true);
+		NoGood staticNoGood = new NoGood(Literals.atomToLiteral(1), Literals.atomToNegatedLiteral(2));
+		assertEquals(grounder.register(staticNoGood), grounder.register(staticNoGood));
+		NoGood learnedNoGood = NoGood.learnt(Literals.atomToLiteral(1), Literals.atomToNegatedLiteral(3));
+		assertTrue(grounder.register(learnedNoGood) != grounder.register(learnedNoGood));
+	}
+
+	private boolean containsNoGoodWith(Collection<NoGood> noGoods, int literal1, int literal2) {
+		for (NoGood noGood : noGoods) {
+			boolean found1 = false;
+			boolean found2 = false;
+			for (int literalInNoGood : noGood) {
+				found1 |= literalInNoGood == literal1;
+				found2 |= literalInNoGood == literal2;
+			}
+			if (found1 && found2) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Assigns {@code truthValues} to atoms {@code atomIDs} in {@code currentAssignment}.
 	 */
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder;
+
+import at.ac.tuwien.kr.alpha.common.NoGood;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static at.ac.tuwien.kr.alpha.common.Literals.atomToLiteral;
+import static at.ac.tuwien.kr.alpha.common.Literals.atomToNegatedLiteral;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link NogoodRegistry}.
+ */
+public class NogoodRegistryTest {
+
+	@Test
+	public void registeringSameNoGoodTwiceYieldsSameId() {
+		NogoodRegistry registry = new NogoodRegistry();
+		int id = registry.register(new NoGood(atomToLiteral(1), atomToNegatedLiteral(2)));
+		// Literals are sorted by the NoGood constructor, hence the order does not matter.
+		assertEquals(id, registry.register(new NoGood(atomToNegatedLiteral(2), atomToLiteral(1))));
+		assertEquals(1, registry.size());
+	}
+
+	@Test
+	public void distinctNoGoodsYieldDistinctIds() {
+		NogoodRegistry registry = new NogoodRegistry();
+		int first = registry.register(new NoGood(atomToLiteral(1), atomToLiteral(2)));
+		int second = registry.register(new NoGood(atomToLiteral(1), atomToNegatedLiteral(2)));
+		int third = registry.register(new NoGood(atomToLiteral(1)));
+		assertNotEquals(first, second);
+		assertNotEquals(first, third);
+		assertNotEquals(second, third);
+		assertEquals(3, registry.size());
+	}
+
+	@Test
+	public void headIsDistinguished() {
+		NogoodRegistry registry = new NogoodRegistry();
+		registry.register(NoGood.headFirst(atomToNegatedLiteral(1), atomToLiteral(2)));
+		assertFalse(registry.isRegistered(new NoGood(atomToNegatedLiteral(1), atomToLiteral(2))));
+		assertTrue(registry.isRegistered(NoGood.headFirst(atomToNegatedLiteral(1), atomToLiteral(2))));
+	}
+
+	@Test
+	public void differenceContainsOnlyNewNoGoods() {
+		NogoodRegistry registry = new NogoodRegistry();
+		NoGood known = new NoGood(atomToLiteral(1), atomToLiteral(2));
+		NoGood fresh = new NoGood(atomToLiteral(3), atomToLiteral(4));
+		int knownId = registry.register(known);
+		Map<Integer, NoGood> difference = new HashMap<>();
+		registry.register(Arrays.asList(known, fresh, fresh), difference);
+		assertEquals(1, difference.size());
+		assertEquals(fresh, difference.values().iterator().next());
+		assertFalse(difference.containsKey(knownId));
+	}
+
+	@Test
+	public void manyNoGoodsKeepTheirIds() {
+		manyNoGoodsKeepTheirIds(new NogoodRegistry());
+	}
+
+	@Test
+	public void manyNoGoodsKeepTheirIdsWithoutVerification() {
+		manyNoGoodsKeepTheirIds(new NogoodRegistry(false));
+	}
+
+	private void manyNoGoodsKeepTheirIds(NogoodRegistry registry) {
+		final int count = 20000;
+		int[] ids = new int[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = registry.register(noGoodOfLength(i));
+		}
+		for (int i = 0; i < count; i++) {
+			assertEquals(ids[i], registry.register(noGoodOfLength(i)));
+		}
+		assertEquals(count, registry.size());
+	}
+
+	private static NoGood noGoodOfLength(int i) {
+		int[] literals = new int[1 + i % 7];
+		for (int j = 0; j < literals.length; j++) {
+			literals[j] = atomToLiteral(i + j + 1, (i + j) % 2 == 0);
+		}
+		return new NoGood(literals);
+	}
+
+	@Test
+	public void idsAreGeneratedPerRegistry() {
+		NoGood noGood = new NoGood(atomToLiteral(1), atomToLiteral(2));
+		assertEquals(new NogoodRegistry().register(noGood), new NogoodRegistry().register(noGood));
+	}
+
+	@Test
+	public void learnedNoGoodsAreNotRetained() {
+		NogoodRegistry registry = new NogoodRegistry();
+		NoGood learnt = NoGood.learnt(atomToLiteral(1), atomToLiteral(2));
+		assertNotEquals(registry.register(learnt), registry.register(learnt));
+		assertFalse(registry.isRegistered(learnt));
+	}
+
+	@Test
+	public void averageNoGoodLength() {
+		NogoodRegistry registry = new NogoodRegistry();
+		registry.register(new NoGood(atomToLiteral(1)));
+		registry.register(new NoGood(atomToLiteral(1), atomToLiteral(2), atomToLiteral(3)));
+		assertEquals(2.0f, registry.computeAverageNoGoodLength(), 0.0f);
+	}
+}
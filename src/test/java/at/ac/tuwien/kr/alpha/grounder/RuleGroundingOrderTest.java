@@ -36,9 +36,12 @@
 import java.io.IOException;
 
 import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
 import at.ac.tuwien.kr.alpha.common.atoms.Literal;
 import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
 import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
 import at.ac.tuwien.kr.alpha.grounder.parser.ProgramPartParser;
 
 /**
@@ -151,6 +154,36 @@ public void testPositionFromWhichAllVarsAreBound_joinedNonGround() {
 		assertTrue(1 <= rgo0.orderStartingFrom(litDXZ).getPositionFromWhichAllVarsAreBound());
 	}
 
+	@Test
+	public void costBasedGroundingOrderJoinsSmallRelationFirst() {
+		String aspStr = "h(X) :- p(X), q(X,Y), s(X,Y), not t(X).";
+		Alpha system = new Alpha();
+		system.getConfig().setEvaluateStratifiedPart(false);
+		InternalProgram internalPrg = InternalProgram.fromNormalProgram(system.normalizeProgram(system.readProgramString(aspStr)));
+		RuleGroundingOrders rgo0 = computeGroundingOrdersForRule(internalPrg, 0);
+		final Literal litPX = PROGRAM_PART_PARSER.parseLiteral("p(X)");
+
+		WorkingMemory workingMemory = new WorkingMemory();
+		for (Literal literal : internalPrg.getRules().get(0).getBody()) {
+			workingMemory.initialize(literal.getPredicate());
+		}
+		// Each of the 10 instances of p joins with 100 instances of q, but only 5 of them join with an instance of s at all.
+		for (int x = 0; x < 10; x++) {
+			workingMemory.addInstance(new BasicAtom(Predicate.getInstance("p", 1), ConstantTerm.getInstance(x)), true);
+			for (int y = 0; y < 100; y++) {
+				workingMemory.addInstance(new BasicAtom(Predicate.getInstance("q", 2), ConstantTerm.getInstance(x), ConstantTerm.getInstance(y)), true);
+			}
+		}
+		for (int x = 0; x < 5; x++) {
+			workingMemory.addInstance(new BasicAtom(Predicate.getInstance("s", 2), ConstantTerm.getInstance(x), ConstantTerm.getInstance(x)), true);
+		}
+
+		assertEquals("p(X) : q(X, Y), | s(X, Y), not t(X)", rgo0.orderStartingFrom(litPX).toString());
+		assertEquals("p(X) : s(X, Y), | q(X, Y), not t(X)", rgo0.computeCostBasedGroundingOrder(litPX, workingMemory).toString());
+		// Precomputed grounding orders are left as they are.
+		assertEquals("p(X) : q(X, Y), | s(X, Y), not t(X)", rgo0.orderStartingFrom(litPX).toString());
+	}
+
 	private RuleGroundingOrders computeGroundingOrdersForRule(InternalProgram program, int ruleIndex) {
 		InternalRule rule = program.getRules().get(ruleIndex);
 		RuleGroundingOrders rgo = new RuleGroundingOrders(rule);
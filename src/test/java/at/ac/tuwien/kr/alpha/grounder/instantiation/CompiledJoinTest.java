@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder.instantiation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.grounder.RuleGroundingOrder;
+import at.ac.tuwien.kr.alpha.grounder.RuleGroundingOrders;
+import at.ac.tuwien.kr.alpha.grounder.Substitution;
+import at.ac.tuwien.kr.alpha.grounder.WorkingMemory;
+
+/**
+ * Tests {@link CompiledJoin}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class CompiledJoinTest {
+
+	private static final Predicate P = Predicate.getInstance("p", 2);
+	private static final Predicate Q = Predicate.getInstance("q", 2);
+
+	@Test
+	public void joinWithComparison() {
+		RuleGroundingOrder groundingOrder = groundingOrderStartingFrom("h(X,Z) :- p(X,Y), q(Y,Z), X < Z.", P);
+		WorkingMemory workingMemory = new WorkingMemory();
+		workingMemory.initialize(P);
+		workingMemory.initialize(Q);
+		workingMemory.addInstance(atom(P, 1, 2), true);
+		workingMemory.addInstance(atom(Q, 2, 0), true);
+		workingMemory.addInstance(atom(Q, 2, 3), true);
+		workingMemory.addInstance(atom(Q, 2, 5), true);
+		workingMemory.addInstance(atom(Q, 4, 9), true);
+		LiteralInstantiationStrategy strategy = new WorkingMemoryBasedInstantiationStrategy(workingMemory);
+		Substitution partialSubstitution = Substitution.specializeSubstitution(groundingOrder.getStartingLiteral(),
+				workingMemory.get(P, true).getAllInstances().iterator().next(), Substitution.EMPTY_SUBSTITUTION);
+
+		CompiledJoin join = CompiledJoin.compile(groundingOrder, partialSubstitution.getMappedVariables(), workingMemory,
+				new LiteralInstantiator(strategy), strategy);
+		assertNotNull(join);
+		BindingResult result = new BindingResult();
+		join.join(partialSubstitution, result);
+		Set<Substitution> expected = new HashSet<>(Arrays.asList(
+				Substitution.fromString("{X->1,Y->2,Z->3}"),
+				Substitution.fromString("{X->1,Y->2,Z->5}")));
+		assertEquals(expected, new HashSet<>(result.getGeneratedSubstitutions()));
+	}
+
+	@Test
+	public void unboundComparisonIsNotCompiled() {
+		RuleGroundingOrder groundingOrder = groundingOrderStartingFrom("h(X) :- p(X,Y), X < Y.", P);
+		WorkingMemory workingMemory = new WorkingMemory();
+		workingMemory.initialize(P);
+		LiteralInstantiationStrategy strategy = new WorkingMemoryBasedInstantiationStrategy(workingMemory);
+		// Without the variables of the starting literal being bound, the comparison would have to be pushed back.
+		assertNull(CompiledJoin.compile(groundingOrder, Collections.emptySet(), workingMemory, new LiteralInstantiator(strategy), strategy));
+	}
+
+	@Test
+	public void sameAnswerSetsAsWithoutCompiledJoins() {
+		assertSameAnswerSets("n(1..5). s(X,Y,Z) :- n(X), n(Y), Z = X + Y, Z < 6, n(Z).");
+		assertSameAnswerSets("e(1,2). e(2,3). e(3,4). e(4,1). t(X,Y) :- e(X,Y). t(X,Z) :- t(X,Y), e(Y,Z).");
+		assertSameAnswerSets("e(f(1,a)). e(f(2,b)). g(X,Y) :- e(f(X,Y)), X > 1. p(g(X)) :- g(X,_). r(X) :- p(g(X)).");
+		assertSameAnswerSets("r(2). r(3). q(X,Y) :- r(Y), X = 1..Y.");
+		assertSameAnswerSets("node(1..4). edge(1,2). edge(2,3). edge(3,4). edge(4,1)."
+				+ "col(N,red) :- node(N), not col(N,green), not col(N,blue)."
+				+ "col(N,green) :- node(N), not col(N,red), not col(N,blue)."
+				+ "col(N,blue) :- node(N), not col(N,red), not col(N,green)."
+				+ ":- edge(N,M), col(N,C), col(M,C).");
+		assertSameAnswerSets("d(1..3). { a(X) : d(X) }. :- a(X), a(Y), X < Y. b(X) :- a(X), not c(X), d(Y), Y = X + 1. c(3).");
+	}
+
+	private static void assertSameAnswerSets(String program) {
+		assertEquals(solve(program, false), solve(program, true));
+	}
+
+	private static Set<AnswerSet> solve(String program, boolean compiledJoins) {
+		SystemConfig config = new SystemConfig();
+		config.setEvaluateStratifiedPart(false);
+		config.setGrounderCompiledJoinsEnabled(compiledJoins);
+		Alpha system = new Alpha(config);
+		return system.solve(system.readProgramString(program)).collect(Collectors.toSet());
+	}
+
+	private static RuleGroundingOrder groundingOrderStartingFrom(String rule, Predicate startingPredicate) {
+		Alpha system = new Alpha();
+		system.getConfig().setEvaluateStratifiedPart(false);
+		InternalProgram program = InternalProgram.fromNormalProgram(system.normalizeProgram(system.readProgramString(rule)));
+		InternalRule internalRule = program.getRules().get(0);
+		RuleGroundingOrders groundingOrders = new RuleGroundingOrders(internalRule);
+		groundingOrders.computeGroundingOrders();
+		for (Literal literal : groundingOrders.getStartingLiterals()) {
+			if (literal.getPredicate().equals(startingPredicate)) {
+				return groundingOrders.orderStartingFrom(literal);
+			}
+		}
+		throw new AssertionError("No grounding order starting from " + startingPredicate);
+	}
+
+	private static BasicAtom atom(Predicate predicate, int... values) {
+		return new BasicAtom(predicate, Arrays.stream(values).mapToObj(ConstantTerm::getInstance).collect(Collectors.toList()));
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder.instantiation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.Test;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.grounder.Substitution;
+import at.ac.tuwien.kr.alpha.grounder.WorkingMemory;
+
+/**
+ * Tests {@link HashJoin}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class HashJoinTest {
+
+	private static final Predicate Q = Predicate.getInstance("q", 2);
+	private static final VariableTerm X = VariableTerm.getInstance("X");
+	private static final VariableTerm Y = VariableTerm.getInstance("Y");
+	private static final VariableTerm Z = VariableTerm.getInstance("Z");
+
+	@Test
+	public void sameSubstitutionsAsLiteralInstantiator() {
+		WorkingMemory workingMemory = workingMemoryWithQ();
+		List<Substitution> batch = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			batch.add(Substitution.fromString("{X->" + i + ",Y->" + (i % 3) + "}"));
+		}
+		assertSameAsLiteralInstantiator(workingMemory, new BasicAtom(Q, Y, Z).toLiteral(), batch);
+		assertSameAsLiteralInstantiator(workingMemory, new BasicAtom(Q, Y, Y).toLiteral(), batch);
+		assertSameAsLiteralInstantiator(workingMemory, new BasicAtom(Q, Z, X).toLiteral(), batch);
+		assertSameAsLiteralInstantiator(workingMemory, new BasicAtom(Q, Z, ConstantTerm.getInstance(2)).toLiteral(), batch);
+		assertSameAsLiteralInstantiator(workingMemory, new BasicAtom(Q, X, Y).toLiteral(), batch);
+	}
+
+	@Test
+	public void partialSubstitutionsBindingDifferentVariables() {
+		WorkingMemory workingMemory = workingMemoryWithQ();
+		List<Substitution> batch = Arrays.asList(
+				Substitution.fromString("{Y->1}"),
+				Substitution.fromString("{X->0}"),
+				Substitution.fromString("{X->2,Y->2}"));
+		assertSameAsLiteralInstantiator(workingMemory, new BasicAtom(Q, Y, X).toLiteral(), batch);
+	}
+
+	@Test
+	public void onlyPositiveBasicLiteralsAreApplicable() {
+		assertTrue(HashJoin.isApplicable(new BasicAtom(Q, X, Y).toLiteral()));
+		assertFalse(HashJoin.isApplicable(new BasicAtom(Q, X, Y).toLiteral(false)));
+	}
+
+	@Test
+	public void sameAnswerSetsAsWithoutStratifiedEvaluation() {
+		assertSameAnswerSets("e(1..30,1..3). t(X,Y) :- e(X,Y). t(X,Z) :- t(X,Y), e(Y,Z).");
+		assertSameAnswerSets("n(1..20). p(X,Y) :- n(X), n(Y), X < Y. q(X,Z) :- p(X,Y), p(Y,Z), not n(Z), n(X). r(X) :- p(X,X).");
+		assertSameAnswerSets("n(1..12). m(f(X),X) :- n(X). s(X,Y) :- m(f(X),X), m(f(Y),Y), n(Z), Z = X + Y.");
+	}
+
+	private static void assertSameAsLiteralInstantiator(WorkingMemory workingMemory, Literal literal, List<Substitution> batch) {
+		LiteralInstantiator instantiator = new LiteralInstantiator(new WorkingMemoryBasedInstantiationStrategy(workingMemory));
+		Set<Substitution> expected = new HashSet<>();
+		for (Substitution partialSubstitution : batch) {
+			LiteralInstantiationResult result = instantiator.instantiateLiteral(literal, partialSubstitution);
+			if (result.getType() == LiteralInstantiationResult.Type.CONTINUE) {
+				for (ImmutablePair<Substitution, AssignmentStatus> substitution : result.getSubstitutions()) {
+					expected.add(substitution.left);
+				}
+			}
+		}
+		List<Substitution> actual = HashJoin.join(literal, batch, workingMemory.get(Q, true));
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, new HashSet<>(actual));
+	}
+
+	private static void assertSameAnswerSets(String program) {
+		assertEquals(solve(program, false), solve(program, true));
+	}
+
+	private static Set<AnswerSet> solve(String program, boolean evaluateStratified) {
+		SystemConfig config = new SystemConfig();
+		config.setEvaluateStratifiedPart(evaluateStratified);
+		Alpha system = new Alpha(config);
+		return system.solve(system.readProgramString(program)).collect(Collectors.toSet());
+	}
+
+	private static WorkingMemory workingMemoryWithQ() {
+		WorkingMemory workingMemory = new WorkingMemory();
+		workingMemory.initialize(Q);
+		for (int i = 0; i < 4; i++) {
+			for (int j = 0; j < 4; j++) {
+				if ((i + j) % 2 == 0) {
+					workingMemory.addInstance(new BasicAtom(Q, ConstantTerm.getInstance(i), ConstantTerm.getInstance(j)), true);
+				}
+			}
+		}
+		return workingMemory;
+	}
+}
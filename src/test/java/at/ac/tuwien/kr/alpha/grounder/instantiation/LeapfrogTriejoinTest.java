@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.grounder.instantiation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
+import at.ac.tuwien.kr.alpha.common.terms.FunctionTerm;
+import at.ac.tuwien.kr.alpha.common.terms.Term;
+import at.ac.tuwien.kr.alpha.common.terms.VariableTerm;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.grounder.Instance;
+import at.ac.tuwien.kr.alpha.grounder.Substitution;
+
+/**
+ * Tests {@link LeapfrogTriejoin}.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class LeapfrogTriejoinTest {
+
+	private static final Predicate E = Predicate.getInstance("e", 2);
+	private static final VariableTerm X = VariableTerm.getInstance("X");
+	private static final VariableTerm Y = VariableTerm.getInstance("Y");
+	private static final VariableTerm Z = VariableTerm.getInstance("Z");
+
+	@Test
+	public void cyclicBodiesAreApplicable() {
+		assertTrue(LeapfrogTriejoin.isApplicable(Arrays.asList(edge(X, Y), edge(Y, Z), edge(Z, X))));
+		assertTrue(LeapfrogTriejoin.isApplicable(Arrays.asList(edge(X, Y), edge(Y, Z), edge(Z, X), edge(X, ConstantTerm.getInstance(1)))));
+	}
+
+	@Test
+	public void acyclicBodiesAreNotApplicable() {
+		VariableTerm w = VariableTerm.getInstance("W");
+		assertFalse(LeapfrogTriejoin.isApplicable(Arrays.asList(edge(X, Y), edge(Y, Z))));
+		assertFalse(LeapfrogTriejoin.isApplicable(Arrays.asList(edge(X, Y), edge(Y, Z), edge(Z, w))));
+		assertFalse(LeapfrogTriejoin.isApplicable(Arrays.asList(edge(X, Y), edge(X, Z), edge(X, w))));
+		assertFalse(LeapfrogTriejoin.isApplicable(Arrays.asList(edge(X, Y), edge(Y, X), edge(X, Y))));
+	}
+
+	@Test
+	public void unsupportedLiteralsAreNotApplicable() {
+		Term function = FunctionTerm.getInstance("f", X);
+		assertFalse(LeapfrogTriejoin.isApplicable(Arrays.asList(edge(X, Y), edge(Y, Z), edge(Z, function))));
+		assertFalse(LeapfrogTriejoin.isApplicable(Arrays.asList(edge(X, Y), edge(Y, Z), edge(Z, X), edge(Z, Z))));
+		assertFalse(LeapfrogTriejoin.isApplicable(Arrays.asList(edge(X, Y), edge(Y, Z), new BasicAtom(E, Z, X).toLiteral(false))));
+	}
+
+	@Test
+	public void triangles() {
+		List<Instance> edges = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			for (int j = 0; j < 12; j++) {
+				if (i != j && (i * j) % 3 != 1) {
+					edges.add(new Instance(ConstantTerm.getInstance(i), ConstantTerm.getInstance(j)));
+				}
+			}
+		}
+		List<Literal> triangle = Arrays.asList(edge(X, Y), edge(Y, Z), edge(Z, X));
+		Set<Substitution> expected = new HashSet<>();
+		for (Instance first : edges) {
+			for (Instance second : edges) {
+				for (Instance third : edges) {
+					if (first.terms.get(1) == second.terms.get(0) && second.terms.get(1) == third.terms.get(0) && third.terms.get(1) == first.terms.get(0)) {
+						expected.add(Substitution.fromString("{X->" + first.terms.get(0) + ",Y->" + second.terms.get(0) + ",Z->" + third.terms.get(0) + "}"));
+					}
+				}
+			}
+		}
+		List<Collection<Instance>> relations = Arrays.asList(edges, edges, edges);
+		List<Substitution> actual = new LeapfrogTriejoin(triangle, Arrays.asList(Z, X, Y)).join(relations);
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, new HashSet<>(actual));
+	}
+
+	@Test
+	public void constantsRestrictRelations() {
+		List<Instance> edges = Arrays.asList(instance(1, 2), instance(2, 3), instance(3, 1), instance(2, 1), instance(1, 3));
+		List<Literal> literals = Arrays.asList(edge(X, Y), edge(Y, Z), edge(Z, X), edge(ConstantTerm.getInstance(2), Y));
+		List<Substitution> actual = new LeapfrogTriejoin(literals, Arrays.asList(X, Y, Z)).join(Arrays.asList(edges, edges, edges, edges));
+		assertEquals(new HashSet<>(Arrays.asList(Substitution.fromString("{X->2,Y->3,Z->1}"), Substitution.fromString("{X->3,Y->1,Z->2}"))),
+				new HashSet<>(actual));
+	}
+
+	@Test
+	public void sameAnswerSetsAsWithoutStratifiedEvaluation() {
+		assertSameAnswerSets("n(1..15). e(X,Y) :- n(X), n(Y), X < Y, (X + Y) \\ 3 != 1. e(X,Y) :- n(X), n(Y), Y = X - 4."
+				+ "tri(X,Y,Z) :- e(X,Y), e(Y,Z), e(Z,X).");
+		assertSameAnswerSets("n(1..9). e(X,Y) :- n(X), n(Y), Y = (X * 4) \\ 9. e(X,Y) :- n(X), n(Y), Y = (X * 2) \\ 9."
+				+ "r(X,Y) :- e(X,Y). r(X,Z) :- r(X,Y), r(Y,Z), e(Z,X), X != Z."
+				+ "c(X,Y,Z,W) :- r(X,Y), r(Y,Z), r(Z,W), r(W,X), r(X,Z), not e(X,W), W > 2.");
+		assertSameAnswerSets("n(1..8). e(X,Y) :- n(X), n(Y), Y = (X * 3) \\ 8. :- e(X,Y), e(Y,Z), e(Z,X), X < Y, Y < Z.");
+	}
+
+	@Test
+	public void sameAnswerSetsWhenBootstrappingFromFacts() {
+		// The copy of e is derived, hence the grounder does not join the second program by Leapfrog Triejoin.
+		String facts = "e(1,2). e(2,3). e(3,1). e(2,4). e(4,1). e(3,4). e(4,2). n(1..4). copy(X,Y) :- e(X,Y).";
+		String cyclic = "{ b(X) } :- n(X). tri(X,Y,Z) :- e(X,Y), e(Y,Z), e(Z,X), not b(X), X < Z.";
+		String acyclic = "{ b(X) } :- n(X). tri(X,Y,Z) :- e(X,Y), e(Y,Z), copy(Z,X), not b(X), X < Z.";
+		assertEquals(solve(facts + cyclic, false), solve(facts + acyclic, false));
+		assertEquals(solve(facts + cyclic, true), solve(facts + acyclic, false));
+	}
+
+	private static void assertSameAnswerSets(String program) {
+		assertEquals(solve(program, false), solve(program, true));
+	}
+
+	private static Set<AnswerSet> solve(String program, boolean evaluateStratified) {
+		SystemConfig config = new SystemConfig();
+		config.setEvaluateStratifiedPart(evaluateStratified);
+		Alpha system = new Alpha(config);
+		return system.solve(system.readProgramString(program)).collect(Collectors.toSet());
+	}
+
+	private static Literal edge(Term source, Term target) {
+		return new BasicAtom(E, source, target).toLiteral();
+	}
+
+	private static Instance instance(int source, int target) {
+		return new Instance(ConstantTerm.getInstance(source), ConstantTerm.getInstance(target));
+	}
+}
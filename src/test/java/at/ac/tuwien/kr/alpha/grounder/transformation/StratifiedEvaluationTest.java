@@ -50,7 +50,9 @@
 import at.ac.tuwien.kr.alpha.common.program.InputProgram;
 import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
 import at.ac.tuwien.kr.alpha.common.program.NormalProgram;
+import at.ac.tuwien.kr.alpha.common.program.PartiallyEvaluatedProgram;
 import at.ac.tuwien.kr.alpha.common.program.Programs;
+import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
 import at.ac.tuwien.kr.alpha.common.terms.ConstantTerm;
 import at.ac.tuwien.kr.alpha.config.InputConfig;
 import at.ac.tuwien.kr.alpha.grounder.Instance;
@@ -273,4 +275,119 @@ public void testRecursiveRanking() {
 		Assert.assertTrue(evaluatedFacts.contains(rank3));
 	}
 
+	@Test
+	public void testStratifiedAggregatesAreEvaluatedDirectly() {
+		String asp = "p(1..5). w(a,3). w(b,4). w(c,-2).\n"
+				+ "c(N) :- p(N), N <= #count{ X : p(X) }.\n"
+				+ "s :- 5 <= #sum{ W,X : w(X,W) }.\n"
+				+ "t :- 6 <= #sum{ W,X : w(X,W) }.";
+		Alpha system = new Alpha();
+		InternalProgram normalized = InternalProgram.fromNormalProgram(system.normalizeProgram(system.readProgramString(asp)));
+		InternalProgram evaluated = new StratifiedEvaluation().apply(new StratifiedAggregateRewriting().apply(normalized));
+		// Neither the aggregates nor any counting or summation encoding are left for the grounder.
+		assertTrue(evaluated.getRules().isEmpty());
+		List<Atom> facts = evaluated.getFacts();
+		for (int i = 1; i <= 5; i++) {
+			assertTrue(facts.contains(new BasicAtom(Predicate.getInstance("c", 1), ConstantTerm.getInstance(i))));
+		}
+		assertTrue(facts.contains(TestUtils.basicAtomWithSymbolicTerms("s")));
+		assertTrue(!facts.contains(TestUtils.basicAtomWithSymbolicTerms("t")));
+	}
+
+	@Test
+	public void testStratifiedMinMaxAggregatesWithGrouping() {
+		String asp = "g(1). g(2). v(1,5). v(1,7). v(2,1).\n"
+				+ "big(G) :- g(G), 6 <= #max{ V : v(G,V) }.\n"
+				+ "small(G) :- g(G), 2 <= #min{ V : v(G,V) }.\n"
+				+ "none(G) :- g(G), 2 <= #min{ V : v(G,V), V > 5 }.\n"
+				+ "empty(G) :- g(G), 0 <= #count{ V : v(G,V), V > 10 }.";
+		Alpha system = new Alpha();
+		Set<AnswerSet> answerSets = system.solve(system.readProgramString(asp)).collect(Collectors.toSet());
+		TestUtils.assertAnswerSetsEqual("g(1), g(2), v(1,5), v(1,7), v(2,1), big(1), small(1), none(1), none(2), empty(1), empty(2)", answerSets);
+	}
+
+	@Test
+	public void testRecursiveAggregatesKeepTheirEncoding() {
+		String asp = "p(1). p(X) :- q(X).\n"
+				+ "q(2) :- 1 <= #count{ X : p(X) }.";
+		Alpha system = new Alpha();
+		InternalProgram normalized = InternalProgram.fromNormalProgram(system.normalizeProgram(system.readProgramString(asp)));
+		AnalyzedProgram rewritten = new StratifiedAggregateRewriting().apply(normalized);
+		for (InternalRule rule : rewritten.getRules()) {
+			assertTrue(rule.isConstraint() || !StratifiedAggregateRewriting.isOutputPredicate(rule.getHeadAtom().getPredicate()));
+		}
+		Set<AnswerSet> answerSets = system.solve(system.readProgramString(asp)).collect(Collectors.toSet());
+		TestUtils.assertAnswerSetsEqual("p(1), p(2), q(2)", answerSets);
+	}
+
+	@Test
+	public void testUnstratifiedAggregatesAreLeftToSolver() {
+		String asp = "{ a; b; c }. d(1..2).\n"
+				+ ":- a, 2 <= #count{ X : d(X) }.\n"
+				+ "x :- 2 <= #count{ 1 : a; 2 : b; 3 : c }.";
+		Alpha system = new Alpha();
+		Set<AnswerSet> answerSets = system.solve(system.readProgramString(asp)).collect(Collectors.toSet());
+		TestUtils.assertAnswerSetsEqual(new String[] {"d(1), d(2)", "b, d(1), d(2)", "c, d(1), d(2)", "b, c, x, d(1), d(2)"}, answerSets);
+	}
+
+	@Test
+	public void testSatisfiedConstraintsAreDropped() {
+		String asp = "p(1..3). q(X) :- p(X), X > 1.\n"
+				+ ":- q(X), not p(X).\n"
+				+ ":- p(X), X > 3.\n"
+				+ ":- q(1).";
+		Alpha system = new Alpha();
+		InternalProgram evaluated = new StratifiedEvaluation().apply(AnalyzedProgram.analyzeNormalProgram(system.normalizeProgram(system.readProgramString(asp))));
+		assertTrue(evaluated.getRules().isEmpty());
+	}
+
+	@Test
+	public void testViolatedConstraintsAreKept() {
+		String asp = "p(1..3). q(X) :- p(X), X > 1.\n"
+				+ ":- q(X), not p(X).\n"
+				+ ":- q(3).";
+		Alpha system = new Alpha();
+		InternalProgram evaluated = new StratifiedEvaluation().apply(AnalyzedProgram.analyzeNormalProgram(system.normalizeProgram(system.readProgramString(asp))));
+		assertEquals(1, evaluated.getRules().size());
+		assertTrue(evaluated.getRules().get(0).isConstraint());
+		assertTrue(system.solve(evaluated).collect(Collectors.toSet()).isEmpty());
+	}
+
+	@Test
+	public void testConstraintsOverGuessedPredicatesAreKept() {
+		String asp = "p(1). { q(X) } :- p(X). :- q(X), p(X).";
+		Alpha system = new Alpha();
+		InternalProgram evaluated = new StratifiedEvaluation().apply(AnalyzedProgram.analyzeNormalProgram(system.normalizeProgram(system.readProgramString(asp))));
+		assertTrue(evaluated.getRules().stream().anyMatch(rule -> rule.isConstraint()));
+	}
+
+	@Test
+	public void testWorkingMemoryIsHandedOverOnce() {
+		String asp = "p(1..4). q(X) :- p(X), X > 2. { r(X) } :- q(X).";
+		Alpha system = new Alpha();
+		InternalProgram evaluated = new StratifiedEvaluation().apply(AnalyzedProgram.analyzeNormalProgram(system.normalizeProgram(system.readProgramString(asp))));
+		assertTrue(evaluated instanceof PartiallyEvaluatedProgram);
+		assertEquals(2, evaluated.getFactsByPredicate().get(Predicate.getInstance("q", 1)).size());
+		assertTrue(evaluated.getFacts().contains(new BasicAtom(Predicate.getInstance("q", 1), ConstantTerm.getInstance(3))));
+		// The first grounder adopts the working memory, the second one builds its own from the facts.
+		String[] expected = {"p(1), p(2), p(3), p(4), q(3), q(4)", "p(1), p(2), p(3), p(4), q(3), q(4), r(3)",
+				"p(1), p(2), p(3), p(4), q(3), q(4), r(4)", "p(1), p(2), p(3), p(4), q(3), q(4), r(3), r(4)"};
+		TestUtils.assertAnswerSetsEqual(expected, system.solve(evaluated).collect(Collectors.toSet()));
+		Assert.assertNull(((PartiallyEvaluatedProgram) evaluated).takeWorkingMemory());
+		TestUtils.assertAnswerSetsEqual(expected, system.solve(evaluated).collect(Collectors.toSet()));
+	}
+
+	@Test
+	public void testRulesOfOneStratumEvaluatedConcurrently() {
+		// The rules for p, q and r, as well as the recursive rules for path, are evaluated concurrently within their evaluation runs.
+		String asp = "e(1,2). e(2,3). e(3,4). p(X) :- e(X,_). q(Y) :- e(_,Y). r(X,Z) :- e(X,Y), e(Y,Z), X < Z."
+				+ "path(X,Y) :- e(X,Y). path(X,Z) :- path(X,Y), e(Y,Z). path(X,Z) :- e(X,Y), path(Y,Z). start(X) :- p(X), not q(X).";
+		Alpha system = new Alpha();
+		InternalProgram evaluated = new StratifiedEvaluation().apply(AnalyzedProgram.analyzeNormalProgram(system.normalizeProgram(system.readProgramString(asp))));
+		assertTrue(evaluated.getRules().isEmpty());
+		Set<AnswerSet> answerSets = system.solve(evaluated).collect(Collectors.toSet());
+		TestUtils.assertAnswerSetsEqual("e(1,2), e(2,3), e(3,4), p(1), p(2), p(3), q(2), q(3), q(4), r(1,3), r(2,4), "
+				+ "path(1,2), path(2,3), path(3,4), path(1,3), path(2,4), path(1,4), start(1)", answerSets);
+	}
+
 }
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MetricsRegistryTest {
+
+	@Test
+	public void timersAndCountersAreCreatedOnce() {
+		MetricsRegistry metrics = new MetricsRegistry();
+		assertSame(metrics.timer(MetricsRegistry.GROUNDING), metrics.timer(MetricsRegistry.GROUNDING));
+		assertSame(metrics.counter(MetricsRegistry.ANSWER_SETS), metrics.counter(MetricsRegistry.ANSWER_SETS));
+	}
+
+	@Test
+	public void timerAccumulates() {
+		Timer timer = new MetricsRegistry().timer(MetricsRegistry.PROPAGATION);
+		timer.record(1_000_000);
+		timer.record(2_500_000);
+		assertEquals(2, timer.getCount());
+		assertEquals(3_500_000, timer.getTotalNanos());
+	}
+
+	@Test
+	public void gaugesAreSampledOnDemand() {
+		MetricsRegistry metrics = new MetricsRegistry();
+		AtomicLong value = new AtomicLong(3);
+		metrics.gauge(MetricsRegistry.ATOMS, value::get);
+		assertEquals(3, metrics.sampleGauge(MetricsRegistry.ATOMS));
+		value.set(42);
+		assertEquals(42, metrics.sampleGauge(MetricsRegistry.ATOMS));
+		assertEquals(-1, metrics.sampleGauge(MetricsRegistry.CHOICES));
+	}
+
+	@Test
+	public void resetClearsTimersAndCounters() {
+		MetricsRegistry metrics = new MetricsRegistry();
+		metrics.timer(MetricsRegistry.GROUNDING).record(10);
+		metrics.counter(MetricsRegistry.ANSWER_SETS).add(5);
+		metrics.gauge(MetricsRegistry.ATOMS, () -> 7);
+		metrics.reset();
+		assertEquals(0, metrics.timer(MetricsRegistry.GROUNDING).getCount());
+		assertEquals(0, metrics.counter(MetricsRegistry.ANSWER_SETS).get());
+		assertEquals(7, metrics.sampleGauge(MetricsRegistry.ATOMS));
+	}
+
+	@Test
+	public void toJson() {
+		MetricsRegistry metrics = new MetricsRegistry();
+		metrics.timer(MetricsRegistry.PARSE).record(1_500_000);
+		metrics.timer(MetricsRegistry.GROUNDING).record(250_000);
+		metrics.counter(MetricsRegistry.ANSWER_SETS).increment();
+		metrics.gauge(MetricsRegistry.NOGOODS, () -> 12);
+		assertEquals("{\"timers\": {\"grounding\": {\"count\": 1, \"totalMs\": 0.250}, \"parse\": {\"count\": 1, \"totalMs\": 1.500}}, "
+				+ "\"counters\": {\"answerSets\": 1}, \"gauges\": {\"noGoods\": 12}}", metrics.toJson());
+	}
+
+}
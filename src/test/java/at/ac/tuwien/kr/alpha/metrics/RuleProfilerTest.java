@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.metrics;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.NoGood;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.rule.InternalRule;
+import at.ac.tuwien.kr.alpha.common.rule.head.NormalHead;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.metrics.RuleProfiler.RuleStatistics;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static at.ac.tuwien.kr.alpha.common.Literals.atomToLiteral;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RuleProfilerTest {
+
+	private static final String PIGEONS = "num(1..3). pigeon(P) :- num(P). hole(H) :- num(H). "
+			+ "in(P, H) :- pigeon(P), hole(H), not out(P, H). out(P, H) :- pigeon(P), hole(H), not in(P, H). "
+			+ "placed(P) :- in(P, H). :- pigeon(P), not placed(P). "
+			+ ":- in(P, H1), in(P, H2), H1 != H2. :- in(P1, H), in(P2, H), P1 != P2.";
+
+	private static InternalRule rule(String head, String body) {
+		return new InternalRule(new NormalHead(new BasicAtom(Predicate.getInstance(head, 0))),
+				Collections.singletonList(new BasicAtom(Predicate.getInstance(body, 0)).toLiteral()));
+	}
+
+	@Test
+	public void attributesConflictsAndPropagationsIndependentOfLiteralOrder() {
+		RuleProfiler profiler = new RuleProfiler();
+		InternalRule rule = rule("p", "q");
+		profiler.recordGroundInstance(rule, Arrays.asList(new NoGood(atomToLiteral(1), atomToLiteral(2, false)), new NoGood(atomToLiteral(3))), 100);
+		profiler.recordConflict(new NoGood(atomToLiteral(2, false), atomToLiteral(1)).asAntecedent());
+		profiler.recordPropagation(new NoGood(atomToLiteral(3)).asAntecedent());
+		profiler.recordPropagation(new NoGood(atomToLiteral(4)).asAntecedent());
+		profiler.recordPropagation(null);
+
+		List<RuleStatistics> statistics = profiler.getStatistics();
+		assertEquals(1, statistics.size());
+		RuleStatistics ruleStatistics = statistics.get(0);
+		assertEquals(rule.getRuleId(), ruleStatistics.getRuleId());
+		assertEquals(1, ruleStatistics.getGroundInstances());
+		assertEquals(2, ruleStatistics.getNoGoods());
+		assertEquals(1, ruleStatistics.getConflicts());
+		assertEquals(1, ruleStatistics.getPropagations());
+		assertEquals(100, ruleStatistics.getNanos());
+	}
+
+	@Test
+	public void statisticsSortedByTime() {
+		RuleProfiler profiler = new RuleProfiler();
+		InternalRule fast = rule("a", "b");
+		InternalRule slow = rule("c", "d");
+		profiler.recordBinding(fast, 3, 10);
+		profiler.recordBinding(slow, 5, 1000);
+		List<RuleStatistics> statistics = profiler.getStatistics();
+		assertEquals(slow.getRuleId(), statistics.get(0).getRuleId());
+		assertEquals(fast.getRuleId(), statistics.get(1).getRuleId());
+		assertEquals(5, statistics.get(0).getSubstitutions());
+	}
+
+	@Test
+	public void disabledByDefault() throws Exception {
+		Alpha system = new Alpha();
+		system.solve(system.readProgramString(PIGEONS)).count();
+		assertNull(system.getMetrics().getRuleProfiler());
+		assertTrue(!system.getMetrics().toJson().contains("\"rules\""));
+	}
+
+	@Test
+	public void profileWhileSolving() throws Exception {
+		SystemConfig cfg = new SystemConfig();
+		cfg.setProfileRules(true);
+		Alpha system = new Alpha(cfg);
+		assertEquals(6, system.solve(system.readProgramString(PIGEONS)).count());
+
+		RuleProfiler profiler = system.getMetrics().getRuleProfiler();
+		long conflicts = 0;
+		long propagations = 0;
+		for (RuleStatistics ruleStatistics : profiler.getStatistics()) {
+			assertTrue(ruleStatistics.getGroundInstances() > 0);
+			assertTrue(ruleStatistics.getNoGoods() > 0);
+			conflicts += ruleStatistics.getConflicts();
+			propagations += ruleStatistics.getPropagations();
+		}
+		// Two choice rules, the rule deriving placed/1 and three constraints are grounded by the solver.
+		assertEquals(6, profiler.getStatistics().size());
+		assertTrue(conflicts > 0);
+		assertTrue(propagations > 0);
+
+		ByteArrayOutputStream report = new ByteArrayOutputStream();
+		profiler.printReport(new PrintStream(report));
+		assertTrue(report.toString().contains("placed(P) :- in(P, H)."));
+		assertTrue(system.getMetrics().toJson().contains("\"rules\": [{\"ruleId\": "));
+	}
+
+}
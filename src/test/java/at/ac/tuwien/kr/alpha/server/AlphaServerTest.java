@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.server;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.program.InputProgram;
+import at.ac.tuwien.kr.alpha.config.InputConfig;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link AlphaServer}.
+ */
+public class AlphaServerTest {
+
+	private static final String ENCODING = "p(X) :- q(X), not r(X). r(X) :- q(X), not p(X).";
+
+	private static AlphaServer createServer() {
+		SystemConfig config = new SystemConfig();
+		config.setSortAnswerSets(true);
+		InputProgram encoding = new Alpha().readProgramString(ENCODING);
+		return new AlphaServer(config, encoding, Collections.emptyMap(), InputConfig.DEFAULT_FILTER, 2);
+	}
+
+	private static List<String> serve(AlphaServer server, String requests) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		server.serve(new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)), out);
+		return Arrays.asList(new String(out.toByteArray(), StandardCharsets.UTF_8).split("\\R"));
+	}
+
+	@Test
+	public void solvesRequestTogetherWithEncoding() throws IOException {
+		try (AlphaServer server = createServer()) {
+			List<String> response = serve(server, "SOLVE\nq(a).\n%%\n");
+			assertEquals(Arrays.asList("ANSWER 1", "{ p(a), q(a) }", "ANSWER 2", "{ q(a), r(a) }", "SATISFIABLE"), response);
+		}
+	}
+
+	@Test
+	public void servesSeveralRequestsWithLimit() throws IOException {
+		try (AlphaServer server = createServer()) {
+			List<String> response = serve(server, "SOLVE 1\nq(a).\n%%\nSOLVE\n:- q(a).\nq(a).\n%%\nQUIT\nSOLVE\n%%\n");
+			assertEquals(Arrays.asList("ANSWER 1", "{ p(a), q(a) }", "SATISFIABLE", "UNSATISFIABLE"), response);
+		}
+	}
+
+	@Test
+	public void reportsErrors() throws IOException {
+		try (AlphaServer server = createServer()) {
+			List<String> response = serve(server, "HELLO\nSOLVE x\n%%\nSOLVE\nq(a\n%%\n");
+			assertEquals(3, response.size());
+			for (String line : response) {
+				assertTrue(line, line.startsWith("ERROR"));
+			}
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void servesConnectionsOnSocket() throws Exception {
+		try (AlphaServer server = createServer()) {
+			ServerSocket serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+			Thread serverThread = new Thread(() -> {
+				try {
+					server.serve(serverSocket);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			serverThread.start();
+			for (int i = 0; i < 2; i++) {
+				try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+					PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+					BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+					writer.println("SOLVE");
+					writer.println("q(b). r(b) :- q(b).");
+					writer.println(AlphaServer.END_OF_PROGRAM);
+					assertEquals("ANSWER 1", reader.readLine());
+					assertEquals("{ q(b), r(b) }", reader.readLine());
+					assertEquals("SATISFIABLE", reader.readLine());
+					writer.println("QUIT");
+				}
+			}
+			server.close();
+			serverThread.join();
+		}
+	}
+}
@@ -37,6 +37,7 @@
 import at.ac.tuwien.kr.alpha.config.SystemConfig;
 import at.ac.tuwien.kr.alpha.grounder.Grounder;
 import at.ac.tuwien.kr.alpha.grounder.GrounderFactory;
+import at.ac.tuwien.kr.alpha.grounder.heuristics.GrounderHeuristicsConfiguration;
 import at.ac.tuwien.kr.alpha.grounder.parser.ProgramParser;
 import at.ac.tuwien.kr.alpha.solver.heuristics.BranchingHeuristicFactory;
 import at.ac.tuwien.kr.alpha.solver.heuristics.BranchingHeuristicFactory.Heuristic;
@@ -228,7 +229,7 @@ protected Solver getInstance(InputProgram program) {
 		AtomStore atomStore = new AtomStoreImpl();
 		NormalProgram normalized = system.normalizeProgram(program);
 		InternalProgram preprocessed = system.performProgramPreprocessing(InternalProgram.fromNormalProgram(normalized));
-		return getInstance(atomStore, GrounderFactory.getInstance(grounderName, preprocessed, atomStore, true));
+		return getInstance(atomStore, GrounderFactory.getInstance(grounderName, preprocessed, atomStore, p -> true, new GrounderHeuristicsConfiguration(), system.getContext(), true));
 	}
 
 	protected Solver getInstance(String program) {
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.metrics.MetricsRegistry;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that constraints with aggregates checked by {@link AggregateConstraintPropagator} yield the same answer sets as
+ * their normalization. Only constraints with a single positive, lower-bounded #count or #sum aggregate are checked
+ * natively, all other aggregates are left to the normalizations.
+ *
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class AggregateConstraintPropagatorTest {
+
+	private static final String BIN_PACKING = "item(1..6). weight(1,4). weight(2,3). weight(3,3). weight(4,2). weight(5,2). weight(6,1)."
+			+ "bin(a). bin(b). limit(a,8). limit(b,9)."
+			+ "in(I,B) :- item(I), bin(B), not out(I,B). out(I,B) :- item(I), bin(B), not in(I,B)."
+			+ "placed(I) :- in(I,B). :- item(I), not placed(I). :- in(I,a), in(I,b)."
+			+ ":- bin(B), limit(B,L), L1 = L + 1, L1 <= #sum { W,I : in(I,B), weight(I,W) }.";
+
+	private static Alpha alpha(boolean nativeAggregateConstraints) {
+		SystemConfig cfg = new SystemConfig();
+		cfg.setNativeAggregateConstraints(nativeAggregateConstraints);
+		cfg.setDebugInternalChecks(true);
+		return new Alpha(cfg);
+	}
+
+	private static Set<AnswerSet> solve(String program, boolean nativeAggregateConstraints) {
+		Alpha system = alpha(nativeAggregateConstraints);
+		return system.solve(system.readProgramString(program)).collect(Collectors.toSet());
+	}
+
+	private static void assertSameAnswerSets(String program) {
+		assertEquals(solve(program, false), solve(program, true));
+	}
+
+	@Test
+	public void sumCapacityConstraint() {
+		Set<AnswerSet> answerSets = solve(BIN_PACKING, true);
+		assertEquals(solve(BIN_PACKING, false), answerSets);
+		assertTrue(!answerSets.isEmpty());
+	}
+
+	@Test
+	public void countConstraint() {
+		assertSameAnswerSets("{a}. {b}. {c}. :- 2 <= #count { 1 : a; 2 : b; 3 : c }.");
+	}
+
+	@Test
+	public void countConstraintWithGlobalVariables() {
+		assertSameAnswerSets("n(1..4). g(1). g(2). {x(G,N)} :- g(G), n(N). :- g(G), 3 <= #count { N : x(G,N) }.");
+	}
+
+	@Test
+	public void sumsFollowBacktracking() {
+		// Enumerating all answer sets backtracks over every element, the sums must be restored each time.
+		assertSameAnswerSets("n(1..6). {x(N)} :- n(N). :- 4 <= #count { N : x(N) }. :- 9 <= #sum { N : x(N) }.");
+	}
+
+	@Test
+	public void boundNotExceedingZeroIsUnsatisfiable() {
+		assertEquals(0, solve("p(1). :- 0 <= #count { X : p(X) }.", true).size());
+		assertEquals(0, solve(":- 0 <= #count { X : p(X) }.", true).size());
+	}
+
+	@Test
+	public void groundsFewerAtomsThanNormalization() {
+		Alpha normalized = alpha(false);
+		normalized.solve(normalized.readProgramString(BIN_PACKING)).count();
+		Alpha nativelyChecked = alpha(true);
+		nativelyChecked.solve(nativelyChecked.readProgramString(BIN_PACKING)).count();
+		assertTrue(nativelyChecked.getMetrics().sampleGauge(MetricsRegistry.ATOMS) < normalized.getMetrics().sampleGauge(MetricsRegistry.ATOMS));
+	}
+
+	@Test
+	public void boundedChoice() {
+		// Upper bounds of choice rules are checked natively regardless of the configuration.
+		assertSameAnswerSets("n(1..4). g(1). g(2). 1 <= { x(G,N) : n(N) } <= 2 :- g(G).");
+		assertEquals(100, solve("n(1..4). g(1). g(2). 1 <= { x(G,N) : n(N) } <= 2 :- g(G).", false).size());
+		assertEquals(11, solve("n(1..4). lim(3). { x(N) : n(N) } < L :- lim(L).", false).size());
+	}
+
+	@Test
+	public void boundedChoiceNeedsNoSortingNetwork() {
+		Alpha system = alpha(false);
+		String normalized = system.normalizeProgram(system.readProgramString("n(1..6). { x(N) : n(N) } <= 2.")).toString();
+		assertTrue(normalized.contains("aggregate_capacity"));
+		assertFalse(normalized.contains("sorting_network"));
+		assertEquals(22, solve("n(1..6). { x(N) : n(N) } <= 2.", false).size());
+	}
+
+	@Test
+	public void aggregatesInRulesWithHeadsAreNormalized() {
+		// Only constraints are checked natively, aggregates deriving atoms are left to the normalizations.
+		String program = "{a}. {b}. {c}. ok :- 2 <= #count { 1 : a; 2 : b; 3 : c }.";
+		Alpha system = alpha(true);
+		assertFalse(system.normalizeProgram(system.readProgramString(program)).toString().contains("aggregate_capacity"));
+		assertSameAnswerSets(program);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void negatedAggregateIsNotCheckedNatively() {
+		// The solver cannot conclude that too few elements are true while elements are grounded lazily.
+		solve("{a}. {b}. :- not 1 <= #count { 1 : a; 2 : b }.", true);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void severalAggregatesAreNotCheckedNatively() {
+		solve("{a}. {b}. :- 1 <= #count { 1 : a }, 1 <= #count { 1 : b }.", true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeWeightIsRejected() {
+		solve("{a}. :- 1 <= #sum { -1 : a }.", true);
+	}
+}
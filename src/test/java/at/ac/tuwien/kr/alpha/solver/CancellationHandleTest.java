@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ */
+public class CancellationHandleTest {
+
+	@Test
+	public void notInterruptedInitially() {
+		CancellationHandle handle = new CancellationHandle();
+		assertFalse(handle.isInterrupted());
+		assertNull(handle.getInterruptionReason());
+	}
+
+	@Test
+	public void cancel() {
+		CancellationHandle handle = new CancellationHandle();
+		handle.cancel();
+		assertTrue(handle.isInterrupted());
+		assertEquals(InterruptionReason.CANCELLED, handle.getInterruptionReason());
+	}
+
+	@Test
+	public void firstReasonIsKept() {
+		CancellationHandle handle = new CancellationHandle();
+		handle.interrupt(InterruptionReason.CONFLICTS);
+		handle.cancel();
+		assertEquals(InterruptionReason.CONFLICTS, handle.getInterruptionReason());
+	}
+
+	@Test
+	public void deadlinePasses() throws InterruptedException {
+		CancellationHandle handle = new CancellationHandle();
+		handle.startDeadline(1);
+		Thread.sleep(10);
+		assertTrue(handle.isInterrupted());
+		assertEquals(InterruptionReason.WALL_TIME, handle.getInterruptionReason());
+	}
+
+	@Test
+	public void deadlineIsOnlyStartedOnce() {
+		CancellationHandle handle = new CancellationHandle();
+		handle.startDeadline(60_000);
+		handle.startDeadline(0);
+		assertFalse(handle.isInterrupted());
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.test.util.TestUtils;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link DatalogSolver} and its selection by {@link Alpha#prepareSolverFor}.
+ */
+public class DatalogSolverTest {
+
+	private static final String STRATIFIED_PROGRAM = "edge(1,2). edge(2,3). edge(3,4). node(1..4).\n"
+			+ "reach(X,Y) :- edge(X,Y).\n"
+			+ "reach(X,Z) :- reach(X,Y), edge(Y,Z).\n"
+			+ "unreachable(X) :- node(X), not reach(1,X).\n"
+			+ ":- reach(X,X).";
+
+	private static Solver prepareSolver(Alpha system, String asp, java.util.function.Predicate<at.ac.tuwien.kr.alpha.common.Predicate> filter) {
+		InternalProgram program = system.performProgramPreprocessing(
+				InternalProgram.fromNormalProgram(system.normalizeProgram(system.readProgramString(asp))));
+		return system.prepareSolverFor(program, filter);
+	}
+
+	@Test
+	public void stratifiedProgramIsAnsweredDirectly() {
+		Solver solver = prepareSolver(new Alpha(), STRATIFIED_PROGRAM, p -> true);
+		assertTrue(solver instanceof DatalogSolver);
+		TestUtils.assertAnswerSetsEqual("edge(1,2), edge(2,3), edge(3,4), node(1), node(2), node(3), node(4), "
+				+ "reach(1,2), reach(2,3), reach(3,4), reach(1,3), reach(2,4), reach(1,4), unreachable(1)", solver.collectSet());
+	}
+
+	@Test
+	public void filterIsApplied() {
+		Solver solver = prepareSolver(new Alpha(), STRATIFIED_PROGRAM, p -> p.getName().equals("unreachable"));
+		assertTrue(solver instanceof DatalogSolver);
+		TestUtils.assertAnswerSetsEqual("unreachable(1)", solver.collectSet());
+	}
+
+	@Test
+	public void sameAnswerSetWithDatalogModeDisabled() {
+		SystemConfig config = new SystemConfig();
+		config.setDatalogMode(false);
+		Alpha system = new Alpha(config);
+		Solver solver = prepareSolver(system, STRATIFIED_PROGRAM, p -> true);
+		assertFalse(solver instanceof DatalogSolver);
+		Set<AnswerSet> expected = prepareSolver(new Alpha(), STRATIFIED_PROGRAM, p -> true).collectSet();
+		TestUtils.assertAnswerSetsEqual(expected, solver.collectSet());
+	}
+
+	@Test
+	public void violatedConstraintIsLeftToSolver() {
+		Solver solver = prepareSolver(new Alpha(), STRATIFIED_PROGRAM + " edge(4,1).", p -> true);
+		assertFalse(solver instanceof DatalogSolver);
+		assertTrue(solver.collectSet().isEmpty());
+	}
+
+	@Test
+	public void programWithGuessIsLeftToSolver() {
+		Solver solver = prepareSolver(new Alpha(), "p(1). { q(X) } :- p(X).", p -> true);
+		assertFalse(solver instanceof DatalogSolver);
+		TestUtils.assertAnswerSetsEqual(new String[] {"p(1)", "p(1), q(1)"}, solver.collectSet());
+	}
+
+	@Test
+	public void nativeAggregateConstraintIsLeftToSolver() {
+		SystemConfig config = new SystemConfig();
+		config.setNativeAggregateConstraints(true);
+		Solver solver = prepareSolver(new Alpha(config), "p(1). p(2). :- 2 <= #count { X : p(X) }.", p -> true);
+		assertFalse(solver instanceof DatalogSolver);
+		assertTrue(solver.collectSet().isEmpty());
+	}
+
+}
@@ -612,4 +612,23 @@ public void alphaWatchNotIgnored() {
 		assertNull(store.propagate());
 		assertEquals(TRUE, assignment.getTruth(1));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void noGoodsSatisfiedAtLevelZeroAreRemoved() {
+		assertNull(store.add(1, new NoGood(fromOldLiterals(1, 2, 3))));
+		assertNull(store.add(2, headFirst(fromOldLiterals(-4, 1, 5))));
+		assertNull(store.add(3, new NoGood(fromOldLiterals(2, 3, 5))));
+		int nAryNoGoods = store.getNoGoodCounter().getNumberOfNAryNoGoods();
+		assertNull(assignment.assign(1, FALSE));
+		assertNull(store.propagate());
+
+		store.removeSatisfiedNoGoods(new int[]{1});
+		assertEquals(nAryNoGoods - 2, store.getNoGoodCounter().getNumberOfNAryNoGoods());
+
+		// The remaining nogood is still watched.
+		assertNull(assignment.assign(2, TRUE));
+		assertNull(assignment.assign(3, TRUE));
+		assertNull(store.propagate());
+		assertEquals(FALSE, assignment.getTruth(5));
+	}
+}
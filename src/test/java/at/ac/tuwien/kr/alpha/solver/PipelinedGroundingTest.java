@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import at.ac.tuwien.kr.alpha.AnswerSetsParser;
+import at.ac.tuwien.kr.alpha.api.Alpha;
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.AtomStore;
+import at.ac.tuwien.kr.alpha.common.AtomStoreImpl;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.SynchronizedAtomStore;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.program.InputProgram;
+import at.ac.tuwien.kr.alpha.common.program.InternalProgram;
+import at.ac.tuwien.kr.alpha.common.program.NormalProgram;
+import at.ac.tuwien.kr.alpha.config.SystemConfig;
+import at.ac.tuwien.kr.alpha.grounder.GrounderFactory;
+import at.ac.tuwien.kr.alpha.grounder.heuristics.GrounderHeuristicsConfiguration;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests {@link DefaultSolver} with grounding pipelined on a separate thread (cf. {@link GroundingPipeline}).
+ */
+public class PipelinedGroundingTest extends AbstractSolverTests {
+	private String toleranceConstraints = SystemConfig.DEFAULT_GROUNDER_TOLERANCE_CONSTRAINTS;
+	private boolean lazyConstraints;
+
+	@Override
+	protected SystemConfig buildSystemConfig() {
+		SystemConfig config = super.buildSystemConfig();
+		config.setGroundingPipelined(true);
+		config.setGrounderToleranceConstraints(toleranceConstraints);
+		config.setGrounderLazyConstraintsEnabled(lazyConstraints);
+		return config;
+	}
+
+	@Override
+	protected Solver getInstance(InputProgram program) {
+		Alpha system = new Alpha();
+		AtomStore atomStore = new SynchronizedAtomStore(new AtomStoreImpl());
+		NormalProgram normalized = system.normalizeProgram(program);
+		InternalProgram preprocessed = system.performProgramPreprocessing(InternalProgram.fromNormalProgram(normalized));
+		return getInstance(atomStore, GrounderFactory.getInstance(grounderName, preprocessed, atomStore, p -> true, new GrounderHeuristicsConfiguration(), system.getContext(), true));
+	}
+
+	@Test
+	public void choiceAndConstraint() {
+		assertAnswerSet(
+				"fact(a).\n" +
+				"desired(either).\n" +
+				"choice(either, X) :- fact(X), not choice(or, X).\n" +
+				"choice(or, X) :- fact(X), not choice(either, X).\n" +
+				":- choice(C, X), not desired(C).",
+
+				"fact(a), desired(either), choice(either, a)"
+		);
+	}
+
+	@Test
+	public void multipleAnswerSetsWithDerivations() {
+		assertAnswerSetsWithBase(
+				"d(1..3). a :- not b. b :- not a. c(X) :- a, d(X). e(X) :- c(X), not f(X). f(X) :- b, d(X).",
+				"d(1), d(2), d(3)",
+				"a, c(1), c(2), c(3), e(1), e(2), e(3)",
+				"b, f(1), f(2), f(3)"
+		);
+	}
+
+	@Test
+	public void unsatisfiableProgram() {
+		assertAnswerSets("p(a). p(b). :- p(a), p(b).");
+	}
+
+	@Test
+	public void colouringOfCycle() {
+		String program = "node(1..4). edge(1,2). edge(2,3). edge(3,4). edge(4,1)."
+				+ "col(N,red) :- node(N), not col(N,green), not col(N,blue)."
+				+ "col(N,green) :- node(N), not col(N,red), not col(N,blue)."
+				+ "col(N,blue) :- node(N), not col(N,red), not col(N,green)."
+				+ ":- edge(N,M), col(N,C), col(M,C).";
+		assertEquals(18, collectSet(program).size());
+	}
+
+	@Test
+	public void solverCanBeReusedAfterEnumeration() {
+		Solver solver = getInstance("a :- not b. b :- not a. c :- a.");
+		assumeTrue(solver instanceof SolverWithAssumptions);
+		SolverWithAssumptions solverWithAssumptions = (SolverWithAssumptions) solver;
+		// The grounding thread is released after each query and started again for the next one.
+		assertEquals(AnswerSetsParser.parse("{ a, c }"),
+				solverWithAssumptions.collectSet(Collections.singletonList(new BasicAtom(Predicate.getInstance("a", 0)).toLiteral(true))));
+		assertEquals(AnswerSetsParser.parse("{ b }"),
+				solverWithAssumptions.collectSet(Collections.singletonList(new BasicAtom(Predicate.getInstance("b", 0)).toLiteral(true))));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void permissiveToleranceIsRejected() {
+		assumeFalse(solverName.equals("naive"));
+		toleranceConstraints = GrounderHeuristicsConfiguration.PERMISSIVE_STRING;
+		getInstance("a :- not b. b :- not a.");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void lazyConstraintsAreRejected() {
+		assumeFalse(solverName.equals("naive"));
+		lazyConstraints = true;
+		getInstance("a :- not b. b :- not a.");
+	}
+
+	@Test
+	public void solveUnderAssumptions() {
+		Solver solver = getInstance("a :- not b. b :- not a. c :- a.");
+		assumeTrue(solver instanceof SolverWithAssumptions);
+		Set<AnswerSet> answerSets = ((SolverWithAssumptions) solver)
+				.collectSet(Collections.singletonList(new BasicAtom(Predicate.getInstance("c", 0)).toLiteral(true)));
+		assertEquals(AnswerSetsParser.parse("{ a, c }"), answerSets);
+	}
+}
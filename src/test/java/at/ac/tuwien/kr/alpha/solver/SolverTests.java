@@ -223,6 +223,70 @@ public void builtinAtomsGroundRule() throws IOException {
 	}
 
 	
+	@Test
+	public void boundedChoiceExactlyOne() {
+		assertAnswerSets(
+			"dom(1..3). 1 <= { a(X) : dom(X) } <= 1.",
+
+			"dom(1), dom(2), dom(3), a(1)",
+			"dom(1), dom(2), dom(3), a(2)",
+			"dom(1), dom(2), dom(3), a(3)"
+		);
+	}
+
+	@Test
+	public void boundedChoiceWithGlobalVariables() {
+		assertAnswerSets(
+			"node(1). node(2). col(r). col(g). 1 = { c(N,C) : col(C) } :- node(N).",
+
+			"node(1), node(2), col(r), col(g), c(1,r), c(2,r)",
+			"node(1), node(2), col(r), col(g), c(1,r), c(2,g)",
+			"node(1), node(2), col(r), col(g), c(1,g), c(2,r)",
+			"node(1), node(2), col(r), col(g), c(1,g), c(2,g)"
+		);
+	}
+
+	@Test
+	public void boundedChoiceLowerBound() {
+		assertAnswerSets(
+			"dom(1..3). 2 <= { a(X) : dom(X) }.",
+
+			"dom(1), dom(2), dom(3), a(1), a(2)",
+			"dom(1), dom(2), dom(3), a(1), a(3)",
+			"dom(1), dom(2), dom(3), a(2), a(3)",
+			"dom(1), dom(2), dom(3), a(1), a(2), a(3)"
+		);
+	}
+
+	@Test
+	public void boundedChoiceVariableBounds() {
+		assertAnswerSets(
+			"dom(1..3). lim(2). { a(X) : dom(X) } < L :- lim(L). L > { b(X) : dom(X) } :- lim(L).",
+
+			"dom(1), dom(2), dom(3), lim(2), a(1), b(1)",
+			"dom(1), dom(2), dom(3), lim(2), a(1), b(2)",
+			"dom(1), dom(2), dom(3), lim(2), a(1), b(3)",
+			"dom(1), dom(2), dom(3), lim(2), a(2), b(1)",
+			"dom(1), dom(2), dom(3), lim(2), a(2), b(2)",
+			"dom(1), dom(2), dom(3), lim(2), a(2), b(3)",
+			"dom(1), dom(2), dom(3), lim(2), a(3), b(1)",
+			"dom(1), dom(2), dom(3), lim(2), a(3), b(2)",
+			"dom(1), dom(2), dom(3), lim(2), a(3), b(3)",
+			"dom(1), dom(2), dom(3), lim(2), a(1)",
+			"dom(1), dom(2), dom(3), lim(2), a(2)",
+			"dom(1), dom(2), dom(3), lim(2), a(3)",
+			"dom(1), dom(2), dom(3), lim(2), b(1)",
+			"dom(1), dom(2), dom(3), lim(2), b(2)",
+			"dom(1), dom(2), dom(3), lim(2), b(3)",
+			"dom(1), dom(2), dom(3), lim(2)"
+		);
+	}
+
+	@Test
+	public void boundedChoiceUnsatisfiableBounds() {
+		assertAnswerSets("dom(1..2). 3 <= { a(X) : dom(X) }.");
+	}
+
 	@Test
 	public void choiceProgramConstraintSimple() throws IOException {
 		assertAnswerSet(
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2020, the Alpha Team.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1) Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2) Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package at.ac.tuwien.kr.alpha.solver;
+
+import at.ac.tuwien.kr.alpha.AnswerSetsParser;
+import at.ac.tuwien.kr.alpha.common.AnswerSet;
+import at.ac.tuwien.kr.alpha.common.Predicate;
+import at.ac.tuwien.kr.alpha.common.atoms.BasicAtom;
+import at.ac.tuwien.kr.alpha.common.atoms.Literal;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class SolverWithAssumptionsTest extends AbstractSolverTests {
+
+	private static Literal literal(String predicateName, boolean positive) {
+		return new BasicAtom(Predicate.getInstance(predicateName, 0)).toLiteral(positive);
+	}
+
+	private SolverWithAssumptions getSolverWithAssumptions(String program) {
+		Solver solver = getInstance(program);
+		assumeTrue(solver instanceof SolverWithAssumptions);
+		return (SolverWithAssumptions) solver;
+	}
+
+	@Test
+	public void positiveAssumption() {
+		SolverWithAssumptions solver = getSolverWithAssumptions("a :- not b. b :- not a.");
+		Set<AnswerSet> answerSets = solver.collectSet(Collections.singletonList(literal("a", true)));
+		assertEquals(AnswerSetsParser.parse("{ a }"), answerSets);
+		assertTrue(solver.getFailedAssumptions().isEmpty());
+	}
+
+	@Test
+	public void negativeAssumption() {
+		SolverWithAssumptions solver = getSolverWithAssumptions("a :- not b. b :- not a. c :- a.");
+		Set<AnswerSet> answerSets = solver.collectSet(Collections.singletonList(literal("a", false)));
+		assertEquals(AnswerSetsParser.parse("{ b }"), answerSets);
+	}
+
+	@Test
+	public void failedAssumptionsOfConflictingAssumptions() {
+		SolverWithAssumptions solver = getSolverWithAssumptions("a :- not b. b :- not a. x :- not y. y :- not x.");
+		List<Literal> assumptions = Arrays.asList(literal("x", true), literal("a", false), literal("b", false));
+		assertTrue(solver.collectSet(assumptions).isEmpty());
+		// The assumption on x is unrelated to the conflict.
+		assertEquals(new HashSet<>(Arrays.asList(literal("a", false), literal("b", false))), solver.getFailedAssumptions());
+	}
+
+	@Test
+	public void failedAssumptionsOfUnsupportedAssumption() {
+		SolverWithAssumptions solver = getSolverWithAssumptions("a :- not b. b :- not a. c :- a.");
+		List<Literal> assumptions = Arrays.asList(literal("c", true), literal("b", true));
+		assertTrue(solver.collectSet(assumptions).isEmpty());
+		assertEquals(new HashSet<>(assumptions), solver.getFailedAssumptions());
+	}
+
+	@Test
+	public void failedAssumptionsOfSearchExhaustedAfterClosing() {
+		SolverWithAssumptions solver = getSolverWithAssumptions("e :- a. :- a. e :- not d, b. d :- b, f. b :- a, not c. c :- d, e.");
+		List<Literal> assumptions = Arrays.asList(literal("b", true), literal("f", true));
+		assertTrue(solver.collectSet(assumptions).isEmpty());
+		// The assumption on b lacks support on its own, so the assumption on f is not to blame.
+		assertEquals(Collections.singleton(literal("b", true)), solver.getFailedAssumptions());
+	}
+
+	@Test
+	public void failedAssumptionOnFact() {
+		SolverWithAssumptions solver = getSolverWithAssumptions("c. a :- not b. b :- not a.");
+		List<Literal> assumptions = Arrays.asList(literal("a", true), literal("c", false));
+		assertTrue(solver.collectSet(assumptions).isEmpty());
+		assertEquals(Collections.singleton(literal("c", false)), solver.getFailedAssumptions());
+	}
+
+	@Test
+	public void multipleQueriesOnSameSolver() {
+		SolverWithAssumptions solver = getSolverWithAssumptions("a :- not b. b :- not a. :- a, c. c :- not d. d :- not c.");
+		assertEquals(AnswerSetsParser.parse("{ a, d }"), solver.collectSet(Collections.singletonList(literal("a", true))));
+		assertTrue(solver.collectSet(Arrays.asList(literal("a", true), literal("c", true))).isEmpty());
+		assertEquals(new HashSet<>(Arrays.asList(literal("a", true), literal("c", true))), solver.getFailedAssumptions());
+		assertEquals(AnswerSetsParser.parse("{ b, c } { b, d }"), solver.collectSet(Collections.singletonList(literal("b", true))));
+		assertEquals(AnswerSetsParser.parse("{ a, d } { b, c } { b, d }"), solver.collectSet(Collections.emptyList()));
+		assertTrue(solver.getFailedAssumptions().isEmpty());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void assumptionsAfterEnumerationWithoutAssumptions() {
+		SolverWithAssumptions solver = getSolverWithAssumptions("a :- not b. b :- not a.");
+		solver.collectSet();
+		solver.collectSet(Collections.singletonList(literal("a", true)));
+	}
+}
@@ -39,6 +39,8 @@
 import java.util.Collections;
 import java.util.HashSet;
 
+import static at.ac.tuwien.kr.alpha.common.Literals.atomOf;
+import static at.ac.tuwien.kr.alpha.common.Literals.isNegated;
 import static at.ac.tuwien.kr.alpha.solver.ThriceTruth.FALSE;
 import static at.ac.tuwien.kr.alpha.solver.ThriceTruth.MBT;
 import static at.ac.tuwien.kr.alpha.solver.ThriceTruth.TRUE;
@@ -46,6 +48,7 @@
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Copyright (c) 2018-2020, the Alpha Team.
@@ -241,6 +244,26 @@ public void mbtCounterAssignMbtToFalseOnLowerDecisionLevel() {
 		assertEquals(0, assignment.getMBTCount());
 	}
 
+	@Test
+	public void newFalseAssignmentsAtLevelZeroIterator() {
+		assignment.assign(1, FALSE);
+		assignment.assign(2, TRUE);
+		assignment.choose(3, FALSE);
+		assignment.assign(4, FALSE);
+
+		IntIterator it = assignment.getNewFalseAssignmentsAtLevelZeroIterator();
+		assertTrue(it.hasNext());
+		assertEquals(1, it.next());
+		assertFalse(it.hasNext());
+
+		assignment.backjump(0);
+		assignment.assign(5, FALSE);
+		it = assignment.getNewFalseAssignmentsAtLevelZeroIterator();
+		assertTrue(it.hasNext());
+		assertEquals(5, it.next());
+		assertFalse(it.hasNext());
+	}
+
 	@Test
 	public void numberOfAssignedAtoms() throws Exception {
 		assignment.assign(1, MBT);
@@ -257,4 +280,22 @@ public void numberOfAssignedAtoms() throws Exception {
 		assignment.assign(5, TRUE);
 		assertEquals(2, assignment.getNumberOfAtomsAssignedSinceLastDecision());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void observedTrailSizeIsLoweredByBacktracking() {
+		assignment.assign(1, MBT);
+		assignment.assign(2, FALSE);
+		assertEquals(0, assignment.getObservedTrailSize());
+		assignment.observeTrail();
+		assertEquals(2, assignment.getObservedTrailSize());
+		assignment.choose(3, TRUE);
+		assignment.assign(4, MBT);
+		assertEquals(2, assignment.getObservedTrailSize());
+		assignment.observeTrail();
+		assertEquals(4, assignment.getObservedTrailSize());
+		assignment.backtrack();
+		assertEquals(2, assignment.getObservedTrailSize());
+		assertEquals(2, atomOf(assignment.getLiteralOnTrail(1)));
+		assertTrue(isNegated(assignment.getLiteralOnTrail(1)));
+	}
+}